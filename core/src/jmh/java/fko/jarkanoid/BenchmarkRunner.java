@@ -0,0 +1,172 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * BenchmarkRunner
+ *
+ * <p>Runs the JMH benchmarks and gates performance regressions. Started by <code>mvn -Pjmh test
+ * </code> and configured with system properties:
+ *
+ * <ul>
+ *   <li><code>jmh.include</code> - regular expression of the benchmarks to run
+ *   <li><code>jmh.save</code> - file to store the results in as baseline for later runs
+ *   <li><code>jmh.baseline</code> - file with the results of an earlier run to compare with
+ *   <li><code>jmh.tolerance</code> - allowed slow down compared to the baseline (0.10 = 10%)
+ * </ul>
+ *
+ * <p>All benchmarks measure the average time per operation. When a benchmark is slower than its
+ * baseline by more than the tolerance the runner exits with an error which fails the build.
+ * Baselines are only comparable when taken on the same machine.
+ *
+ * @author Frank Kopp
+ */
+public class BenchmarkRunner {
+
+  private static final String SEPARATOR = ";";
+
+  private BenchmarkRunner() {}
+
+  public static void main(String[] args) throws RunnerException, IOException {
+    final String include = System.getProperty("jmh.include", "fko.jarkanoid.*");
+    final String baseline = System.getProperty("jmh.baseline", "");
+    final String save = System.getProperty("jmh.save", "");
+    final double tolerance = Double.parseDouble(System.getProperty("jmh.tolerance", "0.10"));
+
+    final Options options = new OptionsBuilder().include(include).build();
+    final Map<String, Score> results = toScores(new Runner(options).run());
+
+    if (!save.isEmpty()) {
+      writeScores(Paths.get(save), results);
+      System.out.printf("Saved %d results to %s%n", results.size(), save);
+    }
+
+    if (!baseline.isEmpty()) {
+      final int regressions = compare(readScores(Paths.get(baseline)), results, tolerance);
+      if (regressions > 0) {
+        System.out.printf(
+            "%d benchmark(s) slower than baseline by more than %.0f%%%n",
+            regressions, tolerance * 100);
+        System.exit(1);
+      }
+      System.out.println("No performance regressions");
+    }
+  }
+
+  /**
+   * Compares the results with the baseline and prints the differences.
+   *
+   * @return number of benchmarks slower than the baseline by more than the tolerance
+   */
+  private static int compare(
+      Map<String, Score> baseline, Map<String, Score> results, double tolerance) {
+    int regressions = 0;
+    System.out.printf("%n%-90s %12s %12s %8s%n", "Benchmark", "Baseline", "Score", "Change");
+    for (Map.Entry<String, Score> entry : results.entrySet()) {
+      final Score score = entry.getValue();
+      final Score base = baseline.get(entry.getKey());
+      if (base == null || !base.unit.equals(score.unit)) {
+        System.out.printf("%-90s %12s %12.3f %8s%n", entry.getKey(), "-", score.value, "new");
+        continue;
+      }
+      final double change = score.value / base.value - 1;
+      final boolean regression = change > tolerance;
+      if (regression) regressions++;
+      System.out.printf(
+          "%-90s %12.3f %12.3f %+7.1f%% %s%n",
+          entry.getKey(), base.value, score.value, change * 100, regression ? "REGRESSION" : "");
+    }
+    return regressions;
+  }
+
+  private static Map<String, Score> toScores(Collection<RunResult> runResults) {
+    final Map<String, Score> scores = new TreeMap<>();
+    for (RunResult runResult : runResults) {
+      final BenchmarkParams params = runResult.getParams();
+      final StringBuilder key = new StringBuilder(params.getBenchmark());
+      String separator = ":";
+      for (String param : params.getParamsKeys()) {
+        key.append(separator).append(param).append('=').append(params.getParam(param));
+        separator = ",";
+      }
+      scores.put(
+          key.toString(),
+          new Score(
+              runResult.getPrimaryResult().getScore(),
+              runResult.getPrimaryResult().getScoreUnit()));
+    }
+    return scores;
+  }
+
+  private static Map<String, Score> readScores(Path file) throws IOException {
+    final Map<String, Score> scores = new LinkedHashMap<>();
+    for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+      final String[] parts = line.split(SEPARATOR);
+      if (parts.length != 3) continue;
+      scores.put(parts[0], new Score(Double.parseDouble(parts[1]), parts[2]));
+    }
+    return scores;
+  }
+
+  private static void writeScores(Path file, Map<String, Score> scores) throws IOException {
+    if (file.getParent() != null) Files.createDirectories(file.getParent());
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      for (Map.Entry<String, Score> entry : scores.entrySet()) {
+        final Score score = entry.getValue();
+        writer.write(entry.getKey() + SEPARATOR + score.value + SEPARATOR + score.unit);
+        writer.newLine();
+      }
+    }
+  }
+
+  private static class Score {
+    final double value;
+    final String unit;
+
+    Score(double value, String unit) {
+      this.value = value;
+      this.unit = unit;
+    }
+  }
+}
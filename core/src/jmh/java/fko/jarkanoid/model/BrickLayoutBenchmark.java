@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+import fko.jarkanoid.beans.DoubleValue;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BrickLayoutBenchmark
+ *
+ * <p>Measures the brick lookups done in every collision step and hitting bricks of a full level.
+ *
+ * @author Frank Kopp
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BrickLayoutBenchmark {
+
+  private static final int CELLS = BrickLayout.ROWS * BrickLayout.COLUMNS;
+
+  @Param({"1", "7"})
+  int level;
+
+  private BrickLayout brickLayout;
+
+  /** A layout with all bricks of the level - reloaded for every invocation as hits remove bricks */
+  @State(Scope.Thread)
+  public static class FreshLayout {
+
+    private BrickLayout brickLayout;
+
+    @Setup(Level.Invocation)
+    public void loadLevel(BrickLayoutBenchmark benchmark) {
+      brickLayout = createLayout(benchmark.level);
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    brickLayout = createLayout(level);
+  }
+
+  private static BrickLayout createLayout(int level) {
+    final BrickLayout layout = new BrickLayout(new DoubleValue(780), new DoubleValue(710));
+    layout.setMatrix(LevelLoader.getInstance().getLevel(level));
+    return layout;
+  }
+
+  /** Looks up every cell and one cell outside of each border of the matrix */
+  @Benchmark
+  @OperationsPerInvocation((BrickLayout.ROWS + 2) * (BrickLayout.COLUMNS + 2))
+  public void getBrick(Blackhole blackhole) {
+    for (int row = -1; row <= BrickLayout.ROWS; row++) {
+      for (int col = -1; col <= BrickLayout.COLUMNS; col++) {
+        blackhole.consume(brickLayout.getBrick(row, col));
+      }
+    }
+  }
+
+  /** Hits every brick of the level once */
+  @Benchmark
+  @OperationsPerInvocation(CELLS)
+  public int hitBrick(FreshLayout fresh) {
+    final BrickLayout layout = fresh.brickLayout;
+    int points = 0;
+    for (int row = 0; row < BrickLayout.ROWS; row++) {
+      for (int col = 0; col < BrickLayout.COLUMNS; col++) {
+        if (layout.getBrick(row, col) != null) points += layout.hitBrick(row, col);
+      }
+    }
+    return points;
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CollisionBenchmark
+ *
+ * <p>Measures one movement step of a ball including the collision checks against bricks, paddle
+ * and walls at different ball speeds. The number of intermediate collision steps grows with the
+ * speed of the ball.
+ *
+ * @author Frank Kopp
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollisionBenchmark {
+
+  /** Where the ball is when the collision check starts */
+  public enum Scenario {
+    /** no collision - all intermediate steps are checked */
+    OPEN,
+    /** the ball hits the left wall */
+    WALL,
+    /** the ball hits the paddle */
+    PADDLE
+  }
+
+  @Param({"5", "10", "20", "40"})
+  double speed;
+
+  @Param({"OPEN", "WALL", "PADDLE"})
+  Scenario scenario;
+
+  private GameModel model;
+  private Ball ball;
+
+  private double startX;
+  private double startY;
+  private double vX;
+  private double vY;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    model = new GameModel(true);
+    model.startPlaying(42);
+    ball = new Ball(0, 0, 6, 0, 0);
+    switch (scenario) {
+      case OPEN:
+        startX = 390;
+        startY = 640;
+        vX = 0.6 * speed;
+        vY = -0.8 * speed;
+        break;
+      case WALL:
+        startX = 4 + speed;
+        startY = 500;
+        vX = -speed;
+        vY = 0;
+        break;
+      case PADDLE:
+        startX = 390;
+        startY = 660 - speed;
+        vX = 0;
+        vY = speed;
+        break;
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    model.stopPlaying();
+  }
+
+  @Benchmark
+  public Ball checkBallCollisions() {
+    ball.setCenterX(startX);
+    ball.setCenterY(startY);
+    ball.setXYVelocity(vX, vY);
+    ball.moveStep();
+    model.checkBallCollisions(ball);
+    return ball;
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ForkBenchmark
+ *
+ * <p>Measures copying the state of a game in the middle of play: a new model with <code>fork()
+ * </code> against overwriting an existing model with <code>copyStateFrom()</code> as a search does
+ * for every rollout.
+ *
+ * @author Frank Kopp
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ForkBenchmark {
+
+  private GameModel model;
+  private GameModel copy;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    model = new GameModel(true);
+    model.setRecordSessions(false);
+    model.setPaddleController(new TrackingPaddleController());
+    model.startPlaying(42);
+    while (model.getTicks() < 1_000) model.gameLoop();
+    copy = model.fork();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    model.stopPlaying();
+  }
+
+  @Benchmark
+  public GameModel fork() {
+    return model.fork();
+  }
+
+  @Benchmark
+  public GameModel copyStateFrom() {
+    copy.copyStateFrom(model);
+    return copy;
+  }
+}
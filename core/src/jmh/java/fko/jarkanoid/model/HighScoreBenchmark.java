@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HighScoreBenchmark
+ *
+ * <p>Measures inserting a new entry into a highscore list of different sizes. The in memory list
+ * is not limited to the entries written to the file so it grows over a long session.
+ *
+ * @author Frank Kopp
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HighScoreBenchmark {
+
+  @Param({"15", "1000"})
+  int entries;
+
+  private List<HighScore.HighScoreEntry> initialEntries;
+  private HighScore.HighScoreEntry newEntry;
+  private HighScore highScore;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    final Random random = new Random(42);
+    final LocalDateTime date = LocalDateTime.of(2018, 1, 1, 12, 0);
+    initialEntries = new ArrayList<>(entries);
+    for (int i = 0; i < entries; i++) {
+      initialEntries.add(
+          new HighScore.HighScoreEntry("Player" + i, random.nextInt(100_000), 1, date));
+    }
+    newEntry = new HighScore.HighScoreEntry("New", 50_000, 1, date);
+  }
+
+  @Setup(Level.Invocation)
+  public void createList() {
+    highScore = new HighScore(initialEntries);
+  }
+
+  @Benchmark
+  public HighScore addEntry() {
+    highScore.addEntry(newEntry);
+    return highScore;
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.beans;
+
+/**
+ * BooleanValue
+ *
+ * <p>An observable boolean. Listeners are only called when the value really changes.
+ *
+ * @author Frank Kopp
+ */
+public class BooleanValue extends ValueBase implements ReadOnlyBooleanValue {
+
+  private boolean value;
+
+  /** @param value the initial value */
+  public BooleanValue(boolean value) {
+    this.value = value;
+  }
+
+  @Override
+  public boolean get() {
+    return value;
+  }
+
+  /** @param newValue the new value */
+  public void set(boolean newValue) {
+    if (value == newValue) return;
+    value = newValue;
+    fireChanged();
+  }
+
+  @Override
+  public String toString() {
+    return "BooleanValue [value=" + value + "]";
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.beans;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * DoubleValue
+ *
+ * <p>An observable double. Listeners are only called when the value really changes. The value can
+ * be bound to another value through a function, e.g. to keep a ball on the paddle - a bound value
+ * follows its source and cannot be set.
+ *
+ * @author Frank Kopp
+ */
+public class DoubleValue extends ValueBase implements ReadOnlyDoubleValue {
+
+  private double value;
+
+  // the binding - null if not bound
+  private ReadOnlyDoubleValue source;
+  private Runnable binding;
+
+  /** Creates a value of 0 */
+  public DoubleValue() {}
+
+  /** @param value the initial value */
+  public DoubleValue(double value) {
+    this.value = value;
+  }
+
+  @Override
+  public double get() {
+    return value;
+  }
+
+  /**
+   * @param newValue the new value
+   * @throws IllegalStateException if the value is bound
+   */
+  public void set(double newValue) {
+    if (binding != null) throw new IllegalStateException("A bound value cannot be set");
+    update(newValue);
+  }
+
+  private void update(double newValue) {
+    if (value == newValue) return;
+    value = newValue;
+    fireChanged();
+  }
+
+  /**
+   * Lets this value follow another one. An existing binding is replaced.
+   *
+   * @param source the value to follow
+   * @param function computes this value from the value of the source
+   */
+  public void bind(ReadOnlyDoubleValue source, DoubleUnaryOperator function) {
+    unbind();
+    this.source = source;
+    this.binding = () -> update(function.applyAsDouble(source.get()));
+    source.addListener(binding);
+    binding.run();
+  }
+
+  /** Stops following the source - the value stays as it is */
+  public void unbind() {
+    if (binding == null) return;
+    source.removeListener(binding);
+    source = null;
+    binding = null;
+  }
+
+  /** @return true if the value follows another one */
+  public boolean isBound() {
+    return binding != null;
+  }
+
+  @Override
+  public String toString() {
+    return "DoubleValue [value=" + value + "]";
+  }
+}
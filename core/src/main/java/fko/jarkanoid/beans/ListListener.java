@@ -0,0 +1,65 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.beans;
+
+import java.util.function.Consumer;
+
+/**
+ * ListListener
+ *
+ * <p>Is told about each element added to or removed from an <code>ObservableArrayList</code>.
+ *
+ * @param <E> type of the elements
+ * @author Frank Kopp
+ */
+public interface ListListener<E> {
+
+  /**
+   * @param added called for each element which has been added
+   * @param removed called for each element which has been removed
+   * @return a listener delegating to the given functions
+   */
+  static <E> ListListener<E> of(
+      final Consumer<? super E> added, final Consumer<? super E> removed) {
+    return new ListListener<E>() {
+      @Override
+      public void added(final E element) {
+        added.accept(element);
+      }
+
+      @Override
+      public void removed(final E element) {
+        removed.accept(element);
+      }
+    };
+  }
+
+  /** @param element the element which has been added */
+  void added(E element);
+
+  /** @param element the element which has been removed */
+  void removed(E element);
+}
@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.beans;
+
+import java.util.Objects;
+
+/**
+ * ObjectValue
+ *
+ * <p>An observable reference. Listeners are only called when the value changes to an object which
+ * is not equal to the previous one.
+ *
+ * @param <T> type of the value
+ * @author Frank Kopp
+ */
+public class ObjectValue<T> extends ValueBase implements ReadOnlyObjectValue<T> {
+
+  private T value;
+
+  /** @param value the initial value */
+  public ObjectValue(T value) {
+    this.value = value;
+  }
+
+  @Override
+  public T get() {
+    return value;
+  }
+
+  /** @param newValue the new value */
+  public void set(T newValue) {
+    if (Objects.equals(value, newValue)) return;
+    value = newValue;
+    fireChanged();
+  }
+
+  @Override
+  public String toString() {
+    return "ObjectValue [value=" + value + "]";
+  }
+}
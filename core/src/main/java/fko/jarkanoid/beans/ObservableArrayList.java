@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.beans;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * ObservableArrayList
+ *
+ * <p>A list of model objects (e.g. balls) which tells its listeners about each element added or
+ * removed - through any method, including iterators. The listeners are called after the change.
+ *
+ * @param <E> type of the elements
+ * @author Frank Kopp
+ */
+public class ObservableArrayList<E> extends AbstractList<E> implements RandomAccess {
+
+  @SuppressWarnings("rawtypes")
+  private static final ListListener[] NO_LISTENERS = new ListListener[0];
+
+  private final ArrayList<E> elements;
+
+  @SuppressWarnings("unchecked")
+  private ListListener<? super E>[] listeners = NO_LISTENERS;
+
+  /** Creates an empty list */
+  public ObservableArrayList() {
+    elements = new ArrayList<>();
+  }
+
+  /** @param initialCapacity the initial capacity of the list */
+  public ObservableArrayList(int initialCapacity) {
+    elements = new ArrayList<>(initialCapacity);
+  }
+
+  /** @param listener told about each element added or removed after it happened */
+  public void addListener(ListListener<? super E> listener) {
+    if (listener == null) throw new NullPointerException();
+    final ListListener<? super E>[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+    newListeners[listeners.length] = listener;
+    listeners = newListeners;
+  }
+
+  /** @param listener the listener to remove */
+  @SuppressWarnings("unchecked")
+  public void removeListener(ListListener<? super E> listener) {
+    for (int i = 0; i < listeners.length; i++) {
+      if (listeners[i] == listener) {
+        final ListListener<? super E>[] newListeners = new ListListener[listeners.length - 1];
+        System.arraycopy(listeners, 0, newListeners, 0, i);
+        System.arraycopy(listeners, i + 1, newListeners, i, newListeners.length - i);
+        listeners = newListeners;
+        return;
+      }
+    }
+  }
+
+  @Override
+  public E get(int index) {
+    return elements.get(index);
+  }
+
+  @Override
+  public int size() {
+    return elements.size();
+  }
+
+  @Override
+  public E set(int index, E element) {
+    final E old = elements.set(index, element);
+    fireRemoved(old);
+    fireAdded(element);
+    return old;
+  }
+
+  @Override
+  public void add(int index, E element) {
+    elements.add(index, element);
+    modCount++;
+    fireAdded(element);
+  }
+
+  @Override
+  public E remove(int index) {
+    final E old = elements.remove(index);
+    modCount++;
+    fireRemoved(old);
+    return old;
+  }
+
+  @Override
+  public void clear() {
+    // from the end to avoid moving the remaining elements
+    for (int i = elements.size() - 1; i >= 0; i--) remove(i);
+  }
+
+  private void fireAdded(E element) {
+    final ListListener<? super E>[] current = listeners;
+    for (int i = 0; i < current.length; i++) current[i].added(element);
+  }
+
+  private void fireRemoved(E element) {
+    final ListListener<? super E>[] current = listeners;
+    for (int i = 0; i < current.length; i++) current[i].removed(element);
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.beans;
+
+import java.util.Arrays;
+
+/**
+ * ValueBase
+ *
+ * <p>Keeps the listeners of a value in an array so that notifying them allocates nothing.
+ *
+ * @author Frank Kopp
+ */
+abstract class ValueBase implements ObservableValue {
+
+  private static final Runnable[] NO_LISTENERS = new Runnable[0];
+
+  private Runnable[] listeners = NO_LISTENERS;
+
+  @Override
+  public void addListener(Runnable listener) {
+    if (listener == null) throw new NullPointerException();
+    final Runnable[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+    newListeners[listeners.length] = listener;
+    listeners = newListeners;
+  }
+
+  @Override
+  public void removeListener(Runnable listener) {
+    for (int i = 0; i < listeners.length; i++) {
+      if (listeners[i] == listener) {
+        final Runnable[] newListeners = new Runnable[listeners.length - 1];
+        System.arraycopy(listeners, 0, newListeners, 0, i);
+        System.arraycopy(listeners, i + 1, newListeners, i, newListeners.length - i);
+        listeners = newListeners.length == 0 ? NO_LISTENERS : newListeners;
+        return;
+      }
+    }
+  }
+
+  /** Tells all listeners about a change */
+  void fireChanged() {
+    final Runnable[] current = listeners;
+    for (int i = 0; i < current.length; i++) current[i].run();
+  }
+}
@@ -0,0 +1,337 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.events;
+
+import fko.jarkanoid.events.GameEvent.GameEventType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * EventTracer
+ *
+ * <p>Optional tracing of the dispatch of <code>GameEvent</code>s from the model to its observers.
+ * A sampled event gets a timestamp at its creation (emission). Each observer (handler) then
+ * reports when it has completed the event and the model reports when all observers have completed
+ * it. From this the tracer collects per event type the latency from emission to the completion of
+ * all handlers and per handler and event type the time spent in the handler. An observer which
+ * does several things per event - e.g. updating the view and playing a sound - can time each part
+ * as a handler of its own with <code>time()</code>.
+ *
+ * <p>Tracing is off by default and then costs one check per event. When on only every n-th event
+ * is sampled to keep the overhead bounded. It can be turned on with the system property <code>
+ * fko.jarkanoid.eventTracing=n</code> or at runtime e.g. through JMX.
+ *
+ * @author Frank Kopp
+ */
+public final class EventTracer {
+
+  /** System property with the sample interval to turn on tracing at startup */
+  public static final String SAMPLE_INTERVAL_PROPERTY = "fko.jarkanoid.eventTracing";
+
+  private static final int NUMBER_OF_TYPES = GameEventType.values().length;
+
+  // Singleton instance
+  private static final EventTracer instance =
+      new EventTracer(Integer.getInteger(SAMPLE_INTERVAL_PROPERTY, 0));
+
+  // 0 = off, otherwise every n-th event is sampled
+  private volatile int sampleInterval;
+  private final AtomicLong eventCounter = new AtomicLong();
+
+  private final Histogram[] dispatchLatencies = new Histogram[NUMBER_OF_TYPES];
+  // guarded by itself - also guards the parts
+  private final List<Handler> handlers = new ArrayList<>();
+  private final Map<String, Handler> parts = new HashMap<>();
+
+  /** @return the singleton instance */
+  public static EventTracer getInstance() {
+    return instance;
+  }
+
+  /**
+   * For unit testing only - a tracer independent of the singleton.
+   *
+   * @param sampleInterval 0 for off or every n-th event is sampled
+   */
+  EventTracer(int sampleInterval) {
+    setSampleInterval(sampleInterval);
+    for (int i = 0; i < NUMBER_OF_TYPES; i++) dispatchLatencies[i] = new Histogram();
+  }
+
+  /** @return true if events are sampled */
+  public boolean isEnabled() {
+    return sampleInterval > 0;
+  }
+
+  /** @return 0 if tracing is off, otherwise every n-th event is sampled */
+  public int getSampleInterval() {
+    return sampleInterval;
+  }
+
+  /** @param sampleInterval 0 to turn tracing off, otherwise every n-th event is sampled */
+  public void setSampleInterval(final int sampleInterval) {
+    if (sampleInterval < 0) throw new IllegalArgumentException("Sample interval must be >= 0");
+    this.sampleInterval = sampleInterval;
+  }
+
+  /**
+   * Called at the creation of an event.
+   *
+   * @return emission time in nanos if the event is sampled or 0 otherwise
+   */
+  long sample() {
+    final int interval = sampleInterval;
+    if (interval <= 0 || eventCounter.incrementAndGet() % interval != 0) return 0;
+    return System.nanoTime();
+  }
+
+  /**
+   * Wraps an observer so that its handling of sampled events is traced.
+   *
+   * @param observer the observer to trace
+   * @return the observer to register instead
+   */
+  public Observer trace(final Observer observer) {
+    final TracingObserver tracingObserver = new TracingObserver(observer);
+    synchronized (handlers) {
+      handlers.add(tracingObserver);
+    }
+    return tracingObserver;
+  }
+
+  /**
+   * Stops tracing an observer wrapped by <code>trace()</code>.
+   *
+   * @param tracingObserver the observer returned by <code>trace()</code>
+   */
+  public void untrace(final Observer tracingObserver) {
+    synchronized (handlers) {
+      handlers.remove(tracingObserver);
+    }
+  }
+
+  /**
+   * Runs a part of the handling of an event and times it as a handler of its own. The times of all
+   * parts with the same name are collected together. Events which are not sampled just run the
+   * part.
+   *
+   * @param part name of the part, e.g. the class doing the work
+   * @param event the event being handled
+   * @param action the part of the handling
+   */
+  public void time(final String part, final Object event, final Runnable action) {
+    if (!(event instanceof GameEvent) || !((GameEvent) event).isTraced()) {
+      action.run();
+      return;
+    }
+    final long start = System.nanoTime();
+    action.run();
+    final long nanos = System.nanoTime() - start;
+    final Handler handler;
+    synchronized (handlers) {
+      handler = parts.computeIfAbsent(part, this::addPart);
+    }
+    handler.handlingTimes[((GameEvent) event).getEventType().ordinal()].add(nanos);
+  }
+
+  /** @return a new handler for a part - must be called holding the lock of the handlers */
+  private Handler addPart(final String part) {
+    final Handler handler = new Handler(part);
+    handlers.add(handler);
+    return handler;
+  }
+
+  /**
+   * Called when all observers have handled the event.
+   *
+   * @param event the dispatched event
+   */
+  public void dispatched(final Object event) {
+    if (!(event instanceof GameEvent) || !((GameEvent) event).isTraced()) return;
+    final GameEvent gameEvent = (GameEvent) event;
+    dispatchLatencies[gameEvent.getEventType().ordinal()].add(
+        System.nanoTime() - gameEvent.getEmitTime());
+  }
+
+  /** Clears all statistics */
+  public void reset() {
+    for (Histogram histogram : dispatchLatencies) histogram.reset();
+    synchronized (handlers) {
+      for (Handler handler : handlers) {
+        for (Histogram histogram : handler.handlingTimes) histogram.reset();
+      }
+    }
+  }
+
+  /** @return latency from emission to completion of all handlers of the event type */
+  Histogram getDispatchLatency(final GameEventType type) {
+    return dispatchLatencies[type.ordinal()];
+  }
+
+  /**
+   * @param limit maximum number of handlers
+   * @return handler and event type combinations with the highest maximum time
+   */
+  List<String> getSlowestHandlers(final int limit) {
+    final List<Object[]> all = new ArrayList<>();
+    synchronized (handlers) {
+      for (Handler handler : handlers) {
+        for (GameEventType type : GameEventType.values()) {
+          final Histogram histogram = handler.handlingTimes[type.ordinal()];
+          if (histogram.getCount() > 0) all.add(new Object[] {handler.name, type, histogram});
+        }
+      }
+    }
+    all.sort((a, b) -> Long.compare(((Histogram) b[2]).getMax(), ((Histogram) a[2]).getMax()));
+    final List<String> slowest = new ArrayList<>();
+    for (Object[] entry : all.subList(0, Math.min(limit, all.size()))) {
+      slowest.add(String.format("%s %s %s", entry[0], entry[1], entry[2]));
+    }
+    return slowest;
+  }
+
+  /** @return the latency distribution per event type and the 10 slowest handlers */
+  public String report() {
+    final StringBuilder sb = new StringBuilder();
+    sb.append(
+        String.format(
+            "Event dispatch latency (sampling every %d. event, times in us)%n", sampleInterval));
+    for (GameEventType type : GameEventType.values()) {
+      final Histogram histogram = dispatchLatencies[type.ordinal()];
+      if (histogram.getCount() > 0) sb.append(String.format("  %-15s %s%n", type, histogram));
+    }
+    sb.append(String.format("Slowest handlers%n"));
+    for (String handler : getSlowestHandlers(10)) sb.append("  ").append(handler).append('\n');
+    return sb.toString();
+  }
+
+  /** Handling times of a handler per event type */
+  private static class Handler {
+
+    final String name;
+    final Histogram[] handlingTimes = new Histogram[NUMBER_OF_TYPES];
+
+    private Handler(final String name) {
+      this.name = name;
+      for (int i = 0; i < NUMBER_OF_TYPES; i++) handlingTimes[i] = new Histogram();
+    }
+  }
+
+  /** Times the handling of sampled events by the wrapped observer */
+  private static class TracingObserver extends Handler implements Observer {
+
+    private final Observer observer;
+
+    private TracingObserver(final Observer observer) {
+      super(observer.getClass().getSimpleName());
+      this.observer = observer;
+    }
+
+    @Override
+    public void update(final Observable o, final Object event) {
+      if (!(event instanceof GameEvent) || !((GameEvent) event).isTraced()) {
+        observer.update(o, event);
+        return;
+      }
+      final long start = System.nanoTime();
+      observer.update(o, event);
+      handlingTimes[((GameEvent) event).getEventType().ordinal()].add(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Distribution of durations in buckets of powers of two nanos. Percentiles are the upper bound
+   * of the bucket they fall into.
+   */
+  static class Histogram {
+
+    private static final int BUCKETS = 40;
+
+    private final long[] buckets = new long[BUCKETS];
+    private long count;
+    private long total;
+    private long max;
+
+    synchronized void add(final long nanos) {
+      final long value = Math.max(0, nanos);
+      buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value))]++;
+      count++;
+      total += value;
+      max = Math.max(max, value);
+    }
+
+    synchronized void reset() {
+      for (int i = 0; i < BUCKETS; i++) buckets[i] = 0;
+      count = 0;
+      total = 0;
+      max = 0;
+    }
+
+    synchronized long getCount() {
+      return count;
+    }
+
+    synchronized long getMax() {
+      return max;
+    }
+
+    synchronized long getAverage() {
+      return count == 0 ? 0 : total / count;
+    }
+
+    /**
+     * @param percentile between 0 and 1
+     * @return upper bound of the bucket the percentile falls into, at most the maximum
+     */
+    synchronized long getPercentile(final double percentile) {
+      if (count == 0) return 0;
+      final long rank = (long) Math.ceil(percentile * count);
+      long seen = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        seen += buckets[i];
+        if (seen >= rank) return Math.min(max, i == 0 ? 0 : (1L << i) - 1);
+      }
+      return max;
+    }
+
+    @Override
+    public synchronized String toString() {
+      return String.format(
+          "n=%d avg=%.1f p50=%.1f p99=%.1f max=%.1f",
+          count,
+          getAverage() / 1e3,
+          getPercentile(0.50) / 1e3,
+          getPercentile(0.99) / 1e3,
+          max / 1e3);
+    }
+  }
+}
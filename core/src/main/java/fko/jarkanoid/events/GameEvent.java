@@ -39,6 +39,9 @@ public class GameEvent {
   private final GameEventType eventType;
   private Object args;
 
+  // emission time in nanos if sampled by the EventTracer - 0 otherwise
+  private final long emitTime;
+
   /**
    * Creates a GameEvent of a certain type.
    * @param eventType
@@ -47,6 +50,7 @@ public class GameEvent {
   public GameEvent(GameEventType eventType, Object...args) {
     this.eventType = eventType;
     this.args = args;
+    this.emitTime = EventTracer.getInstance().sample();
   }
 
   /**
@@ -64,6 +68,20 @@ public class GameEvent {
     return this.args;
   }
 
+  /**
+   * @return emission time in nanos if the event is traced
+   */
+  public long getEmitTime() {
+    return emitTime;
+  }
+
+  /**
+   * @return true if the event has been sampled by the <code>EventTracer</code>
+   */
+  public boolean isTraced() {
+    return emitTime != 0;
+  }
+
   @Override
   public String toString() {
     return "GameEvent [eventType=" + eventType + "]";
@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.jfr;
+
+import fko.jarkanoid.model.AllocationMeter;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * GameTickEvent
+ *
+ * <p>Java Flight Recorder event for one tick of the game loop with the time spent in each phase.
+ * The game loop only creates the event while a recording has it enabled so a tick neither
+ * allocates nor measures anything otherwise.
+ *
+ * @author Frank Kopp
+ */
+@Name("fko.jarkanoid.GameTick")
+@Label("Game Tick")
+@Category({"Jarkanoid", "Game"})
+@Description("One tick of the game loop with the duration of each phase")
+@StackTrace(false)
+public class GameTickEvent extends Event {
+
+  private static final EventType TYPE = EventType.getEventType(GameTickEvent.class);
+
+  @Label("Level")
+  public int level;
+
+  @Label("Balls")
+  public int balls;
+
+  @Label("Laser Shots")
+  public int laserShots;
+
+  @Label("Power Pills")
+  public int powerPills;
+
+  @Label("Power Pills Time")
+  @Timespan
+  public long powerPillsTime;
+
+  @Label("Laser Time")
+  @Timespan
+  public long laserTime;
+
+  @Label("Balls Time")
+  @Timespan
+  public long ballsTime;
+
+  @Label("Level Time")
+  @Timespan
+  public long levelTime;
+
+  @Label("Lives Time")
+  @Timespan
+  public long livesTime;
+
+  // end of the last phase - not recorded
+  private transient long lastPhaseEnd;
+
+  /** @return true if a running recording has this event enabled */
+  public static boolean isRecording() {
+    return TYPE.isEnabled();
+  }
+
+  /** Starts the timing of the event and of the first phase */
+  public void start() {
+    begin();
+    lastPhaseEnd = System.nanoTime();
+  }
+
+  /**
+   * Ends a phase of the tick - the next phase starts now.
+   *
+   * @param phase the phase which just ended
+   */
+  public void endPhase(AllocationMeter.Subsystem phase) {
+    final long now = System.nanoTime();
+    final long time = now - lastPhaseEnd;
+    lastPhaseEnd = now;
+    switch (phase) {
+      case POWER_PILLS:
+        powerPillsTime += time;
+        break;
+      case LASER:
+        laserTime += time;
+        break;
+      case BALLS:
+        ballsTime += time;
+        break;
+      case LEVEL:
+        levelTime += time;
+        break;
+      case LIVES:
+        livesTime += time;
+        break;
+      default:
+    }
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * AllocationMeter
+ *
+ * <p>Measures the bytes allocated by the game loop per tick and per subsystem with the allocation
+ * counters of the current thread (<code>com.sun.management.ThreadMXBean</code>). Allocations in
+ * the game loop lead to garbage collections which show up as dropped frames.
+ *
+ * <p>The game loop calls <code>startTick()</code>, then <code>mark(subsystem)</code> after each
+ * subsystem and <code>endTick()</code> at the end. Each mark attributes the bytes allocated since
+ * the previous mark to the subsystem. The bytes the counter itself allocates per reading are
+ * measured once and subtracted. The meter itself does not allocate while measuring.
+ *
+ * <p>Not thread safe - to be used by the thread running the game loop only.
+ *
+ * @author Frank Kopp
+ */
+public class AllocationMeter {
+
+  /** The parts of the game loop which are measured separately */
+  public enum Subsystem {
+    POWER_PILLS,
+    LASER,
+    BALLS,
+    LEVEL,
+    LIVES,
+    STATISTICS
+  }
+
+  private static final int NUMBER_OF_SUBSYSTEMS = Subsystem.values().length;
+
+  private final com.sun.management.ThreadMXBean threadBean;
+  private final long overhead;
+
+  private final long[] bytes = new long[NUMBER_OF_SUBSYSTEMS];
+  private final long[] maxBytes = new long[NUMBER_OF_SUBSYSTEMS];
+  private final long[] tickBytes = new long[NUMBER_OF_SUBSYSTEMS];
+  private long ticks;
+  private long maxBytesPerTick;
+  private long lastReading;
+
+  /**
+   * Creates a meter and enables the allocation counters of the JVM if necessary.
+   *
+   * @throws UnsupportedOperationException if the JVM does not support per thread allocation
+   *     counters
+   */
+  public AllocationMeter() {
+    if (!isSupported()) {
+      throw new UnsupportedOperationException("Thread allocation counters not supported");
+    }
+    threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    if (!threadBean.isThreadAllocatedMemoryEnabled()) {
+      threadBean.setThreadAllocatedMemoryEnabled(true);
+    }
+    overhead = calibrate();
+  }
+
+  /** @return true if this JVM supports per thread allocation counters */
+  public static boolean isSupported() {
+    return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean
+        && ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+            .isThreadAllocatedMemorySupported();
+  }
+
+  /** Starts the measurement of a tick */
+  public void startTick() {
+    lastReading = read();
+  }
+
+  /**
+   * Attributes the bytes allocated since the last mark or the start of the tick to the subsystem.
+   *
+   * @param subsystem
+   */
+  public void mark(Subsystem subsystem) {
+    final long reading = read();
+    tickBytes[subsystem.ordinal()] += Math.max(0, reading - lastReading - overhead);
+    lastReading = reading;
+  }
+
+  /** Ends the measurement of a tick and adds it to the statistics */
+  public void endTick() {
+    long total = 0;
+    for (int i = 0; i < NUMBER_OF_SUBSYSTEMS; i++) {
+      bytes[i] += tickBytes[i];
+      maxBytes[i] = Math.max(maxBytes[i], tickBytes[i]);
+      total += tickBytes[i];
+      tickBytes[i] = 0;
+    }
+    maxBytesPerTick = Math.max(maxBytesPerTick, total);
+    ticks++;
+  }
+
+  /** Clears all statistics - e.g. after a warm up */
+  public void reset() {
+    for (int i = 0; i < NUMBER_OF_SUBSYSTEMS; i++) {
+      bytes[i] = 0;
+      maxBytes[i] = 0;
+      tickBytes[i] = 0;
+    }
+    ticks = 0;
+    maxBytesPerTick = 0;
+  }
+
+  /** @return number of measured ticks */
+  public long getTicks() {
+    return ticks;
+  }
+
+  /** @return bytes allocated by the subsystem in all measured ticks */
+  public long getBytes(Subsystem subsystem) {
+    return bytes[subsystem.ordinal()];
+  }
+
+  /** @return average bytes allocated by the subsystem per tick */
+  public double getBytesPerTick(Subsystem subsystem) {
+    return ticks == 0 ? 0 : (double) bytes[subsystem.ordinal()] / ticks;
+  }
+
+  /** @return maximum bytes allocated by the subsystem in a single tick */
+  public long getMaxBytes(Subsystem subsystem) {
+    return maxBytes[subsystem.ordinal()];
+  }
+
+  /** @return average bytes allocated per tick by all subsystems */
+  public double getBytesPerTick() {
+    long total = 0;
+    for (long b : bytes) total += b;
+    return ticks == 0 ? 0 : (double) total / ticks;
+  }
+
+  /** @return maximum bytes allocated by all subsystems in a single tick */
+  public long getMaxBytesPerTick() {
+    return maxBytesPerTick;
+  }
+
+  /** @return average bytes per tick of all subsystems */
+  public Map<Subsystem, Double> getReport() {
+    final Map<Subsystem, Double> report = new EnumMap<>(Subsystem.class);
+    for (Subsystem subsystem : Subsystem.values()) {
+      report.put(subsystem, getBytesPerTick(subsystem));
+    }
+    return report;
+  }
+
+  /** @return bytes the counter of the current thread itself allocates per reading */
+  private long calibrate() {
+    long min = Long.MAX_VALUE;
+    for (int i = 0; i < 1_000; i++) {
+      final long first = read();
+      final long second = read();
+      min = Math.min(min, second - first);
+    }
+    return min;
+  }
+
+  private long read() {
+    return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder();
+    sb.append(
+        String.format(
+            "%,d ticks: %,.1f bytes/tick (max %,d)", ticks, getBytesPerTick(), maxBytesPerTick));
+    for (Subsystem subsystem : Subsystem.values()) {
+      sb.append(
+          String.format(
+              ", %s=%,.1f (max %,d)",
+              subsystem, getBytesPerTick(subsystem), getMaxBytes(subsystem)));
+    }
+    return sb.toString();
+  }
+}
@@ -24,8 +24,10 @@
  */
 package fko.jarkanoid.model;
 
-import javafx.beans.property.DoubleProperty;
-import javafx.beans.property.SimpleDoubleProperty;
+import fko.jarkanoid.beans.DoubleValue;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Ball
@@ -39,9 +41,9 @@ import javafx.beans.property.SimpleDoubleProperty;
 public class Ball {
 
   // ball size and position properties
-  private final DoubleProperty radius;
-  private final DoubleProperty centerX;
-  private final DoubleProperty centerY;
+  private final DoubleValue radius;
+  private final DoubleValue centerX;
+  private final DoubleValue centerY;
 
   // for easier path calculations for collision checks
 
@@ -72,6 +74,26 @@ public class Ball {
     this.previousCenterY = toCopy.previousCenterY;
   }
 
+  /**
+   * Takes position, size and speed of another ball - instead of a new copy when a model takes the
+   * state of another. An existing binding of the position is removed.
+   *
+   * @param other the ball to copy
+   */
+  void copyFrom(Ball other) {
+    centerX.unbind();
+    centerY.unbind();
+    centerX.set(other.centerX.get());
+    centerY.set(other.centerY.get());
+    radius.set(other.radius.get());
+    previousCenterX = other.previousCenterX;
+    previousCenterY = other.previousCenterY;
+    vX = other.vX;
+    vY = other.vY;
+    velocity = other.velocity;
+    isMarkedForRemoval = other.isMarkedForRemoval;
+  }
+
   /**
    * Creates a new ball
    *
@@ -83,9 +105,9 @@ public class Ball {
    */
   public Ball(double centerX, double centerY, double radius, double vXball, double vYball) {
     super();
-    this.centerX = new SimpleDoubleProperty(centerX);
-    this.centerY = new SimpleDoubleProperty(centerY);
-    this.radius = new SimpleDoubleProperty(radius);
+    this.centerX = new DoubleValue(centerX);
+    this.centerY = new DoubleValue(centerY);
+    this.radius = new DoubleValue(radius);
     setXYVelocity(vXball, vYball);
   }
 
@@ -116,21 +138,39 @@ public class Ball {
 
   /** Creates a clone of the ball and randomly changes direction slightly */
   public Ball split() {
+    return split(ThreadLocalRandom.current());
+  }
+
+  /**
+   * Creates a clone of the ball and randomly changes direction slightly
+   *
+   * @param random source of randomness - a seeded source makes the split reproducible
+   */
+  public Ball split(Random random) {
     final Ball newBall = new Ball(this);
-    nudgeBall(newBall);
+    nudgeBall(newBall, random);
     return newBall;
   }
 
   /** changes the direction of the ball slightly */
   public void nudgeBall() {
-    nudgeBall(this);
+    nudgeBall(ThreadLocalRandom.current());
+  }
+
+  /**
+   * changes the direction of the ball slightly
+   *
+   * @param random source of randomness - a seeded source makes the nudge reproducible
+   */
+  public void nudgeBall(Random random) {
+    nudgeBall(this, random);
   }
 
-  private void nudgeBall(final Ball newBall) {
+  private void nudgeBall(final Ball newBall, final Random random) {
     newBall.setYVelocity(
-        newBall.getYVelocity() + (Math.random() - 0.5) * newBall.getYVelocity() / 5);
+        newBall.getYVelocity() + (random.nextDouble() - 0.5) * newBall.getYVelocity() / 5);
     newBall.setXVelocity(
-        newBall.getXVelocity() + (Math.random() - 0.5) * newBall.getXVelocity() / 5);
+        newBall.getXVelocity() + (random.nextDouble() - 0.5) * newBall.getXVelocity() / 5);
   }
 
   /**
@@ -199,15 +239,15 @@ public class Ball {
         + "]";
   }
 
-  public DoubleProperty radiusProperty() {
+  public DoubleValue radiusProperty() {
     return radius;
   }
 
-  public DoubleProperty centerXProperty() {
+  public DoubleValue centerXProperty() {
     return centerX;
   }
 
-  public DoubleProperty centerYProperty() {
+  public DoubleValue centerYProperty() {
     return centerY;
   }
 
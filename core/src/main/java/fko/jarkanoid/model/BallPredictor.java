@@ -0,0 +1,362 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+/**
+ * BallPredictor
+ *
+ * <p>Predicts where a ball will cross the paddle line - the height at which the ball touches the
+ * top of the paddle. The ball's path is ray-cast from its current position with the rules of
+ * <code>GameModel.checkBallCollisions()</code>: it bounces from the side walls and the top wall and
+ * from a brick when its leading edge enters a cell of the <code>BrickLayout</code> with a brick.
+ * Bricks which the ball will destroy on its way are left out after their last hit. The game state
+ * is not changed.
+ *
+ * <p>Each ray only visits the cells it crosses so a prediction costs a few dozen cell lookups per
+ * bounce. Predictions are cached per ball and reused as long as the ball follows the predicted
+ * path with the same velocity and the bricks, the playfield and the paddle line are unchanged.
+ * This usually means one prediction per bounce of the ball. Random nudges of the ball and bounces
+ * from the paddle can not be predicted and end the prediction.
+ *
+ * <p>The predicted number of ticks is a little lower than the real one as the game loop loses part
+ * of a tick with every bounce. A predictor is not thread safe.
+ *
+ * @author Frank Kopp
+ */
+public class BallPredictor {
+
+  /** Default for the maximum number of bounces to follow */
+  public static final int DEFAULT_MAX_BOUNCES = 8;
+
+  // number of balls cached at the same time - more than the game can have
+  private static final int CACHE_SIZE = 8;
+
+  // tolerance in pixels for a ball to be on the predicted path
+  private static final double PATH_TOLERANCE = 1e-3;
+
+  private final int maxBounces;
+
+  private final Prediction[] cache = new Prediction[CACHE_SIZE];
+  private int nextCacheSlot = 0;
+
+  // bricks hit during the current prediction and their remaining hits
+  private final int[] hitRows;
+  private final int[] hitCols;
+  private final int[] hitRemaining;
+  private int hits;
+
+  // cell of the last brick found by rayCast()
+  private int brickRow;
+  private int brickCol;
+
+  // number of predictions which had to be computed - for testing the cache
+  private long computations = 0;
+
+  /** Creates a predictor which follows up to <code>DEFAULT_MAX_BOUNCES</code> bounces. */
+  public BallPredictor() {
+    this(DEFAULT_MAX_BOUNCES);
+  }
+
+  /** @param maxBounces the maximum number of bounces to follow before giving up */
+  public BallPredictor(int maxBounces) {
+    if (maxBounces < 0) {
+      throw new IllegalArgumentException("maxBounces must be >= 0: " + maxBounces);
+    }
+    this.maxBounces = maxBounces;
+    hitRows = new int[maxBounces + 1];
+    hitCols = new int[maxBounces + 1];
+    hitRemaining = new int[maxBounces + 1];
+    for (int i = 0; i < CACHE_SIZE; i++) cache[i] = new Prediction();
+  }
+
+  /**
+   * Predicts where the ball crosses the paddle line. The returned prediction belongs to the
+   * predictor and is updated by later calls for the same ball.
+   *
+   * @param model the model the ball belongs to
+   * @param ball the ball
+   * @return the prediction for the ball
+   */
+  public Prediction predict(GameModel model, Ball ball) {
+    final BrickLayout layout = model.getBrickLayout();
+    final double width = model.playfieldWidthProperty().get();
+    final double paddleY = model.paddleYProperty().get();
+
+    Prediction prediction = null;
+    for (Prediction cached : cache) {
+      if (cached.ball == ball) {
+        prediction = cached;
+        break;
+      }
+    }
+    if (prediction != null && prediction.isCurrent(ball, layout, width, paddleY)) {
+      return prediction;
+    }
+    if (prediction == null) {
+      prediction = cache[nextCacheSlot];
+      nextCacheSlot = (nextCacheSlot + 1) % CACHE_SIZE;
+    }
+    compute(prediction, model.getTicks(), ball, layout, width, paddleY);
+    return prediction;
+  }
+
+  /** @return number of predictions which had to be computed because none was cached */
+  long getComputations() {
+    return computations;
+  }
+
+  /** Ray-casts the ball's path and stores the result and the cache key in the prediction */
+  private void compute(
+      Prediction prediction,
+      long tick,
+      Ball ball,
+      BrickLayout layout,
+      double width,
+      double paddleY) {
+
+    computations++;
+    final double r = ball.getRadius();
+    double x = ball.getCenterX();
+    double y = ball.getCenterY();
+    double vX = ball.getXVelocity();
+    double vY = ball.getYVelocity();
+
+    prediction.ball = ball;
+    prediction.layout = layout;
+    prediction.modificationCount = layout.getModificationCount();
+    prediction.width = width;
+    prediction.paddleY = paddleY;
+    prediction.originX = x;
+    prediction.originY = y;
+    prediction.vX = vX;
+    prediction.vY = vY;
+    prediction.firstEvent = Double.POSITIVE_INFINITY;
+    prediction.valid = false;
+    prediction.x = Double.NaN;
+    prediction.bounces = 0;
+
+    final double lineY = paddleY - r;
+    if (vX == 0 && vY == 0 || y > lineY) return; // not moving or already below the paddle line
+
+    hits = 0;
+    double time = 0;
+    for (int bounces = 0; bounces <= maxBounces; bounces++) {
+
+      // walls and paddle line
+      double tWallX = Double.POSITIVE_INFINITY;
+      if (vX < 0) tWallX = Math.max(0, (r - x) / vX);
+      else if (vX > 0) tWallX = Math.max(0, (width - r - x) / vX);
+      final double tTop = vY < 0 ? Math.max(0, (r - y) / vY) : Double.POSITIVE_INFINITY;
+      final double tLine = vY > 0 ? (lineY - y) / vY : Double.POSITIVE_INFINITY;
+      double tEnd = Math.min(tLine, Math.min(tWallX, tTop));
+
+      // leading edges into bricks - checked before the walls like in the game loop
+      double tBrickY = Double.POSITIVE_INFINITY;
+      int rowY = -1;
+      int colY = -1;
+      if (vY != 0) {
+        tBrickY = rayCast(layout, x, vY < 0 ? y - r : y + r, vX, vY, tEnd);
+        rowY = brickRow;
+        colY = brickCol;
+      }
+      final double tBrickX =
+          rayCast(layout, vX >= 0 ? x + r : x - r, y, vX, vY, Math.min(tEnd, tBrickY));
+
+      final double t;
+      if (tBrickX < tBrickY && tBrickX <= tEnd) {
+        t = tBrickX;
+        hit(layout, brickRow, brickCol);
+        x += vX * t;
+        y += vY * t;
+        vX = -vX;
+      } else if (tBrickY <= tEnd) {
+        t = tBrickY;
+        hit(layout, rowY, colY);
+        x += vX * t;
+        y += vY * t;
+        vY = -vY;
+      } else if (tEnd == tLine) {
+        prediction.valid = true;
+        prediction.x = x + vX * tLine;
+        prediction.tick = tick + (long) Math.ceil(time + tLine);
+        prediction.bounces = bounces;
+        if (bounces == 0) prediction.firstEvent = tLine;
+        return;
+      } else {
+        t = tEnd;
+        x += vX * t;
+        y += vY * t;
+        if (tEnd == tTop) vY = -vY;
+        if (tEnd == tWallX) vX = -vX;
+      }
+      if (bounces == 0) prediction.firstEvent = t;
+      time += t;
+    }
+  }
+
+  /**
+   * Follows a point through the cells of the layout until it enters a cell with a brick.
+   *
+   * @param layout the bricks
+   * @param x start of the point
+   * @param y start of the point
+   * @param vX velocity of the point
+   * @param vY velocity of the point
+   * @param tMax the time to follow the point
+   * @return the time the point enters a brick or infinity if it does not within <code>tMax</code>
+   */
+  private double rayCast(
+      BrickLayout layout, double x, double y, double vX, double vY, double tMax) {
+    final double bW = layout.getBrickWidth();
+    final double bH = layout.getBrickHeight();
+    int col = (int) Math.floor(x / bW);
+    int row = (int) Math.floor(y / bH);
+    final int stepCol = vX > 0 ? 1 : vX < 0 ? -1 : 0;
+    final int stepRow = vY > 0 ? 1 : vY < 0 ? -1 : 0;
+    final double deltaCol = stepCol == 0 ? Double.POSITIVE_INFINITY : bW / Math.abs(vX);
+    final double deltaRow = stepRow == 0 ? Double.POSITIVE_INFINITY : bH / Math.abs(vY);
+    double nextCol =
+        stepCol == 0 ? Double.POSITIVE_INFINITY : ((col + (stepCol > 0 ? 1 : 0)) * bW - x) / vX;
+    double nextRow =
+        stepRow == 0 ? Double.POSITIVE_INFINITY : ((row + (stepRow > 0 ? 1 : 0)) * bH - y) / vY;
+    double t = 0;
+    while (t <= tMax) {
+      if (isBrick(layout, row, col)) {
+        brickRow = row;
+        brickCol = col;
+        return t;
+      }
+      // leaving the grid for good
+      if (stepRow > 0 && row >= BrickLayout.ROWS || stepRow < 0 && row < 0) break;
+      if (stepCol > 0 && col >= BrickLayout.COLUMNS || stepCol < 0 && col < 0) break;
+      if (stepRow == 0 && (row < 0 || row >= BrickLayout.ROWS)) break;
+      if (stepCol == 0 && (col < 0 || col >= BrickLayout.COLUMNS)) break;
+      if (nextCol < nextRow) {
+        t = nextCol;
+        nextCol += deltaCol;
+        col += stepCol;
+      } else {
+        t = nextRow;
+        nextRow += deltaRow;
+        row += stepRow;
+      }
+    }
+    return Double.POSITIVE_INFINITY;
+  }
+
+  /** @return true if the cell has a brick which has not been destroyed during the prediction */
+  private boolean isBrick(BrickLayout layout, int row, int col) {
+    final Brick brick = layout.getBrick(row, col);
+    if (brick == null) return false;
+    for (int i = 0; i < hits; i++) {
+      if (hitRows[i] == row && hitCols[i] == col) return hitRemaining[i] > 0;
+    }
+    return true;
+  }
+
+  /** Records a hit of the brick in a cell during the prediction */
+  private void hit(BrickLayout layout, int row, int col) {
+    for (int i = 0; i < hits; i++) {
+      if (hitRows[i] == row && hitCols[i] == col) {
+        if (hitRemaining[i] != Integer.MAX_VALUE) hitRemaining[i]--;
+        return;
+      }
+    }
+    final Brick brick = layout.getBrick(row, col);
+    hitRows[hits] = row;
+    hitCols[hits] = col;
+    hitRemaining[hits] =
+        brick.getType() == BrickType.GOLD ? Integer.MAX_VALUE : brick.getRemainingHits() - 1;
+    hits++;
+  }
+
+  /**
+   * Prediction
+   *
+   * <p>Where and when a ball will cross the paddle line.
+   */
+  public static final class Prediction {
+
+    // cache key
+    private Ball ball;
+    private BrickLayout layout;
+    private int modificationCount;
+    private double width;
+    private double paddleY;
+    private double originX;
+    private double originY;
+    private double vX;
+    private double vY;
+    private double firstEvent; // ticks from the origin until the first bounce
+
+    // result
+    private boolean valid;
+    private double x;
+    private long tick;
+    private int bounces;
+
+    private Prediction() {}
+
+    /** @return true if the ball is still on the predicted path and nothing else has changed */
+    private boolean isCurrent(Ball ball, BrickLayout layout, double width, double paddleY) {
+      if (ball.getXVelocity() != vX
+          || ball.getYVelocity() != vY
+          || layout != this.layout
+          || layout.getModificationCount() != modificationCount
+          || width != this.width
+          || paddleY != this.paddleY) {
+        return false;
+      }
+      final double dX = ball.getCenterX() - originX;
+      final double dY = ball.getCenterY() - originY;
+      final double v2 = vX * vX + vY * vY;
+      if (v2 == 0) return dX == 0 && dY == 0;
+      final double t = (dX * vX + dY * vY) / v2; // ticks along the path
+      final double distance = Math.abs(dX * vY - dY * vX) / Math.sqrt(v2);
+      return t >= 0 && t <= firstEvent && distance <= PATH_TOLERANCE;
+    }
+
+    /** @return true if the ball reaches the paddle line within the maximum number of bounces */
+    public boolean isValid() {
+      return valid;
+    }
+
+    /** @return x of the ball's center when it crosses the paddle line - NaN if not valid */
+    public double getX() {
+      return x;
+    }
+
+    /** @return the game loop tick in which the ball crosses the paddle line */
+    public long getTick() {
+      return tick;
+    }
+
+    /** @return number of bounces from walls and bricks until the ball crosses the paddle line */
+    public int getBounces() {
+      return bounces;
+    }
+  }
+}
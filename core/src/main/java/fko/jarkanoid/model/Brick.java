@@ -24,8 +24,6 @@
  */
 package fko.jarkanoid.model;
 
-import javafx.scene.paint.Color;
-
 /**
  * Brick
  *
@@ -73,6 +71,17 @@ public class Brick {
     this.isKilled = brick.isKilled;
   }
 
+  /**
+   * Takes the hits of another brick of the same type.
+   *
+   * @param other the brick to copy
+   */
+  void copyFrom(Brick other) {
+    this.hitCount = other.hitCount;
+    this.isInvincible = other.isInvincible;
+    this.isKilled = other.isKilled;
+  }
+
   /** @return remaining number of hits until killed. If 0 the brick has been killed. */
   public int increaseHitCount() {
     hitCount++;
@@ -110,8 +119,8 @@ public class Brick {
     return brickType.points;
   }
 
-  /** @return Color of this brick */
-  public Color getColor() {
+  /** @return web color name of this brick */
+  public String getColor() {
     return brickType.color;
   }
 
@@ -24,8 +24,8 @@
  */
 package fko.jarkanoid.model;
 
-import javafx.beans.property.DoubleProperty;
-import javafx.beans.property.SimpleDoubleProperty;
+import fko.jarkanoid.beans.DoubleValue;
+import fko.jarkanoid.beans.ReadOnlyDoubleValue;
 
 import java.util.Arrays;
 
@@ -48,29 +48,33 @@ public class BrickLayout {
   public static final int ROWS = 18;
   public static final int COLUMNS = 13;
 
-  private DoubleProperty playfieldWidth;
-  private DoubleProperty playfieldHeight;
+  private ReadOnlyDoubleValue playfieldWidth;
+  private ReadOnlyDoubleValue playfieldHeight;
 
   private Brick[][] brickMatrix = new Brick[ROWS][COLUMNS];
 
-  private DoubleProperty brickWidth = new SimpleDoubleProperty();
-  private DoubleProperty brickHeight = new SimpleDoubleProperty();
+  private DoubleValue brickWidth = new DoubleValue();
+  private DoubleValue brickHeight = new DoubleValue();
 
   private int numberOfBricks = 0;
 
+  // counts every change of the bricks - lets users cache results computed from the layout
+  private int modificationCount = 0;
+
   /**
    * Creates an empty BrickLayout.
    *
    * @param playfieldWidth width
    * @param playfieldHeight height
    */
-  public BrickLayout(DoubleProperty playfieldWidth, DoubleProperty playfieldHeight) {
+  public BrickLayout(ReadOnlyDoubleValue playfieldWidth, ReadOnlyDoubleValue playfieldHeight) {
     this.playfieldWidth = playfieldWidth;
     this.playfieldHeight = playfieldHeight;
 
     // calculated bind of brick size to playfield size
-    brickWidth.bind(playfieldWidth.divide(COLUMNS));
-    brickHeight.bind(playfieldHeight.subtract(playfieldHeight.get() * 0.4).divide(ROWS));
+    brickWidth.bind(playfieldWidth, width -> width / COLUMNS);
+    final double wallHeight = playfieldHeight.get() * 0.4;
+    brickHeight.bind(playfieldHeight, height -> (height - wallHeight) / ROWS);
   }
 
   /**
@@ -81,6 +85,7 @@ public class BrickLayout {
   public int hitBrick(int row, int col) {
     final Brick brick = brickMatrix[row][col];
     final int points = brick.getPoints();
+    modificationCount++;
     if (brick.increaseHitCount() == 0) {
       brickMatrix[row][col] = null;
       numberOfBricks--;
@@ -89,6 +94,32 @@ public class BrickLayout {
     return 0;
   }
 
+  /**
+   * Takes the bricks of another layout. Existing bricks of the same type are reused so that
+   * repeated copies of similar layouts allocate almost nothing.
+   *
+   * @param other the layout to copy
+   */
+  void copyFrom(BrickLayout other) {
+    for (int row = 0; row < ROWS; row++) {
+      for (int col = 0; col < COLUMNS; col++) {
+        final Brick brick = other.brickMatrix[row][col];
+        final Brick own = brickMatrix[row][col];
+        if (brick == null) {
+          brickMatrix[row][col] = null;
+        } else if (own != null
+            && own.getType() == brick.getType()
+            && own.getPowerType() == brick.getPowerType()) {
+          own.copyFrom(brick);
+        } else {
+          brickMatrix[row][col] = new Brick(brick);
+        }
+      }
+    }
+    numberOfBricks = other.numberOfBricks;
+    modificationCount++;
+  }
+
   /** @return the 2D matrix of Bricks */
   public Brick[][] getMatrix() {
     return brickMatrix;
@@ -97,6 +128,7 @@ public class BrickLayout {
   /** @param newMatrix array of arrays of bricks */
   public void setMatrix(Brick[][] newMatrix) {
     this.brickMatrix = newMatrix;
+    modificationCount++;
     updateDataForMatrix();
   }
 
@@ -180,6 +212,7 @@ public class BrickLayout {
    */
   public void setBrick(int row, int col, Brick brick) {
     brickMatrix[row][col] = brick;
+    modificationCount++;
   }
 
   /** @return the brickWidth */
@@ -207,6 +240,11 @@ public class BrickLayout {
     return numberOfBricks;
   }
 
+  /** @return number of changes to the bricks so far - a hit counts as a change */
+  public int getModificationCount() {
+    return modificationCount;
+  }
+
   /** @see java.lang.Object#toString() */
   @Override
   public String toString() {
@@ -24,8 +24,6 @@
  */
 package fko.jarkanoid.model;
 
-import javafx.scene.paint.Color;
-
 /**
  * BrickType
  * 04.01.2018
@@ -33,23 +31,24 @@ import javafx.scene.paint.Color;
  */
 public enum BrickType {
 
-	GREY 	(50,  1, "GY", Color.GREY),
-	ORANGE 	(60,  1, "OR", Color.ORANGE),
-	CYAN 	(70,  1, "CY", Color.CYAN),
-	GREEN	(80,  1, "GR", Color.GREEN),
-	RED		(90,  1, "RE", Color.RED),
-	BLUE	(100, 1, "BL", Color.BLUE),
-	PURPLE	(110, 1, "PU", Color.PURPLE),
-	YELLOW	(120, 1, "YE", Color.YELLOW),
-	SILVER	(50 , 3, "SI", Color.SILVER),
-	GOLD	(0, Integer.MAX_VALUE, "GO", Color.GOLD);
+	GREY 	(50,  1, "GY", "grey"),
+	ORANGE 	(60,  1, "OR", "orange"),
+	CYAN 	(70,  1, "CY", "cyan"),
+	GREEN	(80,  1, "GR", "green"),
+	RED		(90,  1, "RE", "red"),
+	BLUE	(100, 1, "BL", "blue"),
+	PURPLE	(110, 1, "PU", "purple"),
+	YELLOW	(120, 1, "YE", "yellow"),
+	SILVER	(50 , 3, "SI", "silver"),
+	GOLD	(0, Integer.MAX_VALUE, "GO", "gold");
 	
 	public final int points;
 	public final int hits;
 	public final String sign;
-	public final Color color;
+	/** web color name - mapped to a paint by the front end */
+	public final String color;
 
-	BrickType(int points, int hits, String sign, Color color) {
+	BrickType(int points, int hits, String sign, String color) {
 		this.points = points;
 		this.hits = hits;
 		this.sign = sign;
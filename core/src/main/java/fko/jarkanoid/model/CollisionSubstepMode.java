@@ -0,0 +1,50 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+/**
+ * CollisionSubstepMode
+ *
+ * <p>Defines into how many intermediate steps the path of a ball is divided for the collision
+ * checks of one tick. More steps find collisions more accurately and avoid "tunneling" through
+ * bricks but need more time per tick.
+ *
+ * <p>The mode is not part of a <code>SessionLog</code>. Replays of games played with another mode
+ * than <code>DEFAULT</code> therefore diverge.
+ *
+ * @author Frank Kopp
+ */
+public enum CollisionSubstepMode {
+  /**
+   * The original steps of a tenth of the ball's velocity, one step per unit of velocity. Covers
+   * exactly the path of a ball with the initial speed.
+   */
+  DEFAULT,
+  /** Steps of at most one pixel along the whole path of the ball. */
+  PIXEL,
+  /** Steps of at most four pixels along the whole path of the ball - for slow machines. */
+  COARSE
+}
@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+import java.util.Random;
+
+/**
+ * CopyableRandom
+ *
+ * <p>A <code>Random</code> whose state can be copied to another instance so that a copy of a game
+ * makes the same random decisions as the original. It uses the same linear congruential generator
+ * as <code>Random</code> and produces the same numbers for the same seed. <code>nextGaussian()
+ * </code> keeps a second number of its own which is not copied - the game does not use it.
+ *
+ * @author Frank Kopp
+ */
+class CopyableRandom extends Random {
+
+  private static final long MULTIPLIER = 0x5DEECE66DL;
+  private static final long ADDEND = 0xBL;
+  private static final long MASK = (1L << 48) - 1;
+
+  // no initializer - it would overwrite the seed set by the super constructor
+  private long seed;
+
+  @Override
+  public synchronized void setSeed(long seed) {
+    super.setSeed(seed);
+    this.seed = (seed ^ MULTIPLIER) & MASK;
+  }
+
+  @Override
+  protected int next(int bits) {
+    seed = (seed * MULTIPLIER + ADDEND) & MASK;
+    return (int) (seed >>> (48 - bits));
+  }
+
+  /** @return the internal state which decides all following numbers */
+  long getState() {
+    return seed;
+  }
+
+  /** @param other the generator whose state to take */
+  void copyFrom(CopyableRandom other) {
+    seed = other.seed;
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+/**
+ * GameClock
+ *
+ * <p>Runs the periodic loops of a live <code>GameModel</code> - the game loop, the paddle movements
+ * and the paddle animations. The model itself does not depend on a UI toolkit. The front end
+ * provides a clock which runs the loops on its UI thread so that bound views can be updated
+ * directly, e.g. the <code>FxGameClock</code> of the JavaFX front end.
+ *
+ * @author Frank Kopp
+ */
+public interface GameClock {
+
+  /** Cycle count of a loop which runs until it is paused or stopped */
+  int INDEFINITE = -1;
+
+  /** A clock whose loops never run - for models driven by the caller, e.g. in replay mode */
+  GameClock NONE =
+      (periodMillis, cycleCount, action) ->
+          new Loop() {
+            @Override
+            public void play() {}
+
+            @Override
+            public void playFromStart() {}
+
+            @Override
+            public void pause() {}
+
+            @Override
+            public void stop() {}
+
+            @Override
+            public boolean isRunning() {
+              return false;
+            }
+          };
+
+  /**
+   * Creates a new loop which is not yet running.
+   *
+   * @param periodMillis time between two cycles in ms
+   * @param cycleCount number of cycles until the loop stops or <code>INDEFINITE</code>
+   * @param action called once per cycle
+   * @return the new loop
+   */
+  Loop createLoop(double periodMillis, int cycleCount, Runnable action);
+
+  /** A loop created by a <code>GameClock</code> */
+  interface Loop {
+
+    /** Starts the loop or continues a paused loop */
+    void play();
+
+    /** Starts the loop with its first cycle */
+    void playFromStart();
+
+    /** Pauses the loop - it continues with the next cycle when played again */
+    void pause();
+
+    /** Stops the loop - it starts with its first cycle when played again */
+    void stop();
+
+    /** @return true if the loop is running */
+    boolean isRunning();
+  }
+}
@@ -24,26 +24,34 @@
  */
 package fko.jarkanoid.model;
 
+import fko.jarkanoid.beans.BooleanValue;
+import fko.jarkanoid.beans.DoubleValue;
+import fko.jarkanoid.beans.IntValue;
+import fko.jarkanoid.beans.ObjectValue;
+import fko.jarkanoid.beans.ObservableArrayList;
+import fko.jarkanoid.beans.ReadOnlyBooleanValue;
+import fko.jarkanoid.beans.ReadOnlyIntValue;
+import fko.jarkanoid.events.EventTracer;
 import fko.jarkanoid.events.GameEvent;
 import fko.jarkanoid.events.GameEvent.GameEventType;
-import javafx.animation.KeyFrame;
-import javafx.animation.KeyValue;
-import javafx.animation.Timeline;
-import javafx.beans.property.*;
-import javafx.collections.FXCollections;
-import javafx.util.Duration;
+import fko.jarkanoid.jfr.BrickHitEvent;
+import fko.jarkanoid.jfr.GameTickEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.Observable;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.Observer;
+import java.util.function.BiConsumer;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
 
 /**
  * BreakOutModel
@@ -53,6 +61,15 @@ import java.util.concurrent.TimeUnit;
  * <p>It has not yet its own Thread - could become necessary later if performance/rendering issue
  * occur.
  *
+ * <p>All randomness of a game comes from a random generator seeded at the start of the game. The
+ * seed and all player inputs can be recorded in a <code>SessionLog</code> so that a game can be
+ * re-simulated exactly by a <code>SessionReplay</code>. Recording is off unless the system property
+ * <code>fko.jarkanoid.recordSessions</code> is set or it is turned on at runtime. In replay mode the model does not run its
+ * own loops and timers - ticks, paddle movements and releases are driven from the session.
+ *
+ * <p>The model does not depend on a UI toolkit. A live model runs its loops with the <code>
+ * GameClock</code> of the front end.
+ *
  * @author Frank Kopp
  */
 public class GameModel extends Observable {
@@ -79,8 +96,10 @@ public class GameModel extends Observable {
   private static final int START_LEVEL = 1;
   private static final int START_LIVES = 3;
 
-  private static final long SLEEP_BETWEEN_LIVES = 2000; // in ms
-  private static final long SLEEP_BETWEEN_LEVELS = 3000; // in ms
+  // delays of the simulation in ticks - at the initial frame rate 60 ticks are one second
+  private static final long SLEEP_BETWEEN_LIVES = 120; // in ticks
+  private static final long SLEEP_BETWEEN_LEVELS = 180; // in ticks
+  private static final long CATCH_TIMEOUT = 300; // in ticks
 
   private static final double PLAYFIELD_INITIAL_HEIGHT = 710;
   private static final double PLAYFIELD_INITIAL_WIDTH = 780;
@@ -93,6 +112,10 @@ public class GameModel extends Observable {
   private static final double PADDEL_INITIAL_WIDTH = 150; // 150;
   private static final double PADDLE_INITIAL_HEIGHT = 20;
   private static final float PADDLE_ENLARGEMENT_FACTOR = 1.4f;
+  private static final int PADDLE_ANIMATION_STEPS = 25; // steps to grow or shrink the paddle
+  private static final double PADDLE_ANIMATION_PERIOD = 10; // in ms - 25 steps are 250ms
+  // autopilot paddle speed per game loop tick - as fast as the keyboard at 60 fps
+  private static final double AUTOPILOT_MAX_STEP = 2 * PADDLE_MOVE_STEPS;
 
   // Ball constants
   private static final double BALL_INITIAL_RADIUS = 6;
@@ -134,48 +157,48 @@ public class GameModel extends Observable {
    * In normal MVC the View would use them to build the View elements. As we
    * us JavaFX and FXML with Scene Builder these values are already set by the FXML.
    * Therefore we duplicate them in den model and make sure they stay synchronized through
-   * property bindings.
+   * bindings of the observable values to the properties of the view.
    */
 
   // Playfield dimensions
-  private final DoubleProperty playfieldWidth =
-      new SimpleDoubleProperty(PLAYFIELD_INITIAL_WIDTH); // see FXML 800 - 2 * 10 Walls
-  private final DoubleProperty playfieldHeight =
-      new SimpleDoubleProperty(PLAYFIELD_INITIAL_HEIGHT); // see FXML 520 - 1 * 10 Wall
+  private final DoubleValue playfieldWidth =
+      new DoubleValue(PLAYFIELD_INITIAL_WIDTH); // see FXML 800 - 2 * 10 Walls
+  private final DoubleValue playfieldHeight =
+      new DoubleValue(PLAYFIELD_INITIAL_HEIGHT); // see FXML 520 - 1 * 10 Wall
 
   // Paddle dimensions and position
-  private final DoubleProperty paddleWidth =
-      new SimpleDoubleProperty(PADDEL_INITIAL_WIDTH); // see FXML
-  private final DoubleProperty paddleHeight =
-      new SimpleDoubleProperty(PADDLE_INITIAL_HEIGHT); // see FXML
-  private final DoubleProperty paddleX = new SimpleDoubleProperty(PADDLE_INITIAL_X); // see FXML
-  private final DoubleProperty paddleY = new SimpleDoubleProperty(PADDLE_INITIAL_Y); // see FXML
+  private final DoubleValue paddleWidth = new DoubleValue(PADDEL_INITIAL_WIDTH); // see FXML
+  private final DoubleValue paddleHeight = new DoubleValue(PADDLE_INITIAL_HEIGHT); // see FXML
+  private final DoubleValue paddleX = new DoubleValue(PADDLE_INITIAL_X); // see FXML
+  private final DoubleValue paddleY = new DoubleValue(PADDLE_INITIAL_Y); // see FXML
 
   // game status
-  private final ReadOnlyBooleanWrapper isPlaying = new ReadOnlyBooleanWrapper(false);
-  private final ReadOnlyBooleanWrapper isPaused = new ReadOnlyBooleanWrapper(false);
-  private final ReadOnlyBooleanWrapper gameOver = new ReadOnlyBooleanWrapper(false);
+  private final BooleanValue isPlaying = new BooleanValue(false);
+  private final BooleanValue isPaused = new BooleanValue(false);
+  private final BooleanValue gameOver = new BooleanValue(false);
 
   // game statistics
-  private final ReadOnlyIntegerWrapper currentLevel = new ReadOnlyIntegerWrapper(START_LEVEL);
-  private final ReadOnlyIntegerWrapper currentRemainingLives =
-      new ReadOnlyIntegerWrapper(START_LIVES);
-  private final ReadOnlyIntegerWrapper currentScore = new ReadOnlyIntegerWrapper(0);
+  private final IntValue currentLevel = new IntValue(START_LEVEL);
+  private final IntValue currentRemainingLives = new IntValue(START_LIVES);
+  private final IntValue currentScore = new IntValue(0);
 
   // ball manager
-  private final ListProperty<Ball> ballManager = new SimpleListProperty<>();
+  private final ObservableArrayList<Ball> ballManager = new ObservableArrayList<>(3);
 
   // LaserShot manager
-  private final ListProperty<LaserShot> laserShotManager = new SimpleListProperty<>();
+  private final ObservableArrayList<LaserShot> laserShotManager = new ObservableArrayList<>();
 
-  // main Game Loop / moves ball(s) and handles collisions
-  private final Timeline mainGameLoop = new Timeline();
+  // runs the loops and animations of a live model
+  private final GameClock clock;
+
+  // main Game Loop / moves ball(s) and handles collisions - replaced when the frame rate changes
+  private GameClock.Loop mainGameLoop;
 
   // paddle movements have their own game loop so we can move it outside of a running game
-  private final Timeline paddleMovementLoop = new Timeline();
+  private final GameClock.Loop paddleMovementLoop;
 
-  // used to delay starts of game
-  private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(1);
+  // timers of the simulation - advanced by each tick of the game loop
+  private final TimerWheel timers = new TimerWheel();
 
   // the brick layout holds all bricks and its positions of the games
   private final BrickLayout brickLayout;
@@ -184,19 +207,29 @@ public class GameModel extends Observable {
   private boolean paddleLeft;
   private boolean paddleRight;;
 
-  // to delay the start of the ball and to be able to stop a game before this timer delay runs out
-  private ScheduledFuture scheduledStart;
+  // autopilot for the paddle - null when the player controls the paddle
+  private volatile PaddleController paddleController = null;
+  // true when the autopilot has played in the current game - no highscore then
+  private boolean autopilotUsed = false;
+
+  // to delay the start of the ball - the ball stays on the paddle while it is pending
+  private TimerWheel.Timer scheduledStart;
+
+  // to release a caught ball after a while - replaced with each catch
+  private TimerWheel.Timer scheduledRelease;
 
   // count all destroyed bricks
   private int destroyedBricksCounter = 0;
 
+  // all randomness of a game - seeded at the start of each game
+  private final CopyableRandom random = new CopyableRandom();
+
   // power ups
   private int lastPowerUp = 0;
   private int nextPowerUp = getNextPowerUp();
   private PowerPill nextPowerPill;
-  private final ListProperty<PowerPill> fallingPowerPills = new SimpleListProperty<>();
-  private final ObjectProperty<PowerPillType> activePower =
-      new SimpleObjectProperty<PowerPillType>(PowerPillType.NONE);
+  private final ObservableArrayList<PowerPill> fallingPowerPills = new ObservableArrayList<>();
+  private final ObjectValue<PowerPillType> activePower = new ObjectValue<>(PowerPillType.NONE);
   private boolean ballCatchedFlag = false;
 
   // count each time the game loop is called and some statistics
@@ -204,11 +237,17 @@ public class GameModel extends Observable {
   private long frameLoopCounterTimeStamp = System.nanoTime();
   private long lastloopTime;
   private long commulativeLoopTime;
-  private final DoubleProperty fps = new SimpleDoubleProperty(INITIAL_FRAMERATE);
+  private final DoubleValue fps = new DoubleValue(INITIAL_FRAMERATE);
+  private volatile long ticks = 0;
+  private volatile long averageLoopTime = 0;
+
+  // tunable at runtime e.g. through JMX
+  private volatile double frameRate = INITIAL_FRAMERATE;
+  private volatile CollisionSubstepMode collisionSubstepMode = CollisionSubstepMode.DEFAULT;
 
-  // grower and skrinker timeline of paddles
-  private final Timeline paddleGrower = new Timeline();
-  private final Timeline paddleShrinker = new Timeline();
+  // grower and skrinker animation of paddles - the shrinker is replaced with each shrink
+  private final GameClock.Loop paddleGrower;
+  private GameClock.Loop paddleShrinker = GameClock.NONE.createLoop(0, 0, () -> {});
 
   // counter since last paddle or brick hit to detect endless loops with gold bricks
   private int maxLoopHitsCounter = MAX_NUMBER_OF_LOOP_HITS;
@@ -216,50 +255,84 @@ public class GameModel extends Observable {
   // highscore manager
   private final HighScore highScoreManager = HighScore.getInstance();
 
+  // replay mode - no own loops, timers or highscores
+  private final boolean replayMode;
+
+  // records seed and inputs of the current game - null when not recording
+  private volatile SessionLog sessionLog = null;
+  private volatile boolean recordSessions = Boolean.getBoolean(SessionLog.RECORD_PROPERTY);
+
+  // measures allocations of the game loop per subsystem - null when not measuring
+  private AllocationMeter allocationMeter = null;
+
+  // observers as registered and wrapped by the event tracer
+  private final Map<Observer, Observer> tracedObservers = new IdentityHashMap<>();
+
   // player name property
-  private final StringProperty playerName = new SimpleStringProperty("Unknown Player");
+  private final ObjectValue<String> playerName = new ObjectValue<>("Unknown Player");
 
-  /** Constructor - prepares the brick layout and the game loops. */
-  public GameModel() {
+  // called after each tick - an array to iterate without allocations
+  private volatile Runnable[] tickListeners = new Runnable[0];
 
-    // setup BrickLayout
-    brickLayout = new BrickLayout(playfieldWidth, playfieldHeight);
+  // objects removed by copyStateFrom() to be reused by the next copy
+  private final List<Ball> spareBalls = new ArrayList<>();
+  private final List<LaserShot> spareLaserShots = new ArrayList<>();
 
-    // configure ball list
-    ballManager.set(FXCollections.observableList(new ArrayList<>(3)));
+  /**
+   * Constructor - prepares the brick layout and the game loops of a live model.
+   *
+   * @param clock runs the game loops and animations, usually on the UI thread of the front end
+   */
+  public GameModel(GameClock clock) {
+    this(false, clock);
+  }
 
-    // configure laserShot list
-    laserShotManager.set(FXCollections.observableList(new ArrayList<>()));
+  /**
+   * Constructor - prepares the brick layout and the game loops.
+   *
+   * <p>In replay mode the model runs no timers or animations. The caller drives the game with
+   * <code>gameLoop()</code> and <code>setPaddle()</code> instead, e.g. a <code>SessionReplay
+   * </code> or a benchmark. A live model created without a clock never runs its loops.
+   *
+   * @param replayMode true if the model is driven by the caller instead of by its own timers
+   */
+  public GameModel(boolean replayMode) {
+    this(replayMode, GameClock.NONE);
+  }
+
+  private GameModel(boolean replayMode, GameClock clock) {
+    this.replayMode = replayMode;
+    this.clock = replayMode ? GameClock.NONE : clock;
 
-    // configure fallingPower list
-    fallingPowerPills.set(FXCollections.observableList(new ArrayList<>()));
+    // setup BrickLayout
+    brickLayout = new BrickLayout(playfieldWidth, playfieldHeight);
 
-    // start the paddle movements
-    paddleMovementLoop.setCycleCount(Timeline.INDEFINITE);
-    KeyFrame movePaddle =
-        new KeyFrame(Duration.millis(1000f / PADDLE_INITIAL_FRAMERATE), e -> paddleMovementLoop());
-    paddleMovementLoop.getKeyFrames().add(movePaddle);
-    paddleMovementLoop.play();
+    // prepare the paddle movements (will only run while a paddle key is pressed)
+    paddleMovementLoop =
+        this.clock.createLoop(
+            1000f / PADDLE_INITIAL_FRAMERATE, GameClock.INDEFINITE, this::paddleMovementLoop);
+    if (!replayMode) {
+      // record all paddle movements and resizes for a later replay
+      paddleX.addListener(this::recordPaddle);
+      paddleWidth.addListener(this::recordPaddle);
+    }
 
     // prepare ball movements (will be start in startGame())
-    mainGameLoop.setCycleCount(Timeline.INDEFINITE);
-    KeyFrame moveBall = new KeyFrame(Duration.millis(1000f / INITIAL_FRAMERATE), e -> gameLoop());
-    mainGameLoop.getKeyFrames().add(moveBall);
+    mainGameLoop = createGameLoop(frameRate);
 
     // animation to grow the paddle slowly when we get an ENLARGE power
     // As we want to be able to move the paddle during the animation and also check if the
     // paddle grows out of the playing field we can't use normal property value timelines.
-    final int steps =
-        25; // do 25 intermediate steps - when at 10ms per step this is a 250ms animation
-    paddleGrower.setCycleCount(steps);
+    final int steps = PADDLE_ANIMATION_STEPS;
     // larger
     final double lSteps = (PADDLE_ENLARGEMENT_FACTOR - 1) / steps;
     // move to the left to make it look as if it grew from the middle
     final double xSteps = (((PADDLE_ENLARGEMENT_FACTOR - 1) / 2) * PADDEL_INITIAL_WIDTH) / steps;
-    KeyFrame grow =
-        new KeyFrame(
-            Duration.millis(10),
-            (event) -> {
+    paddleGrower =
+        this.clock.createLoop(
+            PADDLE_ANIMATION_PERIOD,
+            steps,
+            () -> {
               paddleWidth.set(paddleWidth.get() * (1.0 + lSteps));
               paddleX.set(paddleX.get() - xSteps);
               // push the paddle betweem the walls in case it was outside
@@ -269,14 +342,59 @@ public class GameModel extends Observable {
                 paddleX.set(0);
               }
             });
-    paddleGrower.getKeyFrames().addAll(grow);
+  }
+
+  /** Registers the observer wrapped by the <code>EventTracer</code> */
+  @Override
+  public synchronized void addObserver(final Observer observer) {
+    if (observer == null) throw new NullPointerException();
+    if (tracedObservers.containsKey(observer)) return;
+    final Observer tracingObserver = EventTracer.getInstance().trace(observer);
+    tracedObservers.put(observer, tracingObserver);
+    super.addObserver(tracingObserver);
+  }
+
+  @Override
+  public synchronized void deleteObserver(final Observer observer) {
+    final Observer tracingObserver = tracedObservers.remove(observer);
+    if (tracingObserver == null) return;
+    EventTracer.getInstance().untrace(tracingObserver);
+    super.deleteObserver(tracingObserver);
+  }
+
+  @Override
+  public synchronized void deleteObservers() {
+    tracedObservers.values().forEach(EventTracer.getInstance()::untrace);
+    tracedObservers.clear();
+    super.deleteObservers();
+  }
+
+  /** Notifies all observers and tells the <code>EventTracer</code> when all have handled it */
+  @Override
+  public void notifyObservers(final Object event) {
+    super.notifyObservers(event);
+    EventTracer.getInstance().dispatched(event);
   }
 
   /** Starts a new game. */
   public void startPlaying() {
+    startPlaying(System.nanoTime());
+  }
+
+  /**
+   * Starts a new game.
+   *
+   * @param seed the seed for all random decisions of the game
+   */
+  public void startPlaying(long seed) {
     if (isPlaying()) return;
 
-    LOG.info("Start playing");
+    LOG.info("Start playing (seed {})", seed);
+
+    random.setSeed(seed);
+    nextPowerUp = getNextPowerUp();
+    autopilotUsed = paddleController != null;
+    openSessionLog(seed);
 
     isPlaying.set(true);
     isPaused.set(false);
@@ -320,12 +438,143 @@ public class GameModel extends Observable {
     notifyObservers(new GameEvent(GameEventType.LEVEL_START));
   }
 
+  /**
+   * Creates a copy of the current state of the game, e.g. to look ahead by playing the copy. The
+   * copy is a model in replay mode which does not record its session. It continues exactly as
+   * this model would with the same inputs.
+   *
+   * @return a copy of this model
+   */
+  public GameModel fork() {
+    final GameModel copy = new GameModel(true);
+    copy.setRecordSessions(false);
+    copy.copyStateFrom(this);
+    return copy;
+  }
+
+  /**
+   * Overwrites the state of this game with the state of another game. Balls, bricks and laser
+   * shots of this model are reused so copying from the same game again and again - as a search
+   * does - allocates almost nothing. Observers, autopilot, session and measurements of this model
+   * are kept. The copy is never paused - its driver decides when it runs.
+   *
+   * <p>The other model must not change during the copy.
+   *
+   * @param other the game to copy
+   * @throws IllegalStateException if this model is not in replay mode
+   */
+  public void copyStateFrom(GameModel other) {
+    if (!replayMode) {
+      throw new IllegalStateException("Only a model in replay mode can take the state of another");
+    }
+    timers.reset(other.timers.getTick());
+    scheduledStart = null;
+    scheduledRelease = null;
+
+    isPlaying.set(other.isPlaying.get());
+    isPaused.set(false);
+    gameOver.set(other.gameOver.get());
+    currentLevel.set(other.currentLevel.get());
+    currentRemainingLives.set(other.currentRemainingLives.get());
+    currentScore.set(other.currentScore.get());
+    activePower.set(other.activePower.get());
+    playfieldWidth.set(other.playfieldWidth.get());
+    playfieldHeight.set(other.playfieldHeight.get());
+    paddleX.set(other.paddleX.get());
+    paddleY.set(other.paddleY.get());
+    paddleWidth.set(other.paddleWidth.get());
+    paddleHeight.set(other.paddleHeight.get());
+    paddleLeft = false;
+    paddleRight = false;
+
+    random.copyFrom(other.random);
+    destroyedBricksCounter = other.destroyedBricksCounter;
+    lastPowerUp = other.lastPowerUp;
+    nextPowerUp = other.nextPowerUp;
+    ballCatchedFlag = other.ballCatchedFlag;
+    maxLoopHitsCounter = other.maxLoopHitsCounter;
+    ticks = other.ticks;
+    collisionSubstepMode = other.collisionSubstepMode;
+
+    brickLayout.copyFrom(other.brickLayout);
+
+    // balls - a ball bound to the paddle keeps its place on the paddle
+    copyList(
+        other.ballManager, ballManager, spareBalls, () -> new Ball(0, 0, 0, 0, 0), Ball::copyFrom);
+    for (int i = 0; i < ballManager.size(); i++) {
+      final Ball ball = other.ballManager.get(i);
+      if (ball.centerXProperty().isBound()) {
+        bindBallToPaddle(ballManager.get(i), ball.getCenterX() - other.paddleX.get());
+      }
+    }
+
+    copyList(
+        other.laserShotManager,
+        laserShotManager,
+        spareLaserShots,
+        () -> new LaserShot(0, 0, 0, 0, 0),
+        LaserShot::copyFrom);
+
+    // power pills have a fixed type and are rare - copies are only reused for the same type
+    fallingPowerPills.clear();
+    for (int i = 0; i < other.fallingPowerPills.size(); i++) {
+      fallingPowerPills.add(copyPowerPill(other.fallingPowerPills.get(i), null));
+    }
+    nextPowerPill =
+        other.nextPowerPill == null ? null : copyPowerPill(other.nextPowerPill, nextPowerPill);
+
+    // timers - the only timers of the game are the launch and the release of the ball
+    if (other.scheduledStart != null && other.scheduledStart.isPending()) {
+      scheduleLaunch(other.scheduledStart.getDeadline() - timers.getTick(), ballManager.get(0));
+    }
+    if (other.scheduledRelease != null && other.scheduledRelease.isPending()) {
+      scheduleRelease(other.scheduledRelease.getDeadline() - timers.getTick());
+    }
+  }
+
+  /**
+   * Makes a list equal to another by copying the elements into existing ones.
+   *
+   * @param from the list to copy
+   * @param to the list to overwrite
+   * @param spares elements removed from the list before - reused before new ones are created
+   * @param creator creates a new element when there are no spares
+   * @param copier copies an element into an existing one
+   */
+  private static <T> void copyList(
+      List<T> from, List<T> to, List<T> spares, Supplier<T> creator, BiConsumer<T, T> copier) {
+    while (to.size() > from.size()) spares.add(to.remove(to.size() - 1));
+    for (int i = 0; i < from.size(); i++) {
+      if (i < to.size()) {
+        copier.accept(to.get(i), from.get(i));
+      } else {
+        final T element = spares.isEmpty() ? creator.get() : spares.remove(spares.size() - 1);
+        copier.accept(element, from.get(i));
+        to.add(element);
+      }
+    }
+  }
+
+  /**
+   * @param pill the power pill to copy
+   * @param reuse an existing pill to reuse if it has the same type or null
+   * @return a copy of the power pill
+   */
+  private static PowerPill copyPowerPill(PowerPill pill, PowerPill reuse) {
+    final PowerPill copy =
+        reuse != null && reuse.getPowerPillType() == pill.getPowerPillType()
+            ? reuse
+            : new PowerPill(pill.getPowerPillType(), 0, 0, 0, 0);
+    copy.copyFrom(pill);
+    return copy;
+  }
+
   /** stops the current game */
   public void stopPlaying() {
     if (!isPlaying()) return;
 
     // incase we already started a game
-    scheduledStart.cancel(true);
+    timers.clear();
 
     // set status
     isPlaying.set(false);
@@ -341,9 +590,41 @@ public class GameModel extends Observable {
     setChanged();
     notifyObservers(new GameEvent(GameEventType.GAME_STOPPED));
 
+    closeSessionLog();
+
     LOG.info("Game stopeed");
   }
 
+  /**
+   * Starts recording the seed and all inputs of a new game.
+   *
+   * @param seed the seed of the new game
+   */
+  private void openSessionLog(long seed) {
+    if (replayMode || !recordSessions) return;
+    try {
+      sessionLog = SessionLog.create(seed);
+      recordPaddle();
+    } catch (IOException e) {
+      LOG.error("Session could not be recorded", e);
+      sessionLog = null;
+    }
+  }
+
+  /** Ends the recording of the current game */
+  private void closeSessionLog() {
+    final SessionLog log = sessionLog;
+    if (log == null) return;
+    sessionLog = null;
+    log.close();
+  }
+
+  /** Records the current position and size of the paddle */
+  private void recordPaddle() {
+    final SessionLog log = sessionLog;
+    if (log != null) log.paddle(paddleX.get(), paddleWidth.get());
+  }
+
   /** Cleans up balls and pills */
   private void cleanUpPlayfield() {
     // clear ball manager - delete all balls
@@ -363,7 +644,7 @@ public class GameModel extends Observable {
   /**
    * Starts a new round after loosing a ball or completing a level
    *
-   * @param delay
+   * @param delay ticks until the ball is launched
    */
   private void launchBall(long delay) {
     // remove balls, pills
@@ -378,41 +659,47 @@ public class GameModel extends Observable {
     // move the ball with the paddle before start of game
     bindBallToPaddle(newBall, paddleWidth.get() / 2 + 20);
 
-    // show the ball for a short time then start the animation
-    // check if the game has been stopped while we were waiting
-    // start the gameLoop
+    // show the ball on the paddle for a short time - the game loop keeps running to count the
+    // ticks but does not update the game until the ball has been launched
+    scheduleLaunch(delay, newBall);
+
+    // start the gameLoop - in replay mode the caller drives it
+    mainGameLoop.play();
+  }
+
+  /**
+   * Schedules the launch of a ball waiting on the paddle.
+   *
+   * @param delay ticks until the ball is launched
+   * @param ball the waiting ball
+   */
+  private void scheduleLaunch(long delay, Ball ball) {
+    if (scheduledStart != null) scheduledStart.cancel();
     scheduledStart =
-        executor.schedule(
-            () -> {
-              if (!isPlaying() || isPaused())
-                return; // check if the game has been stopped while we were waiting
-              unbindBallFromPaddle(newBall);
-              mainGameLoop.play(); // start the gameLoop
-            },
+        timers.schedule(
             delay,
-            TimeUnit.MILLISECONDS);
+            () -> {
+              unbindBallFromPaddle(ball);
+              LOG.debug("Ball launched");
+            });
+  }
 
-    LOG.debug("Ball launched");
+  /**
+   * Schedules the release of a caught ball.
+   *
+   * @param delay ticks until the ball is released
+   */
+  private void scheduleRelease(long delay) {
+    if (scheduledRelease != null) scheduledRelease.cancel();
+    scheduledRelease = timers.schedule(delay, () -> ballCatchedFlag = false);
   }
 
   /** Binds the ball to the paddle movement before start of the game */
   private void bindBallToPaddle(Ball ball, double xLocationOnPaddle) {
     // bind ball to paddle
-    ball.centerXProperty()
-        .bind(paddleX.add(xLocationOnPaddle)); // slightly to the right of the middle
-    ball.centerYProperty().bind(paddleY.subtract(ball.getRadius()).subtract(1.0));
-
-    // release the ball after a few seconds
-    executor.schedule(
-            () -> {
-              // check if the game has been stopped while we were waiting
-              if (!isPlaying() || isPaused()) return;
-              ballCatchedFlag = false;
-            },
-            5000,
-            TimeUnit.MILLISECONDS);
-
-    LOG.debug("Ball bound to paddle for 5 sec");
+    ball.centerXProperty().bind(paddleX, x -> x + xLocationOnPaddle);
+    final double radius = ball.getRadius();
+    ball.centerYProperty().bind(paddleY, y -> y - radius - 1.0);
   }
 
   /**
@@ -427,19 +714,69 @@ public class GameModel extends Observable {
   }
 
   /**
-   * Called by the <code>mainGameLoop</code> animation event to make a new frame of the game.<br>
+   * Called by the <code>mainGameLoop</code> of the clock or, in replay mode, by the driver of
+   * the model to make a new frame of the game.<br>
    */
-  private void gameLoop() {
+  public void gameLoop() {
     if (!isPlaying()) return;
 
+    final PaddleController controller = paddleController;
+    if (controller != null && !isPaused()) control(controller);
+
+    final SessionLog log = sessionLog;
+    if (log != null) log.tick();
+
+    final AllocationMeter meter = allocationMeter;
+    if (meter != null) meter.startTick();
+
+    // only create the event while it is recorded to keep the loop free of allocations
+    final GameTickEvent tickEvent = GameTickEvent.isRecording() ? new GameTickEvent() : null;
+    if (tickEvent != null) tickEvent.start();
+
     long startLoopTime = System.nanoTime();
+    ticks++;
 
-    updateGameState();
+    updateGameState(meter, tickEvent);
 
     lastloopTime = System.nanoTime() - startLoopTime;
     commulativeLoopTime += lastloopTime;
 
     updateFPS();
+
+    if (meter != null) {
+      meter.mark(AllocationMeter.Subsystem.STATISTICS);
+      meter.endTick();
+    }
+
+    if (tickEvent != null) {
+      tickEvent.level = currentLevel.get();
+      tickEvent.balls = ballManager.size();
+      tickEvent.laserShots = laserShotManager.size();
+      tickEvent.powerPills = fallingPowerPills.size();
+      tickEvent.commit();
+    }
+
+    final Runnable[] listeners = tickListeners;
+    for (int i = 0; i < listeners.length; i++) listeners[i].run();
+  }
+
+  /**
+   * Registers a listener which is called after each tick of the game loop on the thread running
+   * the game loop, e.g. to publish the state of the game.
+   *
+   * @param listener the listener
+   */
+  public synchronized void addTickListener(Runnable listener) {
+    final Runnable[] listeners = Arrays.copyOf(tickListeners, tickListeners.length + 1);
+    listeners[listeners.length - 1] = listener;
+    tickListeners = listeners;
+  }
+
+  /** @param listener the listener to remove */
+  public synchronized void removeTickListener(Runnable listener) {
+    final List<Runnable> listeners = new ArrayList<>(Arrays.asList(tickListeners));
+    listeners.remove(listener);
+    tickListeners = listeners.toArray(new Runnable[0]);
   }
 
   /** Calculate some statistics */
@@ -449,8 +786,9 @@ public class GameModel extends Observable {
       double timeSinceLastFPS = (System.nanoTime() - frameLoopCounterTimeStamp);
       fps.set(1e9f * (frameLoopCounter / timeSinceLastFPS));
 
-      double tLoop = ((commulativeLoopTime / frameLoopCounter) / 1e6f);
-      double tFrame = 1000 / INITIAL_FRAMERATE;
+      averageLoopTime = commulativeLoopTime / frameLoopCounter;
+      double tLoop = averageLoopTime / 1e6f;
+      double tFrame = 1000 / frameRate;
       // System.out.printf("Avg. Time for loop: %.6f ms (framelimit %.6f ms) %n", tLoop, tFrame);
       if (tLoop > tFrame) {
         if (LOG.isWarnEnabled()) {
@@ -466,23 +804,46 @@ public class GameModel extends Observable {
     }
   }
 
-  private void updateGameState() {
+  private void updateGameState(final AllocationMeter meter, final GameTickEvent tickEvent) {
+
+    // run due timers - nothing moves while a new ball waits on the paddle for its launch
+    final boolean waitingForLaunch = scheduledStart != null && scheduledStart.isPending();
+    timers.advance();
+    if (waitingForLaunch) {
+      // a skipped level must still take effect while the ball waits
+      updateLevel();
+      return;
+    }
 
     // if no more balls we lost a live
     if (ballManager.isEmpty()) {
 
       LOG.info("Lost last ball");
       updateLives();
+      endPhase(meter, tickEvent, AllocationMeter.Subsystem.LIVES);
 
     } else { // still at least one ball in play
 
       updatePowerPills();
+      endPhase(meter, tickEvent, AllocationMeter.Subsystem.POWER_PILLS);
       updateLaser();
+      endPhase(meter, tickEvent, AllocationMeter.Subsystem.LASER);
       updateBalls();
+      endPhase(meter, tickEvent, AllocationMeter.Subsystem.BALLS);
       updateLevel();
+      endPhase(meter, tickEvent, AllocationMeter.Subsystem.LEVEL);
     }
   }
 
+  /** Hands the end of a phase of the game loop to the meter and the event if present */
+  private static void endPhase(
+      final AllocationMeter meter,
+      final GameTickEvent tickEvent,
+      final AllocationMeter.Subsystem phase) {
+    if (meter != null) meter.mark(phase);
+    if (tickEvent != null) tickEvent.endPhase(phase);
+  }
+
   private void updateLives() {
     final int remainingLives = decreaseRemainingLives();
 
@@ -495,9 +856,6 @@ public class GameModel extends Observable {
       return;
     }
 
-    // pause animation
-    mainGameLoop.pause();
-
     // launch a new ball
     launchBall(SLEEP_BETWEEN_LIVES);
   }
@@ -558,18 +916,19 @@ public class GameModel extends Observable {
         continue;
       }
 
+      // a caught ball rides on the paddle - it neither moves nor collides until released
+      if (ballCatchedFlag) continue;
+
       // move the ball
-      if (!ballCatchedFlag) {
-        unbindBallFromPaddle(ball);
-        ball.moveStep();
-      }
+      unbindBallFromPaddle(ball);
+      ball.moveStep();
 
       // check collisions from the ball(s) with anything else
       checkBallCollisions(ball);
 
       // ball cought in loop?
       if (maxLoopHitsCounter <= 0) {
-        ball.nudgeBall();
+        ball.nudgeBall(random);
         maxLoopHitsCounter = MAX_NUMBER_OF_LOOP_HITS;
         LOG.debug("Possible loop -> nudge ball");
       }
@@ -642,6 +1001,7 @@ public class GameModel extends Observable {
         if (!newType.equals(PowerPillType.CATCH)) {
           ballManager.forEach(this::unbindBallFromPaddle);
           ballCatchedFlag = false;
+          if (scheduledRelease != null) scheduledRelease.cancel();
         }
         break;
       case SLOW:
@@ -695,10 +1055,10 @@ public class GameModel extends Observable {
         // add balls up to three balls
         switch (ballManager.size()) {
           case 1:
-            ballManager.add(ballManager.get(0).split());
+            ballManager.add(ballManager.get(0).split(random));
             // fall through
           case 2:
-            ballManager.add(ballManager.get(0).split());
+            ballManager.add(ballManager.get(0).split(random));
             break;
           default:
         }
@@ -712,28 +1072,35 @@ public class GameModel extends Observable {
 
   /** Grwos paddle over time */
   private void growPaddle() {
+    // in replay mode the paddle size is part of the session
+    if (replayMode) return;
     paddleGrower.playFromStart();
   }
 
   /** shrink paddle over time */
   private void shrinkPaddle() {
-    // shrink the paddle slowly
-    paddleShrinker.setCycleCount(1);
-    // smaller
-    double smallerSize = PADDEL_INITIAL_WIDTH;
-    // move to the left to make it look as if it grew from the middle
-    double newLeftX = paddleX.get() + ((PADDLE_ENLARGEMENT_FACTOR - 1) / 2) * PADDEL_INITIAL_WIDTH;
-    KeyFrame shrinkR = new KeyFrame(Duration.millis(250), new KeyValue(paddleWidth, smallerSize));
-    KeyFrame shrinkL = new KeyFrame(Duration.millis(250), new KeyValue(paddleX, newLeftX));
-    paddleShrinker.getKeyFrames().addAll(shrinkL, shrinkR);
+    // in replay mode the paddle size is part of the session
+    if (replayMode) return;
+    // shrink the paddle slowly - linear from the current to the smaller size
+    final int steps = PADDLE_ANIMATION_STEPS;
+    final double widthSteps = (PADDEL_INITIAL_WIDTH - paddleWidth.get()) / steps;
+    // move to the right to make it look as if it shrank to the middle
+    final double xSteps = ((PADDLE_ENLARGEMENT_FACTOR - 1) / 2) * PADDEL_INITIAL_WIDTH / steps;
+    paddleShrinker.stop();
+    paddleShrinker =
+        clock.createLoop(
+            PADDLE_ANIMATION_PERIOD,
+            steps,
+            () -> {
+              paddleWidth.set(paddleWidth.get() + widthSteps);
+              paddleX.set(paddleX.get() + xSteps);
+            });
     paddleShrinker.playFromStart();
   }
 
   /** Checks if all bricks are gone and if so icreases level and launches new ball. */
   private void updateLevel() {
     if (brickLayout.getNumberOfBricks() == 0) {
-      // pause game animation
-      mainGameLoop.pause();
       // Level done
       setChanged();
       notifyObservers(new GameEvent(GameEventType.LEVEL_COMPLETE));
@@ -749,8 +1116,10 @@ public class GameModel extends Observable {
    * Checks if the ball(s) have hit a wall, the paddle, a block or has left through the bottom.
    * Calculates new speeds for each direction, tells brickLayout if the ball hits a brick and calls
    * <code>ballLost()</code> when ball has left through bottom.
+   *
+   * <p>Package private instead of private for benchmarking.
    */
-  private void checkBallCollisions(Ball ball) {
+  void checkBallCollisions(Ball ball) {
 
     /*
      * We us intermediate discrete (<1) steps to avoid "tunneling" through objects.
@@ -772,10 +1141,27 @@ public class GameModel extends Observable {
     double cbY = bpY; // current Y set up previous Y
     double cbX = bpX; // current
 
-    // step sizes
-    final double stepY = vY / 10;
-    final double stepX = vX / 10;
-    final double stepV = ball.getVelocity() / 10;
+    // number of steps and step sizes
+    final int steps;
+    final double divisor;
+    switch (collisionSubstepMode) {
+      case PIXEL:
+        steps = Math.max(1, (int) Math.ceil(ball.getVelocity()));
+        divisor = steps;
+        break;
+      case COARSE:
+        steps = Math.max(1, (int) Math.ceil(ball.getVelocity() / 4));
+        divisor = steps;
+        break;
+      case DEFAULT:
+      default:
+        steps = (int) ball.getVelocity();
+        divisor = 10;
+        break;
+    }
+    final double stepY = vY / divisor;
+    final double stepX = vX / divisor;
+    final double stepV = ball.getVelocity() / divisor;
 
     if (LOG.isDebugEnabled()) { // to not even create the string when not logging
       LOG.debug(
@@ -791,7 +1177,7 @@ public class GameModel extends Observable {
     }
 
     // do discrete intermediate steps
-    for (int t = 1; t <= ball.getVelocity(); t++) {
+    for (int t = 1; t <= steps; t++) {
 
       // advance current ball center position by 1 step
       cbY += stepY;
@@ -929,8 +1315,12 @@ public class GameModel extends Observable {
             && ballManager.size() == 1) { // only when only one ball in play
           ballCatchedFlag = true;
           bindBallToPaddle(ball, hitPointAbsolute);
+          // release the ball after a few seconds - part of the simulation, not a player input
+          scheduleRelease(CATCH_TIMEOUT);
           setChanged();
           notifyObservers(new GameEvent(GameEventType.CAUGHT));
+          // the ball is now bound to the paddle and must not be moved by further steps
+          return;
         } else {
           setChanged();
           notifyObservers(new GameEvent(GameEventType.HIT_PADDLE, ball));
@@ -1016,6 +1406,15 @@ public class GameModel extends Observable {
     final int hitBrickScore = brickLayout.hitBrick(row, col);
     // increase score
     increaseScore(brickType, hitBrickScore);
+    final BrickHitEvent hitEvent = new BrickHitEvent();
+    if (hitEvent.shouldCommit()) {
+      hitEvent.level = currentLevel.get();
+      hitEvent.row = row;
+      hitEvent.column = col;
+      hitEvent.brickType = brickType.name();
+      hitEvent.destroyed = hitBrickScore > 0;
+      hitEvent.commit();
+    }
     // count destroyed bricks
     if (hitBrickScore > 0) {
       // relevant Hit?
@@ -1026,7 +1425,7 @@ public class GameModel extends Observable {
         nextPowerPill =
             new PowerPill(
                 //                PowerPillType.ENLARGE,
-                PowerPillType.getRandom(),
+                PowerPillType.getRandom(random),
                 brickLayout.getLeftBound(row, col),
                 brickLayout.getUpperBound(row, col),
                 brickLayout.getBrickWidth(),
@@ -1050,7 +1449,8 @@ public class GameModel extends Observable {
       setChanged();
       notifyObservers(new GameEvent(GameEventType.GAME_OVER));
     }
-    // new highscore (1st until 15th place)
+    // new highscore (1st until 15th place) - not for replayed or autopiloted games
+    if (replayMode || autopilotUsed) return;
     if (highScoreManager.getList().size() < HIGHSCORE_MAX_PLACE - 1
         || currentScore.get() > highScoreManager.getList().get(HIGHSCORE_MAX_PLACE - 1).score) {
       HighScore.HighScoreEntry entry =
@@ -1110,15 +1510,15 @@ public class GameModel extends Observable {
   }
 
   /**
-   * Called by the <code>paddleMovementTimeline<code> animation event to move the paddles.
+   * Called by the <code>paddleMovementLoop<code> of the clock to move the paddles.
    */
   private void paddleMovementLoop() {
     if (isPaused()) return; // no paddle movement when game is paused
     if (paddleLeft && paddleX.get() > 0.0) {
-      paddleX.setValue(paddleX.getValue() - PADDLE_MOVE_STEPS);
+      paddleX.set(paddleX.get() - PADDLE_MOVE_STEPS);
     }
     if (paddleRight && paddleX.get() + paddleWidth.get() < playfieldWidth.get()) {
-      paddleX.setValue(paddleX.getValue() + PADDLE_MOVE_STEPS);
+      paddleX.set(paddleX.get() + PADDLE_MOVE_STEPS);
     }
   }
 
@@ -1139,7 +1539,11 @@ public class GameModel extends Observable {
               LASER_HEIGHT,
               LASER_SPEED);
 
-      laserShotManager.addAll(ls1, ls2);
+      laserShotManager.add(ls1);
+      laserShotManager.add(ls2);
+
+      final SessionLog log = sessionLog;
+      if (log != null) log.laser();
 
       setChanged();
       notifyObservers(new GameEvent(GameEventType.LASER_SHOT, ls1, ls2));
@@ -1150,7 +1554,31 @@ public class GameModel extends Observable {
   public void releaseCaughtBall() {
     if (ballCatchedFlag) {
       ballCatchedFlag = false;
+      scheduledRelease.cancel();
+      final SessionLog log = sessionLog;
+      if (log != null) log.release();
+    }
+  }
+
+  /**
+   * Applies the decisions of the autopilot for the next tick. The paddle moves with a limited
+   * speed towards the target so that the autopilot can not simply jump under the ball.
+   *
+   * @param controller the autopilot
+   */
+  private void control(PaddleController controller) {
+    final double target = controller.getPaddleTarget(this);
+    if (!Double.isNaN(target)) {
+      final double width = paddleWidth.get();
+      final double x = Math.max(0, Math.min(playfieldWidth.get() - width, target - width / 2));
+      final double step = x - paddleX.get();
+      if (step != 0) {
+        paddleX.set(
+            paddleX.get() + Math.max(-AUTOPILOT_MAX_STEP, Math.min(AUTOPILOT_MAX_STEP, step)));
+      }
     }
+    if (ballCatchedFlag && controller.isReleasing(this)) releaseCaughtBall();
+    if (controller.isFiring(this)) shootLaser();
   }
 
   /** pauses a running game */
@@ -1158,6 +1586,9 @@ public class GameModel extends Observable {
     if (!isPlaying()) return; // ignore if not playing
     isPaused.set(true);
     mainGameLoop.pause();
+    updatePaddleMovementLoop();
+    final SessionLog log = sessionLog;
+    if (log != null) log.pause();
     LOG.info("Game paused");
   }
 
@@ -1175,7 +1606,10 @@ public class GameModel extends Observable {
   public void resumePlaying() {
     if (!isPlaying() && !isPaused()) return; // ignore if not playing
     isPaused.set(false);
-    mainGameLoop.play();
+    final SessionLog log = sessionLog;
+    if (log != null) log.resume();
+    if (!replayMode) mainGameLoop.play();
+    updatePaddleMovementLoop();
     LOG.info("Game resumed");
   }
 
@@ -1204,65 +1638,78 @@ public class GameModel extends Observable {
     }
   }
 
+  /**
+   * Sets position and size of the paddle, e.g. as recorded in a session.
+   *
+   * @param x the x position of the paddle
+   * @param width the width of the paddle
+   */
+  public void setPaddle(double x, double width) {
+    paddleX.set(x);
+    paddleWidth.set(width);
+  }
+
   /** Cheat to skip a level even if it is not finished */
   public void skipLevelCheat() {
+    final SessionLog log = sessionLog;
+    if (log != null) log.skipLevel();
     brickLayout.resetMatrix();
     LOG.info("Cheat: Skip Level");
   }
 
-  public DoubleProperty paddleWidthProperty() {
+  public DoubleValue paddleWidthProperty() {
     return paddleWidth;
   }
 
-  public DoubleProperty paddleXProperty() {
+  public DoubleValue paddleXProperty() {
     return paddleX;
   }
 
-  public DoubleProperty playfieldWidthProperty() {
+  public DoubleValue playfieldWidthProperty() {
     return playfieldWidth;
   }
 
-  public DoubleProperty playfieldHeightProperty() {
+  public DoubleValue playfieldHeightProperty() {
     return playfieldHeight;
   }
 
-  public DoubleProperty paddleHeightProperty() {
+  public DoubleValue paddleHeightProperty() {
     return paddleHeight;
   }
 
-  public DoubleProperty paddleYProperty() {
+  public DoubleValue paddleYProperty() {
     return paddleY;
   }
 
-  public ReadOnlyBooleanProperty isPlayingProperty() {
-    return isPlaying.getReadOnlyProperty();
+  public ReadOnlyBooleanValue isPlayingProperty() {
+    return isPlaying;
   }
 
-  public ReadOnlyBooleanProperty isPausedProperty() {
-    return isPaused.getReadOnlyProperty();
+  public ReadOnlyBooleanValue isPausedProperty() {
+    return isPaused;
   }
 
-  public ReadOnlyBooleanProperty gameOverProperty() {
-    return gameOver.getReadOnlyProperty();
+  public ReadOnlyBooleanValue gameOverProperty() {
+    return gameOver;
   }
 
-  public ReadOnlyIntegerProperty currentLevelProperty() {
-    return currentLevel.getReadOnlyProperty();
+  public ReadOnlyIntValue currentLevelProperty() {
+    return currentLevel;
   }
 
-  public ReadOnlyIntegerProperty currentRemainingLivesProperty() {
-    return currentRemainingLives.getReadOnlyProperty();
+  public ReadOnlyIntValue currentRemainingLivesProperty() {
+    return currentRemainingLives;
   }
 
-  public ReadOnlyIntegerProperty currentScoreProperty() {
-    return currentScore.getReadOnlyProperty();
+  public ReadOnlyIntValue currentScoreProperty() {
+    return currentScore;
   }
 
   public String getPlayerName() {
     return playerName.get();
   }
 
-  public StringProperty playerNameProperty() {
+  public ObjectValue<String> playerNameProperty() {
     return playerName;
   }
 
@@ -1272,29 +1719,72 @@ public class GameModel extends Observable {
 
   public void setPaddleLeft(boolean b) {
     paddleLeft = b;
+    updatePaddleMovementLoop();
   }
 
   public void setPaddleRight(boolean b) {
     paddleRight = b;
+    updatePaddleMovementLoop();
   }
 
-  public ListProperty<PowerPill> fallingPowerPillsProperty() {
+  /**
+   * Runs the paddle movement loop only while a paddle key is pressed and the game is not paused so
+   * that an idle model does not keep the UI busy. The first step is done at once so the paddle
+   * reacts without waiting for the loop.
+   */
+  private void updatePaddleMovementLoop() {
+    if ((paddleLeft || paddleRight) && !isPaused()) {
+      if (!paddleMovementLoop.isRunning()) {
+        paddleMovementLoop();
+        paddleMovementLoop.play();
+      }
+    } else {
+      paddleMovementLoop.stop();
+    }
+  }
+
+  /** @return the autopilot of the paddle or null if the player controls the paddle */
+  public PaddleController getPaddleController() {
+    return paddleController;
+  }
+
+  /**
+   * Hands the paddle to an autopilot or back to the player. A game in which the autopilot has
+   * played does not make it into the highscore list.
+   *
+   * @param paddleController the autopilot or null to give the control back to the player
+   */
+  public void setPaddleController(PaddleController paddleController) {
+    this.paddleController = paddleController;
+    if (paddleController != null && isPlaying()) autopilotUsed = true;
+    LOG.info("Autopilot {}", paddleController == null ? "off" : "on");
+  }
+
+  /** @return true if none of the loops and animations of the model is running */
+  public boolean isIdle() {
+    return !mainGameLoop.isRunning()
+        && !paddleMovementLoop.isRunning()
+        && !paddleGrower.isRunning()
+        && !paddleShrinker.isRunning();
+  }
+
+  public ObservableArrayList<PowerPill> fallingPowerPillsProperty() {
     return fallingPowerPills;
   }
 
-  public ObjectProperty<PowerPillType> activePowerProperty() {
+  public ObjectValue<PowerPillType> activePowerProperty() {
     return activePower;
   }
 
-  public DoubleProperty fpsProperty() {
+  public DoubleValue fpsProperty() {
     return fps;
   }
 
-  public ListProperty<Ball> getBallManager() {
+  public ObservableArrayList<Ball> getBallManager() {
     return ballManager;
   }
 
-  public ListProperty<LaserShot> getLaserShotManager() {
+  public ObservableArrayList<LaserShot> getLaserShotManager() {
     return laserShotManager;
   }
 
@@ -1308,9 +1798,113 @@ public class GameModel extends Observable {
     return fps.get();
   }
 
+  /**
+   * @param frameRate the frame rate of the game loop
+   * @return a loop calling the game loop once per frame
+   */
+  private GameClock.Loop createGameLoop(final double frameRate) {
+    return clock.createLoop(1000f / frameRate, GameClock.INDEFINITE, this::gameLoop);
+  }
+
+  /** @return number of game loop cycles since the model has been created */
+  public long getTicks() {
+    return ticks;
+  }
+
+  /** @return average time in nanos of the game loop over the last 100 cycles */
+  public long getAverageLoopTime() {
+    return averageLoopTime;
+  }
+
+  /** @return the frame rate of the game loop */
+  public double getFrameRate() {
+    return frameRate;
+  }
+
+  /**
+   * Changes the frame rate of the game loop. As the balls move a fixed distance per cycle this also
+   * changes the speed of the game. Must be called on the thread running the loops of the clock,
+   * e.g. the JavaFX Application Thread.
+   *
+   * @param frameRate cycles of the game loop per second
+   */
+  public void setFrameRate(final double frameRate) {
+    if (frameRate <= 0) throw new IllegalArgumentException("Frame rate must be positive");
+    this.frameRate = frameRate;
+    final boolean running = mainGameLoop.isRunning();
+    mainGameLoop.stop();
+    mainGameLoop = createGameLoop(frameRate);
+    if (running) mainGameLoop.play();
+    LOG.info("Frame rate of game loop set to {}", frameRate);
+  }
+
+  /** @return how the path of a ball is divided for the collision checks */
+  public CollisionSubstepMode getCollisionSubstepMode() {
+    return collisionSubstepMode;
+  }
+
+  /** @param collisionSubstepMode how the path of a ball is divided for the collision checks */
+  public void setCollisionSubstepMode(final CollisionSubstepMode collisionSubstepMode) {
+    this.collisionSubstepMode = collisionSubstepMode;
+    LOG.info("Collision substep mode set to {}", collisionSubstepMode);
+  }
+
+  /** @return time in nanos of the last cycle of the game loop */
+  public long getLastLoopTime() {
+    return lastloopTime;
+  }
+
   /** @return number of bricks to be destroyed until next power up */
   private int getNextPowerUp() {
-    return NEXT_POWERUP_OFFSET + (int) (Math.random() * POWER_UP_FREQUENCY);
+    return NEXT_POWERUP_OFFSET + random.nextInt(POWER_UP_FREQUENCY);
+  }
+
+  /** @return true if seed and inputs of each game are recorded for a later replay */
+  public boolean isRecordSessions() {
+    return recordSessions;
+  }
+
+  /** @param recordSessions true to record seed and inputs of each new game for a later replay */
+  public void setRecordSessions(final boolean recordSessions) {
+    this.recordSessions = recordSessions;
+  }
+
+  /**
+   * Hands the internal state which is not visible through the properties but decides the further
+   * course of the game to a hash - for <code>Perft.hash()</code>.
+   *
+   * @param hash consumes the state
+   */
+  void hashHiddenState(final LongConsumer hash) {
+    hash.accept(random.getState());
+    hash.accept(destroyedBricksCounter);
+    hash.accept(lastPowerUp);
+    hash.accept(nextPowerUp);
+    hash.accept(nextPowerPill == null ? -1 : nextPowerPill.getPowerPillType().ordinal());
+    hash.accept(ballCatchedFlag ? 1 : 0);
+    hash.accept(maxLoopHitsCounter);
+    hash.accept(remainingTicks(scheduledStart));
+    hash.accept(remainingTicks(scheduledRelease));
+  }
+
+  /** @return ticks until the timer runs or -1 if it is not pending */
+  private long remainingTicks(final TimerWheel.Timer timer) {
+    return timer != null && timer.isPending() ? timer.getDeadline() - timers.getTick() : -1;
+  }
+
+  /** @return the meter measuring allocations of the game loop or null when not measuring */
+  public AllocationMeter getAllocationMeter() {
+    return allocationMeter;
+  }
+
+  /**
+   * Measures the allocations of each tick of the game loop with the given meter. The meter must
+   * only be set while the game loop is not running or from the thread running the game loop.
+   *
+   * @param allocationMeter the meter or null to stop measuring
+   */
+  public void setAllocationMeter(final AllocationMeter allocationMeter) {
+    this.allocationMeter = allocationMeter;
   }
 
   public PowerPillType getActivePower() {
@@ -24,6 +24,7 @@
  */
 package fko.jarkanoid.model;
 
+import fko.jarkanoid.jfr.HighScoreSaveEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,6 +61,10 @@ public class HighScore {
   // the highscore list
   private List<HighScoreEntry> _list;
 
+  // result of the last save - null if not saved yet
+  private volatile LocalDateTime lastSaveTime = null;
+  private volatile boolean lastSaveSuccess = false;
+
   /**
    * Return singleton instance of HighScoreData
    *
@@ -147,6 +152,18 @@ public class HighScore {
     }
   }
 
+  /**
+   * Creates a highscore list with the given entries without reading the highscore file.
+   *
+   * <p>For unit testing and benchmarks only.
+   *
+   * @param entries initial entries of the list
+   */
+  HighScore(List<HighScoreEntry> entries) {
+    _list = Collections.synchronizedList(new ArrayList<>(entries));
+    sortList();
+  }
+
   /**
    * Return the highscore list as unmodifiable list
    *
@@ -211,6 +228,24 @@ public class HighScore {
    * Save _list to file. Max MAX_ENTRIES are written.
    */
   private boolean saveFile() {
+    final HighScoreSaveEvent event = new HighScoreSaveEvent();
+    event.begin();
+    final boolean success = writeFile();
+    lastSaveTime = LocalDateTime.now();
+    lastSaveSuccess = success;
+    if (event.shouldCommit()) {
+      event.file = _filePath.toString();
+      event.entries = Math.min(_list.size(), MAX_ENTRIES);
+      event.success = success;
+      event.commit();
+    }
+    return success;
+  }
+
+  /*
+   * Write _list to file. Max MAX_ENTRIES are written.
+   */
+  private boolean writeFile() {
     Charset charset = Charset.forName("ISO-8859-1");
     // Use try-with-resource to get auto-closeable writer instance
     try (BufferedWriter writer = Files.newBufferedWriter(_filePath, charset)) {
@@ -236,6 +271,21 @@ public class HighScore {
     return true;
   }
 
+  /** @return the file the high score list is stored in */
+  public Path getFilePath() {
+    return _filePath;
+  }
+
+  /** @return time of the last save or null if not saved yet */
+  public LocalDateTime getLastSaveTime() {
+    return lastSaveTime;
+  }
+
+  /** @return true if the last save was successful */
+  public boolean isLastSaveSuccess() {
+    return lastSaveSuccess;
+  }
+
   /*
    * sort the list with the highest score first
    */
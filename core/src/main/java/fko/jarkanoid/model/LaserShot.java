@@ -25,8 +25,7 @@
 
 package fko.jarkanoid.model;
 
-import javafx.beans.property.DoubleProperty;
-import javafx.beans.property.SimpleDoubleProperty;
+import fko.jarkanoid.beans.DoubleValue;
 
 /**
  * LaserShot
@@ -60,6 +59,20 @@ public class LaserShot {
     this.vY = vY;
   }
 
+  /**
+   * Takes position, size and speed of another laser shot.
+   *
+   * @param other the laser shot to copy
+   */
+  void copyFrom(LaserShot other) {
+    setWidth(other.getWidth());
+    setHeight(other.getHeight());
+    setX(other.getX());
+    setY(other.getY());
+    vY = other.vY;
+    isMarkedForRemoval = other.isMarkedForRemoval;
+  }
+
   /** Moves the laser one step further. Expected to be called by the game loop once per frame. */
   public void moveStep() {
     y.set(y.get() - vY);
@@ -84,7 +97,7 @@ public class LaserShot {
   /**
    * Defines the X coordinate of the upper-left corner of the rectangle.
    */
-  private DoubleProperty x = new SimpleDoubleProperty();
+  private DoubleValue x = new DoubleValue();
 
   public double getX() {
     return x.get();
@@ -94,14 +107,14 @@ public class LaserShot {
     x.set(value);
   }
 
-  public DoubleProperty xProperty() {
+  public DoubleValue xProperty() {
     return x;
   }
 
   /**
    * Defines the Y coordinate of the upper-left corner of the rectangle.
    */
-  private DoubleProperty y = new SimpleDoubleProperty();
+  private DoubleValue y = new DoubleValue();
 
   public final void setY(double value) {
     y.set(value);
@@ -111,14 +124,14 @@ public class LaserShot {
     return y.get();
   }
 
-  public final DoubleProperty yProperty() {
+  public final DoubleValue yProperty() {
     return y;
   }
 
   /**
    * Defines the width of the rectangle.
    */
-  private final DoubleProperty width = new SimpleDoubleProperty();
+  private final DoubleValue width = new DoubleValue();
 
   public final void setWidth(double value) {
     width.set(value);
@@ -128,14 +141,14 @@ public class LaserShot {
     return width.get();
   }
 
-  public final DoubleProperty widthProperty() {
+  public final DoubleValue widthProperty() {
     return width;
   }
 
   /**
    * Defines the height of the rectangle.
    */
-  private final DoubleProperty height = new SimpleDoubleProperty();
+  private final DoubleValue height = new DoubleValue();
 
   public final void setHeight(double value) {
     height.set(value);
@@ -145,7 +158,7 @@ public class LaserShot {
     return height.get();
   }
 
-  public final DoubleProperty heightProperty() {
+  public final DoubleValue heightProperty() {
     return height;
   }
 
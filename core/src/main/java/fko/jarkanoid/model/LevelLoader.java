@@ -40,7 +40,7 @@ import java.util.Map;
 import java.util.jar.JarFile;
 import java.util.stream.Collectors;
 
-import fko.jarkanoid.Jarkanoid;
+import fko.jarkanoid.jfr.LevelLoadEvent;
 import fko.jarkanoid.model.exceptions.LevelLoaderFormatException;
 import fko.jarkanoid.model.exceptions.LevelLoaderIOException;
 import fko.jarkanoid.model.exceptions.LevelLoaderNoLevelFilesException;
@@ -130,6 +130,22 @@ public final class LevelLoader {
    * @return the level matrix or null of no such level
    */
   public Brick[][] getLevel(int i) {
+    final LevelLoadEvent event = new LevelLoadEvent();
+    event.begin();
+    final Brick[][] level = copyLevel(i);
+    if (event.shouldCommit()) {
+      event.level = i;
+      event.found = level != null;
+      event.commit();
+    }
+    return level;
+  }
+
+  /**
+   * @param i (&gt; 0 and &lt; maxAvailableLevel)
+   * @return a deep copy of the level matrix or null of no such level
+   */
+  private Brick[][] copyLevel(int i) {
     if (i < 1) return null;
     // get the matrix from the Map
     final Brick[][] myMatrix = levels.get(Integer.toString(i));
@@ -207,7 +223,7 @@ public final class LevelLoader {
 
       LOG.info("Running from IDE or shell.");
 
-      final URL folderURL = Jarkanoid.class.getResource(folder);
+      final URL folderURL = LevelLoader.class.getResource(folder);
       if (folderURL == null) {
         LevelLoaderIOException e = new LevelLoaderIOException(
                 "While loading main.resources.levels: Folder not found: " + folder);
@@ -244,7 +260,7 @@ public final class LevelLoader {
    * @return
    */
   protected List<String> getLinesFromLevelFile(String folder, String file) {
-    final InputStream fileStream = Jarkanoid.class.getResourceAsStream(folder + file);
+    final InputStream fileStream = LevelLoader.class.getResourceAsStream(folder + file);
     if (fileStream == null) {
       throw new LevelLoaderIOException(
           String.format("While loading level file %s: File not found!", folder + file));
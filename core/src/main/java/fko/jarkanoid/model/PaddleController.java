@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+/**
+ * PaddleController
+ *
+ * <p>An autopilot for the paddle. When a controller is set on a <code>GameModel</code> the model
+ * asks it once per tick of the game loop - before the tick is simulated - where the paddle shall
+ * go and whether to release a caught ball or to fire the laser. The decisions are applied like
+ * inputs of a player and are therefore recorded in the <code>SessionLog</code>.
+ *
+ * <p>A controller works the same in the live game (e.g. as attract mode) and in headless runs
+ * where the caller drives the game loop at full speed. It is called on the thread running the game
+ * loop and must not change the model itself.
+ *
+ * @author Frank Kopp
+ */
+public interface PaddleController {
+
+  /**
+   * The paddle moves towards the target with a limited speed per tick.
+   *
+   * @param model the model to control
+   * @return x of the paddle's center to move to or <code>Double.NaN</code> to leave the paddle
+   */
+  double getPaddleTarget(GameModel model);
+
+  /**
+   * @param model the model to control
+   * @return true to release a caught ball in this tick
+   */
+  default boolean isReleasing(GameModel model) {
+    return true;
+  }
+
+  /**
+   * @param model the model to control
+   * @return true to fire the laser in this tick - ignored without the laser power
+   */
+  default boolean isFiring(GameModel model) {
+    return false;
+  }
+}
@@ -0,0 +1,344 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Perft
+ *
+ * <p>Verifies the game simulation and measures its speed at the same time - like "perft" in chess
+ * engines. Each position of the catalog starts a game at a level with a seed and simulates a
+ * number of ticks with scripted input. The state of the game is then hashed and compared with the
+ * golden hash from the catalog. Changes to the simulation (e.g. collision optimizations) can
+ * therefore be proven to behave identically and measured to be faster in one run.
+ *
+ * <p>Usage: <code>Perft [repetitions] [--update]</code>. With <code>--update</code> the catalog
+ * lines with the new hashes are printed - only to be used after intended changes of the game
+ * behaviour.
+ *
+ * <p>Catalog format (<code>/perft/catalog.csv</code>): <code>name;level;seed;script;ticks;hash
+ * </code>
+ *
+ * @author Frank Kopp
+ */
+public class Perft {
+
+  private static final Logger LOG = LoggerFactory.getLogger(Perft.class);
+
+  public static final String CATALOG = "/perft/catalog.csv";
+  private static final String SEPARATOR = ";";
+
+  // release a caught ball regularly like a player would
+  private static final int RELEASE_INTERVAL = 50;
+  private static final int LASER_INTERVAL = 8;
+  private static final double SWEEP_STEP = 5;
+
+  /** Scripted input during the simulated ticks */
+  public enum Script {
+    /** the paddle does not move */
+    IDLE,
+    /** the paddle follows the lowest ball with changing offsets to get different angles */
+    FOLLOW,
+    /** the paddle sweeps from wall to wall */
+    SWEEP,
+    /** like <code>FOLLOW</code> and shoots the laser (when available) every few ticks */
+    LASER
+  }
+
+  /** A start position and the expected result of the simulation */
+  public static class Position {
+
+    public final String name;
+    public final int level;
+    public final long seed;
+    public final Script script;
+    public final int ticks;
+    public final long hash;
+
+    public Position(String name, int level, long seed, Script script, int ticks, long hash) {
+      this.name = name;
+      this.level = level;
+      this.seed = seed;
+      this.script = script;
+      this.ticks = ticks;
+      this.hash = hash;
+    }
+
+    /** @return the position as line in the catalog format */
+    public String toCatalogLine(long newHash) {
+      return String.join(
+          SEPARATOR,
+          name,
+          Integer.toString(level),
+          Long.toString(seed),
+          script.name(),
+          Integer.toString(ticks),
+          Long.toHexString(newHash));
+    }
+  }
+
+  /** Result of simulating a position */
+  public static class Result {
+
+    /** ticks simulated until the end of the position or the end of the game */
+    public final int ticks;
+
+    public final long hash;
+    public final long nanos;
+
+    Result(int ticks, long hash, long nanos) {
+      this.ticks = ticks;
+      this.hash = hash;
+      this.nanos = nanos;
+    }
+
+    /** @return simulated ticks per second */
+    public double getTicksPerSecond() {
+      return ticks * 1e9 / nanos;
+    }
+  }
+
+  private Perft() {}
+
+  public static void main(String[] args) throws IOException {
+    int repetitions = 1;
+    boolean update = false;
+    for (String arg : args) {
+      if (arg.equals("--update")) update = true;
+      else repetitions = Integer.parseInt(arg);
+    }
+
+    final List<Position> catalog = readCatalog();
+    int failures = 0;
+    long totalTicks = 0;
+    long totalNanos = 0;
+
+    System.out.printf(
+        "%-20s %5s %-7s %7s %18s %6s %12s%n",
+        "Position", "Level", "Script", "Ticks", "Hash", "Check", "Ticks/s");
+    for (Position position : catalog) {
+      Result result = null;
+      long nanos = 0;
+      for (int i = 0; i < repetitions; i++) {
+        result = simulate(position);
+        nanos += result.nanos;
+        totalTicks += result.ticks;
+      }
+      totalNanos += nanos;
+      final boolean ok = result.hash == position.hash;
+      if (!ok) failures++;
+      System.out.printf(
+          "%-20s %5d %-7s %7d %18s %6s %12.0f%n",
+          position.name,
+          position.level,
+          position.script,
+          result.ticks,
+          Long.toHexString(result.hash),
+          ok ? "OK" : "FAIL",
+          result.ticks * repetitions * 1e9 / nanos);
+      if (update) System.out.println(position.toCatalogLine(result.hash));
+    }
+    System.out.printf(
+        "%d positions, %d failed, %,d ticks, %,.0f ticks/s%n",
+        catalog.size(), failures, totalTicks, totalTicks * 1e9 / totalNanos);
+    if (failures > 0 && !update) System.exit(1);
+  }
+
+  /**
+   * Simulates the position with its script.
+   *
+   * @param position the start position
+   * @return hash of the state after the simulation and the time needed
+   */
+  public static Result simulate(Position position) {
+    final GameModel model = setUp(position);
+
+    final long startTime = System.nanoTime();
+    int tick = 0;
+    while (tick < position.ticks && model.isPlaying()) {
+      input(model, position.script, tick);
+      model.gameLoop();
+      tick++;
+    }
+    final long nanos = System.nanoTime() - startTime;
+
+    final long hash = hash(model);
+    model.stopPlaying();
+    return new Result(tick, hash, nanos);
+  }
+
+  /**
+   * Starts the game of the position and skips to its level.
+   *
+   * @param position the start position
+   * @return the model at the start of the level
+   */
+  static GameModel setUp(Position position) {
+    final GameModel model = new GameModel(true);
+    model.startPlaying(position.seed);
+    // skipping a level takes effect with the next tick - even while a ball waits for its launch
+    for (int level = 1; level < position.level; level++) {
+      model.skipLevelCheat();
+      model.gameLoop();
+    }
+    return model;
+  }
+
+  /** Applies the scripted input for this tick */
+  static void input(GameModel model, Script script, int tick) {
+    final double width = model.paddleWidthProperty().get();
+    final double range = model.playfieldWidthProperty().get() - width;
+    switch (script) {
+      case IDLE:
+        break;
+      case FOLLOW:
+      case LASER:
+        Ball lowest = null;
+        for (Ball ball : model.getBallManager()) {
+          if (lowest == null || ball.getCenterY() > lowest.getCenterY()) lowest = ball;
+        }
+        if (lowest != null) {
+          final double offset = ((tick / 37) % 5 - 2) * width * 0.15;
+          final double x = lowest.getCenterX() - width / 2 + offset;
+          model.setPaddle(Math.max(0, Math.min(range, x)), width);
+        }
+        if (script == Script.LASER && tick % LASER_INTERVAL == 0) model.shootLaser();
+        break;
+      case SWEEP:
+        model.setPaddle(Math.abs((tick * SWEEP_STEP) % (2 * range) - range), width);
+        break;
+    }
+    if (tick % RELEASE_INTERVAL == 0) model.releaseCaughtBall();
+  }
+
+  /**
+   * Hashes everything which is relevant for the further course of the game - including the state
+   * of the random numbers, the power up counters and the pending timers - lockstep sessions detect
+   * diverging games with it.
+   *
+   * @param model the model to hash
+   * @return 64 bit FNV-1a hash of the game state
+   */
+  public static long hash(GameModel model) {
+    final Hash hash = new Hash();
+    hash.add(model.isPlaying() ? 1 : 0);
+    hash.add(model.gameOverProperty().get() ? 1 : 0);
+    hash.add(model.currentLevelProperty().get());
+    hash.add(model.currentRemainingLivesProperty().get());
+    hash.add(model.currentScoreProperty().get());
+    hash.add(model.activePowerProperty().get().ordinal());
+    hash.add(model.paddleXProperty().get());
+    hash.add(model.paddleWidthProperty().get());
+    model.hashHiddenState(hash::add);
+    for (Ball ball : model.getBallManager()) {
+      hash.add(ball.getCenterX());
+      hash.add(ball.getCenterY());
+      hash.add(ball.getXVelocity());
+      hash.add(ball.getYVelocity());
+    }
+    for (LaserShot laserShot : model.getLaserShotManager()) {
+      hash.add(laserShot.getX());
+      hash.add(laserShot.getUpperBound());
+    }
+    for (PowerPill pill : model.fallingPowerPillsProperty()) {
+      hash.add(pill.getPowerPillType().ordinal());
+      hash.add(pill.getX());
+      hash.add(pill.getY());
+    }
+    final BrickLayout layout = model.getBrickLayout();
+    for (int row = 0; row < BrickLayout.ROWS; row++) {
+      for (int col = 0; col < BrickLayout.COLUMNS; col++) {
+        final Brick brick = layout.getBrick(row, col);
+        hash.add(brick == null ? -1 : brick.getType().ordinal());
+        hash.add(brick == null ? 0 : brick.getHitCount());
+      }
+    }
+    return hash.value;
+  }
+
+  /**
+   * Reads the catalog of positions.
+   *
+   * @return all positions of the catalog
+   * @throws IOException if the catalog could not be read
+   */
+  public static List<Position> readCatalog() throws IOException {
+    final List<Position> positions = new ArrayList<>();
+    try (InputStream in = Perft.class.getResourceAsStream(CATALOG)) {
+      if (in == null) throw new IOException("Perft catalog " + CATALOG + " not found");
+      final BufferedReader reader =
+          new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isEmpty() || line.startsWith("#")) continue;
+        final String[] parts = line.split(SEPARATOR);
+        if (parts.length != 6) {
+          LOG.warn("Invalid perft catalog line: {}", line);
+          continue;
+        }
+        positions.add(
+            new Position(
+                parts[0],
+                Integer.parseInt(parts[1]),
+                Long.parseLong(parts[2]),
+                Script.valueOf(parts[3]),
+                Integer.parseInt(parts[4]),
+                Long.parseUnsignedLong(parts[5], 16)));
+      }
+    }
+    return positions;
+  }
+
+  /** 64 bit FNV-1a */
+  private static class Hash {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private long value = OFFSET_BASIS;
+
+    void add(double d) {
+      add(Double.doubleToLongBits(d));
+    }
+
+    void add(long l) {
+      for (int i = 0; i < 8; i++) {
+        value ^= (l >>> (i * 8)) & 0xff;
+        value *= PRIME;
+      }
+    }
+  }
+}
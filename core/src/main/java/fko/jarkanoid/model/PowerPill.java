@@ -25,8 +25,7 @@
 
 package fko.jarkanoid.model;
 
-import javafx.beans.property.DoubleProperty;
-import javafx.beans.property.SimpleDoubleProperty;
+import fko.jarkanoid.beans.DoubleValue;
 
 public class PowerPill {
 
@@ -34,10 +33,10 @@ public class PowerPill {
 
   private final PowerPillType powerPillType;
 
-  private final DoubleProperty x = new SimpleDoubleProperty(0);
-  private final DoubleProperty y = new SimpleDoubleProperty(0);
-  private final DoubleProperty width = new SimpleDoubleProperty(0);
-  private final DoubleProperty height = new SimpleDoubleProperty(0);
+  private final DoubleValue x = new DoubleValue(0);
+  private final DoubleValue y = new DoubleValue(0);
+  private final DoubleValue width = new DoubleValue(0);
+  private final DoubleValue height = new DoubleValue(0);
 
   private double fallingSpeed = FALLING_SPEED;
 
@@ -56,6 +55,19 @@ public class PowerPill {
     this.height.set(height);
   }
 
+  /**
+   * Takes position, size and speed of another power pill of the same type.
+   *
+   * @param other the power pill to copy
+   */
+  void copyFrom(PowerPill other) {
+    x.set(other.getX());
+    y.set(other.getY());
+    width.set(other.getWidth());
+    height.set(other.getHeight());
+    fallingSpeed = other.fallingSpeed;
+  }
+
   public double fall() {
     y.set(y.get() + FALLING_SPEED);
     return getY();
@@ -69,7 +81,7 @@ public class PowerPill {
     return x.get();
   }
 
-  public DoubleProperty xProperty() {
+  public DoubleValue xProperty() {
     return x;
   }
 
@@ -81,7 +93,7 @@ public class PowerPill {
     return y.get();
   }
 
-  public DoubleProperty yProperty() {
+  public DoubleValue yProperty() {
     return y;
   }
 
@@ -93,7 +105,7 @@ public class PowerPill {
     return width.get();
   }
 
-  public DoubleProperty widthProperty() {
+  public DoubleValue widthProperty() {
     return width;
   }
 
@@ -105,7 +117,7 @@ public class PowerPill {
     return height.get();
   }
 
-  public DoubleProperty heightProperty() {
+  public DoubleValue heightProperty() {
     return height;
   }
 
@@ -24,7 +24,8 @@
  */
 package fko.jarkanoid.model;
 
-import javafx.scene.paint.Color;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * BrickPowerType
@@ -33,7 +34,7 @@ import javafx.scene.paint.Color;
  */
 public enum PowerPillType {
 
-  NONE (Color.WHITE, "N"),
+  NONE ("white", "N"),
 
   /**
    *  	Collect the red capsule to transform the Vaus into its Laser-firing configuration. In this
@@ -41,19 +42,19 @@ public enum PowerPillType {
    *  used against every brick except Gold bricks, and against enemies. Silver bricks can only be
    *  destroyed by lasers when they are hit the required number of times.
    */
-  LASER (Color.RED, "L"),
+  LASER ("red", "L"),
 
   /**
    * Collect the blue capsule to extend the width of the Vaus.
    */
-  ENLARGE (Color.BLUE, "E"),
+  ENLARGE ("blue", "E"),
 
   /**
    * Collect the green capsule to gain the catch ability. When the ball hits the Vaus, it will stick
    * to the surface. Press the Fire button to release the ball. The ball will automatically release
    * after a certain period of time has passed.
    */
-  CATCH (Color.GREEN, "C"),
+  CATCH ("green", "C"),
 
   /**
    * Collect the orange capsule to slow the velocity at which the ball moves. Collecting multiple orange
@@ -61,14 +62,14 @@ public enum PowerPillType {
    * the ball velocity will gradually increase as it bounces and destroys bricks. The velocity may
    * sometimes suddenly increase with little warning.
    */
-  SLOW (Color.ORANGE, "S"),
+  SLOW ("orange", "S"),
 
   /**
    * Collect the violet capsule to create a "break out" exit on the right side of the stage. Passing
    * through this exit will cause you to advance to the next stage immediately, as well as earn
    * a 10,000 point bonus.
    */
-  BREAK (Color.PURPLE, "B"),
+  BREAK ("purple", "B"),
 
   /**
    * Collect the cyan capsule to cause the ball to split into three instances of itself. All three
@@ -76,17 +77,18 @@ public enum PowerPillType {
    * will fall as long as there is more than one ball in play. This is the only power up that, while
    * in effect, prevents other power ups from falling.
    */
-  DISRUPTION (Color.CYAN, "D"),
+  DISRUPTION ("cyan", "D"),
 
   /**
    * Collect the gray capsule to earn an extra Vaus.
    */
-  PLAYER (Color.GRAY, "P");
+  PLAYER ("gray", "P");
 
-  public final Color color;
+  /** web color name - mapped to a paint by the front end */
+  public final String color;
   public final String token;
 
-  PowerPillType(Color color, String token) {
+  PowerPillType(String color, String token) {
     this.color = color;
     this.token = token;
   }
@@ -97,7 +99,17 @@ public enum PowerPillType {
    * @return the random power
    */
   public static PowerPillType getRandom() {
-    double random = Math.random() * 100;
+    return getRandom(ThreadLocalRandom.current());
+  }
+
+  /**
+   * Returns a random power based on the random factor of each power.<br>
+   * Therefore some powers are rare (e.g. new live) while others are more common.
+   * @param randomSource source of randomness - a seeded source makes the result reproducible
+   * @return the random power
+   */
+  public static PowerPillType getRandom(Random randomSource) {
+    double random = randomSource.nextDouble() * 100;
     if (random <  1                  ) return BREAK;
     if (random >= 1  && random <    5) return PLAYER;
     if (random >= 5  && random <   20) return DISRUPTION;
@@ -0,0 +1,59 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+import java.util.List;
+
+/**
+ * PredictingPaddleController
+ *
+ * <p>Moves the paddle to where the next ball will cross the paddle line instead of following the
+ * ball. The crossing is predicted by a <code>BallPredictor</code> through the bounces from walls
+ * and bricks. Tracks the lowest ball like the <code>TrackingPaddleController</code> when no ball
+ * can be predicted.
+ *
+ * @author Frank Kopp
+ */
+public class PredictingPaddleController extends TrackingPaddleController {
+
+  private final BallPredictor predictor = new BallPredictor();
+
+  @Override
+  public double getPaddleTarget(final GameModel model) {
+    final List<Ball> balls = model.getBallManager();
+    long soonest = Long.MAX_VALUE;
+    double target = Double.NaN;
+    for (int i = 0; i < balls.size(); i++) {
+      final BallPredictor.Prediction prediction = predictor.predict(model, balls.get(i));
+      if (prediction.isValid() && prediction.getTick() < soonest) {
+        soonest = prediction.getTick();
+        target = prediction.getX();
+      }
+    }
+    if (Double.isNaN(target)) return super.getPaddleTarget(model);
+    return target + getAimOffset(model);
+  }
+}
@@ -0,0 +1,324 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SessionLog
+ *
+ * <p>Records everything needed to re-simulate a played game: the seed of the game's random numbers
+ * and all inputs in the order in which they reached the model. The game itself is deterministic
+ * so <code>SessionReplay</code> can reproduce the game exactly from this log without the player.
+ *
+ * <p>Each entry has the time in microseconds since the start of the game. Time during which the
+ * game was paused is not counted. The file is a text file with one entry per line:
+ *
+ * <pre>
+ * JARKANOID_SESSION;version;seed
+ * time;PADDLE;x;width   - the paddle has been moved or resized
+ * time;TICK             - one cycle of the main game loop
+ * time;RELEASE          - a caught ball has been released
+ * time;LASER            - the player has fired the laser
+ * time;SKIP_LEVEL       - the player has used the skip level cheat
+ * time;END              - the game has ended
+ * </pre>
+ *
+ * <p>Sessions are stored in <code>./var/sessions/</code> which keeps the newest {@value
+ * #MAX_SESSIONS} sessions. The entries are collected in memory and written in chunks by a
+ * background thread so that the game loop never waits for the disk, not even when the log is
+ * closed. Each session gets a file of its own, also when games start in quick succession. Errors
+ * while writing are logged once and then disable the log so a full disk never interrupts a game.
+ * All methods are thread safe.
+ *
+ * @author Frank Kopp
+ */
+public class SessionLog implements Closeable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SessionLog.class);
+
+  public static final String SESSIONS_FOLDER = "./var/sessions/";
+
+  /** System property to record the sessions of the game, e.g. -Dfko.jarkanoid.recordSessions */
+  public static final String RECORD_PROPERTY = "fko.jarkanoid.recordSessions";
+
+  /** Number of sessions kept in the sessions folder - older ones are deleted */
+  public static final int MAX_SESSIONS = 50;
+
+  // size of the chunks handed to the writer thread
+  static final int CHUNK_SIZE = 16 * 1024;
+
+  static final String HEADER = "JARKANOID_SESSION";
+  static final int VERSION = 2;
+  static final String SEPARATOR = ";";
+
+  private static final DateTimeFormatter FILE_NAME_TIME_FORMAT =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+  private static final ExecutorService WRITER =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            final Thread thread = new Thread(runnable, "SessionLog");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  /** Types of the entries of a session */
+  public enum EntryType {
+    PADDLE,
+    TICK,
+    RELEASE,
+    LASER,
+    SKIP_LEVEL,
+    END
+  }
+
+  private final Path path;
+
+  // only used by the writer thread after the header has been written
+  private final BufferedWriter writer;
+  private volatile boolean failed = false;
+
+  // entries not yet handed to the writer thread
+  private final StringBuilder buffer = new StringBuilder(CHUNK_SIZE + 64);
+  private boolean closed = false;
+  private final CountDownLatch fileClosed = new CountDownLatch(1);
+
+  // session clock without paused time
+  private final long startTime = System.nanoTime();
+  private long pausedTime = 0;
+  private long pauseStartTime = -1;
+
+  /**
+   * Creates a new session file with a timestamped name in the sessions folder.
+   *
+   * @param seed the seed of the game's random numbers
+   * @return the new session log
+   * @throws IOException if the session file could not be created
+   */
+  public static SessionLog create(long seed) throws IOException {
+    return create(Paths.get(SESSIONS_FOLDER), seed);
+  }
+
+  /**
+   * @param folder the sessions folder
+   * @param seed the seed of the game's random numbers
+   * @return the new session log
+   * @throws IOException if the session file could not be created
+   */
+  static SessionLog create(Path folder, long seed) throws IOException {
+    Files.createDirectories(folder);
+    deleteOldSessions(folder, MAX_SESSIONS - 1);
+    final String name = "Session_" + LocalDateTime.now().format(FILE_NAME_TIME_FORMAT);
+    // never overwrite a session started in the same millisecond - the suffix sorts after it
+    for (int n = 0; ; n++) {
+      final Path path = folder.resolve(n == 0 ? name + ".csv" : name + "_" + n + ".csv");
+      try {
+        return new SessionLog(path, newWriter(path, StandardOpenOption.CREATE_NEW), seed);
+      } catch (FileAlreadyExistsException e) {
+        // try the next name
+      }
+    }
+  }
+
+  /**
+   * @param path the session file to create
+   * @param seed the seed of the game's random numbers
+   * @throws IOException if the session file could not be created
+   */
+  public SessionLog(Path path, long seed) throws IOException {
+    this(path, newWriter(path), seed);
+  }
+
+  private SessionLog(Path path, BufferedWriter writer, long seed) throws IOException {
+    this.path = path;
+    this.writer = writer;
+    writer.write(HEADER + SEPARATOR + VERSION + SEPARATOR + seed);
+    writer.newLine();
+    LOG.info("Recording session to {}", path);
+  }
+
+  /**
+   * @param x new x position of the paddle
+   * @param width new width of the paddle
+   */
+  public synchronized void paddle(double x, double width) {
+    write(EntryType.PADDLE, SEPARATOR + x + SEPARATOR + width);
+  }
+
+  /** Records one cycle of the main game loop. */
+  public synchronized void tick() {
+    write(EntryType.TICK, "");
+  }
+
+  /** Records the release of a caught ball. */
+  public synchronized void release() {
+    write(EntryType.RELEASE, "");
+  }
+
+  /** Records a laser shot. */
+  public synchronized void laser() {
+    write(EntryType.LASER, "");
+  }
+
+  /** Records the use of the skip level cheat. */
+  public synchronized void skipLevel() {
+    write(EntryType.SKIP_LEVEL, "");
+  }
+
+  /** Stops the session clock while the game is paused. */
+  public synchronized void pause() {
+    if (pauseStartTime < 0) pauseStartTime = System.nanoTime();
+  }
+
+  /** Continues the session clock when the game is resumed. */
+  public synchronized void resume() {
+    if (pauseStartTime >= 0) {
+      pausedTime += System.nanoTime() - pauseStartTime;
+      pauseStartTime = -1;
+    }
+  }
+
+  /**
+   * Records the end of the game. The file is closed by the writer thread after all entries have
+   * been written - the caller does not wait for it.
+   */
+  @Override
+  public synchronized void close() {
+    if (closed) return;
+    write(EntryType.END, "");
+    closed = true;
+    handOver();
+    // the writer thread writes the chunks in order so this is the last task of this log
+    WRITER.submit(
+        () -> {
+          closeWriter();
+          fileClosed.countDown();
+        });
+  }
+
+  /**
+   * Waits until the writer thread has closed the file after <code>close()</code>.
+   *
+   * @param timeout the maximum time to wait
+   * @param unit the unit of the timeout
+   * @return true if the file has been closed, false if the time ran out
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public boolean awaitClosed(long timeout, TimeUnit unit) throws InterruptedException {
+    return fileClosed.await(timeout, unit);
+  }
+
+  /** @return the session file */
+  public Path getPath() {
+    return path;
+  }
+
+  private void write(EntryType type, String arguments) {
+    if (closed || failed) return;
+    buffer
+        .append(getTime())
+        .append(SEPARATOR)
+        .append(type.name())
+        .append(arguments)
+        .append(System.lineSeparator());
+    if (buffer.length() >= CHUNK_SIZE) handOver();
+  }
+
+  /** Hands the collected entries to the writer thread */
+  private void handOver() {
+    if (buffer.length() == 0) return;
+    final String chunk = buffer.toString();
+    buffer.setLength(0);
+    WRITER.submit(() -> writeChunk(chunk));
+  }
+
+  /** Runs on the writer thread */
+  private void writeChunk(String chunk) {
+    if (failed) return;
+    try {
+      writer.write(chunk);
+    } catch (IOException e) {
+      LOG.error("While writing session log " + path + " - session recording disabled", e);
+      failed = true;
+      closeWriter();
+    }
+  }
+
+  /** Runs on the writer thread */
+  private void closeWriter() {
+    try {
+      writer.close();
+    } catch (IOException e) {
+      if (!failed) LOG.error("While closing session log " + path, e);
+    }
+  }
+
+  private static BufferedWriter newWriter(Path path, OpenOption... options) throws IOException {
+    return Files.newBufferedWriter(path, StandardCharsets.ISO_8859_1, options);
+  }
+
+  /** Deletes the oldest sessions in the folder so that at most the given number remain */
+  static void deleteOldSessions(Path folder, int keep) throws IOException {
+    final List<Path> sessions = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(folder, "Session_*.csv")) {
+      for (Path session : stream) sessions.add(session);
+    }
+    // the timestamps in the names sort the sessions from old to new
+    Collections.sort(sessions);
+    for (int i = 0; i < sessions.size() - keep; i++) {
+      Files.deleteIfExists(sessions.get(i));
+    }
+  }
+
+  /** @return microseconds since the start of the session without paused time */
+  private long getTime() {
+    final long now = pauseStartTime >= 0 ? pauseStartTime : System.nanoTime();
+    return (now - startTime - pausedTime) / 1000;
+  }
+}
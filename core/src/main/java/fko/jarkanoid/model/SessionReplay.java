@@ -0,0 +1,200 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * SessionReplay
+ *
+ * <p>Re-simulates a game recorded in a <code>SessionLog</code>. The replay creates its own <code>
+ * GameModel</code> in replay mode, starts it with the recorded seed and then applies the recorded
+ * inputs and game loop ticks in their original order. As the game is deterministic the model goes
+ * through exactly the same states as the recorded game.
+ *
+ * <p>The replay is driven by the caller with <code>advanceTo()</code> at any speed - e.g. as fast
+ * as possible for rendering a video. The model is not thread safe and must only be used from the
+ * thread driving the replay. When views are bound to the model this has to be the JavaFX
+ * Application Thread.
+ *
+ * @author Frank Kopp
+ */
+public class SessionReplay implements Closeable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SessionReplay.class);
+
+  private final Path path;
+  private final BufferedReader reader;
+  private final long seed;
+  private final GameModel model;
+
+  // the next entry not yet applied
+  private String[] nextEntry;
+  private long nextEntryTime;
+
+  private long time = 0;
+  private long ticks = 0;
+  private boolean finished = false;
+
+  /**
+   * Opens a recorded session and creates the model for the replay.
+   *
+   * @param path the session file
+   * @throws IOException if the file could not be read or is not a session
+   */
+  public SessionReplay(Path path) throws IOException {
+    this.path = path;
+    this.reader = Files.newBufferedReader(path, StandardCharsets.ISO_8859_1);
+    try {
+      final String header = reader.readLine();
+      final String[] parts = header == null ? new String[0] : header.split(SessionLog.SEPARATOR);
+      if (parts.length < 3 || !SessionLog.HEADER.equals(parts[0])) {
+        throw new IOException("Not a session file: " + path);
+      }
+      if (Integer.parseInt(parts[1]) != SessionLog.VERSION) {
+        throw new IOException("Unsupported session version " + parts[1] + " in " + path);
+      }
+      this.seed = Long.parseLong(parts[2]);
+      readNextEntry();
+    } catch (IOException | RuntimeException e) {
+      reader.close();
+      throw e instanceof IOException ? (IOException) e : new IOException("Bad session " + path, e);
+    }
+    this.model = new GameModel(true);
+    model.startPlaying(seed);
+    LOG.info("Replaying session {} (seed {})", path, seed);
+  }
+
+  /**
+   * Applies all recorded entries up to the given session time.
+   *
+   * @param timeMicros session time in microseconds
+   * @return false if the end of the session has been reached
+   * @throws IOException if the session could not be read or is damaged
+   */
+  public boolean advanceTo(long timeMicros) throws IOException {
+    while (!finished && nextEntry != null && nextEntryTime <= timeMicros) {
+      apply(nextEntry);
+      time = nextEntryTime;
+      readNextEntry();
+    }
+    if (nextEntry == null && !finished) {
+      // session has been cut off - e.g. the game crashed
+      LOG.warn("Session {} has no end entry", path);
+      finish();
+    }
+    return !finished;
+  }
+
+  private void apply(String[] entry) throws IOException {
+    final SessionLog.EntryType type;
+    try {
+      type = SessionLog.EntryType.valueOf(entry[1]);
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Unknown entry " + entry[1] + " in " + path, e);
+    }
+    switch (type) {
+      case PADDLE:
+        model.setPaddle(Double.parseDouble(entry[2]), Double.parseDouble(entry[3]));
+        break;
+      case TICK:
+        model.gameLoop();
+        ticks++;
+        break;
+      case RELEASE:
+        model.releaseCaughtBall();
+        break;
+      case LASER:
+        model.shootLaser();
+        break;
+      case SKIP_LEVEL:
+        model.skipLevelCheat();
+        break;
+      case END:
+        finish();
+        break;
+    }
+  }
+
+  private void finish() {
+    finished = true;
+    // a game stopped by the player has not ended by itself
+    model.stopPlaying();
+  }
+
+  private void readNextEntry() throws IOException {
+    final String line = reader.readLine();
+    if (line == null) {
+      nextEntry = null;
+      return;
+    }
+    nextEntry = line.split(SessionLog.SEPARATOR);
+    try {
+      nextEntryTime = Long.parseLong(nextEntry[0]);
+    } catch (NumberFormatException e) {
+      throw new IOException("Bad entry '" + line + "' in " + path, e);
+    }
+  }
+
+  /** @see java.io.Closeable#close() */
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  /** @return the replayed model */
+  public GameModel getModel() {
+    return model;
+  }
+
+  /** @return the seed of the recorded game */
+  public long getSeed() {
+    return seed;
+  }
+
+  /** @return session time of the last applied entry in microseconds */
+  public long getTime() {
+    return time;
+  }
+
+  /** @return number of game loop ticks replayed so far */
+  public long getTicks() {
+    return ticks;
+  }
+
+  /** @return true if the end of the session has been reached */
+  public boolean isFinished() {
+    return finished;
+  }
+}
@@ -0,0 +1,344 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Soak
+ *
+ * <p>Autoplays millions of ticks across many games and levels without a UI to find slow
+ * degradation of long running instances like kiosks. One model is used for all games. Each game
+ * starts with a new seed at a random level and is played with one of the <code>Perft</code>
+ * scripts until it is over.
+ *
+ * <p>After every sample interval the soak takes a sample of:
+ *
+ * <ul>
+ *   <li>the used heap after a full garbage collection
+ *   <li>the live instances of each class of the game (<code>fko.jarkanoid.</code>) - the model
+ *       runs its timers on its own <code>TimerWheel</code> (from the class histogram of the JVM)
+ *   <li>the tick latency (p50, p99 and max) within the interval
+ * </ul>
+ *
+ * <p>At the end each of these series is checked for an upward trend with a least squares fit. The
+ * first samples are skipped as warm up. A series trends upwards if its fitted growth over the run
+ * is larger than <code>TOLERANCE</code> of its start value and larger than a minimum growth to
+ * ignore noise. The exit code is 1 if any series trends upwards.
+ *
+ * <p>Usage: <code>Soak [ticks] [sampleInterval]</code>
+ *
+ * @author Frank Kopp
+ */
+public class Soak {
+
+  private static final long DEFAULT_TICKS = 5_000_000;
+  private static final int DEFAULT_SAMPLE_INTERVAL = 250_000;
+
+  // levels 1 to LEVELS are played
+  private static final int LEVELS = 16;
+
+  private static final int WARM_UP_SAMPLES = 2;
+  private static final double TOLERANCE = 0.10;
+  private static final double MINIMUM_HEAP_GROWTH = 1024 * 1024;
+  private static final double MINIMUM_INSTANCE_GROWTH = 100;
+  private static final double MINIMUM_LATENCY_GROWTH = 100_000; // nanos
+
+  // classes with live instance counts - the game itself incl. the timers of its TimerWheel
+  private static final String[] TRACKED_CLASSES = {"fko.jarkanoid."};
+
+  private Soak() {}
+
+  public static void main(String[] args) throws JMException {
+    final long ticks = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_TICKS;
+    final int interval = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SAMPLE_INTERVAL;
+
+    final List<Sample> samples = run(ticks, interval);
+
+    System.out.printf(
+        "%12s %7s %10s %10s %10s %10s %10s%n",
+        "Ticks", "Games", "Heap KiB", "Instances", "p50 us", "p99 us", "max us");
+    for (Sample sample : samples) {
+      System.out.printf(
+          "%,12d %7d %,10d %,10d %10.1f %10.1f %10.1f%n",
+          sample.ticks,
+          sample.games,
+          sample.heap / 1024,
+          sample.getTotalInstances(),
+          sample.p50 / 1e3,
+          sample.p99 / 1e3,
+          sample.max / 1e3);
+    }
+
+    final List<Trend> trends = analyze(samples);
+    if (trends.isEmpty()) {
+      System.out.printf("Not enough samples for trends - need more than %d%n", WARM_UP_SAMPLES + 2);
+      return;
+    }
+    System.out.printf("%n%-80s %14s %14s %14s%n", "Series", "Start", "End", "Fitted growth");
+    int upward = 0;
+    for (Trend trend : trends) {
+      if (trend.isUpward()) upward++;
+      System.out.printf(
+          "%-80s %,14.0f %,14.0f %,14.0f %s%n",
+          trend.name, trend.start, trend.end, trend.growth, trend.isUpward() ? "UPWARD" : "");
+    }
+    System.out.printf("%d series, %d with upward trend%n", trends.size(), upward);
+    if (upward > 0) System.exit(1);
+  }
+
+  /**
+   * Plays the games and takes the samples.
+   *
+   * @param ticks number of ticks to play
+   * @param interval number of ticks per sample
+   * @return one sample per full interval
+   * @throws JMException if the class histogram is not available
+   */
+  static List<Sample> run(long ticks, int interval) throws JMException {
+    final GameModel model = new GameModel(true);
+    model.setRecordSessions(false);
+    final Random random = new Random(1);
+    final Perft.Script[] scripts = Perft.Script.values();
+    final long[] latencies = new long[interval];
+    final List<Sample> samples = new ArrayList<>();
+
+    int games = 0;
+    Perft.Script script = null;
+    int gameTick = 0;
+    for (long tick = 1; tick <= ticks; tick++) {
+      if (!model.isPlaying()) {
+        model.startPlaying(random.nextLong());
+        // skipping a level takes effect with the next tick
+        final int level = 1 + random.nextInt(LEVELS);
+        for (int i = 1; i < level; i++) {
+          model.skipLevelCheat();
+          model.gameLoop();
+        }
+        script = scripts[games++ % scripts.length];
+        gameTick = 0;
+      }
+      Perft.input(model, script, gameTick++);
+
+      final long start = System.nanoTime();
+      model.gameLoop();
+      latencies[(int) ((tick - 1) % interval)] = System.nanoTime() - start;
+
+      if (tick % interval == 0) samples.add(Sample.take(tick, games, latencies));
+    }
+    model.stopPlaying();
+    return samples;
+  }
+
+  /**
+   * Fits a line through each series of the samples after the warm up.
+   *
+   * @param samples samples in the order in which they have been taken
+   * @return trends of heap, latencies and instance counts or an empty list if there are not
+   *     enough samples
+   */
+  static List<Trend> analyze(List<Sample> samples) {
+    final List<Trend> trends = new ArrayList<>();
+    final List<Sample> measured =
+        samples.subList(Math.min(WARM_UP_SAMPLES, samples.size()), samples.size());
+    if (measured.size() < 3) return trends;
+
+    trends.add(
+        Trend.fit("Heap after GC (bytes)", series(measured, s -> s.heap), MINIMUM_HEAP_GROWTH));
+    trends.add(
+        Trend.fit("Tick latency p50 (ns)", series(measured, s -> s.p50), MINIMUM_LATENCY_GROWTH));
+    trends.add(
+        Trend.fit("Tick latency p99 (ns)", series(measured, s -> s.p99), MINIMUM_LATENCY_GROWTH));
+
+    final TreeSet<String> classes = new TreeSet<>();
+    for (Sample sample : measured) classes.addAll(sample.instances.keySet());
+    for (String name : classes) {
+      trends.add(
+          Trend.fit(
+              "Instances " + name,
+              series(measured, s -> s.instances.getOrDefault(name, 0L)),
+              MINIMUM_INSTANCE_GROWTH));
+    }
+    return trends;
+  }
+
+  private static double[] series(List<Sample> samples, SampleValue value) {
+    final double[] series = new double[samples.size()];
+    for (int i = 0; i < series.length; i++) series[i] = value.of(samples.get(i));
+    return series;
+  }
+
+  private interface SampleValue {
+    double of(Sample sample);
+  }
+
+  /** State of the JVM and the game loop after an interval */
+  static class Sample {
+
+    final long ticks;
+    final int games;
+    final long heap;
+    final Map<String, Long> instances;
+    final long p50;
+    final long p99;
+    final long max;
+
+    Sample(
+        long ticks,
+        int games,
+        long heap,
+        Map<String, Long> instances,
+        long p50,
+        long p99,
+        long max) {
+      this.ticks = ticks;
+      this.games = games;
+      this.heap = heap;
+      this.instances = instances;
+      this.p50 = p50;
+      this.p99 = p99;
+      this.max = max;
+    }
+
+    /** Takes a sample - the class histogram forces a full garbage collection before */
+    static Sample take(long ticks, int games, long[] latencies) throws JMException {
+      final Map<String, Long> instances = classHistogram();
+      final long heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+      final long[] sorted = latencies.clone();
+      Arrays.sort(sorted);
+      return new Sample(
+          ticks,
+          games,
+          heap,
+          instances,
+          sorted[(int) (sorted.length * 0.50)],
+          sorted[(int) (sorted.length * 0.99)],
+          sorted[sorted.length - 1]);
+    }
+
+    long getTotalInstances() {
+      long total = 0;
+      for (long count : instances.values()) total += count;
+      return total;
+    }
+  }
+
+  /**
+   * Reads the live instances of the tracked classes from the class histogram of the JVM (the same
+   * as <code>jcmd pid GC.class_histogram</code>).
+   */
+  private static Map<String, Long> classHistogram() throws JMException {
+    final String histogram =
+        (String)
+            ManagementFactory.getPlatformMBeanServer()
+                .invoke(
+                    new ObjectName("com.sun.management:type=DiagnosticCommand"),
+                    "gcClassHistogram",
+                    new Object[] {null},
+                    new String[] {String[].class.getName()});
+    return parseHistogram(histogram);
+  }
+
+  /**
+   * @param histogram class histogram with lines like <code>1: instances bytes class</code>
+   * @return instances of the tracked classes without lambdas
+   */
+  static Map<String, Long> parseHistogram(String histogram) {
+    final Map<String, Long> instances = new TreeMap<>();
+    for (String line : histogram.split("\n")) {
+      final String[] parts = line.trim().split("\\s+");
+      if (parts.length < 4 || !parts[0].endsWith(":")) continue;
+      final String name = parts[3];
+      if (name.contains("$$Lambda") || !isTracked(name)) continue;
+      instances.merge(name, Long.parseLong(parts[1]), Long::sum);
+    }
+    return instances;
+  }
+
+  private static boolean isTracked(String name) {
+    // the samples of the soak itself grow by design
+    if (name.startsWith(Soak.class.getName())) return false;
+    for (String tracked : TRACKED_CLASSES) {
+      if (name.startsWith(tracked)) return true;
+    }
+    return false;
+  }
+
+  /** Least squares line through a series of values */
+  static class Trend {
+
+    final String name;
+    final double start;
+    final double end;
+    final double growth;
+    private final double minimumGrowth;
+
+    private Trend(String name, double start, double end, double growth, double minimumGrowth) {
+      this.name = name;
+      this.start = start;
+      this.end = end;
+      this.growth = growth;
+      this.minimumGrowth = minimumGrowth;
+    }
+
+    /**
+     * @param name name of the series
+     * @param values values in the order of the samples
+     * @param minimumGrowth growth below this is seen as noise
+     * @return the fitted trend
+     */
+    static Trend fit(String name, double[] values, double minimumGrowth) {
+      final int n = values.length;
+      double meanX = (n - 1) / 2.0;
+      double meanY = 0;
+      for (double v : values) meanY += v;
+      meanY /= n;
+      double covariance = 0;
+      double variance = 0;
+      for (int i = 0; i < n; i++) {
+        covariance += (i - meanX) * (values[i] - meanY);
+        variance += (i - meanX) * (i - meanX);
+      }
+      final double slope = variance == 0 ? 0 : covariance / variance;
+      final double start = meanY - slope * meanX;
+      return new Trend(name, start, start + slope * (n - 1), slope * (n - 1), minimumGrowth);
+    }
+
+    /** @return true if the series grows more than the tolerance and the minimum growth */
+    boolean isUpward() {
+      return growth > minimumGrowth && growth > TOLERANCE * Math.abs(start);
+    }
+  }
+}
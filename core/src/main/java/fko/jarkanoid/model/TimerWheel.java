@@ -0,0 +1,172 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+/**
+ * TimerWheel
+ *
+ * <p>Timers of the simulation which are measured in game ticks instead of wall clock time, e.g.
+ * the delay before a ball is launched or the time a caught ball stays on the paddle. The wheel is
+ * advanced once per tick by the game loop and runs due tasks on the game loop's thread. The timers
+ * are therefore deterministic, stop while the game is paused and run faster or slower together
+ * with the game loop.
+ *
+ * <p>A hashed wheel: each timer is kept in the slot of its deadline tick modulo the number of
+ * slots. Timers due in the same tick run in the order they have been scheduled. Not thread safe.
+ *
+ * @author Frank Kopp
+ */
+public class TimerWheel {
+
+  private final Timer[] heads;
+  private final Timer[] tails;
+  private final int mask;
+
+  private long tick = 0;
+  private int size = 0;
+
+  /** Creates a wheel with 256 slots */
+  public TimerWheel() {
+    this(256);
+  }
+
+  /** @param slots number of slots of the wheel - must be a power of two */
+  public TimerWheel(final int slots) {
+    if (slots <= 0 || Integer.bitCount(slots) != 1) {
+      throw new IllegalArgumentException("Number of slots must be a power of two: " + slots);
+    }
+    heads = new Timer[slots];
+    tails = new Timer[slots];
+    mask = slots - 1;
+  }
+
+  /**
+   * Schedules a task to be run when the wheel has been advanced the given number of ticks.
+   *
+   * @param delayTicks number of ticks from now - at least 1
+   * @param task the task to run
+   * @return the timer to cancel the task
+   */
+  public Timer schedule(final long delayTicks, final Runnable task) {
+    if (delayTicks < 1) throw new IllegalArgumentException("Delay must be at least one tick");
+    if (task == null) throw new NullPointerException();
+    final Timer timer = new Timer(tick + delayTicks, task);
+    final int slot = (int) (timer.deadline & mask);
+    timer.previous = tails[slot];
+    if (tails[slot] == null) heads[slot] = timer;
+    else tails[slot].next = timer;
+    tails[slot] = timer;
+    size++;
+    return timer;
+  }
+
+  /** Advances the wheel by one tick and runs all tasks due in this tick */
+  public void advance() {
+    tick++;
+    final int slot = (int) (tick & mask);
+    Timer timer = heads[slot];
+    while (timer != null) {
+      if (timer.deadline == tick) {
+        unlink(timer);
+        timer.task.run();
+        // the task may have scheduled or cancelled timers of this slot
+        timer = heads[slot];
+      } else {
+        timer = timer.next;
+      }
+    }
+  }
+
+  /** Cancels all timers */
+  public void clear() {
+    for (int slot = 0; slot <= mask; slot++) {
+      while (heads[slot] != null) unlink(heads[slot]);
+    }
+  }
+
+  /**
+   * Cancels all timers and sets the tick, e.g. to continue the timing of another wheel.
+   *
+   * @param tick the new tick of the wheel
+   */
+  public void reset(final long tick) {
+    clear();
+    this.tick = tick;
+  }
+
+  /** @return number of ticks the wheel has been advanced */
+  public long getTick() {
+    return tick;
+  }
+
+  /** @return number of pending timers */
+  public int size() {
+    return size;
+  }
+
+  private void unlink(final Timer timer) {
+    final int slot = (int) (timer.deadline & mask);
+    if (timer.previous == null) heads[slot] = timer.next;
+    else timer.previous.next = timer.next;
+    if (timer.next == null) tails[slot] = timer.previous;
+    else timer.next.previous = timer.previous;
+    timer.previous = null;
+    timer.next = null;
+    timer.pending = false;
+    size--;
+  }
+
+  /** A task scheduled on a <code>TimerWheel</code> */
+  public final class Timer {
+
+    private final long deadline;
+    private final Runnable task;
+
+    private Timer previous;
+    private Timer next;
+    private boolean pending = true;
+
+    private Timer(final long deadline, final Runnable task) {
+      this.deadline = deadline;
+      this.task = task;
+    }
+
+    /** Cancels the timer - does nothing if it has already run or has been cancelled */
+    public void cancel() {
+      if (pending) unlink(this);
+    }
+
+    /** @return true if the task has neither run nor been cancelled */
+    public boolean isPending() {
+      return pending;
+    }
+
+    /** @return the tick in which the task runs */
+    public long getDeadline() {
+      return deadline;
+    }
+  }
+}
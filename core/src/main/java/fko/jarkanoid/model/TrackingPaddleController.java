@@ -0,0 +1,74 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+import java.util.List;
+
+/**
+ * TrackingPaddleController
+ *
+ * <p>Keeps the paddle under the lowest ball. The point where the ball hits the paddle changes
+ * every few ticks to get different angles - otherwise the ball would bounce straight up and down.
+ * Fires the laser regularly when it is available.
+ *
+ * @author Frank Kopp
+ */
+public class TrackingPaddleController implements PaddleController {
+
+  // ticks between two laser shots
+  private static final int FIRE_INTERVAL = 8;
+
+  // ticks until the aim on the paddle changes and the largest offset relative to the paddle width
+  private static final int AIM_INTERVAL = 37;
+  private static final double MAX_AIM_OFFSET = 0.3;
+
+  @Override
+  public double getPaddleTarget(final GameModel model) {
+    final List<Ball> balls = model.getBallManager();
+    Ball lowest = null;
+    // indexed loop as the controller is called each tick and must not allocate
+    for (int i = 0; i < balls.size(); i++) {
+      final Ball ball = balls.get(i);
+      if (lowest == null || ball.getCenterY() > lowest.getCenterY()) lowest = ball;
+    }
+    if (lowest == null) return Double.NaN;
+    return lowest.getCenterX() + getAimOffset(model);
+  }
+
+  @Override
+  public boolean isFiring(final GameModel model) {
+    return model.getTicks() % FIRE_INTERVAL == 0;
+  }
+
+  /**
+   * @param model the controlled model
+   * @return offset of the paddle's center to the point where the ball shall hit the paddle
+   */
+  protected double getAimOffset(final GameModel model) {
+    final long aim = (model.getTicks() / AIM_INTERVAL) % 5 - 2; // -2 .. 2
+    return aim * MAX_AIM_OFFSET / 2 * model.paddleWidthProperty().get();
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.rl;
+
+import fko.jarkanoid.model.GameModel;
+import fko.jarkanoid.model.PaddleController;
+
+import static fko.jarkanoid.rl.VectorEnvironment.*;
+
+/**
+ * ActionController
+ *
+ * <p>Plays the discrete actions of an agent - one of the <code>ACTION_</code> constants of the
+ * <code>VectorEnvironment</code> - which is set before each tick.
+ *
+ * @author Frank Kopp
+ */
+final class ActionController implements PaddleController {
+
+  private int action = ACTION_NONE;
+
+  /** @param action the action for the next tick */
+  void setAction(int action) {
+    this.action = action;
+  }
+
+  @Override
+  public double getPaddleTarget(GameModel model) {
+    switch (action) {
+      case ACTION_LEFT:
+        return Double.NEGATIVE_INFINITY;
+      case ACTION_RIGHT:
+        return Double.POSITIVE_INFINITY;
+      default:
+        return Double.NaN;
+    }
+  }
+
+  @Override
+  public boolean isReleasing(GameModel model) {
+    return action == ACTION_FIRE;
+  }
+
+  @Override
+  public boolean isFiring(GameModel model) {
+    return action == ACTION_FIRE;
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.rl;
+
+import fko.jarkanoid.model.GameModel;
+import fko.jarkanoid.model.PaddleController;
+
+/**
+ * MonteCarloPaddleController
+ *
+ * <p>A search based autopilot which asks a <code>MonteCarloPlanner</code> for the best action
+ * every <code>actionTicks</code> ticks and holds it until the next plan. Meant to benchmark the
+ * heuristic controllers against search - it is far too slow for the live game.
+ *
+ * @author Frank Kopp
+ */
+public class MonteCarloPaddleController implements PaddleController {
+
+  private final MonteCarloPlanner planner;
+  private final int actionTicks;
+  private final ActionController controller = new ActionController();
+
+  private long nextPlan = Long.MIN_VALUE;
+
+  /**
+   * @param planner the planner - its actions should be held for the same number of ticks
+   * @param actionTicks ticks between two plans
+   */
+  public MonteCarloPaddleController(MonteCarloPlanner planner, int actionTicks) {
+    this.planner = planner;
+    this.actionTicks = actionTicks;
+  }
+
+  @Override
+  public double getPaddleTarget(GameModel model) {
+    if (model.getTicks() >= nextPlan) {
+      controller.setAction(planner.plan(model));
+      nextPlan = model.getTicks() + actionTicks;
+    }
+    return controller.getPaddleTarget(model);
+  }
+
+  @Override
+  public boolean isReleasing(GameModel model) {
+    return controller.isReleasing(model);
+  }
+
+  @Override
+  public boolean isFiring(GameModel model) {
+    return controller.isFiring(model);
+  }
+}
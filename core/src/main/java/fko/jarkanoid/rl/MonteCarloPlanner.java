@@ -0,0 +1,218 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.rl;
+
+import fko.jarkanoid.model.GameModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * MonteCarloPlanner
+ *
+ * <p>Evaluates candidate actions of a search based agent by playing many short futures of the game
+ * - rollouts. Each rollout starts from a copy of the game, holds the candidate action for <code>
+ * actionTicks</code> ticks and then plays random actions, each held for <code>actionTicks</code>
+ * ticks, until the horizon is reached or the game is over. The reward of a rollout is the points
+ * scored minus <code>LIFE_PENALTY</code> for each lost life. The expected reward of an action is
+ * the mean over its rollouts.
+ *
+ * <p>The rollouts are spread over a fixed pool of threads. Each thread has its own model which
+ * takes the state of the game with <code>GameModel.copyStateFrom()</code> for every rollout, which
+ * reuses the objects of the previous rollout. The n-th rollout of each action uses the same random
+ * actions so that the actions are compared on the same futures, and the results do not depend on
+ * the number of threads. The future is played with a copy of the game's own random generator -
+ * the planner knows which power ups will come.
+ *
+ * @author Frank Kopp
+ */
+public class MonteCarloPlanner implements AutoCloseable {
+
+  /** Reward for each lost life - in points */
+  public static final int LIFE_PENALTY = 1000;
+
+  private final int rollouts;
+  private final int horizon;
+  private final int actionTicks;
+  private final long seed;
+
+  // the game to evaluate - a copy so that the workers never read the caller's model
+  private final GameModel root = new GameModel(true);
+
+  private final ExecutorService executor;
+  private final List<Worker> workers = new ArrayList<>();
+
+  /**
+   * @param threads number of threads to play the rollouts
+   * @param rollouts number of rollouts per candidate action
+   * @param horizon number of ticks of each rollout
+   * @param actionTicks number of ticks each action is held
+   * @param seed the seed for the random actions of the rollouts
+   */
+  public MonteCarloPlanner(int threads, int rollouts, int horizon, int actionTicks, long seed) {
+    if (threads < 1) throw new IllegalArgumentException("threads must be > 0: " + threads);
+    if (rollouts < 1) throw new IllegalArgumentException("rollouts must be > 0: " + rollouts);
+    if (horizon < 1) throw new IllegalArgumentException("horizon must be > 0: " + horizon);
+    if (actionTicks < 1) {
+      throw new IllegalArgumentException("actionTicks must be > 0: " + actionTicks);
+    }
+    this.rollouts = rollouts;
+    this.horizon = horizon;
+    this.actionTicks = actionTicks;
+    this.seed = seed;
+    root.setRecordSessions(false);
+    for (int i = 0; i < threads; i++) workers.add(new Worker());
+    executor =
+        Executors.newFixedThreadPool(
+            threads,
+            runnable -> {
+              final Thread thread = new Thread(runnable, "MonteCarloPlanner");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Chooses the action with the highest expected reward.
+   *
+   * @param model the game to play
+   * @return one of the <code>ACTION_</code> constants of the <code>VectorEnvironment</code>
+   */
+  public int plan(GameModel model) {
+    final int[] actions = new int[VectorEnvironment.NUMBER_OF_ACTIONS];
+    for (int i = 0; i < actions.length; i++) actions[i] = i;
+    final double[] rewards = evaluate(model, actions);
+    int best = 0;
+    for (int i = 1; i < actions.length; i++) {
+      if (rewards[i] > rewards[best]) best = i;
+    }
+    return actions[best];
+  }
+
+  /**
+   * Plays the rollouts for each candidate action. The model must not change meanwhile.
+   *
+   * @param model the game to play
+   * @param actions the candidate actions - <code>ACTION_</code> constants of the <code>
+   *     VectorEnvironment</code>
+   * @return the expected reward of each action
+   */
+  public double[] evaluate(GameModel model, int[] actions) {
+    // the workers copy from root concurrently - copyStateFrom() only reads its source, and the
+    // values of the model (also bound ones) are computed when they are set, not when they are read.
+    // invokeAll() publishes root to the workers.
+    root.copyStateFrom(model);
+
+    final int total = actions.length * rollouts;
+    final int slice = (total + workers.size() - 1) / workers.size();
+    for (int i = 0; i < workers.size(); i++) {
+      workers.get(i).prepare(actions, i * slice, Math.min(total, (i + 1) * slice));
+    }
+
+    final long[] sums = new long[actions.length];
+    try {
+      for (Future<long[]> future : executor.invokeAll(workers)) {
+        final long[] result = future.get();
+        for (int i = 0; i < sums.length; i++) sums[i] += result[i];
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while planning", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Rollout failed", e.getCause());
+    }
+
+    final double[] rewards = new double[actions.length];
+    for (int i = 0; i < rewards.length; i++) rewards[i] = (double) sums[i] / rollouts;
+    return rewards;
+  }
+
+  /** Stops the threads */
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  /** Plays a slice of the rollouts with its own model */
+  private final class Worker implements Callable<long[]> {
+
+    private final GameModel model = new GameModel(true);
+    private final ActionController controller = new ActionController();
+    private final Random random = new Random();
+
+    private int[] actions;
+    private int from;
+    private int to;
+
+    private Worker() {
+      model.setRecordSessions(false);
+      model.setPaddleController(controller);
+    }
+
+    private void prepare(int[] actions, int from, int to) {
+      this.actions = actions;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public long[] call() {
+      final long[] sums = new long[actions.length];
+      for (int i = from; i < to; i++) {
+        sums[i / rollouts] += rollout(actions[i / rollouts], i % rollouts);
+      }
+      return sums;
+    }
+
+    /**
+     * @param action the candidate action
+     * @param rollout number of the rollout of the action
+     * @return the reward of the rollout
+     */
+    private long rollout(int action, int rollout) {
+      model.copyStateFrom(root);
+      random.setSeed(seed + rollout);
+      final int score = model.currentScoreProperty().get();
+      final int lives = model.currentRemainingLivesProperty().get();
+      controller.setAction(action);
+      for (int tick = 1; tick <= horizon && model.isPlaying(); tick++) {
+        model.gameLoop();
+        if (tick % actionTicks == 0) {
+          controller.setAction(random.nextInt(VectorEnvironment.NUMBER_OF_ACTIONS));
+        }
+      }
+      return model.currentScoreProperty().get()
+          - score
+          - (long) LIFE_PENALTY * (lives - model.currentRemainingLivesProperty().get());
+    }
+  }
+}
@@ -0,0 +1,457 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.rl;
+
+import fko.jarkanoid.model.Ball;
+import fko.jarkanoid.model.Brick;
+import fko.jarkanoid.model.BrickLayout;
+import fko.jarkanoid.model.GameModel;
+import fko.jarkanoid.model.LaserShot;
+import fko.jarkanoid.model.LevelLoader;
+import fko.jarkanoid.model.PowerPill;
+import fko.jarkanoid.model.PowerPillType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * VectorEnvironment
+ *
+ * <p>A reinforcement learning environment which steps a batch of games in lockstep. Each game is a
+ * headless <code>GameModel</code> in replay mode played by an agent through one action per tick.
+ *
+ * <p>All results are written into primitive arrays which are allocated once and overwritten by
+ * every step: the observations of all games in one flat array of <code>OBSERVATION_SIZE</code>
+ * floats per game, the rewards (the points scored in the step) and the done flags. A game which is
+ * over or has reached the maximum number of ticks per episode is done and is restarted right away
+ * with a new seed - its observation is then the one of the new game.
+ *
+ * <p>The games are split into equal slices which are stepped by a fixed set of worker threads and
+ * the calling thread. The workers are woken by parking and unparking so a step allocates no
+ * objects outside of the game models. An environment is not thread safe and must be closed to
+ * stop the workers.
+ *
+ * <p>Usage: <code>VectorEnvironment [games] [threads] [steps]</code> - measures the throughput
+ * with random actions.
+ *
+ * @author Frank Kopp
+ */
+public class VectorEnvironment implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(VectorEnvironment.class);
+
+  /** Actions of the agent */
+  public static final int ACTION_NONE = 0;
+
+  public static final int ACTION_LEFT = 1;
+  public static final int ACTION_RIGHT = 2;
+  public static final int ACTION_FIRE = 3; // releases a caught ball and fires the laser
+  public static final int NUMBER_OF_ACTIONS = 4;
+
+  /** Slots in the observation for the objects of which there may be several */
+  public static final int MAX_BALLS = 3;
+
+  public static final int MAX_POWER_PILLS = 2;
+  public static final int MAX_LASER_SHOTS = 8;
+
+  /**
+   * Layout of the observation of one game. Positions are relative to the playfield size, empty
+   * slots are all zero:
+   *
+   * <ul>
+   *   <li>brick bitmap - 1 for each brick, row by row
+   *   <li>paddle - x, width
+   *   <li>balls - present flag, center x, center y, x velocity, y velocity
+   *   <li>falling power pills - present flag, x, y, type (ordinal / number of types)
+   *   <li>laser shots - present flag, x, y
+   *   <li>game - remaining lives, level
+   * </ul>
+   */
+  public static final int BRICKS_OFFSET = 0;
+
+  public static final int PADDLE_OFFSET = BRICKS_OFFSET + BrickLayout.ROWS * BrickLayout.COLUMNS;
+  public static final int BALLS_OFFSET = PADDLE_OFFSET + 2;
+  public static final int BALL_SIZE = 5;
+  public static final int POWER_PILLS_OFFSET = BALLS_OFFSET + MAX_BALLS * BALL_SIZE;
+  public static final int POWER_PILL_SIZE = 4;
+  public static final int LASER_SHOTS_OFFSET =
+      POWER_PILLS_OFFSET + MAX_POWER_PILLS * POWER_PILL_SIZE;
+  public static final int LASER_SHOT_SIZE = 3;
+  public static final int GAME_OFFSET = LASER_SHOTS_OFFSET + MAX_LASER_SHOTS * LASER_SHOT_SIZE;
+  public static final int OBSERVATION_SIZE = GAME_OFFSET + 2;
+
+  private static final int DEFAULT_GAMES = 4096;
+  private static final int DEFAULT_STEPS = 10_000;
+
+  private static final float POWER_PILL_TYPES = PowerPillType.values().length;
+
+  private final int size;
+  private final long seed;
+  private final int maxEpisodeTicks;
+
+  private final GameModel[] models;
+  private final ActionController[] agents;
+  private final int[] episodeTicks;
+  private final int[] lastScores;
+  private final long[] episodes;
+
+  // results of the last step
+  private final float[] observations;
+  private final float[] rewards;
+  private final boolean[] dones;
+
+  // the actions of the next step
+  private final int[] actions;
+
+  // workers step the slices 1..n - the calling thread steps slice 0
+  private final Worker[] workers;
+  private final int sliceSize;
+  private final AtomicInteger pendingWorkers = new AtomicInteger();
+  private volatile int generation = 0;
+  private volatile Thread caller = null;
+  private volatile boolean closed = false;
+  private volatile Throwable failure = null;
+
+  /**
+   * Creates the games and starts the worker threads. The games are started by <code>reset()
+   * </code>.
+   *
+   * @param size number of games
+   * @param threads number of threads to step the games including the calling thread
+   * @param seed the seed of the first episode of the first game - the other seeds follow
+   * @param maxEpisodeTicks the number of ticks after which an episode is done even if the game is
+   *     not over
+   */
+  public VectorEnvironment(int size, int threads, long seed, int maxEpisodeTicks) {
+    if (size < 1) throw new IllegalArgumentException("size must be > 0: " + size);
+    if (threads < 1) throw new IllegalArgumentException("threads must be > 0: " + threads);
+    if (maxEpisodeTicks < 1) {
+      throw new IllegalArgumentException("maxEpisodeTicks must be > 0: " + maxEpisodeTicks);
+    }
+    this.size = size;
+    this.seed = seed;
+    this.maxEpisodeTicks = maxEpisodeTicks;
+
+    // the singleton is not thread safe - load the levels before the workers use it
+    LevelLoader.getInstance();
+
+    models = new GameModel[size];
+    agents = new ActionController[size];
+    for (int i = 0; i < size; i++) {
+      agents[i] = new ActionController();
+      models[i] = new GameModel(true);
+      models[i].setRecordSessions(false);
+      models[i].setPaddleController(agents[i]);
+    }
+    episodeTicks = new int[size];
+    lastScores = new int[size];
+    episodes = new long[size];
+    observations = new float[size * OBSERVATION_SIZE];
+    rewards = new float[size];
+    dones = new boolean[size];
+    actions = new int[size];
+
+    final int slices = Math.min(threads, size);
+    sliceSize = (size + slices - 1) / slices;
+    workers = new Worker[slices - 1];
+    for (int i = 0; i < workers.length; i++) {
+      workers[i] = new Worker((i + 1) * sliceSize, Math.min(size, (i + 2) * sliceSize));
+      workers[i].setName("VectorEnvironment-" + (i + 1));
+      workers[i].setDaemon(true);
+      workers[i].start();
+    }
+    LOG.info("Vector environment with {} games on {} threads", size, slices);
+  }
+
+  /**
+   * Starts a new episode in all games and writes their observations. Also recovers the environment
+   * after a failed step.
+   *
+   * @return the observations
+   */
+  public float[] reset() {
+    failure = null;
+    for (int i = 0; i < size; i++) {
+      models[i].stopPlaying();
+      startEpisode(i);
+      observe(i);
+      rewards[i] = 0;
+      dones[i] = false;
+    }
+    return observations;
+  }
+
+  /**
+   * Plays one tick in all games with the given actions. The results can be read from the arrays
+   * returned by <code>getObservations()</code>, <code>getRewards()</code> and <code>getDones()
+   * </code> afterwards.
+   *
+   * <p>When a game fails during the step the games are left in an undefined state. The step and all
+   * further steps throw until <code>reset()</code> has been called.
+   *
+   * @param actions one action per game
+   * @throws IllegalStateException if the environment is closed or a step failed
+   */
+  public void step(int[] actions) {
+    if (closed) throw new IllegalStateException("Environment is closed");
+    if (failure != null) throw new IllegalStateException("A step failed - reset the environment");
+    if (actions.length != size) {
+      throw new IllegalArgumentException("Need " + size + " actions: " + actions.length);
+    }
+    System.arraycopy(actions, 0, this.actions, 0, size);
+
+    caller = Thread.currentThread();
+    pendingWorkers.set(workers.length);
+    generation++; // publishes the actions to the workers
+    for (Worker worker : workers) LockSupport.unpark(worker);
+
+    try {
+      stepSlice(0, Math.min(size, sliceSize));
+    } catch (Throwable t) {
+      // the workers must still finish before the next step
+      failure = t;
+    }
+
+    while (pendingWorkers.get() > 0) LockSupport.park(this);
+    final Throwable t = failure;
+    if (t != null) throw new IllegalStateException("Step failed", t);
+  }
+
+  /** @return observations of all games - <code>OBSERVATION_SIZE</code> floats per game */
+  public float[] getObservations() {
+    return observations;
+  }
+
+  /** @return the points each game scored in the last step */
+  public float[] getRewards() {
+    return rewards;
+  }
+
+  /** @return true for each game whose episode ended in the last step */
+  public boolean[] getDones() {
+    return dones;
+  }
+
+  /** @return number of games */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param game index of the game
+   * @return the model of the game - only to be read between steps
+   */
+  public GameModel getModel(int game) {
+    return models[game];
+  }
+
+  /** Stops the worker threads */
+  @Override
+  public void close() {
+    if (closed) return;
+    closed = true;
+    for (Worker worker : workers) {
+      LockSupport.unpark(worker);
+      try {
+        worker.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Steps the games of a slice.
+   *
+   * @param from first game of the slice
+   * @param to end of the slice (exclusive)
+   */
+  private void stepSlice(int from, int to) {
+    for (int i = from; i < to; i++) {
+      final GameModel model = models[i];
+      agents[i].setAction(actions[i]);
+      model.gameLoop();
+      episodeTicks[i]++;
+
+      final int score = model.currentScoreProperty().get();
+      rewards[i] = score - lastScores[i];
+      lastScores[i] = score;
+
+      dones[i] = !model.isPlaying() || episodeTicks[i] >= maxEpisodeTicks;
+      if (dones[i]) {
+        model.stopPlaying();
+        startEpisode(i);
+      }
+      observe(i);
+    }
+  }
+
+  /**
+   * Starts the next episode of a game. The seeds of the games interleave so that all episodes of
+   * the environment have different seeds.
+   *
+   * @param game index of the game
+   */
+  private void startEpisode(int game) {
+    models[game].startPlaying(seed + game + episodes[game]++ * size);
+    episodeTicks[game] = 0;
+    lastScores[game] = 0;
+    agents[game].setAction(ACTION_NONE);
+  }
+
+  /**
+   * Writes the observation of a game.
+   *
+   * @param game index of the game
+   */
+  private void observe(int game) {
+    final GameModel model = models[game];
+    final float[] obs = observations;
+    final int base = game * OBSERVATION_SIZE;
+    final double width = model.playfieldWidthProperty().get();
+    final double height = model.playfieldHeightProperty().get();
+
+    final Brick[][] matrix = model.getBrickLayout().getMatrix();
+    int o = base + BRICKS_OFFSET;
+    for (int row = 0; row < BrickLayout.ROWS; row++) {
+      for (int col = 0; col < BrickLayout.COLUMNS; col++) {
+        obs[o++] = matrix[row][col] == null ? 0f : 1f;
+      }
+    }
+
+    obs[base + PADDLE_OFFSET] = (float) (model.paddleXProperty().get() / width);
+    obs[base + PADDLE_OFFSET + 1] = (float) (model.paddleWidthProperty().get() / width);
+
+    // indexed loops as the lists would allocate iterators
+    final List<Ball> balls = model.getBallManager();
+    o = base + BALLS_OFFSET;
+    for (int i = 0; i < MAX_BALLS; i++, o += BALL_SIZE) {
+      if (i < balls.size()) {
+        final Ball ball = balls.get(i);
+        obs[o] = 1f;
+        obs[o + 1] = (float) (ball.getCenterX() / width);
+        obs[o + 2] = (float) (ball.getCenterY() / height);
+        obs[o + 3] = (float) (ball.getXVelocity() / width);
+        obs[o + 4] = (float) (ball.getYVelocity() / height);
+      } else {
+        clear(obs, o, BALL_SIZE);
+      }
+    }
+
+    final List<PowerPill> pills = model.fallingPowerPillsProperty();
+    o = base + POWER_PILLS_OFFSET;
+    for (int i = 0; i < MAX_POWER_PILLS; i++, o += POWER_PILL_SIZE) {
+      if (i < pills.size()) {
+        final PowerPill pill = pills.get(i);
+        obs[o] = 1f;
+        obs[o + 1] = (float) (pill.getX() / width);
+        obs[o + 2] = (float) (pill.getY() / height);
+        obs[o + 3] = pill.getPowerPillType().ordinal() / POWER_PILL_TYPES;
+      } else {
+        clear(obs, o, POWER_PILL_SIZE);
+      }
+    }
+
+    final List<LaserShot> shots = model.getLaserShotManager();
+    o = base + LASER_SHOTS_OFFSET;
+    for (int i = 0; i < MAX_LASER_SHOTS; i++, o += LASER_SHOT_SIZE) {
+      if (i < shots.size()) {
+        final LaserShot shot = shots.get(i);
+        obs[o] = 1f;
+        obs[o + 1] = (float) (shot.getX() / width);
+        obs[o + 2] = (float) (shot.getY() / height);
+      } else {
+        clear(obs, o, LASER_SHOT_SIZE);
+      }
+    }
+
+    obs[base + GAME_OFFSET] = model.currentRemainingLivesProperty().get();
+    obs[base + GAME_OFFSET + 1] = model.currentLevelProperty().get();
+  }
+
+  private static void clear(float[] array, int from, int length) {
+    for (int i = from; i < from + length; i++) array[i] = 0f;
+  }
+
+  /** Steps a slice of the games each time the generation changes */
+  private final class Worker extends Thread {
+
+    private final int from;
+    private final int to;
+
+    private Worker(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public void run() {
+      int done = 0;
+      while (true) {
+        while (generation == done) {
+          if (closed) return;
+          LockSupport.park(this);
+        }
+        done = generation;
+        try {
+          stepSlice(from, to);
+        } catch (Throwable t) {
+          failure = t;
+        }
+        if (pendingWorkers.decrementAndGet() == 0) LockSupport.unpark(caller);
+      }
+    }
+  }
+
+  public static void main(String[] args) {
+    final int games = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+    final int threads =
+        args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+    final int steps = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_STEPS;
+
+    try (VectorEnvironment env = new VectorEnvironment(games, threads, 1, 100_000)) {
+      env.reset();
+      final int[] actions = new int[games];
+      final Random random = new Random(1);
+      long episodes = 0;
+      final long start = System.nanoTime();
+      for (int step = 0; step < steps; step++) {
+        for (int i = 0; i < games; i++) actions[i] = random.nextInt(NUMBER_OF_ACTIONS);
+        env.step(actions);
+        for (boolean done : env.getDones()) if (done) episodes++;
+      }
+      final double seconds = (System.nanoTime() - start) / 1e9;
+      System.out.printf(
+          "%,d games x %,d steps on %d threads in %.1f s: %,.0f steps/s, %,d episodes%n",
+          games, steps, threads, seconds, games * (double) steps / seconds, episodes);
+    }
+  }
+}
@@ -0,0 +1,457 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.spectator;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * DeltaCodec
+ *
+ * <p>Encodes a <code>SpectatorState</code> as a key frame or as the delta to the previous state
+ * and decodes both into a state in place.
+ *
+ * <p>A frame starts with its kind, the tick (absolute in key frames, the distance in deltas) and a
+ * mask of the sections following. A delta only carries the sections which changed: the paddle as
+ * zigzag coded differences, the changed bricks as cell index gaps and codes, the balls as the
+ * residual to a prediction from their last movement, power pills and laser shots as differences
+ * to the previous ones and the events of the tick. All numbers are variable length ints so that a
+ * typical tick fits in a dozen bytes before it is compressed by the stream.
+ *
+ * <p>Not thread safe - each thread needs its own codec.
+ *
+ * @author Frank Kopp
+ */
+public class DeltaCodec {
+
+  static final int KEYFRAME = 1;
+  static final int DELTA = 2;
+
+  private static final int HEADER = 1;
+  private static final int GAME = 1 << 1;
+  private static final int PADDLE = 1 << 2;
+  private static final int BRICKS = 1 << 3;
+  private static final int BALLS = 1 << 4;
+  private static final int POWER_PILLS = 1 << 5;
+  private static final int LASER_SHOTS = 1 << 6;
+  private static final int EVENTS = 1 << 7;
+
+  private static final int PLAYING = 1;
+  private static final int PAUSED = 1 << 1;
+  private static final int GAME_OVER = 1 << 2;
+
+  private static final SpectatorState EMPTY = new SpectatorState();
+
+  private byte[] buffer = new byte[256];
+  private int length;
+
+  // read position when decoding
+  private byte[] input;
+  private int inputLength;
+  private int position;
+
+  /**
+   * Encodes the complete state. The movements of the balls from the last delta are included.
+   *
+   * @param state the state
+   * @return the length of the frame in the buffer
+   */
+  public int encodeKeyFrame(SpectatorState state) {
+    length = 0;
+    writeByte(KEYFRAME);
+    writeVarLong(state.tick);
+    writeByte(HEADER | GAME | PADDLE | BRICKS | BALLS | POWER_PILLS | LASER_SHOTS | EVENTS);
+    writeHeader(state);
+    writeGame(state);
+    writeVarInt(state.paddleX);
+    writeVarInt(state.paddleWidth);
+    writeBricks(EMPTY, state);
+    writeVarInt(state.balls);
+    for (int i = 0; i < state.balls; i++) {
+      writeVarInt(state.ballX[i]);
+      writeVarInt(state.ballY[i]);
+      writeSignedVarInt(state.ballDX[i]);
+      writeSignedVarInt(state.ballDY[i]);
+    }
+    writePowerPills(EMPTY, state);
+    writeLaserShots(EMPTY, state);
+    writeEvents(state);
+    return length;
+  }
+
+  /**
+   * Encodes the changes from the previous state. Sets the movements of the balls in the current
+   * state which the next delta will use as prediction.
+   *
+   * @param previous the state the receiver already has
+   * @param current the new state
+   * @return the length of the frame in the buffer
+   */
+  public int encodeDelta(SpectatorState previous, SpectatorState current) {
+    for (int i = 0; i < current.balls; i++) {
+      if (i < previous.balls) {
+        current.ballDX[i] = current.ballX[i] - previous.ballX[i];
+        current.ballDY[i] = current.ballY[i] - previous.ballY[i];
+      } else {
+        current.ballDX[i] = 0;
+        current.ballDY[i] = 0;
+      }
+    }
+
+    int mask = 0;
+    if (previous.playfieldWidth != current.playfieldWidth
+        || previous.playfieldHeight != current.playfieldHeight
+        || previous.paddleY != current.paddleY
+        || previous.paddleHeight != current.paddleHeight
+        || previous.ballRadius != current.ballRadius) {
+      mask |= HEADER;
+    }
+    if (previous.level != current.level
+        || previous.lives != current.lives
+        || previous.score != current.score
+        || flags(previous) != flags(current)
+        || previous.activePower != current.activePower) {
+      mask |= GAME;
+    }
+    if (previous.paddleX != current.paddleX || previous.paddleWidth != current.paddleWidth) {
+      mask |= PADDLE;
+    }
+    if (!Arrays.equals(previous.bricks, current.bricks)) mask |= BRICKS;
+    if (previous.balls != current.balls
+        || !equals(previous.ballX, current.ballX, current.balls)
+        || !equals(previous.ballY, current.ballY, current.balls)) {
+      mask |= BALLS;
+    }
+    if (previous.powerPills != current.powerPills
+        || !equals(previous.powerPillType, current.powerPillType, current.powerPills)
+        || !equals(previous.powerPillX, current.powerPillX, current.powerPills)
+        || !equals(previous.powerPillY, current.powerPillY, current.powerPills)) {
+      mask |= POWER_PILLS;
+    }
+    if (previous.laserShots != current.laserShots
+        || !equals(previous.laserShotX, current.laserShotX, current.laserShots)
+        || !equals(previous.laserShotY, current.laserShotY, current.laserShots)) {
+      mask |= LASER_SHOTS;
+    }
+    if (current.events > 0) mask |= EVENTS;
+
+    length = 0;
+    writeByte(DELTA);
+    writeVarLong(current.tick - previous.tick);
+    writeByte(mask);
+    if ((mask & HEADER) != 0) writeHeader(current);
+    if ((mask & GAME) != 0) writeGame(current);
+    if ((mask & PADDLE) != 0) {
+      writeSignedVarInt(current.paddleX - previous.paddleX);
+      writeSignedVarInt(current.paddleWidth - previous.paddleWidth);
+    }
+    if ((mask & BRICKS) != 0) writeBricks(previous, current);
+    if ((mask & BALLS) != 0) {
+      writeVarInt(current.balls);
+      for (int i = 0; i < current.balls; i++) {
+        if (i < previous.balls) {
+          writeSignedVarInt(current.ballX[i] - previous.ballX[i] - previous.ballDX[i]);
+          writeSignedVarInt(current.ballY[i] - previous.ballY[i] - previous.ballDY[i]);
+        } else {
+          writeVarInt(current.ballX[i]);
+          writeVarInt(current.ballY[i]);
+        }
+      }
+    }
+    if ((mask & POWER_PILLS) != 0) writePowerPills(previous, current);
+    if ((mask & LASER_SHOTS) != 0) writeLaserShots(previous, current);
+    if ((mask & EVENTS) != 0) writeEvents(current);
+    return length;
+  }
+
+  /** @return the buffer holding the last encoded frame */
+  public byte[] getBuffer() {
+    return buffer;
+  }
+
+  /** @return the length of the last encoded frame */
+  public int getLength() {
+    return length;
+  }
+
+  /**
+   * Decodes a frame into a state. A key frame replaces the state, a delta is applied to it and
+   * therefore needs the state of the frame before.
+   *
+   * @param frame the frame
+   * @param frameLength the length of the frame
+   * @param state the state to update
+   * @throws IOException if the frame is corrupt
+   */
+  public void decode(byte[] frame, int frameLength, SpectatorState state) throws IOException {
+    input = frame;
+    inputLength = frameLength;
+    position = 0;
+    final int kind = readByte();
+    final boolean keyFrame = kind == KEYFRAME;
+    if (!keyFrame && kind != DELTA) throw new IOException("Unknown frame kind " + kind);
+    state.tick = keyFrame ? readVarLong() : state.tick + readVarLong();
+    final int mask = readByte();
+
+    if ((mask & HEADER) != 0) {
+      state.playfieldWidth = readVarInt();
+      state.playfieldHeight = readVarInt();
+      state.paddleY = readVarInt();
+      state.paddleHeight = readVarInt();
+      state.ballRadius = readVarInt();
+    }
+
+    if ((mask & GAME) != 0) {
+      state.level = readVarInt();
+      state.lives = readVarInt();
+      state.score = readVarInt();
+      final int flags = readByte();
+      state.playing = (flags & PLAYING) != 0;
+      state.paused = (flags & PAUSED) != 0;
+      state.gameOver = (flags & GAME_OVER) != 0;
+      state.activePower = readVarInt();
+    }
+
+    if ((mask & PADDLE) != 0) {
+      if (keyFrame) {
+        state.paddleX = readVarInt();
+        state.paddleWidth = readVarInt();
+      } else {
+        state.paddleX += readSignedVarInt();
+        state.paddleWidth += readSignedVarInt();
+      }
+    }
+
+    if ((mask & BRICKS) != 0) {
+      if (keyFrame) Arrays.fill(state.bricks, (byte) 0);
+      final int changes = readVarInt();
+      int index = -1;
+      for (int i = 0; i < changes; i++) {
+        index += readVarInt() + 1;
+        if (index >= state.bricks.length) throw new IOException("Brick out of range " + index);
+        state.bricks[index] = (byte) readByte();
+      }
+    }
+
+    if ((mask & BALLS) != 0) {
+      final int balls = readCount(SpectatorState.MAX_BALLS);
+      for (int i = 0; i < balls; i++) {
+        if (keyFrame) {
+          state.ballX[i] = readVarInt();
+          state.ballY[i] = readVarInt();
+          state.ballDX[i] = readSignedVarInt();
+          state.ballDY[i] = readSignedVarInt();
+        } else if (i < state.balls) {
+          state.ballDX[i] += readSignedVarInt();
+          state.ballDY[i] += readSignedVarInt();
+          state.ballX[i] += state.ballDX[i];
+          state.ballY[i] += state.ballDY[i];
+        } else {
+          state.ballX[i] = readVarInt();
+          state.ballY[i] = readVarInt();
+          state.ballDX[i] = 0;
+          state.ballDY[i] = 0;
+        }
+      }
+      state.balls = balls;
+    } else {
+      // the balls did not move
+      Arrays.fill(state.ballDX, 0);
+      Arrays.fill(state.ballDY, 0);
+    }
+
+    if ((mask & POWER_PILLS) != 0) {
+      final int pills = readCount(SpectatorState.MAX_POWER_PILLS);
+      final int known = keyFrame ? 0 : state.powerPills;
+      for (int i = 0; i < pills; i++) {
+        if (i < known) {
+          state.powerPillType[i] += readSignedVarInt();
+          state.powerPillX[i] += readSignedVarInt();
+          state.powerPillY[i] += readSignedVarInt();
+        } else {
+          state.powerPillType[i] = readVarInt();
+          state.powerPillX[i] = readVarInt();
+          state.powerPillY[i] = readVarInt();
+        }
+      }
+      state.powerPills = pills;
+    }
+
+    if ((mask & LASER_SHOTS) != 0) {
+      final int shots = readCount(SpectatorState.MAX_LASER_SHOTS);
+      final int known = keyFrame ? 0 : state.laserShots;
+      for (int i = 0; i < shots; i++) {
+        if (i < known) {
+          state.laserShotX[i] += readSignedVarInt();
+          state.laserShotY[i] += readSignedVarInt();
+        } else {
+          state.laserShotX[i] = readVarInt();
+          state.laserShotY[i] = readVarInt();
+        }
+      }
+      state.laserShots = shots;
+    }
+
+    state.events = 0;
+    if ((mask & EVENTS) != 0) {
+      state.events = readCount(SpectatorState.MAX_EVENTS);
+      for (int i = 0; i < state.events; i++) state.eventTypes[i] = readVarInt();
+    }
+
+    if (position != inputLength) throw new IOException("Frame has trailing bytes");
+  }
+
+  private void writeHeader(SpectatorState state) {
+    writeVarInt(state.playfieldWidth);
+    writeVarInt(state.playfieldHeight);
+    writeVarInt(state.paddleY);
+    writeVarInt(state.paddleHeight);
+    writeVarInt(state.ballRadius);
+  }
+
+  private void writeGame(SpectatorState state) {
+    writeVarInt(state.level);
+    writeVarInt(state.lives);
+    writeVarInt(state.score);
+    writeByte(flags(state));
+    writeVarInt(state.activePower);
+  }
+
+  private void writeBricks(SpectatorState previous, SpectatorState current) {
+    int changes = 0;
+    for (int i = 0; i < current.bricks.length; i++) {
+      if (previous.bricks[i] != current.bricks[i]) changes++;
+    }
+    writeVarInt(changes);
+    int last = -1;
+    for (int i = 0; i < current.bricks.length; i++) {
+      if (previous.bricks[i] != current.bricks[i]) {
+        writeVarInt(i - last - 1);
+        writeByte(current.bricks[i] & 0xff);
+        last = i;
+      }
+    }
+  }
+
+  private void writePowerPills(SpectatorState previous, SpectatorState current) {
+    writeVarInt(current.powerPills);
+    for (int i = 0; i < current.powerPills; i++) {
+      if (i < previous.powerPills) {
+        writeSignedVarInt(current.powerPillType[i] - previous.powerPillType[i]);
+        writeSignedVarInt(current.powerPillX[i] - previous.powerPillX[i]);
+        writeSignedVarInt(current.powerPillY[i] - previous.powerPillY[i]);
+      } else {
+        writeVarInt(current.powerPillType[i]);
+        writeVarInt(current.powerPillX[i]);
+        writeVarInt(current.powerPillY[i]);
+      }
+    }
+  }
+
+  private void writeLaserShots(SpectatorState previous, SpectatorState current) {
+    writeVarInt(current.laserShots);
+    for (int i = 0; i < current.laserShots; i++) {
+      if (i < previous.laserShots) {
+        writeSignedVarInt(current.laserShotX[i] - previous.laserShotX[i]);
+        writeSignedVarInt(current.laserShotY[i] - previous.laserShotY[i]);
+      } else {
+        writeVarInt(current.laserShotX[i]);
+        writeVarInt(current.laserShotY[i]);
+      }
+    }
+  }
+
+  private void writeEvents(SpectatorState state) {
+    writeVarInt(state.events);
+    for (int i = 0; i < state.events; i++) writeVarInt(state.eventTypes[i]);
+  }
+
+  private static int flags(SpectatorState state) {
+    return (state.playing ? PLAYING : 0)
+        | (state.paused ? PAUSED : 0)
+        | (state.gameOver ? GAME_OVER : 0);
+  }
+
+  private static boolean equals(int[] a, int[] b, int length) {
+    for (int i = 0; i < length; i++) {
+      if (a[i] != b[i]) return false;
+    }
+    return true;
+  }
+
+  private void writeByte(int value) {
+    if (length == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+    buffer[length++] = (byte) value;
+  }
+
+  private void writeSignedVarInt(int value) {
+    // zigzag - small negative numbers become small positive numbers
+    writeVarInt((value << 1) ^ (value >> 31));
+  }
+
+  private void writeVarInt(int value) {
+    writeVarLong(value & 0xffffffffL);
+  }
+
+  private void writeVarLong(long value) {
+    while ((value & ~0x7fL) != 0) {
+      writeByte((int) (value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    writeByte((int) value);
+  }
+
+  private int readByte() throws IOException {
+    if (position >= inputLength) throw new EOFException("Frame ends early");
+    return input[position++] & 0xff;
+  }
+
+  private int readCount(int max) throws IOException {
+    final int count = readVarInt();
+    if (count < 0 || count > max) throw new IOException("Count out of range " + count);
+    return count;
+  }
+
+  private int readSignedVarInt() throws IOException {
+    final int value = readVarInt();
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private int readVarInt() throws IOException {
+    return (int) readVarLong();
+  }
+
+  private long readVarLong() throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      final int b = readByte();
+      value |= (long) (b & 0x7f) << shift;
+      if ((b & 0x80) == 0) return value;
+    }
+    throw new IOException("Malformed variable length number");
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.spectator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.function.Consumer;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * SpectatorClient
+ *
+ * <p>Connects to a <code>SpectatorServer</code> and rebuilds the state of the game from the
+ * frames it receives. A reader thread decodes the frames and tells the listener about each new
+ * state. Renderers should copy the state with <code>copyState()</code> as the reader keeps
+ * updating it.
+ *
+ * @author Frank Kopp
+ */
+public class SpectatorClient implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SpectatorClient.class);
+
+  private final Socket socket;
+  private final Thread reader;
+  private final Consumer<SpectatorState> listener;
+
+  // guarded by itself
+  private final SpectatorState state = new SpectatorState();
+
+  private volatile long bytesReceived;
+  private volatile long framesReceived;
+  private volatile boolean connected;
+  private volatile boolean closed;
+
+  /**
+   * Connects to a server and starts reading.
+   *
+   * @param host the host of the server
+   * @param port the port of the server
+   * @param listener called on the reader thread with the state after each frame - may be null
+   * @throws IOException if the server cannot be reached
+   */
+  public SpectatorClient(String host, int port, Consumer<SpectatorState> listener)
+      throws IOException {
+    this.listener = listener;
+    this.socket = new Socket(host, port);
+    this.connected = true;
+    reader = new Thread(this::read, "SpectatorClient");
+    reader.setDaemon(true);
+    reader.start();
+  }
+
+  /** Reads and decodes frames until the connection is closed. */
+  private void read() {
+    final DeltaCodec codec = new DeltaCodec();
+    byte[] frame = new byte[256];
+    try (DataInputStream in =
+        new DataInputStream(
+            new InflaterInputStream(new CountingInputStream(socket.getInputStream())))) {
+      boolean keyFrameSeen = false;
+      while (true) {
+        final int length = readVarInt(in);
+        if (length > frame.length) frame = new byte[Math.max(length, frame.length * 2)];
+        in.readFully(frame, 0, length);
+        // deltas are useless without a key frame to apply them to
+        keyFrameSeen |= frame[0] == DeltaCodec.KEYFRAME;
+        if (!keyFrameSeen) throw new IOException("Stream does not start with a key frame");
+        synchronized (state) {
+          codec.decode(frame, length, state);
+        }
+        framesReceived++;
+        if (listener != null) listener.accept(state);
+      }
+    } catch (EOFException | SocketException e) {
+      if (!closed) LOG.info("Spectator server closed the connection");
+    } catch (IOException e) {
+      if (!closed) LOG.warn("Spectator stream failed: {}", e.toString());
+    } finally {
+      connected = false;
+    }
+  }
+
+  /**
+   * Copies the latest state.
+   *
+   * @param target the state to copy to
+   */
+  public void copyState(SpectatorState target) {
+    synchronized (state) {
+      target.copyFrom(state);
+    }
+  }
+
+  /** @return true as long as the server sends frames */
+  public boolean isConnected() {
+    return connected;
+  }
+
+  /** @return number of compressed bytes received so far */
+  public long getBytesReceived() {
+    return bytesReceived;
+  }
+
+  /** @return number of frames decoded so far */
+  public long getFramesReceived() {
+    return framesReceived;
+  }
+
+  /** Closes the connection. */
+  @Override
+  public void close() {
+    closed = true;
+    try {
+      socket.close();
+    } catch (IOException e) {
+      LOG.warn("Could not close spectator socket: {}", e.toString());
+    }
+  }
+
+  private static int readVarInt(InputStream in) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      final int b = in.read();
+      if (b < 0) throw new EOFException();
+      value |= (b & 0x7f) << shift;
+      if ((b & 0x80) == 0) return value;
+    }
+    throw new IOException("Malformed frame length");
+  }
+
+  /**
+   * CountingInputStream
+   *
+   * <p>Counts the bytes as they come from the network before they are inflated.
+   */
+  private class CountingInputStream extends FilterInputStream {
+
+    private CountingInputStream(InputStream in) {
+      super(new BufferedInputStream(in));
+    }
+
+    @Override
+    public int read() throws IOException {
+      final int b = super.read();
+      if (b >= 0) bytesReceived++;
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      final int n = super.read(b, off, len);
+      if (n > 0) bytesReceived += n;
+      return n;
+    }
+  }
+}
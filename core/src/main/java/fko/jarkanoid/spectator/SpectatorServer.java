@@ -0,0 +1,276 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.spectator;
+
+import fko.jarkanoid.events.GameEvent;
+import fko.jarkanoid.model.GameModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * SpectatorServer
+ *
+ * <p>Broadcasts a running game to spectators on the local network. After each tick of the game
+ * loop the state is captured and encoded by the <code>DeltaCodec</code> once for all spectators.
+ * Each spectator gets a key frame first and then the deltas, written by its own thread through a
+ * deflate stream which is flushed after each burst of frames. A spectator which cannot keep up
+ * and falls more than a second behind is disconnected so that it never slows down the game.
+ *
+ * <p>Each frame on the stream is prefixed by its length as a variable length int.
+ *
+ * @author Frank Kopp
+ */
+public class SpectatorServer implements Observer, AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SpectatorServer.class);
+
+  /** System property with the port to start a spectator server for the game at startup */
+  public static final String PORT_PROPERTY = "fko.jarkanoid.spectatorPort";
+
+  /** Frames a spectator may fall behind before it is disconnected */
+  static final int MAX_QUEUED_FRAMES = 60;
+
+  private final GameModel model;
+  private final ServerSocket serverSocket;
+  private final Thread acceptor;
+  private final List<Spectator> spectators = new CopyOnWriteArrayList<>();
+
+  // only used by the game loop thread
+  private final DeltaCodec codec = new DeltaCodec();
+  private final SpectatorState previous = new SpectatorState();
+  private final SpectatorState current = new SpectatorState();
+
+  // events of the current tick - guarded by this
+  private final int[] events = new int[SpectatorState.MAX_EVENTS];
+  private int eventCount;
+
+  private final Runnable tickListener = this::publish;
+
+  private volatile boolean closed;
+
+  /**
+   * Starts listening for spectators and registers with the game.
+   *
+   * @param model the game to broadcast
+   * @param port the TCP port to listen on - 0 for any free port
+   * @throws IOException if the port cannot be opened
+   */
+  public SpectatorServer(GameModel model, int port) throws IOException {
+    this.model = model;
+    this.serverSocket = new ServerSocket(port);
+    model.addObserver(this);
+    model.addTickListener(tickListener);
+    acceptor = new Thread(this::accept, "SpectatorServer");
+    acceptor.setDaemon(true);
+    acceptor.start();
+    LOG.info("Spectator server listening on port {}", getPort());
+  }
+
+  /** @return the port the server listens on */
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /** @return the number of connected spectators */
+  public int getSpectatorCount() {
+    return spectators.size();
+  }
+
+  @Override
+  public synchronized void update(Observable o, Object arg) {
+    if (!(arg instanceof GameEvent) || eventCount == events.length) return;
+    events[eventCount++] = ((GameEvent) arg).getEventType().ordinal();
+  }
+
+  /** Captures the state after a tick and queues the frames for the spectators. */
+  private void publish() {
+    if (spectators.isEmpty()) {
+      synchronized (this) {
+        eventCount = 0;
+      }
+      return;
+    }
+
+    current.capture(model);
+    synchronized (this) {
+      System.arraycopy(events, 0, current.eventTypes, 0, eventCount);
+      current.events = eventCount;
+      eventCount = 0;
+    }
+
+    final byte[] delta = frame(codec.encodeDelta(previous, current));
+    byte[] keyFrame = null;
+    // indexed loop as the list would allocate an iterator
+    for (int i = 0; i < spectators.size(); i++) {
+      final Spectator spectator = spectators.get(i);
+      if (spectator.needsKeyFrame) {
+        if (keyFrame == null) keyFrame = frame(codec.encodeKeyFrame(current));
+        spectator.needsKeyFrame = false;
+        spectator.offer(keyFrame);
+      } else {
+        spectator.offer(delta);
+      }
+    }
+    previous.copyFrom(current);
+  }
+
+  /**
+   * @param length length of the frame in the codec's buffer
+   * @return a copy of the frame which can be shared by all spectators
+   */
+  private byte[] frame(int length) {
+    return Arrays.copyOf(codec.getBuffer(), length);
+  }
+
+  /** Accepts spectators until the server is closed. */
+  private void accept() {
+    while (!closed) {
+      try {
+        final Socket socket = serverSocket.accept();
+        socket.setTcpNoDelay(true);
+        final Spectator spectator = new Spectator(socket);
+        spectators.add(spectator);
+        spectator.start();
+        LOG.info("Spectator {} connected", socket.getRemoteSocketAddress());
+      } catch (IOException e) {
+        if (!closed) LOG.warn("Could not accept spectator: {}", e.toString());
+      }
+    }
+  }
+
+  /** Disconnects all spectators and stops listening. */
+  @Override
+  public void close() {
+    closed = true;
+    model.removeTickListener(tickListener);
+    model.deleteObserver(this);
+    try {
+      serverSocket.close();
+    } catch (IOException e) {
+      LOG.warn("Could not close server socket: {}", e.toString());
+    }
+    for (Spectator spectator : spectators) spectator.disconnect();
+  }
+
+  /**
+   * Spectator
+   *
+   * <p>A connected spectator with its queue of frames and the thread sending them.
+   */
+  private class Spectator implements Runnable {
+
+    private final Socket socket;
+    private final BlockingQueue<byte[]> frames = new ArrayBlockingQueue<>(MAX_QUEUED_FRAMES);
+    private final Thread sender;
+
+    // only accessed by the game loop thread
+    private boolean needsKeyFrame = true;
+
+    private Spectator(Socket socket) {
+      this.socket = socket;
+      this.sender = new Thread(this, "Spectator " + socket.getRemoteSocketAddress());
+      this.sender.setDaemon(true);
+    }
+
+    private void start() {
+      sender.start();
+    }
+
+    private void offer(byte[] frame) {
+      if (!frames.offer(frame)) {
+        LOG.info("Spectator {} is too slow", socket.getRemoteSocketAddress());
+        disconnect();
+      }
+    }
+
+    private void disconnect() {
+      spectators.remove(this);
+      sender.interrupt();
+      try {
+        socket.close();
+      } catch (IOException e) {
+        LOG.warn("Could not close spectator socket: {}", e.toString());
+      }
+    }
+
+    @Override
+    public void run() {
+      final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+      try (OutputStream out =
+          new DeflaterOutputStream(
+              new BufferedOutputStream(socket.getOutputStream()), deflater, 4096, true)) {
+        while (true) {
+          byte[] frame = frames.take();
+          // send everything queued as one burst
+          do {
+            writeVarInt(out, frame.length);
+            out.write(frame);
+            frame = frames.poll();
+          } while (frame != null);
+          out.flush();
+        }
+      } catch (InterruptedException | SocketException e) {
+        // disconnected
+      } catch (IOException e) {
+        LOG.info("Spectator {} lost: {}", socket.getRemoteSocketAddress(), e.toString());
+      } finally {
+        deflater.end();
+        disconnect();
+      }
+    }
+  }
+
+  /**
+   * Writes an int as variable length number.
+   *
+   * @param out the stream
+   * @param value a non negative int
+   * @throws IOException if writing fails
+   */
+  static void writeVarInt(OutputStream out, int value) throws IOException {
+    while ((value & ~0x7f) != 0) {
+      out.write(value & 0x7f | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+}
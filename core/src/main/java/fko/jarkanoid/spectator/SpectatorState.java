@@ -0,0 +1,416 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.spectator;
+
+import fko.jarkanoid.model.Ball;
+import fko.jarkanoid.model.Brick;
+import fko.jarkanoid.model.BrickLayout;
+import fko.jarkanoid.model.GameModel;
+import fko.jarkanoid.model.LaserShot;
+import fko.jarkanoid.model.PowerPill;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SpectatorState
+ *
+ * <p>What a spectator sees of a game in one tick - quantized to a quarter pixel and kept in
+ * primitive arrays so that it can be captured, compared and encoded every tick without
+ * allocations. The server captures it from the model and the client rebuilds it from the
+ * deltas it receives.
+ *
+ * <p>Bricks are coded in one byte: 0 for no brick, otherwise the ordinal of the <code>BrickType
+ * </code> plus one in the lower four bits and the number of hits (up to 15) in the upper four
+ * bits.
+ *
+ * @author Frank Kopp
+ */
+public class SpectatorState {
+
+  /** Positions and sizes are multiplied by this before rounding to an int */
+  public static final int SCALE = 4;
+
+  public static final int MAX_BALLS = 8;
+  public static final int MAX_POWER_PILLS = 8;
+  public static final int MAX_LASER_SHOTS = 64;
+  public static final int MAX_EVENTS = 64;
+
+  long tick;
+
+  // game
+  int level;
+  int lives;
+  int score;
+  boolean playing;
+  boolean paused;
+  boolean gameOver;
+  int activePower;
+
+  // sizes which rarely change
+  int playfieldWidth;
+  int playfieldHeight;
+  int paddleY;
+  int paddleHeight;
+  int ballRadius;
+
+  int paddleX;
+  int paddleWidth;
+
+  final byte[] bricks = new byte[BrickLayout.ROWS * BrickLayout.COLUMNS];
+
+  int balls;
+  final int[] ballX = new int[MAX_BALLS];
+  final int[] ballY = new int[MAX_BALLS];
+  // movement of the balls in the last tick - the predictor of the next movement in the deltas
+  final int[] ballDX = new int[MAX_BALLS];
+  final int[] ballDY = new int[MAX_BALLS];
+
+  int powerPills;
+  final int[] powerPillType = new int[MAX_POWER_PILLS];
+  final int[] powerPillX = new int[MAX_POWER_PILLS];
+  final int[] powerPillY = new int[MAX_POWER_PILLS];
+
+  int laserShots;
+  final int[] laserShotX = new int[MAX_LASER_SHOTS];
+  final int[] laserShotY = new int[MAX_LASER_SHOTS];
+
+  // ordinals of the game events of the tick
+  int events;
+  final int[] eventTypes = new int[MAX_EVENTS];
+
+  /**
+   * Captures the state of a game. The events are set separately.
+   *
+   * @param model the game
+   */
+  public void capture(GameModel model) {
+    tick = model.getTicks();
+    level = model.currentLevelProperty().get();
+    lives = model.currentRemainingLivesProperty().get();
+    score = model.currentScoreProperty().get();
+    playing = model.isPlaying();
+    paused = model.isPaused();
+    gameOver = model.gameOverProperty().get();
+    activePower = model.activePowerProperty().get().ordinal();
+
+    playfieldWidth = quantize(model.playfieldWidthProperty().get());
+    playfieldHeight = quantize(model.playfieldHeightProperty().get());
+    paddleY = quantize(model.paddleYProperty().get());
+    paddleHeight = quantize(model.paddleHeightProperty().get());
+    paddleX = quantize(model.paddleXProperty().get());
+    paddleWidth = quantize(model.paddleWidthProperty().get());
+
+    final Brick[][] matrix = model.getBrickLayout().getMatrix();
+    for (int row = 0; row < BrickLayout.ROWS; row++) {
+      for (int col = 0; col < BrickLayout.COLUMNS; col++) {
+        final Brick brick = matrix[row][col];
+        bricks[row * BrickLayout.COLUMNS + col] =
+            brick == null
+                ? 0
+                : (byte)
+                    (brick.getType().ordinal() + 1 | Math.min(15, brick.getHitCount()) << 4);
+      }
+    }
+
+    // indexed loops as the lists would allocate iterators
+    final List<Ball> ballList = model.getBallManager();
+    balls = Math.min(MAX_BALLS, ballList.size());
+    for (int i = 0; i < balls; i++) {
+      final Ball ball = ballList.get(i);
+      ballX[i] = quantize(ball.getCenterX());
+      ballY[i] = quantize(ball.getCenterY());
+      ballRadius = quantize(ball.getRadius());
+    }
+
+    final List<PowerPill> pills = model.fallingPowerPillsProperty();
+    powerPills = Math.min(MAX_POWER_PILLS, pills.size());
+    for (int i = 0; i < powerPills; i++) {
+      final PowerPill pill = pills.get(i);
+      powerPillType[i] = pill.getPowerPillType().ordinal();
+      powerPillX[i] = quantize(pill.getX());
+      powerPillY[i] = quantize(pill.getY());
+    }
+
+    final List<LaserShot> shots = model.getLaserShotManager();
+    laserShots = Math.min(MAX_LASER_SHOTS, shots.size());
+    for (int i = 0; i < laserShots; i++) {
+      final LaserShot shot = shots.get(i);
+      laserShotX[i] = quantize(shot.getX());
+      laserShotY[i] = quantize(shot.getY());
+    }
+  }
+
+  /** @param other the state to copy */
+  public void copyFrom(SpectatorState other) {
+    tick = other.tick;
+    level = other.level;
+    lives = other.lives;
+    score = other.score;
+    playing = other.playing;
+    paused = other.paused;
+    gameOver = other.gameOver;
+    activePower = other.activePower;
+    playfieldWidth = other.playfieldWidth;
+    playfieldHeight = other.playfieldHeight;
+    paddleY = other.paddleY;
+    paddleHeight = other.paddleHeight;
+    ballRadius = other.ballRadius;
+    paddleX = other.paddleX;
+    paddleWidth = other.paddleWidth;
+    System.arraycopy(other.bricks, 0, bricks, 0, bricks.length);
+    balls = other.balls;
+    System.arraycopy(other.ballX, 0, ballX, 0, MAX_BALLS);
+    System.arraycopy(other.ballY, 0, ballY, 0, MAX_BALLS);
+    System.arraycopy(other.ballDX, 0, ballDX, 0, MAX_BALLS);
+    System.arraycopy(other.ballDY, 0, ballDY, 0, MAX_BALLS);
+    powerPills = other.powerPills;
+    System.arraycopy(other.powerPillType, 0, powerPillType, 0, MAX_POWER_PILLS);
+    System.arraycopy(other.powerPillX, 0, powerPillX, 0, MAX_POWER_PILLS);
+    System.arraycopy(other.powerPillY, 0, powerPillY, 0, MAX_POWER_PILLS);
+    laserShots = other.laserShots;
+    System.arraycopy(other.laserShotX, 0, laserShotX, 0, MAX_LASER_SHOTS);
+    System.arraycopy(other.laserShotY, 0, laserShotY, 0, MAX_LASER_SHOTS);
+    events = other.events;
+    System.arraycopy(other.eventTypes, 0, eventTypes, 0, MAX_EVENTS);
+  }
+
+  /**
+   * @param other another state
+   * @return true if both show the same - the events and movements of the balls are not compared
+   */
+  public boolean looksLike(SpectatorState other) {
+    return tick == other.tick
+        && level == other.level
+        && lives == other.lives
+        && score == other.score
+        && playing == other.playing
+        && paused == other.paused
+        && gameOver == other.gameOver
+        && activePower == other.activePower
+        && playfieldWidth == other.playfieldWidth
+        && playfieldHeight == other.playfieldHeight
+        && paddleY == other.paddleY
+        && paddleHeight == other.paddleHeight
+        && paddleX == other.paddleX
+        && paddleWidth == other.paddleWidth
+        && Arrays.equals(bricks, other.bricks)
+        && balls == other.balls
+        && equals(ballX, other.ballX, balls)
+        && equals(ballY, other.ballY, balls)
+        && (balls == 0 || ballRadius == other.ballRadius)
+        && powerPills == other.powerPills
+        && equals(powerPillType, other.powerPillType, powerPills)
+        && equals(powerPillX, other.powerPillX, powerPills)
+        && equals(powerPillY, other.powerPillY, powerPills)
+        && laserShots == other.laserShots
+        && equals(laserShotX, other.laserShotX, laserShots)
+        && equals(laserShotY, other.laserShotY, laserShots);
+  }
+
+  private static boolean equals(int[] a, int[] b, int length) {
+    for (int i = 0; i < length; i++) {
+      if (a[i] != b[i]) return false;
+    }
+    return true;
+  }
+
+  /**
+   * @param value a position or size in pixels
+   * @return the value in quarter pixels
+   */
+  static int quantize(double value) {
+    return (int) Math.round(value * SCALE);
+  }
+
+  /** @return the game loop tick of the state */
+  public long getTick() {
+    return tick;
+  }
+
+  /** @return the current level */
+  public int getLevel() {
+    return level;
+  }
+
+  /** @return the remaining lives */
+  public int getLives() {
+    return lives;
+  }
+
+  /** @return the score */
+  public int getScore() {
+    return score;
+  }
+
+  /** @return true if a game is running */
+  public boolean isPlaying() {
+    return playing;
+  }
+
+  /** @return true if the game is paused */
+  public boolean isPaused() {
+    return paused;
+  }
+
+  /** @return true if the game is over */
+  public boolean isGameOver() {
+    return gameOver;
+  }
+
+  /** @return ordinal of the active <code>PowerPillType</code> */
+  public int getActivePower() {
+    return activePower;
+  }
+
+  /** @return width of the playfield in pixels */
+  public double getPlayfieldWidth() {
+    return (double) playfieldWidth / SCALE;
+  }
+
+  /** @return height of the playfield in pixels */
+  public double getPlayfieldHeight() {
+    return (double) playfieldHeight / SCALE;
+  }
+
+  /** @return x of the paddle in pixels */
+  public double getPaddleX() {
+    return (double) paddleX / SCALE;
+  }
+
+  /** @return y of the paddle in pixels */
+  public double getPaddleY() {
+    return (double) paddleY / SCALE;
+  }
+
+  /** @return width of the paddle in pixels */
+  public double getPaddleWidth() {
+    return (double) paddleWidth / SCALE;
+  }
+
+  /** @return height of the paddle in pixels */
+  public double getPaddleHeight() {
+    return (double) paddleHeight / SCALE;
+  }
+
+  /**
+   * @param row row of the brick
+   * @param col column of the brick
+   * @return code of the brick in the cell - 0 if there is none
+   */
+  public int getBrick(int row, int col) {
+    return bricks[row * BrickLayout.COLUMNS + col];
+  }
+
+  /** @return number of balls */
+  public int getBalls() {
+    return balls;
+  }
+
+  /** @return radius of the balls in pixels */
+  public double getBallRadius() {
+    return (double) ballRadius / SCALE;
+  }
+
+  /**
+   * @param i index of the ball
+   * @return x of the ball's center in pixels
+   */
+  public double getBallX(int i) {
+    return (double) ballX[i] / SCALE;
+  }
+
+  /**
+   * @param i index of the ball
+   * @return y of the ball's center in pixels
+   */
+  public double getBallY(int i) {
+    return (double) ballY[i] / SCALE;
+  }
+
+  /** @return number of falling power pills */
+  public int getPowerPills() {
+    return powerPills;
+  }
+
+  /**
+   * @param i index of the power pill
+   * @return ordinal of the <code>PowerPillType</code> of the power pill
+   */
+  public int getPowerPillType(int i) {
+    return powerPillType[i];
+  }
+
+  /**
+   * @param i index of the power pill
+   * @return x of the power pill in pixels
+   */
+  public double getPowerPillX(int i) {
+    return (double) powerPillX[i] / SCALE;
+  }
+
+  /**
+   * @param i index of the power pill
+   * @return y of the power pill in pixels
+   */
+  public double getPowerPillY(int i) {
+    return (double) powerPillY[i] / SCALE;
+  }
+
+  /** @return number of laser shots */
+  public int getLaserShots() {
+    return laserShots;
+  }
+
+  /**
+   * @param i index of the laser shot
+   * @return x of the laser shot in pixels
+   */
+  public double getLaserShotX(int i) {
+    return (double) laserShotX[i] / SCALE;
+  }
+
+  /**
+   * @param i index of the laser shot
+   * @return y of the laser shot in pixels
+   */
+  public double getLaserShotY(int i) {
+    return (double) laserShotY[i] / SCALE;
+  }
+
+  /** @return number of game events in the tick */
+  public int getEvents() {
+    return events;
+  }
+
+  /**
+   * @param i index of the event
+   * @return ordinal of the <code>GameEventType</code> of the event
+   */
+  public int getEventType(int i) {
+    return eventTypes[i];
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.versus;
+
+/**
+ * InputMessage
+ *
+ * <p>The input of a player for one tick of the game loop as sent to the other player. Every
+ * <code>LockstepSession.HASH_INTERVAL</code> ticks it also carries the hash of the sender's game
+ * after the tick so that the receiver can check that its simulation of the game is the same.
+ *
+ * @author Frank Kopp
+ */
+public final class InputMessage {
+
+  private final long tick;
+  private final int input;
+  private final boolean hashed;
+  private final long hash;
+
+  /**
+   * @param tick the tick the input is for
+   * @param input the input - a combination of the <code>LockstepSession.INPUT_</code> bits
+   */
+  public InputMessage(long tick, int input) {
+    this(tick, input, false, 0);
+  }
+
+  /**
+   * @param tick the tick the input is for
+   * @param input the input - a combination of the <code>LockstepSession.INPUT_</code> bits
+   * @param hash the hash of the sender's game after the tick (see <code>Perft.hash()</code>)
+   */
+  public InputMessage(long tick, int input, long hash) {
+    this(tick, input, true, hash);
+  }
+
+  private InputMessage(long tick, int input, boolean hashed, long hash) {
+    this.tick = tick;
+    this.input = input;
+    this.hashed = hashed;
+    this.hash = hash;
+  }
+
+  /** @return the tick the input is for */
+  public long getTick() {
+    return tick;
+  }
+
+  /** @return the input of the tick */
+  public int getInput() {
+    return input;
+  }
+
+  /** @return true if the message carries a hash of the game */
+  public boolean isHashed() {
+    return hashed;
+  }
+
+  /** @return the hash of the sender's game after the tick */
+  public long getHash() {
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return "InputMessage [tick=" + tick + ", input=" + input + "]";
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.versus;
+
+import java.io.IOException;
+
+/**
+ * InputTransport
+ *
+ * <p>Carries the input messages between the two players of a <code>LockstepSession</code>.
+ * Messages must arrive completely and in the order they were sent. A transport is used by the
+ * thread driving the session only.
+ *
+ * @author Frank Kopp
+ */
+public interface InputTransport extends AutoCloseable {
+
+  /**
+   * @param message the message to send to the other player
+   * @throws IOException if the connection is lost
+   */
+  void send(InputMessage message) throws IOException;
+
+  /** @return the next message received from the other player or null if there is none yet */
+  InputMessage poll();
+
+  /** @return true as long as the other player can be reached */
+  boolean isConnected();
+
+  @Override
+  void close();
+}
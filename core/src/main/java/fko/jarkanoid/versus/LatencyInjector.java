@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.versus;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Random;
+
+/**
+ * LatencyInjector
+ *
+ * <p>Holds back the messages received by another transport to simulate a slow network, e.g. to
+ * test the rollback of a <code>LockstepSession</code> on a single machine. Each message is
+ * delivered after a fixed delay plus a random jitter but never before the message sent before it.
+ *
+ * @author Frank Kopp
+ */
+public class LatencyInjector implements InputTransport {
+
+  private final InputTransport transport;
+  private final long delayNanos;
+  private final long jitterNanos;
+  private final Random random;
+
+  private final Queue<InputMessage> delayed = new ArrayDeque<>();
+  private final Queue<Long> deliveryTimes = new ArrayDeque<>();
+  private long lastDeliveryTime;
+
+  /**
+   * @param transport the transport to delay
+   * @param delayMillis the delay of each message in ms
+   * @param jitterMillis the maximum random addition to the delay in ms
+   * @param seed seed of the jitter
+   */
+  public LatencyInjector(InputTransport transport, long delayMillis, long jitterMillis, long seed) {
+    if (delayMillis < 0 || jitterMillis < 0) {
+      throw new IllegalArgumentException("Delay and jitter must not be negative");
+    }
+    this.transport = transport;
+    this.delayNanos = delayMillis * 1_000_000;
+    this.jitterNanos = jitterMillis * 1_000_000;
+    this.random = new Random(seed);
+  }
+
+  @Override
+  public void send(InputMessage message) throws IOException {
+    transport.send(message);
+  }
+
+  @Override
+  public InputMessage poll() {
+    final long now = System.nanoTime();
+    InputMessage message;
+    while ((message = transport.poll()) != null) {
+      final long jitter = jitterNanos == 0 ? 0 : (long) (random.nextDouble() * jitterNanos);
+      // the network keeps the order
+      lastDeliveryTime = Math.max(lastDeliveryTime, now + delayNanos + jitter);
+      delayed.add(message);
+      deliveryTimes.add(lastDeliveryTime);
+    }
+    if (deliveryTimes.isEmpty() || deliveryTimes.peek() > now) return null;
+    deliveryTimes.remove();
+    return delayed.remove();
+  }
+
+  @Override
+  public boolean isConnected() {
+    return transport.isConnected();
+  }
+
+  @Override
+  public void close() {
+    transport.close();
+  }
+}
@@ -0,0 +1,270 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.versus;
+
+import fko.jarkanoid.model.GameModel;
+import fko.jarkanoid.model.Perft;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * LockstepSession
+ *
+ * <p>Head-to-head play between two machines. Both players play the same seeded game on their own
+ * board and each machine simulates both boards. Only the inputs are exchanged - one message per
+ * tick - as the deterministic simulation turns the same inputs into the same game on both sides.
+ *
+ * <p>The own board runs with the local input at once. The board of the other player runs ahead
+ * with predicted inputs (the last input received) to hide the latency of the network. A third,
+ * confirmed copy of the other board only advances with the received inputs. When a received input
+ * differs from the prediction the other board is rolled back to the confirmed copy and simulated
+ * again up to the current tick. The prediction may run at most <code>maxRollback</code> ticks
+ * ahead of the confirmed inputs - then <code>advance()</code> refuses to tick until the other
+ * player catches up. Every <code>HASH_INTERVAL</code> ticks the messages carry a hash of the
+ * sender's board which must match the confirmed copy, otherwise the games are out of sync.
+ *
+ * <p>Not thread safe - the session and its models must be used by one thread.
+ *
+ * @author Frank Kopp
+ */
+public class LockstepSession implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LockstepSession.class);
+
+  public static final int INPUT_NONE = 0;
+  public static final int INPUT_LEFT = 1;
+  public static final int INPUT_RIGHT = 1 << 1;
+  public static final int INPUT_FIRE = 1 << 2;
+
+  /** Default number of ticks the other board may be predicted - 200ms at 60 ticks per second */
+  public static final int DEFAULT_MAX_ROLLBACK = 12;
+
+  /** Ticks between the hashes to check the games are in sync */
+  public static final int HASH_INTERVAL = 30;
+
+  private final InputTransport transport;
+  private final int maxRollback;
+
+  private final GameModel localModel;
+  private final GameModel remoteModel;
+  private final GameModel confirmedModel;
+  private final InputController localController = new InputController();
+  private final InputController remoteController = new InputController();
+  private final InputController confirmedController = new InputController();
+
+  // received inputs and hashes and the predicted inputs - indexed by tick modulo the length
+  private final int[] receivedInputs;
+  private final boolean[] receivedHashed;
+  private final long[] receivedHashes;
+  private final int[] predictedInputs;
+
+  // ticks of the boards, the last received input and the confirmed copy of the other board
+  private long tick;
+  private long receivedTick;
+  private long confirmedTick;
+
+  private long rollbacks;
+  private long resimulatedTicks;
+
+  /**
+   * Starts the game of both players.
+   *
+   * @param transport the connection to the other player
+   * @param seed the seed of the game - must be the same for both players
+   * @param maxRollback the maximum number of ticks the other player's board is predicted
+   */
+  public LockstepSession(InputTransport transport, long seed, int maxRollback) {
+    if (maxRollback < 1) throw new IllegalArgumentException("maxRollback must be at least 1");
+    this.transport = transport;
+    this.maxRollback = maxRollback;
+
+    // the other player may be up to maxRollback ticks ahead of the confirmed inputs of both sides
+    final int window = 2 * maxRollback + 1;
+    receivedInputs = new int[window];
+    receivedHashed = new boolean[window];
+    receivedHashes = new long[window];
+    predictedInputs = new int[window];
+
+    localModel = new GameModel(true);
+    localModel.setRecordSessions(false);
+    localModel.setPaddleController(localController);
+    localModel.startPlaying(seed);
+    remoteModel = localModel.fork();
+    remoteModel.setPaddleController(remoteController);
+    confirmedModel = localModel.fork();
+    confirmedModel.setPaddleController(confirmedController);
+  }
+
+  /**
+   * Simulates the next tick of both boards unless the other player is too far behind.
+   *
+   * @param input the local input for the tick - a combination of the <code>INPUT_</code> bits
+   * @return true if the tick was simulated, false if the session waits for the other player
+   * @throws IOException if the other player cannot be reached
+   * @throws IllegalStateException if the games are out of sync
+   */
+  public boolean advance(int input) throws IOException {
+    poll();
+    if (tick - confirmedTick >= maxRollback) return false;
+
+    final long next = tick + 1;
+    localController.setInput(input);
+    localModel.gameLoop();
+    transport.send(
+        next % HASH_INTERVAL == 0
+            ? new InputMessage(next, input, Perft.hash(localModel))
+            : new InputMessage(next, input));
+
+    step(remoteModel, remoteController, next);
+    tick = next;
+    confirm();
+    return true;
+  }
+
+  /**
+   * Takes the messages received from the other player and corrects the other board if the
+   * prediction was wrong. Called by <code>advance()</code> - call it while waiting otherwise.
+   *
+   * @throws IllegalStateException if the games are out of sync
+   */
+  public void poll() {
+    InputMessage message;
+    while ((message = transport.poll()) != null) {
+      if (message.getTick() != receivedTick + 1) {
+        throw new IllegalStateException(
+            "Expected input of tick " + (receivedTick + 1) + " but got " + message);
+      }
+      if (message.getTick() - confirmedTick >= receivedInputs.length) {
+        throw new IllegalStateException("Other player is too far ahead: " + message);
+      }
+      final int i = index(message.getTick());
+      receivedInputs[i] = message.getInput();
+      receivedHashed[i] = message.isHashed();
+      receivedHashes[i] = message.getHash();
+      receivedTick = message.getTick();
+    }
+    confirm();
+  }
+
+  /**
+   * Advances the confirmed copy of the other board with the received inputs and rolls back the
+   * other board if one of them was not predicted.
+   */
+  private void confirm() {
+    boolean mispredicted = false;
+    while (confirmedTick < tick && confirmedTick < receivedTick) {
+      final long next = confirmedTick + 1;
+      final int i = index(next);
+      confirmedController.setInput(receivedInputs[i]);
+      confirmedModel.gameLoop();
+      confirmedTick = next;
+      mispredicted |= receivedInputs[i] != predictedInputs[i];
+      if (receivedHashed[i] && receivedHashes[i] != Perft.hash(confirmedModel)) {
+        throw new IllegalStateException("Games are out of sync at tick " + next);
+      }
+    }
+    if (!mispredicted) return;
+
+    rollbacks++;
+    remoteModel.copyStateFrom(confirmedModel);
+    for (long t = confirmedTick + 1; t <= tick; t++) {
+      step(remoteModel, remoteController, t);
+      resimulatedTicks++;
+    }
+    LOG.debug("Rolled back {} ticks at tick {}", tick - confirmedTick, tick);
+  }
+
+  /** Simulates a tick of the other board with the received or the predicted input. */
+  private void step(GameModel model, InputController controller, long t) {
+    final int input =
+        t <= receivedTick
+            ? receivedInputs[index(t)]
+            : receivedTick == 0 ? INPUT_NONE : receivedInputs[index(receivedTick)];
+    predictedInputs[index(t)] = input;
+    controller.setInput(input);
+    model.gameLoop();
+  }
+
+  private int index(long t) {
+    return (int) (t % receivedInputs.length);
+  }
+
+  /** @return the board of the local player */
+  public GameModel getLocalModel() {
+    return localModel;
+  }
+
+  /** @return the board of the other player - partly predicted */
+  public GameModel getRemoteModel() {
+    return remoteModel;
+  }
+
+  /** @return the number of simulated ticks */
+  public long getTick() {
+    return tick;
+  }
+
+  /** @return the last tick for which the input of the other player is known */
+  public long getConfirmedTick() {
+    return confirmedTick;
+  }
+
+  /** @return true if the other board only depends on received inputs */
+  public boolean isConfirmed() {
+    return confirmedTick == tick;
+  }
+
+  /** @return true if both games are over as far as confirmed */
+  public boolean isFinished() {
+    return localModel.gameOverProperty().get() && confirmedModel.gameOverProperty().get();
+  }
+
+  /** @return true as long as the other player can be reached */
+  public boolean isConnected() {
+    return transport.isConnected();
+  }
+
+  /** @return the number of rollbacks of the other board */
+  public long getRollbacks() {
+    return rollbacks;
+  }
+
+  /** @return the number of ticks simulated again after rollbacks */
+  public long getResimulatedTicks() {
+    return resimulatedTicks;
+  }
+
+  /** Ends the session and closes the connection to the other player. */
+  @Override
+  public void close() {
+    localModel.stopPlaying();
+    remoteModel.stopPlaying();
+    confirmedModel.stopPlaying();
+    transport.close();
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.versus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * SocketTransport
+ *
+ * <p>Sends the input messages over a TCP connection. One player waits for the other with <code>
+ * accept()</code>, the other one calls <code>connect()</code>. A reader thread queues the received
+ * messages so that polling never blocks the game loop.
+ *
+ * @author Frank Kopp
+ */
+public class SocketTransport implements InputTransport {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SocketTransport.class);
+
+  private final Socket socket;
+  private final DataOutputStream out;
+  private final Queue<InputMessage> received = new ConcurrentLinkedQueue<>();
+  private final Thread reader;
+
+  private volatile boolean connected = true;
+  private volatile boolean closed;
+
+  private SocketTransport(Socket socket) throws IOException {
+    this.socket = socket;
+    socket.setTcpNoDelay(true);
+    out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    reader = new Thread(this::read, "SocketTransport");
+    reader.setDaemon(true);
+    reader.start();
+  }
+
+  /**
+   * Waits for the other player to connect.
+   *
+   * @param serverSocket the socket to accept the connection on
+   * @return the transport to the other player
+   * @throws IOException if the connection fails
+   */
+  public static SocketTransport accept(ServerSocket serverSocket) throws IOException {
+    return new SocketTransport(serverSocket.accept());
+  }
+
+  /**
+   * Connects to the other player.
+   *
+   * @param host the host of the other player
+   * @param port the port the other player accepts connections on
+   * @return the transport to the other player
+   * @throws IOException if the connection fails
+   */
+  public static SocketTransport connect(String host, int port) throws IOException {
+    return new SocketTransport(new Socket(host, port));
+  }
+
+  @Override
+  public void send(InputMessage message) throws IOException {
+    out.writeLong(message.getTick());
+    out.writeByte(message.getInput());
+    out.writeBoolean(message.isHashed());
+    if (message.isHashed()) out.writeLong(message.getHash());
+    out.flush();
+  }
+
+  @Override
+  public InputMessage poll() {
+    return received.poll();
+  }
+
+  @Override
+  public boolean isConnected() {
+    return connected;
+  }
+
+  /** Reads messages until the connection is closed. */
+  private void read() {
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+      while (true) {
+        final long tick = in.readLong();
+        final int input = in.readUnsignedByte();
+        received.add(
+            in.readBoolean()
+                ? new InputMessage(tick, input, in.readLong())
+                : new InputMessage(tick, input));
+      }
+    } catch (EOFException | SocketException e) {
+      if (!closed) LOG.info("Other player closed the connection");
+    } catch (IOException e) {
+      if (!closed) LOG.warn("Connection to the other player failed: {}", e.toString());
+    } finally {
+      connected = false;
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    try {
+      socket.close();
+    } catch (IOException e) {
+      LOG.warn("Could not close socket: {}", e.toString());
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.beans;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ObservableValuesTest
+ *
+ * @author Frank Kopp
+ */
+class ObservableValuesTest {
+
+  @Test
+  void listenersAreOnlyCalledOnChanges() {
+    final IntValue value = new IntValue(1);
+    final int[] calls = new int[1];
+    final Runnable listener = () -> calls[0]++;
+    value.addListener(listener);
+    value.set(1);
+    value.set(2);
+    assertEquals(1, calls[0]);
+    value.removeListener(listener);
+    value.set(3);
+    assertEquals(1, calls[0]);
+  }
+
+  @Test
+  void boundValueFollowsItsSource() {
+    final DoubleValue paddleX = new DoubleValue(100);
+    final DoubleValue ballX = new DoubleValue();
+    ballX.bind(paddleX, x -> x + 10);
+    assertEquals(110, ballX.get());
+    paddleX.set(50);
+    assertEquals(60, ballX.get());
+    assertThrows(IllegalStateException.class, () -> ballX.set(0));
+
+    ballX.unbind();
+    paddleX.set(0);
+    assertEquals(60, ballX.get());
+    ballX.set(0);
+    assertEquals(0, ballX.get());
+  }
+
+  @Test
+  void listReportsAddedAndRemovedElements() {
+    final ObservableArrayList<String> list = new ObservableArrayList<>();
+    final List<String> events = new ArrayList<>();
+    list.addListener(ListListener.of(e -> events.add("+" + e), e -> events.add("-" + e)));
+    list.add("a");
+    list.add("b");
+    list.set(0, "c");
+    list.removeIf("b"::equals);
+    list.add("d");
+    list.clear();
+    assertTrue(list.isEmpty());
+    assertEquals(Arrays.asList("+a", "+b", "-a", "+c", "-b", "+d", "-d", "-c"), events);
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.events;
+
+import fko.jarkanoid.events.GameEvent.GameEventType;
+import fko.jarkanoid.model.GameModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Observer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * EventTracerTest
+ *
+ * @author Frank Kopp
+ */
+class EventTracerTest {
+
+  private final EventTracer tracer = EventTracer.getInstance();
+
+  @AfterEach
+  void tearDown() {
+    tracer.setSampleInterval(0);
+    tracer.reset();
+  }
+
+  @Test
+  void disabledByDefault() {
+    assertFalse(tracer.isEnabled());
+    assertFalse(new GameEvent(GameEventType.HIT_WALL).isTraced());
+  }
+
+  @Test
+  void sampling() {
+    final EventTracer sampling = new EventTracer(4);
+    int sampled = 0;
+    for (int i = 0; i < 100; i++) {
+      if (sampling.sample() != 0) sampled++;
+    }
+    assertEquals(25, sampled);
+  }
+
+  @Test
+  void tracesHandlersOfModelEvents() {
+    tracer.setSampleInterval(1);
+    tracer.reset();
+
+    final GameModel model = new GameModel(true);
+    model.setRecordSessions(false);
+    // a slow handler for wall hits
+    final Observer slowHandler =
+        (o, e) -> {
+          if (((GameEvent) e).getEventType() == GameEventType.HIT_WALL) busyWait(1_000_000);
+        };
+    model.addObserver(slowHandler);
+    model.addObserver((o, e) -> {});
+    assertEquals(2, model.countObservers());
+
+    model.startPlaying(4711);
+    for (int tick = 0; tick < 2_000 && model.isPlaying(); tick++) {
+      // simple bot keeping the ball in play
+      if (!model.getBallManager().isEmpty()) {
+        final double width = model.paddleWidthProperty().get();
+        final double x = model.getBallManager().get(0).getCenterX() - width / 2;
+        model.setPaddle(
+            Math.max(0, Math.min(model.playfieldWidthProperty().get() - width, x)), width);
+      }
+      if (tick % 50 == 0) model.releaseCaughtBall();
+      model.gameLoop();
+    }
+    model.stopPlaying();
+
+    final EventTracer.Histogram walls = tracer.getDispatchLatency(GameEventType.HIT_WALL);
+    assertTrue(walls.getCount() > 0);
+    assertTrue(walls.getPercentile(0.5) >= 1_000_000 / 2);
+    assertTrue(tracer.getDispatchLatency(GameEventType.GAME_START).getCount() > 0);
+
+    final List<String> slowest = tracer.getSlowestHandlers(1);
+    assertEquals(1, slowest.size());
+    assertTrue(slowest.get(0).contains("HIT_WALL"), slowest.get(0));
+    assertTrue(tracer.report().contains("HIT_WALL"));
+
+    model.deleteObserver(slowHandler);
+    assertEquals(1, model.countObservers());
+  }
+
+  @Test
+  void timesPartsOfAHandlerSeparately() {
+    tracer.setSampleInterval(1);
+    tracer.reset();
+
+    // an observer updating a slow view and playing a sound for the same event
+    final GameEvent event = new GameEvent(GameEventType.HIT_PADDLE);
+    assertTrue(event.isTraced());
+    tracer.time("TestView", event, () -> busyWait(20_000_000));
+    tracer.time("TestSounds", event, () -> {});
+
+    final List<String> rows = tracer.getSlowestHandlers(Integer.MAX_VALUE);
+    final int view = indexOf(rows, "TestView HIT_PADDLE n=1 ");
+    final int sounds = indexOf(rows, "TestSounds HIT_PADDLE n=1 ");
+    assertTrue(view >= 0, rows::toString);
+    assertTrue(sounds > view, rows::toString);
+
+    // events which are not sampled are not timed
+    tracer.setSampleInterval(0);
+    final boolean[] ran = new boolean[1];
+    tracer.time("TestView", new GameEvent(GameEventType.HIT_PADDLE), () -> ran[0] = true);
+    assertTrue(ran[0]);
+    assertEquals(
+        view, indexOf(tracer.getSlowestHandlers(Integer.MAX_VALUE), "TestView HIT_PADDLE n=1 "));
+  }
+
+  private static int indexOf(List<String> rows, String prefix) {
+    for (int i = 0; i < rows.size(); i++) {
+      if (rows.get(i).startsWith(prefix)) return i;
+    }
+    return -1;
+  }
+
+  private static void busyWait(long nanos) {
+    final long end = System.nanoTime() + nanos;
+    while (System.nanoTime() < end) {
+      // busy wait
+    }
+  }
+}
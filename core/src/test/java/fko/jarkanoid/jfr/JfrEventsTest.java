@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.jfr;
+
+import fko.jarkanoid.model.Ball;
+import fko.jarkanoid.model.GameModel;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JfrEventsTest
+ *
+ * @author Frank Kopp
+ */
+class JfrEventsTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void gameEventsAreRecorded() throws Exception {
+    final Path file = tempDir.resolve("game.jfr");
+    assertFalse(GameTickEvent.isRecording());
+
+    try (Recording recording = new Recording()) {
+      recording.enable(GameTickEvent.class);
+      recording.enable(BrickHitEvent.class);
+      recording.enable(LevelLoadEvent.class);
+      recording.start();
+      assertTrue(GameTickEvent.isRecording());
+
+      final GameModel model = new GameModel(true);
+      model.setRecordSessions(false);
+      model.startPlaying(4711);
+      for (int tick = 0; tick < 5_000 && model.isPlaying(); tick++) {
+        if (!model.getBallManager().isEmpty()) {
+          final Ball ball = model.getBallManager().get(0);
+          final double width = model.paddleWidthProperty().get();
+          final double x = ball.getCenterX() - width / 2;
+          model.setPaddle(
+              Math.max(0, Math.min(model.playfieldWidthProperty().get() - width, x)), width);
+        }
+        model.gameLoop();
+      }
+      model.stopPlaying();
+
+      recording.stop();
+      recording.dump(file);
+    }
+    assertFalse(GameTickEvent.isRecording());
+
+    final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+    assertTrue(count(events, "fko.jarkanoid.GameTick") > 1_000);
+    assertTrue(count(events, "fko.jarkanoid.BrickHit") > 0);
+    assertTrue(count(events, "fko.jarkanoid.LevelLoad") > 0);
+
+    final RecordedEvent tick =
+        events.stream()
+            .filter(e -> e.getEventType().getName().equals("fko.jarkanoid.GameTick"))
+            .findFirst()
+            .get();
+    assertEquals(1, tick.getInt("level"));
+    assertTrue(tick.getInt("balls") > 0);
+    assertTrue(tick.getDuration("ballsTime").toNanos() > 0);
+  }
+
+  private static long count(List<RecordedEvent> events, String name) {
+    return events.stream().filter(e -> e.getEventType().getName().equals(name)).count();
+  }
+}
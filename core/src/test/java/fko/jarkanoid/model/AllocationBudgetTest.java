@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * AllocationBudgetTest
+ *
+ * <p>Fails when steady state play allocates more than the budget per tick. The budgets are average
+ * bytes per tick and leave room for the allocations of events when hitting bricks, falling power
+ * pills and laser shots. They should be lowered when the game loop allocates less.
+ *
+ * @author Frank Kopp
+ */
+class AllocationBudgetTest {
+
+  private static final int WARM_UP_TICKS = 5_000;
+  private static final int MEASURED_TICKS = 20_000;
+
+  private static final Map<AllocationMeter.Subsystem, Double> BUDGETS =
+      new EnumMap<>(AllocationMeter.Subsystem.class);
+
+  static {
+    BUDGETS.put(AllocationMeter.Subsystem.POWER_PILLS, 128.0);
+    BUDGETS.put(AllocationMeter.Subsystem.LASER, 64.0);
+    BUDGETS.put(AllocationMeter.Subsystem.BALLS, 128.0);
+    BUDGETS.put(AllocationMeter.Subsystem.LEVEL, 32.0);
+    BUDGETS.put(AllocationMeter.Subsystem.LIVES, 64.0);
+    BUDGETS.put(AllocationMeter.Subsystem.STATISTICS, 16.0);
+  }
+
+  private static final double TOTAL_BUDGET = 256.0;
+
+  @BeforeAll
+  static void setUp() {
+    assumeTrue(AllocationMeter.isSupported(), "Thread allocation counters not supported");
+  }
+
+  @Test
+  void steadyStatePlayWithinBudget() {
+    final GameModel model = new GameModel(true);
+    model.setRecordSessions(false);
+    final AllocationMeter meter = new AllocationMeter();
+    model.setAllocationMeter(meter);
+    model.startPlaying(4711);
+
+    play(model, WARM_UP_TICKS);
+    meter.reset();
+    play(model, MEASURED_TICKS);
+
+    assertTrue(meter.getTicks() > 0);
+    for (AllocationMeter.Subsystem subsystem : AllocationMeter.Subsystem.values()) {
+      assertTrue(
+          meter.getBytesPerTick(subsystem) <= BUDGETS.get(subsystem),
+          () -> "Allocation budget exceeded: " + meter);
+    }
+    assertTrue(
+        meter.getBytesPerTick() <= TOTAL_BUDGET, () -> "Allocation budget exceeded: " + meter);
+  }
+
+  @Test
+  void meterAttributesAllocations() {
+    final AllocationMeter meter = new AllocationMeter();
+    meter.startTick();
+    meter.mark(AllocationMeter.Subsystem.POWER_PILLS);
+    final long[] garbage = new long[1024];
+    meter.mark(AllocationMeter.Subsystem.BALLS);
+    meter.endTick();
+
+    assertEquals(1, meter.getTicks());
+    assertTrue(meter.getBytes(AllocationMeter.Subsystem.BALLS) >= 8 * garbage.length);
+    assertTrue(meter.getBytes(AllocationMeter.Subsystem.POWER_PILLS) < 8 * garbage.length);
+    assertEquals(meter.getBytes(AllocationMeter.Subsystem.BALLS), meter.getMaxBytesPerTick(), 64);
+
+    meter.reset();
+    assertEquals(0, meter.getTicks());
+    assertEquals(0, meter.getBytesPerTick());
+  }
+
+  /** plays the laser script of the perft and restarts the game when it is over */
+  private static void play(final GameModel model, final int ticks) {
+    for (int tick = 0; tick < ticks; tick++) {
+      if (!model.isPlaying()) model.startPlaying(tick);
+      Perft.input(model, Perft.Script.LASER, tick);
+      model.gameLoop();
+    }
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+import fko.jarkanoid.events.GameEvent;
+import fko.jarkanoid.events.GameEvent.GameEventType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BallPredictorTest {
+
+  private static final double RADIUS = 6;
+
+  @Test
+  void bouncesFromWalls() {
+    final GameModel model = new GameModel(true);
+    final BallPredictor predictor = new BallPredictor();
+    final double lineY = model.paddleYProperty().get() - RADIUS;
+    final double width = model.playfieldWidthProperty().get();
+
+    // straight down
+    BallPredictor.Prediction prediction = predictor.predict(model, ball(100, 300, 0, 5));
+    assertTrue(prediction.isValid());
+    assertEquals(100, prediction.getX(), 1e-9);
+    assertEquals(0, prediction.getBounces());
+    assertEquals((long) Math.ceil((lineY - 300) / 5), prediction.getTick());
+
+    // right wall
+    final double x = 100 + (lineY - 300) * 2;
+    prediction = predictor.predict(model, ball(100, 300, 10, 5));
+    assertEquals(1, prediction.getBounces());
+    assertEquals(2 * (width - RADIUS) - x, prediction.getX(), 1e-9);
+
+    // top wall and left wall
+    prediction = predictor.predict(model, ball(400, 300, -5, -5));
+    assertEquals(2, prediction.getBounces());
+    assertTrue(prediction.isValid());
+
+    // horizontal balls never arrive
+    prediction = predictor.predict(model, ball(300, 300, 5, 0));
+    assertFalse(prediction.isValid());
+    assertTrue(Double.isNaN(prediction.getX()));
+  }
+
+  @Test
+  void bouncesFromBricks() {
+    final GameModel model = new GameModel(true);
+    final BrickLayout layout = model.getBrickLayout();
+    final double x = 6.5 * layout.getBrickWidth();
+    final double y = 600;
+    final BallPredictor predictor = new BallPredictor();
+
+    // straight up into a brick which survives the hit and back down
+    layout.setBrick(5, 6, new Brick(BrickType.GOLD, PowerPillType.NONE));
+    final BallPredictor.Prediction prediction = predictor.predict(model, ball(x, y, 0, -5));
+    assertTrue(prediction.isValid());
+    assertEquals(1, prediction.getBounces());
+    assertEquals(x, prediction.getX(), 1e-9);
+    final double up = (y - RADIUS - layout.getLowerBound(5, 6)) / 5;
+    final double down = (model.paddleYProperty().get() - RADIUS - (y - 5 * up)) / 5;
+    assertEquals((long) Math.ceil(up + down), prediction.getTick());
+
+    // bricks are not changed
+    assertNotNull(layout.getBrick(5, 6));
+    assertEquals(0, layout.getBrick(5, 6).getHitCount());
+
+    // sideways into a brick
+    layout.setBrick(11, 8, new Brick(BrickType.GOLD, PowerPillType.NONE));
+    final double rowCenter = 10.5 * layout.getBrickHeight();
+    final BallPredictor.Prediction sideways = predictor.predict(model, ball(x, rowCenter, 5, 2));
+    assertTrue(sideways.isValid());
+    assertEquals(2, sideways.getBounces());
+    final double brickHit = (layout.getLeftBound(11, 8) - RADIUS - x) / 5;
+    final double wallHit = (layout.getLeftBound(11, 8) - RADIUS - RADIUS) / 5;
+    final double lineY = model.paddleYProperty().get() - RADIUS;
+    final double lineHit = (lineY - rowCenter - 2 * (brickHit + wallHit)) / 2;
+    assertEquals(RADIUS + 5 * lineHit, sideways.getX(), 1e-9);
+  }
+
+  @Test
+  void cachesUntilSomethingChanges() {
+    final GameModel model = new GameModel(true);
+    final BallPredictor predictor = new BallPredictor();
+    final Ball ball = ball(100, 300, 3, 4);
+
+    final BallPredictor.Prediction prediction = predictor.predict(model, ball);
+    assertEquals(1, predictor.getComputations());
+
+    // moving along the path
+    for (int i = 0; i < 10; i++) {
+      ball.moveStep();
+      assertSame(prediction, predictor.predict(model, ball));
+    }
+    assertEquals(1, predictor.getComputations());
+
+    // a brick changes
+    model.getBrickLayout().setBrick(0, 0, new Brick(BrickType.SILVER, PowerPillType.NONE));
+    predictor.predict(model, ball);
+    assertEquals(2, predictor.getComputations());
+
+    // the velocity changes
+    ball.setXYVelocity(-3, 4);
+    predictor.predict(model, ball);
+    assertEquals(3, predictor.getComputations());
+
+    // the ball leaves the path
+    ball.setCenterX(ball.getCenterX() + 1);
+    predictor.predict(model, ball);
+    assertEquals(4, predictor.getComputations());
+  }
+
+  @Test
+  void predictsTheGame() {
+    final GameModel model = new GameModel(true);
+    model.setRecordSessions(false);
+    model.setPaddleController(new PredictingPaddleController());
+    final BallPredictor predictor = new BallPredictor();
+    final int[] paddleHits = {0};
+    model.addObserver(
+        (o, event) -> {
+          if (((GameEvent) event).getEventType() == GameEventType.HIT_PADDLE) paddleHits[0]++;
+        });
+    model.startPlaying(4711);
+
+    int flights = 0;
+    int hits = 0;
+    int seenPaddleHits = 0;
+    double predicted = Double.NaN;
+    long predictedTick = 0;
+    while (model.isPlaying() && model.getTicks() < 20_000) {
+      model.gameLoop();
+      if (model.getBallManager().size() != 1) continue;
+      final Ball ball = model.getBallManager().get(0);
+      if (paddleHits[0] > seenPaddleHits) {
+        // the flight ends on the paddle
+        seenPaddleHits = paddleHits[0];
+        if (!Double.isNaN(predicted)) {
+          flights++;
+          if (Math.abs(ball.getCenterX() - predicted) <= 2 * RADIUS
+              && Math.abs(model.getTicks() - predictedTick) <= 3) {
+            hits++;
+          }
+        }
+        // the next flight starts
+        final BallPredictor.Prediction prediction = predictor.predict(model, ball);
+        predicted = prediction.isValid() ? prediction.getX() : Double.NaN;
+        predictedTick = prediction.getTick();
+      }
+    }
+    assertTrue(flights > 50);
+    assertTrue(hits > flights * 0.9);
+  }
+
+  private static Ball ball(double x, double y, double vX, double vY) {
+    return new Ball(x, y, RADIUS, vX, vY);
+  }
+}
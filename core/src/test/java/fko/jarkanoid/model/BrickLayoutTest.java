@@ -24,8 +24,7 @@
  */
 package fko.jarkanoid.model;
 
-import javafx.beans.property.DoubleProperty;
-import javafx.beans.property.SimpleDoubleProperty;
+import fko.jarkanoid.beans.DoubleValue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -38,8 +37,8 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 class BrickLayoutTest {
 
-  private DoubleProperty playfieldWidth;
-  private DoubleProperty playfieldHeight;
+  private DoubleValue playfieldWidth;
+  private DoubleValue playfieldHeight;
 
   /**
    * @throws java.lang.Exception
@@ -47,8 +46,8 @@ class BrickLayoutTest {
   @BeforeEach
   void setUp() throws Exception {
 
-    playfieldWidth = new SimpleDoubleProperty(780);
-    playfieldHeight = new SimpleDoubleProperty(710);
+    playfieldWidth = new DoubleValue(780);
+    playfieldHeight = new DoubleValue(710);
 
   }
 
@@ -123,6 +123,7 @@ class BrickTest {
 	void testGetColor() {
 		Brick brick = new Brick(BrickType.SILVER, PowerPillType.NONE);
 		assertEquals(50, brick.getPoints());
+		assertEquals("silver", brick.getColor());
 	}
 
 	/**
@@ -0,0 +1,196 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameModelTest {
+
+  @BeforeEach
+  void setUp() {}
+
+  @Test
+  void launchDelayIsCountedInTicks() {
+    final GameModel model = new GameModel(true);
+    model.setRecordSessions(false);
+    model.startPlaying(4711);
+    final Ball ball = model.getBallManager().get(0);
+    final double x = ball.getCenterX();
+    final double y = ball.getCenterY();
+
+    // the ball waits on the paddle and follows it
+    for (int tick = 1; tick < 120; tick++) model.gameLoop();
+    model.setPaddle(model.paddleXProperty().get() + 10, model.paddleWidthProperty().get());
+    assertEquals(x + 10, ball.getCenterX());
+    model.gameLoop();
+    assertEquals(y, ball.getCenterY());
+
+    // launched in the next tick
+    model.gameLoop();
+    assertNotEquals(y, ball.getCenterY());
+    model.stopPlaying();
+  }
+
+  @Test
+  void idleWhenNothingMoves() {
+    final TestClock clock = new TestClock();
+    final GameModel model = new GameModel(clock);
+    assertTrue(model.isIdle());
+
+    // a pressed key wakes the paddle loop and moves the paddle at once
+    final double x = model.paddleXProperty().get();
+    model.setPaddleLeft(true);
+    assertFalse(model.isIdle());
+    assertTrue(model.paddleXProperty().get() < x);
+    clock.runAll();
+    assertTrue(model.paddleXProperty().get() < x - 5);
+
+    model.setPaddleLeft(false);
+    assertTrue(model.isIdle());
+  }
+
+  @Test
+  void forkContinuesLikeTheOriginal() {
+    final GameModel model = new GameModel(true);
+    model.setRecordSessions(false);
+    model.setPaddleController(new TrackingPaddleController());
+    model.startPlaying(4711);
+
+    // forks while the ball waits on the paddle and in the middle of the game
+    for (int fork : new int[] {50, 500, 2_000, 5_000}) {
+      while (model.getTicks() < fork) model.gameLoop();
+      final GameModel copy = model.fork();
+      copy.setPaddleController(new TrackingPaddleController());
+      assertEquals(Perft.hash(model), Perft.hash(copy));
+      for (int tick = 0; tick < 1_000; tick++) {
+        model.gameLoop();
+        copy.gameLoop();
+        assertEquals(Perft.hash(model), Perft.hash(copy), "Fork at " + fork + " + " + tick);
+      }
+    }
+    model.stopPlaying();
+  }
+
+  @Test
+  void copyStateReusesTheCopy() {
+    final GameModel model = new GameModel(true);
+    model.setRecordSessions(false);
+    model.setPaddleController(new TrackingPaddleController());
+    model.startPlaying(4711);
+    for (int tick = 0; tick < 1_000; tick++) model.gameLoop();
+
+    final GameModel copy = model.fork();
+    final long hash = Perft.hash(model);
+    for (int i = 0; i < 3; i++) {
+      for (int tick = 0; tick < 300; tick++) copy.gameLoop();
+      copy.copyStateFrom(model);
+      assertEquals(hash, Perft.hash(copy));
+    }
+
+    // only models in replay mode can be overwritten
+    assertThrows(
+        IllegalStateException.class, () -> new GameModel(new TestClock()).copyStateFrom(model));
+    model.stopPlaying();
+  }
+
+  /** A clock whose running loops are cycled by the test */
+  private static class TestClock implements GameClock {
+
+    private final List<Runnable> running = new ArrayList<>();
+
+    void runAll() {
+      new ArrayList<>(running).forEach(Runnable::run);
+    }
+
+    @Override
+    public Loop createLoop(double periodMillis, int cycleCount, Runnable action) {
+      return new Loop() {
+        @Override
+        public void play() {
+          if (!running.contains(action)) running.add(action);
+        }
+
+        @Override
+        public void playFromStart() {
+          play();
+        }
+
+        @Override
+        public void pause() {
+          running.remove(action);
+        }
+
+        @Override
+        public void stop() {
+          running.remove(action);
+        }
+
+        @Override
+        public boolean isRunning() {
+          return running.contains(action);
+        }
+      };
+    }
+  }
+
+  @Test
+  void someTest() {
+
+    int i = 0;
+    System.out.println(i);
+    System.out.println(Integer.toBinaryString(i));
+
+    i = i | 1;
+    System.out.println(i);
+    System.out.println(Integer.toBinaryString(i));
+
+//    i = i | 2;
+//    System.out.println(i);
+//    System.out.println(Integer.toBinaryString(i));
+
+    i = i | 4;
+    System.out.println(i);
+    System.out.println(Integer.toBinaryString(i));
+
+    i = i | 8;
+    System.out.println(i);
+    System.out.println(Integer.toBinaryString(i));
+
+//    System.out.println("OR  " + (i | 15));
+//    System.out.println("AND " + (i & 15));
+//    System.out.println("XOR " + (i ^ 15));
+//    System.out.println("COMP" + (~i));
+//
+    System.out.println("bits:  "+Integer.bitCount(i));
+    System.out.println("binary:"+Integer.toBinaryString(i));
+  }
+}
\ No newline at end of file
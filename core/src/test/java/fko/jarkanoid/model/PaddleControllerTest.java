@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaddleControllerTest {
+
+  private static final long SEED = 4711;
+  private static final int MAX_TICKS = 50_000;
+
+  @Test
+  void autopilotsOutplayAnIdlePaddle() {
+    final GameModel idle = play(null);
+    final GameModel tracking = play(new TrackingPaddleController());
+    final GameModel predicting = play(new PredictingPaddleController());
+    assertTrue(tracking.currentScoreProperty().get() > idle.currentScoreProperty().get());
+    assertTrue(predicting.currentScoreProperty().get() > idle.currentScoreProperty().get());
+    assertTrue(tracking.getTicks() > idle.getTicks());
+    assertTrue(predicting.getTicks() > idle.getTicks());
+  }
+
+  @Test
+  void autopilotMovesWithLimitedSpeed() {
+    final GameModel model = new GameModel(true);
+    model.setRecordSessions(false);
+    model.setPaddleController(m -> 0);
+    model.startPlaying(SEED);
+    final double x = model.paddleXProperty().get();
+    model.gameLoop();
+    assertEquals(x - 10, model.paddleXProperty().get());
+    for (int tick = 0; tick < 100; tick++) model.gameLoop();
+    assertEquals(0, model.paddleXProperty().get());
+    model.stopPlaying();
+  }
+
+  @Test
+  void noTargetKeepsThePaddle() {
+    final GameModel model = new GameModel(true);
+    model.setRecordSessions(false);
+    model.setPaddleController(m -> Double.NaN);
+    model.startPlaying(SEED);
+    final double x = model.paddleXProperty().get();
+    for (int tick = 0; tick < 100; tick++) model.gameLoop();
+    assertEquals(x, model.paddleXProperty().get());
+    model.stopPlaying();
+  }
+
+  /**
+   * Plays a game headless until it is over or the maximum of ticks is reached.
+   *
+   * @param controller the autopilot or null for a paddle which never moves
+   * @return the model after the game
+   */
+  private static GameModel play(PaddleController controller) {
+    final GameModel model = new GameModel(true);
+    model.setRecordSessions(false);
+    model.setPaddleController(controller);
+    model.startPlaying(SEED);
+    while (model.isPlaying() && model.getTicks() < MAX_TICKS) model.gameLoop();
+    model.stopPlaying();
+    return model;
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PerftTest
+ *
+ * @author Frank Kopp
+ */
+class PerftTest {
+
+  @Test
+  void catalogMatchesGoldenHashes() throws Exception {
+    final List<Perft.Position> catalog = Perft.readCatalog();
+    assertFalse(catalog.isEmpty());
+    for (Perft.Position position : catalog) {
+      final Perft.Result result = Perft.simulate(position);
+      assertEquals(
+          Long.toHexString(position.hash),
+          Long.toHexString(result.hash),
+          () -> "Game behaviour changed in " + position.name);
+    }
+  }
+
+  @Test
+  void positionsStartAtTheirLevel() throws Exception {
+    for (Perft.Position position : Perft.readCatalog()) {
+      final GameModel model = Perft.setUp(position);
+      assertEquals(position.level, model.currentLevelProperty().get(), position.name);
+      assertTrue(model.getBrickLayout().getNumberOfBricks() > 0, position.name);
+      model.stopPlaying();
+    }
+  }
+
+  @Test
+  void hashChangesWithState() {
+    final GameModel model = new GameModel(true);
+    model.startPlaying(1);
+    final long start = Perft.hash(model);
+    assertEquals(start, Perft.hash(model));
+    model.setPaddle(model.paddleXProperty().get() + 10, model.paddleWidthProperty().get());
+    assertNotEquals(start, Perft.hash(model));
+  }
+
+  @Test
+  void hashCoversHiddenState() {
+    final GameModel model = new GameModel(true);
+    model.startPlaying(1);
+    final GameModel copy = new GameModel(true);
+    copy.copyStateFrom(model);
+    assertEquals(Perft.hash(model), Perft.hash(copy));
+
+    // only the launch timer of the waiting ball advances
+    final double ballY = model.getBallManager().get(0).getCenterY();
+    model.gameLoop();
+    assertEquals(ballY, model.getBallManager().get(0).getCenterY());
+    assertNotEquals(Perft.hash(model), Perft.hash(copy));
+
+    // same game with other random numbers
+    final GameModel other = new GameModel(true);
+    other.startPlaying(2);
+    assertNotEquals(Perft.hash(other), Perft.hash(copy));
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SessionReplayTest
+ *
+ * @author Frank Kopp
+ */
+class SessionReplayTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void replayIsDeterministic() throws Exception {
+    final Path file = tempDir.resolve("session.csv");
+    final long seed = 4711;
+
+    // play a game with a simple bot and record it
+    final GameModel played = new GameModel(true);
+    played.startPlaying(seed);
+    final Random bot = new Random(42);
+    final SessionLog log = new SessionLog(file, seed);
+    try {
+      for (int tick = 0; tick < 20_000 && played.isPlaying(); tick++) {
+        if (!played.getBallManager().isEmpty()) {
+          // follow the ball with a changing offset to get different angles
+          final double ballX = played.getBallManager().get(0).getCenterX();
+          final double width = played.paddleWidthProperty().get();
+          double x = ballX - width / 2 + (bot.nextDouble() - 0.5) * width * 0.8;
+          x = Math.max(0, Math.min(played.playfieldWidthProperty().get() - width, x));
+          log.paddle(x, width);
+          played.setPaddle(x, width);
+        }
+        if (tick % 50 == 0) {
+          log.release();
+          played.releaseCaughtBall();
+          log.laser();
+          played.shootLaser();
+        }
+        log.tick();
+        played.gameLoop();
+      }
+      // the player ends the game
+      played.stopPlaying();
+    } finally {
+      log.close();
+    }
+    assertTrue(log.awaitClosed(10, TimeUnit.SECONDS));
+
+    try (SessionReplay replay = new SessionReplay(file)) {
+      assertEquals(seed, replay.getSeed());
+      assertFalse(replay.advanceTo(Long.MAX_VALUE));
+      assertTrue(replay.isFinished());
+
+      final GameModel replayed = replay.getModel();
+      assertTrue(played.currentScoreProperty().get() > 0);
+      assertEquals(played.currentScoreProperty().get(), replayed.currentScoreProperty().get());
+      assertEquals(played.currentLevelProperty().get(), replayed.currentLevelProperty().get());
+      assertEquals(
+          played.currentRemainingLivesProperty().get(),
+          replayed.currentRemainingLivesProperty().get());
+      assertFalse(replayed.isPlaying());
+    }
+  }
+
+  @Test
+  void sessionsAreOffByDefault() {
+    assertFalse(Boolean.getBoolean(SessionLog.RECORD_PROPERTY));
+    assertFalse(new GameModel(true).isRecordSessions());
+  }
+
+  @Test
+  void onlyTheNewestSessionsAreKept() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      Files.createFile(tempDir.resolve("Session_2018010" + i + "-120000.csv"));
+    }
+    Files.createFile(tempDir.resolve("highscore.csv"));
+
+    SessionLog.deleteOldSessions(tempDir, 2);
+    assertFalse(Files.exists(tempDir.resolve("Session_20180102-120000.csv")));
+    assertTrue(Files.exists(tempDir.resolve("Session_20180103-120000.csv")));
+    assertTrue(Files.exists(tempDir.resolve("Session_20180104-120000.csv")));
+    assertTrue(Files.exists(tempDir.resolve("highscore.csv")));
+    assertEquals(3, tempDir.toFile().list().length);
+  }
+
+  @Test
+  void sessionsStartedAtOnceGetTheirOwnFiles() throws Exception {
+    final SessionLog first = SessionLog.create(tempDir, 1);
+    final SessionLog second = SessionLog.create(tempDir, 2);
+    assertNotEquals(first.getPath(), second.getPath());
+    first.close();
+    second.close();
+    assertTrue(first.awaitClosed(10, TimeUnit.SECONDS));
+    assertTrue(second.awaitClosed(10, TimeUnit.SECONDS));
+    try (SessionReplay replay = new SessionReplay(first.getPath())) {
+      assertEquals(1, replay.getSeed());
+    }
+    try (SessionReplay replay = new SessionReplay(second.getPath())) {
+      assertEquals(2, replay.getSeed());
+    }
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SoakTest
+ *
+ * @author Frank Kopp
+ */
+class SoakTest {
+
+  @Test
+  void parseHistogram() {
+    final String histogram =
+        " num     #instances         #bytes  class name (module)\n"
+            + "-------------------------------------------------------\n"
+            + "   1:         12345        1234560  [B (java.base@17.0.9)\n"
+            + "   2:          1589          76272  fko.jarkanoid.model.Brick\n"
+            + "   3:             4            224  javafx.animation.KeyFrame (javafx.graphics)\n"
+            + "   4:             1             40  fko.jarkanoid.model.TimerWheel$Timer\n"
+            + "   5:             2             32  fko.jarkanoid.model.GameModel$$Lambda$123/0x1\n"
+            + "   6:             3            144  fko.jarkanoid.model.Soak$Sample\n"
+            + "Total         13943        1311232\n";
+    final Map<String, Long> instances = Soak.parseHistogram(histogram);
+    assertEquals(2, instances.size());
+    assertEquals(1589L, instances.get("fko.jarkanoid.model.Brick"));
+    assertEquals(1L, instances.get("fko.jarkanoid.model.TimerWheel$Timer"));
+    assertNull(instances.get("javafx.animation.KeyFrame"));
+  }
+
+  @Test
+  void trend() {
+    final Soak.Trend growing = Soak.Trend.fit("growing", new double[] {100, 110, 120, 130}, 10);
+    assertEquals(100, growing.start, 1e-9);
+    assertEquals(130, growing.end, 1e-9);
+    assertTrue(growing.isUpward());
+
+    // noise below the minimum growth
+    assertFalse(Soak.Trend.fit("noise", new double[] {100, 104, 99, 105}, 10).isUpward());
+    // shrinking or flat
+    assertFalse(Soak.Trend.fit("shrinking", new double[] {130, 120, 110, 100}, 10).isUpward());
+    assertFalse(Soak.Trend.fit("flat", new double[] {5, 5, 5}, 0).isUpward());
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+  @Test
+  void runsTasksInTheirTick() {
+    final TimerWheel wheel = new TimerWheel(8);
+    final List<String> fired = new ArrayList<>();
+    wheel.schedule(3, () -> fired.add("a" + wheel.getTick()));
+    wheel.schedule(11, () -> fired.add("b" + wheel.getTick())); // same slot, next round
+    wheel.schedule(3, () -> fired.add("c" + wheel.getTick()));
+    wheel.schedule(1, () -> fired.add("d" + wheel.getTick()));
+    assertEquals(4, wheel.size());
+
+    for (int i = 0; i < 10; i++) wheel.advance();
+    assertEquals(Arrays.asList("d1", "a3", "c3"), fired);
+    assertEquals(1, wheel.size());
+
+    wheel.advance();
+    assertEquals(Arrays.asList("d1", "a3", "c3", "b11"), fired);
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void cancel() {
+    final TimerWheel wheel = new TimerWheel(4);
+    final List<String> fired = new ArrayList<>();
+    final TimerWheel.Timer a = wheel.schedule(2, () -> fired.add("a"));
+    final TimerWheel.Timer b = wheel.schedule(2, () -> fired.add("b"));
+    // a task cancelling another task of the same tick
+    final TimerWheel.Timer c = wheel.schedule(1, b::cancel);
+    wheel.schedule(1, () -> wheel.schedule(1, () -> fired.add("d")));
+
+    wheel.advance();
+    assertFalse(c.isPending());
+    assertFalse(b.isPending());
+    assertTrue(a.isPending());
+    b.cancel(); // no effect
+    assertEquals(2, wheel.size());
+
+    wheel.advance();
+    assertEquals(Arrays.asList("a", "d"), fired);
+    assertEquals(0, wheel.size());
+
+    wheel.schedule(1, () -> fired.add("e"));
+    wheel.clear();
+    wheel.advance();
+    assertEquals(Arrays.asList("a", "d"), fired);
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void invalidArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new TimerWheel(6));
+    assertThrows(IllegalArgumentException.class, () -> new TimerWheel().schedule(0, () -> {}));
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.rl;
+
+import fko.jarkanoid.model.GameModel;
+import fko.jarkanoid.model.Perft;
+import fko.jarkanoid.model.TrackingPaddleController;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonteCarloPlannerTest {
+
+  private static final int ROLLOUTS = 8;
+  private static final int HORIZON = 45;
+  private static final int ACTION_TICKS = 10;
+
+  @Test
+  void threadsDoNotChangeTheResults() {
+    final GameModel model = playing();
+    final int[] actions = {
+      VectorEnvironment.ACTION_NONE, VectorEnvironment.ACTION_LEFT, VectorEnvironment.ACTION_RIGHT
+    };
+    try (MonteCarloPlanner single = new MonteCarloPlanner(1, ROLLOUTS, HORIZON, ACTION_TICKS, 1);
+        MonteCarloPlanner parallel =
+            new MonteCarloPlanner(3, ROLLOUTS, HORIZON, ACTION_TICKS, 1)) {
+      final long hash = Perft.hash(model);
+      final double[] rewards = single.evaluate(model, actions);
+      assertArrayEquals(rewards, parallel.evaluate(model, actions));
+      assertArrayEquals(rewards, single.evaluate(model, actions));
+      // the game itself is not changed
+      assertEquals(hash, Perft.hash(model));
+    }
+    model.stopPlaying();
+  }
+
+  @Test
+  void searchOutplaysAnIdlePaddle() {
+    final GameModel idle = new GameModel(true);
+    idle.setRecordSessions(false);
+    idle.startPlaying(4711);
+    while (idle.isPlaying()) idle.gameLoop();
+
+    try (MonteCarloPlanner planner =
+        new MonteCarloPlanner(2, ROLLOUTS, HORIZON, ACTION_TICKS, 1)) {
+      final GameModel model = new GameModel(true);
+      model.setRecordSessions(false);
+      model.setPaddleController(new MonteCarloPaddleController(planner, ACTION_TICKS));
+      model.startPlaying(4711);
+      while (model.isPlaying() && model.getTicks() < 3 * idle.getTicks()) model.gameLoop();
+      assertTrue(model.getTicks() > idle.getTicks());
+      assertTrue(model.currentScoreProperty().get() > idle.currentScoreProperty().get());
+      model.stopPlaying();
+    }
+  }
+
+  /** @return a game in the middle of play */
+  private static GameModel playing() {
+    final GameModel model = new GameModel(true);
+    model.setRecordSessions(false);
+    model.setPaddleController(new TrackingPaddleController());
+    model.startPlaying(4711);
+    while (model.getTicks() < 1_000) model.gameLoop();
+    model.setPaddleController(null);
+    return model;
+  }
+}
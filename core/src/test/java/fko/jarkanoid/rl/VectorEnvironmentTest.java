@@ -0,0 +1,172 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.rl;
+
+import fko.jarkanoid.model.AllocationMeter;
+import fko.jarkanoid.model.Brick;
+import fko.jarkanoid.model.BrickLayout;
+import fko.jarkanoid.model.GameModel;
+import fko.jarkanoid.model.PaddleController;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VectorEnvironmentTest {
+
+  private static final int GAMES = 16;
+
+  @Test
+  void observesBricksAndPaddle() {
+    try (VectorEnvironment env = new VectorEnvironment(GAMES, 1, 4711, 1_000)) {
+      final float[] obs = env.reset();
+      assertEquals(GAMES * VectorEnvironment.OBSERVATION_SIZE, obs.length);
+      for (int game = 0; game < GAMES; game++) {
+        final GameModel model = env.getModel(game);
+        final int base = game * VectorEnvironment.OBSERVATION_SIZE;
+        final Brick[][] matrix = model.getBrickLayout().getMatrix();
+        for (int row = 0; row < BrickLayout.ROWS; row++) {
+          for (int col = 0; col < BrickLayout.COLUMNS; col++) {
+            assertEquals(
+                matrix[row][col] == null ? 0f : 1f,
+                obs[base + VectorEnvironment.BRICKS_OFFSET + row * BrickLayout.COLUMNS + col]);
+          }
+        }
+        assertEquals(
+            model.paddleXProperty().get() / model.playfieldWidthProperty().get(),
+            obs[base + VectorEnvironment.PADDLE_OFFSET],
+            1e-6);
+        assertEquals(1f, obs[base + VectorEnvironment.BALLS_OFFSET]);
+        assertEquals(0f, obs[base + VectorEnvironment.BALLS_OFFSET + VectorEnvironment.BALL_SIZE]);
+      }
+    }
+  }
+
+  @Test
+  void actionsMoveThePaddle() {
+    try (VectorEnvironment env = new VectorEnvironment(2, 1, 4711, 1_000)) {
+      final float[] obs = env.reset();
+      final int other = VectorEnvironment.OBSERVATION_SIZE + VectorEnvironment.PADDLE_OFFSET;
+      final float left = obs[VectorEnvironment.PADDLE_OFFSET];
+      final float right = obs[other];
+      env.step(new int[] {VectorEnvironment.ACTION_LEFT, VectorEnvironment.ACTION_RIGHT});
+      assertTrue(obs[VectorEnvironment.PADDLE_OFFSET] < left);
+      assertTrue(obs[other] > right);
+    }
+  }
+
+  @Test
+  void episodesEndAndRestart() {
+    try (VectorEnvironment env = new VectorEnvironment(GAMES, 2, 4711, 50)) {
+      env.reset();
+      final int[] actions = new int[GAMES];
+      for (int step = 1; step < 50; step++) {
+        env.step(actions);
+        for (boolean done : env.getDones()) assertFalse(done);
+      }
+      env.step(actions);
+      for (int game = 0; game < GAMES; game++) {
+        assertTrue(env.getDones()[game]);
+        assertTrue(env.getModel(game).isPlaying());
+        assertEquals(0, env.getModel(game).currentScoreProperty().get());
+      }
+    }
+  }
+
+  @Test
+  void resetRecoversFromAFailedStep() {
+    try (VectorEnvironment env = new VectorEnvironment(4, 2, 4711, 1_000)) {
+      env.reset();
+      final int[] actions = new int[4];
+      env.step(actions);
+
+      // the last game is stepped by a worker thread
+      final GameModel model = env.getModel(3);
+      final PaddleController agent = model.getPaddleController();
+      model.setPaddleController(
+          m -> {
+            throw new ArithmeticException("broken agent");
+          });
+      final IllegalStateException e =
+          assertThrows(IllegalStateException.class, () -> env.step(actions));
+      assertTrue(e.getCause() instanceof ArithmeticException);
+
+      // the games are in an undefined state until the reset
+      model.setPaddleController(agent);
+      assertThrows(IllegalStateException.class, () -> env.step(actions));
+      env.reset();
+      env.step(actions);
+      assertTrue(model.isPlaying());
+    }
+  }
+
+  @Test
+  void threadsDoNotChangeTheResults() {
+    try (VectorEnvironment single = new VectorEnvironment(GAMES, 1, 4711, 500);
+        VectorEnvironment parallel = new VectorEnvironment(GAMES, 3, 4711, 500)) {
+      single.reset();
+      parallel.reset();
+      final Random random = new Random(42);
+      final int[] actions = new int[GAMES];
+      float points = 0;
+      for (int step = 0; step < 2_000; step++) {
+        for (int i = 0; i < GAMES; i++) {
+          actions[i] = random.nextInt(VectorEnvironment.NUMBER_OF_ACTIONS);
+        }
+        single.step(actions);
+        parallel.step(actions);
+        assertArrayEquals(single.getObservations(), parallel.getObservations());
+        assertArrayEquals(single.getRewards(), parallel.getRewards());
+        assertArrayEquals(single.getDones(), parallel.getDones());
+        for (float reward : single.getRewards()) points += reward;
+      }
+      assertTrue(points > 0);
+    }
+  }
+
+  @Test
+  void stepsWithinAllocationBudget() {
+    assumeTrue(AllocationMeter.isSupported(), "Thread allocation counters not supported");
+    try (VectorEnvironment env = new VectorEnvironment(GAMES, 1, 4711, 100_000)) {
+      env.reset();
+      final int[] actions = new int[GAMES];
+      Arrays.fill(actions, VectorEnvironment.ACTION_FIRE);
+      for (int step = 0; step < 2_000; step++) env.step(actions);
+
+      final AllocationMeter meter = new AllocationMeter();
+      for (int step = 0; step < 5_000; step++) {
+        meter.startTick();
+        env.step(actions);
+        meter.endTick();
+      }
+      // the budget of the game loop per game - the environment itself allocates nothing
+      assertTrue(meter.getBytesPerTick() / GAMES <= 256.0, () -> "Budget exceeded: " + meter);
+    }
+  }
+}
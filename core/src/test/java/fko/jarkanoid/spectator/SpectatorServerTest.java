@@ -0,0 +1,147 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.spectator;
+
+import fko.jarkanoid.model.GameModel;
+import fko.jarkanoid.model.TrackingPaddleController;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpectatorServerTest {
+
+  private static final long SEED = 4711;
+  private static final int TICKS = 1_800;
+  private static final long TIMEOUT = 10_000;
+
+  @Test
+  void codecRebuildsEveryTick() throws IOException {
+    final GameModel model = startGame();
+    final DeltaCodec encoder = new DeltaCodec();
+    final DeltaCodec decoder = new DeltaCodec();
+    final SpectatorState previous = new SpectatorState();
+    final SpectatorState current = new SpectatorState();
+    final SpectatorState decoded = new SpectatorState();
+    final SpectatorState joined = new SpectatorState();
+    for (int tick = 0; tick < TICKS; tick++) {
+      model.gameLoop();
+      current.capture(model);
+      final int length = encoder.encodeDelta(previous, current);
+      decoder.decode(encoder.getBuffer(), length, decoded);
+      assertTrue(decoded.looksLike(current), "delta of tick " + model.getTicks());
+      // a spectator joining late starts with a key frame
+      if (tick % 100 == 0) {
+        final int keyFrame = encoder.encodeKeyFrame(current);
+        decoder.decode(encoder.getBuffer(), keyFrame, joined);
+      } else {
+        decoder.decode(encoder.getBuffer(), length, joined);
+      }
+      assertTrue(joined.looksLike(current), "key frame of tick " + model.getTicks());
+      previous.copyFrom(current);
+    }
+    model.stopPlaying();
+  }
+
+  @Test
+  void spectatorSeesTheGame() throws Exception {
+    final GameModel model = startGame();
+    try (SpectatorServer server = new SpectatorServer(model, 0);
+        SpectatorClient client = new SpectatorClient("localhost", server.getPort(), null)) {
+      waitFor(() -> server.getSpectatorCount() == 1);
+      final SpectatorState expected = new SpectatorState();
+      final SpectatorState received = new SpectatorState();
+      for (int tick = 1; tick <= TICKS; tick++) {
+        model.gameLoop();
+        // don't let the game run away from the spectator
+        final int sent = tick;
+        if (tick % 30 == 0) waitFor(() -> client.getFramesReceived() >= sent - 30);
+        if (tick % 600 == 0) {
+          expected.capture(model);
+          waitFor(
+              () -> {
+                client.copyState(received);
+                return received.getTick() == model.getTicks();
+              });
+          assertTrue(received.looksLike(expected));
+        }
+      }
+      assertTrue(client.isConnected());
+      assertTrue(model.currentScoreProperty().get() > 0);
+      assertTrue(received.getBalls() > 0);
+      // 60 ticks are a second of the game
+      final double bytesPerSecond = client.getBytesReceived() * 60.0 / TICKS;
+      assertTrue(bytesPerSecond < 2_000, "bytes per second " + bytesPerSecond);
+    }
+    assertEquals(0, model.countObservers());
+    model.stopPlaying();
+  }
+
+  @Test
+  void slowSpectatorIsDisconnected() throws Exception {
+    final GameModel model = startGame();
+    try (SpectatorServer server = new SpectatorServer(model, 0);
+        SpectatorClient client =
+            new SpectatorClient(
+                "localhost",
+                server.getPort(),
+                state -> {
+                  try {
+                    Thread.sleep(TIMEOUT);
+                  } catch (InterruptedException ignored) {
+                  }
+                })) {
+      waitFor(() -> server.getSpectatorCount() == 1);
+      // more than fits into the queue and the socket buffers
+      for (int tick = 0; tick < 100_000 && server.getSpectatorCount() > 0; tick++) {
+        model.gameLoop();
+      }
+      assertEquals(0, server.getSpectatorCount());
+    }
+    model.stopPlaying();
+  }
+
+  private static GameModel startGame() {
+    final GameModel model = new GameModel(true);
+    model.setRecordSessions(false);
+    model.setPaddleController(new TrackingPaddleController());
+    model.startPlaying(SEED);
+    return model;
+  }
+
+  private interface Condition {
+    boolean holds() throws Exception;
+  }
+
+  private static void waitFor(Condition condition) throws Exception {
+    final long end = System.currentTimeMillis() + TIMEOUT;
+    while (!condition.holds()) {
+      if (System.currentTimeMillis() > end) fail("Timeout");
+      Thread.sleep(1);
+    }
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.versus;
+
+import fko.jarkanoid.model.Perft;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockstepSessionTest {
+
+  private static final long SEED = 4711;
+  private static final int TICKS = 1_200;
+  private static final long TIMEOUT = 30_000;
+
+  @Test
+  void playersSeeTheSameGamesOverLoopback() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try (ServerSocket serverSocket = new ServerSocket(0)) {
+      final Future<Result> first =
+          executor.submit(() -> play(SocketTransport.accept(serverSocket), 1));
+      final Future<Result> second =
+          executor.submit(
+              () -> play(SocketTransport.connect("localhost", serverSocket.getLocalPort()), 2));
+      final Result a = first.get();
+      final Result b = second.get();
+      assertEquals(a.localHash, b.remoteHash);
+      assertEquals(a.remoteHash, b.localHash);
+      assertNotEquals(a.localHash, a.remoteHash);
+      // the injected latency is longer than a tick so predictions had to be corrected
+      assertTrue(a.rollbacks > 0);
+      assertTrue(b.rollbacks > 0);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void waitsForTheOtherPlayer() throws Exception {
+    final QueueTransport transport = new QueueTransport(new ConcurrentLinkedQueue<>());
+    try (LockstepSession session = new LockstepSession(transport, SEED, 5)) {
+      for (int tick = 0; tick < 5; tick++) assertTrue(session.advance(LockstepSession.INPUT_LEFT));
+      assertFalse(session.advance(LockstepSession.INPUT_LEFT));
+      assertEquals(5, session.getTick());
+      assertEquals(5, transport.sent.size());
+
+      // inputs of the other player arrive - one of them was not predicted
+      for (int tick = 1; tick <= 4; tick++) {
+        transport.received.add(
+            new InputMessage(tick, tick == 3 ? LockstepSession.INPUT_RIGHT : 0));
+      }
+      assertTrue(session.advance(LockstepSession.INPUT_LEFT));
+      assertEquals(6, session.getTick());
+      assertEquals(4, session.getConfirmedTick());
+      assertEquals(1, session.getRollbacks());
+      assertEquals(1, session.getResimulatedTicks());
+    }
+  }
+
+  @Test
+  void detectsGamesOutOfSync() {
+    final QueueTransport transport = new QueueTransport(new ConcurrentLinkedQueue<>());
+    try (LockstepSession session = new LockstepSession(transport, SEED, 5)) {
+      for (int tick = 1; tick < LockstepSession.HASH_INTERVAL; tick++) {
+        transport.received.add(new InputMessage(tick, 0));
+      }
+      transport.received.add(new InputMessage(LockstepSession.HASH_INTERVAL, 0, 42));
+      assertThrows(
+          IllegalStateException.class,
+          () -> {
+            for (int tick = 0; tick < LockstepSession.HASH_INTERVAL; tick++) session.advance(0);
+          });
+    }
+  }
+
+  /**
+   * Plays random inputs against the other player over a slow network and waits until all inputs
+   * of the other player are known.
+   */
+  private static Result play(InputTransport transport, long inputSeed) throws Exception {
+    final Random random = new Random(inputSeed);
+    final long end = System.currentTimeMillis() + TIMEOUT;
+    try (LockstepSession session =
+        new LockstepSession(
+            new LatencyInjector(transport, 20, 10, inputSeed),
+            SEED,
+            LockstepSession.DEFAULT_MAX_ROLLBACK)) {
+      // keep an input for a while like a player does
+      int input = 0;
+      while (session.getTick() < TICKS || !session.isConfirmed()) {
+        if (System.currentTimeMillis() > end) fail("Timeout");
+        if (random.nextInt(10) == 0) input = random.nextInt(8);
+        if (session.getTick() >= TICKS || !session.advance(input)) session.poll();
+        Thread.sleep(1);
+      }
+      final Result result = new Result();
+      result.localHash = Perft.hash(session.getLocalModel());
+      result.remoteHash = Perft.hash(session.getRemoteModel());
+      result.rollbacks = session.getRollbacks();
+      return result;
+    }
+  }
+
+  private static class Result {
+    private long localHash;
+    private long remoteHash;
+    private long rollbacks;
+  }
+
+  /** Hands the messages to the test instead of the network. */
+  private static class QueueTransport implements InputTransport {
+
+    private final Queue<InputMessage> received;
+    private final Queue<InputMessage> sent = new ConcurrentLinkedQueue<>();
+
+    private QueueTransport(Queue<InputMessage> received) {
+      this.received = received;
+    }
+
+    @Override
+    public void send(InputMessage message) {
+      sent.add(message);
+    }
+
+    @Override
+    public InputMessage poll() {
+      return received.poll();
+    }
+
+    @Override
+    public boolean isConnected() {
+      return true;
+    }
+
+    @Override
+    public void close() {}
+  }
+}
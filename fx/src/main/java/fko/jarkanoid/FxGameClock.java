@@ -0,0 +1,76 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid;
+
+import fko.jarkanoid.model.GameClock;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.util.Duration;
+
+/**
+ * FxGameClock
+ *
+ * <p>Runs the loops of a live <code>GameModel</code> as JavaFX <code>Timelines</code> on the
+ * JavaFX Application Thread so that the loops can update the bound views directly.
+ *
+ * @author Frank Kopp
+ */
+public class FxGameClock implements GameClock {
+
+  @Override
+  public Loop createLoop(final double periodMillis, final int cycleCount, final Runnable action) {
+    final Timeline timeline = new Timeline();
+    timeline.setCycleCount(cycleCount == INDEFINITE ? Animation.INDEFINITE : cycleCount);
+    timeline.getKeyFrames().add(new KeyFrame(Duration.millis(periodMillis), e -> action.run()));
+    return new Loop() {
+      @Override
+      public void play() {
+        timeline.play();
+      }
+
+      @Override
+      public void playFromStart() {
+        timeline.playFromStart();
+      }
+
+      @Override
+      public void pause() {
+        timeline.pause();
+      }
+
+      @Override
+      public void stop() {
+        timeline.stop();
+      }
+
+      @Override
+      public boolean isRunning() {
+        return timeline.getStatus() == Animation.Status.RUNNING;
+      }
+    };
+  }
+}
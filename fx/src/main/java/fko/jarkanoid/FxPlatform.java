@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid;
+
+import javafx.application.Platform;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * FxPlatform
+ *
+ * <p>Helpers for tools which use JavaFX without a visible window, like the <code>ReplayRenderer
+ * </code> or render benchmarks.
+ *
+ * @author Frank Kopp
+ */
+public final class FxPlatform {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FxPlatform.class);
+
+  private FxPlatform() {}
+
+  /**
+   * Uses the headless Monocle platform with software rendering when it is on the class path (see
+   * Maven profile <code>headless</code>) and no platform has been chosen. Must be called before
+   * the JavaFX platform is started.
+   */
+  public static void useHeadlessPlatformIfAvailable() {
+    if (System.getProperty("glass.platform") != null) return;
+    try {
+      Class.forName("com.sun.glass.ui.monocle.MonoclePlatformFactory");
+    } catch (ClassNotFoundException e) {
+      return;
+    }
+    LOG.info("Using headless Monocle platform");
+    System.setProperty("glass.platform", "Monocle");
+    System.setProperty("monocle.platform", "Headless");
+    System.setProperty("prism.order", "sw");
+  }
+
+  /** Work to be done on the JavaFX Application Thread */
+  public interface FxTask<T> {
+    T call() throws Exception;
+  }
+
+  /**
+   * Runs the task on the JavaFX Application Thread and waits for its result.
+   *
+   * @param task the work to be done
+   * @return the result of the task
+   * @throws Exception the exception thrown by the task
+   */
+  public static <T> T callAndWait(FxTask<T> task) throws Exception {
+    final CompletableFuture<T> result = new CompletableFuture<>();
+    Platform.runLater(
+        () -> {
+          try {
+            result.complete(task.call());
+          } catch (Throwable t) {
+            result.completeExceptionally(t);
+          }
+        });
+    try {
+      return result.get();
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+    }
+  }
+}
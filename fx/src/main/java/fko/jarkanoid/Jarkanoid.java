@@ -25,8 +25,11 @@
 package fko.jarkanoid;
 
 import fko.jarkanoid.controller.MainController;
+import fko.jarkanoid.events.EventTracer;
+import fko.jarkanoid.management.GameMonitor;
 import fko.jarkanoid.model.GameModel;
 import fko.jarkanoid.recorder.Recorder;
+import fko.jarkanoid.spectator.SpectatorServer;
 import fko.jarkanoid.view.MainView;
 import javafx.application.Application;
 import javafx.application.Platform;
@@ -57,6 +60,8 @@ public class Jarkanoid extends Application {
 
   private static Recorder recorder = new Recorder();
 
+  private static SpectatorServer spectatorServer;
+
   /**
    * Main
    */
@@ -78,7 +83,7 @@ public class Jarkanoid extends Application {
 
     pStage = primaryStage;
 
-    GameModel model = new GameModel();
+    GameModel model = new GameModel(new FxGameClock());
     MainController controller = new MainController(model);
     MainView view = new MainView(model, controller);
 
@@ -88,6 +93,13 @@ public class Jarkanoid extends Application {
 
     controller.bindModelToView(view);
 
+    // inspect and tune the running game with JMX tools
+    GameMonitor.register(model, recorder);
+
+    // broadcast the game to spectators on the local network
+    final Integer spectatorPort = Integer.getInteger(SpectatorServer.PORT_PROPERTY);
+    if (spectatorPort != null) spectatorServer = new SpectatorServer(model, spectatorPort);
+
     primaryStage.setScene(scene);
     primaryStage.centerOnScreen();
     primaryStage.setResizable(false);
@@ -106,6 +118,13 @@ public class Jarkanoid extends Application {
   @Override
   public void init() throws Exception {
     super.init();
+    loadFonts();
+  }
+
+  /**
+   * Loads the fonts used by the FXML views
+   */
+  static void loadFonts() {
     String fontName = "/fonts/AstronomicMono.otf";
     final URL urlResource = Jarkanoid.class.getResource(fontName);
     if (urlResource == null) {
@@ -124,6 +143,10 @@ public class Jarkanoid extends Application {
   public static void exit() {
     LOG.info("Application shutting down...");
     recorder.stop();
+    if (spectatorServer != null) spectatorServer.close();
+    if (EventTracer.getInstance().isEnabled()) {
+      LOG.info("{}", EventTracer.getInstance().report());
+    }
     LOG.info("Application shut down");
     exit(0);
   }
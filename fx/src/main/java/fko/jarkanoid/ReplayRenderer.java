@@ -0,0 +1,187 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid;
+
+import fko.jarkanoid.controller.MainController;
+import fko.jarkanoid.model.SessionReplay;
+import fko.jarkanoid.model.SoundManager;
+import fko.jarkanoid.recorder.CaptureMode;
+import fko.jarkanoid.recorder.DropPolicy;
+import fko.jarkanoid.recorder.OutputFormat;
+import fko.jarkanoid.recorder.Recorder;
+import fko.jarkanoid.view.MainView;
+import javafx.application.Platform;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * ReplayRenderer
+ *
+ * <p>Renders a recorded session (see <code>SessionLog</code>) into a video without a player and
+ * without a visible window. The session is re-simulated with a <code>SessionReplay</code> bound to
+ * the normal game view in an offscreen scene. For every video frame the replay is advanced by one
+ * frame interval and the view is captured by a <code>Recorder</code> in <code>CaptureMode.MANUAL
+ * </code>. Rendering runs as fast as the CPU allows while the frames are encoded in parallel on
+ * all cores.
+ *
+ * <p>Usage: <code>ReplayRenderer session.csv [video.avi] [fps]</code>
+ *
+ * <p>Without a display run with the <code>headless</code> Maven profile which adds the Monocle
+ * platform. When Monocle is on the class path and no platform is set explicitly the headless
+ * Monocle platform with software rendering is used.
+ *
+ * <p>Animations of the view which are not part of the model (e.g. the paddle hit effect) run in
+ * real time and therefore are mostly not visible in a rendered video.
+ *
+ * @author Frank Kopp
+ */
+public class ReplayRenderer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ReplayRenderer.class);
+
+  private static final int DEFAULT_FPS = 60;
+
+  // frames rendered per call to the JavaFX Application Thread
+  private static final int FRAMES_PER_BATCH = 10;
+
+  private final Path sessionPath;
+  private final Path videoPath;
+  private final int fps;
+
+  private SessionReplay replay;
+  private Recorder recorder;
+
+  /**
+   * @param sessionPath the recorded session
+   * @param videoPath the video file to create
+   * @param fps frames per second of the video
+   */
+  public ReplayRenderer(Path sessionPath, Path videoPath, int fps) {
+    if (fps < 1) throw new IllegalArgumentException("fps must be at least 1");
+    this.sessionPath = sessionPath;
+    this.videoPath = videoPath;
+    this.fps = fps;
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 1) {
+      System.err.println("Usage: ReplayRenderer session.csv [video.avi] [fps]");
+      System.exit(1);
+    }
+    final Path session = Paths.get(args[0]);
+    final Path video =
+        args.length > 1
+            ? Paths.get(args[1])
+            : Paths.get(args[0].replaceFirst("\\.csv$", "") + ".avi");
+    final int fps = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_FPS;
+
+    FxPlatform.useHeadlessPlatformIfAvailable();
+    Platform.startup(() -> {});
+    try {
+      new ReplayRenderer(session, video, fps).render();
+    } finally {
+      Platform.exit();
+    }
+  }
+
+  /**
+   * Renders the whole session. The JavaFX platform must have been started.
+   *
+   * @return number of rendered frames
+   * @throws Exception if the session could not be read or the video could not be written
+   */
+  public long render() throws Exception {
+    final long startTime = System.nanoTime();
+    FxPlatform.callAndWait(this::prepare);
+
+    final long frameMicros = 1_000_000L / fps;
+    long frame = 0;
+    boolean running = true;
+    while (running) {
+      final long firstFrame = frame;
+      running =
+          FxPlatform.callAndWait(
+              () -> {
+                for (long f = firstFrame; f < firstFrame + FRAMES_PER_BATCH; f++) {
+                  final boolean more = replay.advanceTo(f * frameMicros);
+                  recorder.captureFrame();
+                  if (!more) return false;
+                }
+                return true;
+              });
+      frame += FRAMES_PER_BATCH;
+      if (frame % (fps * 60L) == 0) {
+        LOG.info(
+            "Rendered {} s of the session ({} frames/s)",
+            frame / fps,
+            String.format("%.1f", frame * 1e9 / (System.nanoTime() - startTime)));
+      }
+    }
+
+    recorder.stop();
+    replay.close();
+
+    final double seconds = (System.nanoTime() - startTime) / 1e9;
+    LOG.info(
+        "Rendered {} frames ({} s of gameplay) to {} in {} s - {}x real time",
+        recorder.getSavedFrames(),
+        String.format("%.1f", replay.getTime() / 1e6),
+        videoPath,
+        String.format("%.1f", seconds),
+        String.format("%.1f", replay.getTime() / 1e6 / seconds));
+    return recorder.getSavedFrames();
+  }
+
+  /** Builds model, view and recorder in an offscreen scene */
+  private Void prepare() throws Exception {
+    Jarkanoid.loadFonts();
+    SoundManager.getInstance().soundOff();
+
+    replay = new SessionReplay(sessionPath);
+    final MainController controller = new MainController(replay.getModel());
+    final MainView view = new MainView(replay.getModel(), controller);
+    final Parent root = view.asParent();
+    new Scene(root);
+    controller.bindModelToView(view);
+    root.applyCss();
+    root.layout();
+
+    recorder = new Recorder();
+    recorder.setCaptureMode(CaptureMode.MANUAL);
+    recorder.setCaptureNode(root);
+    recorder.setDropPolicy(DropPolicy.BLOCK);
+    recorder.setSaveThreads(Runtime.getRuntime().availableProcessors());
+    recorder.setOutputFormat(OutputFormat.MJPEG_AVI);
+    recorder.setOutputPath(videoPath);
+    recorder.start(1000 / fps);
+    return null;
+  }
+}
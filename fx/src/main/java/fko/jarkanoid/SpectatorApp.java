@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid;
+
+import fko.jarkanoid.spectator.SpectatorClient;
+import fko.jarkanoid.spectator.SpectatorServer;
+import fko.jarkanoid.spectator.SpectatorState;
+import fko.jarkanoid.view.StateRenderer;
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Stage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * SpectatorApp
+ *
+ * <p>Watches a game broadcast by a <code>SpectatorServer</code>. The state received by a <code>
+ * SpectatorClient</code> is drawn onto a canvas once per frame of the screen - there is no model
+ * and no game loop on the spectator's side.
+ *
+ * <p>Start the game with <code>-Dfko.jarkanoid.spectatorPort=port</code> and the spectator with
+ * <code>SpectatorApp host port</code>.
+ *
+ * @author Frank Kopp
+ */
+public class SpectatorApp extends Application {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SpectatorApp.class);
+
+  private static final String DEFAULT_HOST = "localhost";
+  private static final int DEFAULT_PORT = 4711;
+
+  private final SpectatorState state = new SpectatorState();
+  private SpectatorClient client;
+
+  public static void main(String[] args) {
+    launch(args);
+  }
+
+  @Override
+  public void start(Stage stage) throws Exception {
+    final List<String> args = getParameters().getUnnamed();
+    final String host = args.size() > 0 ? args.get(0) : DEFAULT_HOST;
+    final int port = args.size() > 1 ? Integer.parseInt(args.get(1)) : DEFAULT_PORT;
+    client = new SpectatorClient(host, port, null);
+    LOG.info("Watching the game at {}:{} (see {})", host, port, SpectatorServer.PORT_PROPERTY);
+
+    final Canvas canvas = new Canvas(780, 710);
+    final GraphicsContext gc = canvas.getGraphicsContext2D();
+    new AnimationTimer() {
+      @Override
+      public void handle(long now) {
+        client.copyState(state);
+        if (state.getPlayfieldWidth() == 0) return;
+        if (canvas.getWidth() != state.getPlayfieldWidth()
+            || canvas.getHeight() != state.getPlayfieldHeight()) {
+          canvas.setWidth(state.getPlayfieldWidth());
+          canvas.setHeight(state.getPlayfieldHeight());
+          stage.sizeToScene();
+        }
+        StateRenderer.draw(gc, state);
+        stage.setTitle(
+            String.format(
+                "Jarkanoid Spectator - Level %d  Lives %d  Score %d%s",
+                state.getLevel(),
+                state.getLives(),
+                state.getScore(),
+                client.isConnected() ? "" : "  (disconnected)"));
+      }
+    }.start();
+
+    stage.setScene(new Scene(new StackPane(canvas)));
+    stage.setOnCloseRequest(event -> Platform.exit());
+    stage.show();
+  }
+
+  @Override
+  public void stop() {
+    if (client != null) client.close();
+  }
+}
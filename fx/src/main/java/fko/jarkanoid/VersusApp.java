@@ -0,0 +1,195 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid;
+
+import fko.jarkanoid.model.GameModel;
+import fko.jarkanoid.spectator.SpectatorState;
+import fko.jarkanoid.versus.InputTransport;
+import fko.jarkanoid.versus.LockstepSession;
+import fko.jarkanoid.versus.SocketTransport;
+import fko.jarkanoid.view.StateRenderer;
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.HBox;
+import javafx.stage.Stage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+
+/**
+ * VersusApp
+ *
+ * <p>Head-to-head play against a player on another machine with a <code>LockstepSession</code>.
+ * The own board is on the left and the other player's board on the right. The game loop runs at
+ * 60 ticks per second driven by the screen frames and pauses when the other player falls behind.
+ *
+ * <p>One player waits with <code>VersusApp port [seed]</code>, the other one connects with <code>
+ * VersusApp host port [seed]</code>. Both must use the same seed. Move with the arrow keys, launch
+ * and fire with space.
+ *
+ * @author Frank Kopp
+ */
+public class VersusApp extends Application {
+
+  private static final Logger LOG = LoggerFactory.getLogger(VersusApp.class);
+
+  private static final long DEFAULT_SEED = 4711;
+  private static final long TICK_NANOS = 1_000_000_000L / 60;
+
+  private final SpectatorState localState = new SpectatorState();
+  private final SpectatorState remoteState = new SpectatorState();
+  private final Canvas localCanvas = new Canvas(780, 710);
+  private final Canvas remoteCanvas = new Canvas(780, 710);
+
+  private volatile LockstepSession session;
+  private int input = LockstepSession.INPUT_NONE;
+  private long nextTickTime;
+
+  public static void main(String[] args) {
+    launch(args);
+  }
+
+  @Override
+  public void start(Stage stage) {
+    final List<String> args = getParameters().getUnnamed();
+    if (args.isEmpty()) {
+      System.err.println("Usage: VersusApp port [seed] | VersusApp host port [seed]");
+      Platform.exit();
+      return;
+    }
+    final boolean waiting = args.get(0).matches("\\d+");
+    final String host = waiting ? null : args.get(0);
+    final int port = Integer.parseInt(args.get(waiting ? 0 : 1));
+    final int seedIndex = waiting ? 1 : 2;
+    final long seed =
+        args.size() > seedIndex ? Long.parseLong(args.get(seedIndex)) : DEFAULT_SEED;
+
+    final Scene scene = new Scene(new HBox(10, localCanvas, remoteCanvas));
+    scene.setOnKeyPressed(event -> setInput(event.getCode(), true));
+    scene.setOnKeyReleased(event -> setInput(event.getCode(), false));
+    stage.setScene(scene);
+    stage.setTitle("Jarkanoid Versus - waiting for the other player");
+    stage.setOnCloseRequest(event -> Platform.exit());
+    stage.show();
+
+    // don't block the JavaFX Application Thread while connecting
+    final Thread connector =
+        new Thread(
+            () -> {
+              try {
+                final InputTransport transport;
+                if (waiting) {
+                  try (ServerSocket serverSocket = new ServerSocket(port)) {
+                    transport = SocketTransport.accept(serverSocket);
+                  }
+                } else {
+                  transport = SocketTransport.connect(host, port);
+                }
+                Platform.runLater(() -> play(stage, transport, seed));
+              } catch (IOException e) {
+                LOG.error("Could not connect to the other player: {}", e.toString());
+                Platform.runLater(() -> stage.setTitle("Jarkanoid Versus - " + e.getMessage()));
+              }
+            },
+            "VersusConnector");
+    connector.setDaemon(true);
+    connector.start();
+  }
+
+  /** Starts the session and the game loop. */
+  private void play(Stage stage, InputTransport transport, long seed) {
+    session = new LockstepSession(transport, seed, LockstepSession.DEFAULT_MAX_ROLLBACK);
+    LOG.info("Versus game started with seed {}", seed);
+    nextTickTime = System.nanoTime();
+    new AnimationTimer() {
+      @Override
+      public void handle(long now) {
+        try {
+          while (now >= nextTickTime && session.advance(input)) nextTickTime += TICK_NANOS;
+          // don't catch up after waiting for the other player
+          if (now - nextTickTime > TICK_NANOS) nextTickTime = now;
+        } catch (IOException | IllegalStateException e) {
+          LOG.error("Versus game ended: {}", e.toString());
+          stop();
+          stage.setTitle("Jarkanoid Versus - " + e.getMessage());
+          return;
+        }
+        draw(localCanvas, localState, session.getLocalModel());
+        draw(remoteCanvas, remoteState, session.getRemoteModel());
+        stage.sizeToScene();
+        stage.setTitle(title());
+      }
+    }.start();
+  }
+
+  private static void draw(Canvas canvas, SpectatorState state, GameModel model) {
+    state.capture(model);
+    canvas.setWidth(state.getPlayfieldWidth());
+    canvas.setHeight(state.getPlayfieldHeight());
+    StateRenderer.draw(canvas.getGraphicsContext2D(), state);
+  }
+
+  private String title() {
+    final String score =
+        String.format("You %d : %d Other", localState.getScore(), remoteState.getScore());
+    if (!session.isConnected()) return "Jarkanoid Versus - " + score + " (disconnected)";
+    if (!session.isFinished()) return "Jarkanoid Versus - " + score;
+    final int difference = localState.getScore() - remoteState.getScore();
+    return "Jarkanoid Versus - "
+        + score
+        + (difference > 0 ? " - you win" : difference < 0 ? " - you lose" : " - draw");
+  }
+
+  private void setInput(KeyCode code, boolean pressed) {
+    final int bit;
+    switch (code) {
+      case LEFT:
+        bit = LockstepSession.INPUT_LEFT;
+        break;
+      case RIGHT:
+        bit = LockstepSession.INPUT_RIGHT;
+        break;
+      case SPACE:
+        bit = LockstepSession.INPUT_FIRE;
+        break;
+      default:
+        return;
+    }
+    input = pressed ? input | bit : input & ~bit;
+  }
+
+  @Override
+  public void stop() {
+    if (session != null) session.close();
+  }
+}
@@ -25,15 +25,16 @@
 package fko.jarkanoid.controller;
 
 import fko.jarkanoid.Jarkanoid;
+import fko.jarkanoid.beans.ListListener;
+import fko.jarkanoid.events.EventTracer;
 import fko.jarkanoid.events.GameEvent;
 import fko.jarkanoid.model.*;
 import fko.jarkanoid.model.SoundManager.Clips;
 import fko.jarkanoid.recorder.Recorder;
 import fko.jarkanoid.view.HighScoreListView;
 import fko.jarkanoid.view.MainView;
+import fko.jarkanoid.view.ModelProperties;
 import javafx.beans.property.SimpleStringProperty;
-import javafx.collections.ListChangeListener;
-import javafx.collections.ListChangeListener.Change;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -73,6 +74,10 @@ public class MainController implements Initializable, Observer {
 
   private static final Logger LOG = LoggerFactory.getLogger(MainController.class);
 
+  // names of the parts of the event handling in the EventTracer's report
+  private static final String VIEW = "MainView";
+  private static final String SOUNDS = "SoundManager";
+
   // handles to model and view
   private final GameModel model;
   // main.resources.sounds
@@ -135,17 +140,12 @@ public class MainController implements Initializable, Observer {
     // add controller as listener of model for GameEvents
     model.addObserver(this);
 
-    // scene title
-    String tmpTitle = Jarkanoid.getPrimaryStage().getTitle();
-    Jarkanoid.getPrimaryStage()
-        .titleProperty()
-        .bind(
-            new SimpleStringProperty(tmpTitle + " (fps:")
-                .concat(model.fpsProperty().asString("%.2f"))
-                .concat(")")
-                .concat(" (Version: ")
-                .concat(Jarkanoid.VERSION)
-                .concat(")"));
+    // scene title - there is no stage when rendered offscreen
+    // the fps are shown in the performance overlay (key H) instead of rebuilding the title
+    if (Jarkanoid.getPrimaryStage() != null) {
+      String tmpTitle = Jarkanoid.getPrimaryStage().getTitle();
+      Jarkanoid.getPrimaryStage().setTitle(tmpTitle + " (Version: " + Jarkanoid.VERSION + ")");
+    }
 
     // add keyboard handlers
     view.asParent().getScene().setOnKeyPressed(this::keyPressedAction);
@@ -156,47 +156,34 @@ public class MainController implements Initializable, Observer {
     view.asParent().getScene().setOnMousePressed(this::mousePressedAction);
 
     // playfield dimensions
-    playfieldPane.prefWidthProperty().bind(model.playfieldWidthProperty());
-    playfieldPane.prefHeightProperty().bind(model.playfieldHeightProperty());
+    playfieldPane.prefWidthProperty().bind(ModelProperties.of(model.playfieldWidthProperty()));
+    playfieldPane.prefHeightProperty().bind(ModelProperties.of(model.playfieldHeightProperty()));
 
     // paddle dimensions and location
-    paddle.widthProperty().bind(model.paddleWidthProperty());
-    paddle.heightProperty().bind(model.paddleHeightProperty());
-    paddle.xProperty().bind(model.paddleXProperty());
-    paddle.yProperty().bind(model.paddleYProperty());
+    paddle.widthProperty().bind(ModelProperties.of(model.paddleWidthProperty()));
+    paddle.heightProperty().bind(ModelProperties.of(model.paddleHeightProperty()));
+    paddle.xProperty().bind(ModelProperties.of(model.paddleXProperty()));
+    paddle.yProperty().bind(ModelProperties.of(model.paddleYProperty()));
 
     // update handler for ball manager
-    //noinspection unchecked
-    model
-        .getBallManager()
-        .addListener(
-            (ListChangeListener.Change<?> change) -> view.updateBallList((Change<Ball>) change));
+    model.getBallManager().addListener(ListListener.of(view::addBall, view::removeBall));
 
     // update handler for laser shot manager
-    //noinspection unchecked
     model
         .getLaserShotManager()
-        .addListener(
-            (ListChangeListener.Change<?> change) ->
-                view.updateLaserShotList((Change<LaserShot>) change));
+        .addListener(ListListener.of(view::addLaserShot, view::removeLaserShot));
 
     // update handler for fallingPills
-    //noinspection unchecked
     model
         .fallingPowerPillsProperty()
-        .addListener(
-            (ListChangeListener.Change<?> change) ->
-                view.updateFallingPillList((Change<PowerPill>) change));
+        .addListener(ListListener.of(view::addFallingPill, view::removeFallingPill));
 
     // update handler for active power ups
-    //noinspection unchecked
-    model
-        .activePowerProperty()
+    ModelProperties.of(model.activePowerProperty())
         .addListener((observable, oldValue, newValue) -> updateActivePower(oldValue, newValue));
 
     // startstopButton text updater
-    model
-        .isPlayingProperty()
+    ModelProperties.of(model.isPlayingProperty())
         .addListener(
             (observable, oldValue, newValue) -> {
               if (newValue) {
@@ -206,9 +193,8 @@ public class MainController implements Initializable, Observer {
               }
             });
 
-    // pauseResumeButton text updater
-    model
-        .isPausedProperty()
+    // pauseResumeButton text updater and pausing of the view animations
+    ModelProperties.of(model.isPausedProperty())
         .addListener(
             (observable, oldValue, newValue) -> {
               if (newValue) {
@@ -216,25 +202,39 @@ public class MainController implements Initializable, Observer {
               } else {
                 pauseResumeButton.setText("Pause");
               }
+              view.pauseAnimations(newValue);
             });
 
     // Level text
     levelLabel
         .textProperty()
-        .bind(new SimpleStringProperty("Level ").concat(model.currentLevelProperty()));
+        .bind(
+            new SimpleStringProperty("Level ")
+                .concat(ModelProperties.of(model.currentLevelProperty())));
     // remaining lives text
-    livesLabel.textProperty().bind(model.currentRemainingLivesProperty().asString());
+    livesLabel
+        .textProperty()
+        .bind(ModelProperties.of(model.currentRemainingLivesProperty()).asString());
     // score text
-    pointsLabel.textProperty().bind(model.currentScoreProperty().asString("%06d"));
+    pointsLabel
+        .textProperty()
+        .bind(ModelProperties.of(model.currentScoreProperty()).asString("%06d"));
 
     // game over splash text
-    gameOverSplash.visibleProperty().bind(model.gameOverProperty());
+    gameOverSplash.visibleProperty().bind(ModelProperties.of(model.gameOverProperty()));
 
     // pre start splash
-    gamePreStartSplash.visibleProperty().bind(model.isPlayingProperty().not());
+    gamePreStartSplash
+        .visibleProperty()
+        .bind(ModelProperties.of(model.isPlayingProperty()).not());
+
+    // the recorder captures the playfield directly from the scene graph
+    Jarkanoid.getRecorder().setCaptureNode(playfieldPane);
 
     // bind bidrectional playerName
-    playerNameTextField.textProperty().bindBidirectional(model.playerNameProperty());
+    playerNameTextField
+        .textProperty()
+        .bindBidirectional(ModelProperties.bidirectional(model.playerNameProperty()));
 
     // to not have focus on playerNameTextField
     view.asParent().requestFocus();
@@ -316,24 +316,24 @@ public class MainController implements Initializable, Observer {
 
     final Object[] param = (Object[]) gameEvent.getEventParameter();
 
-    // define actions for different events
+    // define actions for different events - view and sounds are timed separately when traced
     switch (gameEvent.getEventType()) {
       case NONE:
         break;
       case HIT_PADDLE:
-        view.paddleHit((Ball) param[0]);
-        sounds.playClip(Clips.PADDLE);
+        updateView(gameEvent, () -> view.paddleHit((Ball) param[0]));
+        playClip(gameEvent, Clips.PADDLE);
         break;
       case HIT_WALL:
-        view.ballHit((Ball) param[0]);
+        updateView(gameEvent, () -> view.ballHit((Ball) param[0]));
         // main.resources.sounds.playClip(Clips.WALL);
         break;
       case HIT_BRICK:
         handleHitBrickEvent(gameEvent);
-        view.getBrickLayoutView().draw(model.getBrickLayout());
+        drawBrickLayout(gameEvent);
         break;
       case LAST_BALL_LOST:
-        sounds.playClip(Clips.BALL_LOST);
+        playClip(gameEvent, Clips.BALL_LOST);
         break;
       case BALL_LOST:
         break;
@@ -342,41 +342,44 @@ public class MainController implements Initializable, Observer {
       case LEVEL_COMPLETE:
         break;
       case LEVEL_START:
-        sounds.playClip(Clips.NEW_LEVEL);
-        view.getBrickLayoutView().draw(model.getBrickLayout());
+        playClip(gameEvent, Clips.NEW_LEVEL);
+        drawBrickLayout(gameEvent);
         break;
       case GAME_START:
-        sounds.stopClip(Clips.FINAL); // stops final music in case it was still playing
+        // stops final music in case it was still playing
+        EventTracer.getInstance().time(SOUNDS, gameEvent, () -> sounds.stopClip(Clips.FINAL));
         // sounds.playClip(Clips.INTRO);
         break;
       case GAME_STOPPED:
-        view.getBrickLayoutView().draw(model.getBrickLayout());
+        drawBrickLayout(gameEvent);
         break;
       case GAME_OVER:
-        gameOverSplash.setText("GAME OVER");
+        updateView(gameEvent, () -> gameOverSplash.setText("GAME OVER"));
         break;
       case LASER_HIT:
-        view.getBrickLayoutView().draw(model.getBrickLayout());
+        drawBrickLayout(gameEvent);
         break;
       case LASER_SHOT:
-        sounds.playClip(Clips.LASER);
+        playClip(gameEvent, Clips.LASER);
         break;
       case GAME_WON:
-        sounds.playClip(Clips.FINAL);
-        gameOverSplash.setText("  THE END");
-      break;
+        playClip(gameEvent, Clips.FINAL);
+        updateView(gameEvent, () -> gameOverSplash.setText("  THE END"));
+        break;
       case CAUGHT:
-        sounds.playClip(Clips.CAUGHT);
+        playClip(gameEvent, Clips.CAUGHT);
         break;
       case LASER_ON:
         break;
       case LASER_OFF:
         break;
       case NEW_LIFE:
-        sounds.playClip(Clips.NEW_LIFE);
+        playClip(gameEvent, Clips.NEW_LIFE);
         break;
       case NEW_HIGHSCORE:
-        view.getHighScoreListView().updateList((HighScore.HighScoreEntry)param[0]);
+        updateView(
+            gameEvent,
+            () -> view.getHighScoreListView().updateList((HighScore.HighScoreEntry) param[0]));
         //showHighScoreEditor();
         break;
       default:
@@ -391,15 +394,30 @@ public class MainController implements Initializable, Observer {
       final int col = (int) param[1];
       final Ball ball = (Ball) param[2];
       if (model.getBrickLayout().getBrick(row, col) == null) {
-        sounds.playClip(Clips.BRICK);
+        playClip(event, Clips.BRICK);
       } else {
-        view.brickHit(row, col);
-        sounds.playClip(Clips.BRICK_S);
+        updateView(event, () -> view.brickHit(row, col));
+        playClip(event, Clips.BRICK_S);
       }
-      view.ballHit(ball);
+      updateView(event, () -> view.ballHit(ball));
     }
   }
 
+  /** Redraws the bricks as part of the view's handling of the event */
+  private void drawBrickLayout(GameEvent event) {
+    updateView(event, () -> view.getBrickLayoutView().draw(model.getBrickLayout()));
+  }
+
+  /** Runs an update of the view for the event - timed as the view's part when traced */
+  private void updateView(GameEvent event, Runnable update) {
+    EventTracer.getInstance().time(VIEW, event, update);
+  }
+
+  /** Plays the clip for the event - timed as the sound's part when traced */
+  private void playClip(GameEvent event, Clips clip) {
+    EventTracer.getInstance().time(SOUNDS, event, () -> sounds.playClip(clip));
+  }
+
   /**
    * Handles key pressed events
    *
@@ -429,6 +447,12 @@ public class MainController implements Initializable, Observer {
       case R:
         recordingAction();
         break;
+      case H:
+        view.togglePerformanceOverlay();
+        break;
+      case B:
+        autopilotAction();
+        break;
        case Q:
         if (event.isControlDown()) {
           model.skipLevelCheat();
@@ -501,11 +525,23 @@ public class MainController implements Initializable, Observer {
       recordingIndicator.setFill(Color.GREEN);
     } else {
       LOG.info("User requested start Recording");
-      recorder.start(32);
+      recorder.start();
       recordingIndicator.setFill(Color.RED);
     }
   }
 
+  /** Switches the autopilot on or off - starts a game when switched on without one running. */
+  private void autopilotAction() {
+    if (model.getPaddleController() == null) {
+      LOG.info("User requested autopilot");
+      model.setPaddleController(new PredictingPaddleController());
+      if (!model.isPlaying()) startStopButtonAction(new ActionEvent());
+    } else {
+      LOG.info("User requested end of autopilot");
+      model.setPaddleController(null);
+    }
+  }
+
   /**
    * Action when the mouse left button has been clicked.
    *
@@ -0,0 +1,364 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.management;
+
+import fko.jarkanoid.events.EventTracer;
+import fko.jarkanoid.events.GameEvent;
+import fko.jarkanoid.events.GameEvent.GameEventType;
+import fko.jarkanoid.model.CollisionSubstepMode;
+import fko.jarkanoid.model.GameModel;
+import fko.jarkanoid.model.HighScore;
+import fko.jarkanoid.model.SoundManager;
+import fko.jarkanoid.recorder.Recorder;
+import javafx.application.Platform;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * GameMonitor
+ *
+ * <p>Implementation of the <code>GameMonitorMXBean</code>. Counts the game events of the model as
+ * an observer and otherwise reads the values from model, sound manager, recorder and high score
+ * store when they are requested. Changes of the frame rate are handed to the JavaFX Application
+ * Thread.
+ *
+ * <p>Registered as <code>fko.jarkanoid:type=GameMonitor</code> so it can be inspected and tuned
+ * with standard JMX tools like JConsole or VisualVM.
+ *
+ * @author Frank Kopp
+ */
+public class GameMonitor implements GameMonitorMXBean, Observer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(GameMonitor.class);
+
+  public static final String OBJECT_NAME = "fko.jarkanoid:type=GameMonitor";
+
+  private final GameModel model;
+  private final SoundManager sounds;
+  private final Recorder recorder;
+  private final HighScore highScore;
+
+  // game events per event type since the last reset
+  private final AtomicLongArray eventCounts = new AtomicLongArray(GameEventType.values().length);
+  private volatile long resetTime = System.nanoTime();
+
+  /**
+   * Creates a monitor and registers it as observer of the model.
+   *
+   * @param model the model of the game
+   * @param sounds the sound manager of the game
+   * @param recorder the recorder of the game
+   * @param highScore the high score store of the game
+   */
+  public GameMonitor(
+      final GameModel model,
+      final SoundManager sounds,
+      final Recorder recorder,
+      final HighScore highScore) {
+    this.model = model;
+    this.sounds = sounds;
+    this.recorder = recorder;
+    this.highScore = highScore;
+    model.addObserver(this);
+  }
+
+  /**
+   * Creates a monitor for the game and registers it with the platform MBean server. Errors are
+   * logged as the game runs fine without it.
+   *
+   * @param model the model of the game
+   * @param recorder the recorder of the game
+   * @return the registered monitor or null if it could not be registered
+   */
+  public static GameMonitor register(final GameModel model, final Recorder recorder) {
+    final GameMonitor monitor =
+        new GameMonitor(model, SoundManager.getInstance(), recorder, HighScore.getInstance());
+    try {
+      final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      final ObjectName name = new ObjectName(OBJECT_NAME);
+      if (server.isRegistered(name)) server.unregisterMBean(name);
+      server.registerMBean(monitor, name);
+      LOG.info("Game monitor registered as {}", OBJECT_NAME);
+      return monitor;
+    } catch (JMException e) {
+      LOG.warn("Game monitor could not be registered", e);
+      model.deleteObserver(monitor);
+      return null;
+    }
+  }
+
+  /** Counts the game events of the model */
+  @Override
+  public void update(final Observable o, final Object event) {
+    if (event instanceof GameEvent) {
+      eventCounts.incrementAndGet(((GameEvent) event).getEventType().ordinal());
+    }
+  }
+
+  @Override
+  public boolean isPlaying() {
+    return model.isPlaying();
+  }
+
+  @Override
+  public boolean isPaused() {
+    return model.isPaused();
+  }
+
+  @Override
+  public boolean isIdle() {
+    return model.isIdle();
+  }
+
+  @Override
+  public int getLevel() {
+    return model.currentLevelProperty().get();
+  }
+
+  @Override
+  public int getScore() {
+    return model.currentScoreProperty().get();
+  }
+
+  @Override
+  public int getLives() {
+    return model.currentRemainingLivesProperty().get();
+  }
+
+  @Override
+  public long getTicks() {
+    return model.getTicks();
+  }
+
+  @Override
+  public double getTickRate() {
+    return model.getFps();
+  }
+
+  @Override
+  public long getLastTickTime() {
+    return model.getLastLoopTime();
+  }
+
+  @Override
+  public long getAverageTickTime() {
+    return model.getAverageLoopTime();
+  }
+
+  @Override
+  public double getFrameRate() {
+    return model.getFrameRate();
+  }
+
+  @Override
+  public void setFrameRate(final double frameRate) {
+    if (frameRate <= 0) throw new IllegalArgumentException("Frame rate must be positive");
+    Platform.runLater(() -> model.setFrameRate(frameRate));
+  }
+
+  @Override
+  public String getCollisionSubstepMode() {
+    return model.getCollisionSubstepMode().name();
+  }
+
+  @Override
+  public void setCollisionSubstepMode(final String mode) {
+    model.setCollisionSubstepMode(CollisionSubstepMode.valueOf(mode));
+  }
+
+  @Override
+  public boolean isRecordSessions() {
+    return model.isRecordSessions();
+  }
+
+  @Override
+  public void setRecordSessions(final boolean recordSessions) {
+    model.setRecordSessions(recordSessions);
+  }
+
+  @Override
+  public int getBalls() {
+    return model.getBallManager().size();
+  }
+
+  @Override
+  public int getLaserShots() {
+    return model.getLaserShotManager().size();
+  }
+
+  @Override
+  public int getPowerPills() {
+    return model.fallingPowerPillsProperty().size();
+  }
+
+  @Override
+  public int getBricks() {
+    return model.getBrickLayout().getNumberOfBricks();
+  }
+
+  @Override
+  public long getEvents() {
+    long events = 0;
+    for (int i = 0; i < eventCounts.length(); i++) events += eventCounts.get(i);
+    return events;
+  }
+
+  @Override
+  public double getEventRate() {
+    final long elapsed = System.nanoTime() - resetTime;
+    return elapsed <= 0 ? 0 : getEvents() * 1e9 / elapsed;
+  }
+
+  @Override
+  public Map<String, Long> getEventCounts() {
+    final Map<String, Long> counts = new TreeMap<>();
+    for (GameEventType type : GameEventType.values()) {
+      final long count = eventCounts.get(type.ordinal());
+      if (count > 0) counts.put(type.name(), count);
+    }
+    return counts;
+  }
+
+  @Override
+  public int getEventTracingSampleInterval() {
+    return EventTracer.getInstance().getSampleInterval();
+  }
+
+  @Override
+  public void setEventTracingSampleInterval(final int sampleInterval) {
+    EventTracer.getInstance().setSampleInterval(sampleInterval);
+  }
+
+  @Override
+  public String eventTraceReport() {
+    return EventTracer.getInstance().report();
+  }
+
+  @Override
+  public boolean isSoundOn() {
+    return sounds.isSoundOn();
+  }
+
+  @Override
+  public void setSoundOn(final boolean soundOn) {
+    if (soundOn) sounds.soundOn();
+    else sounds.soundOff();
+  }
+
+  @Override
+  public int getPlayingClips() {
+    return sounds.getPlayingClips();
+  }
+
+  @Override
+  public long getPlayedClips() {
+    return sounds.getPlayedClips();
+  }
+
+  @Override
+  public boolean isRecording() {
+    return recorder.isRunning();
+  }
+
+  @Override
+  public int getRecorderPeriod() {
+    return recorder.getPeriod();
+  }
+
+  @Override
+  public void setRecorderPeriod(final int period) {
+    recorder.setPeriod(period);
+  }
+
+  @Override
+  public int getRecorderQueueDepth() {
+    return recorder.getQueueDepth();
+  }
+
+  @Override
+  public int getRecorderQueueCapacity() {
+    return recorder.getQueueCapacity();
+  }
+
+  @Override
+  public long getCapturedFrames() {
+    return recorder.getCapturedFrames();
+  }
+
+  @Override
+  public long getSavedFrames() {
+    return recorder.getSavedFrames();
+  }
+
+  @Override
+  public long getDroppedFrames() {
+    return recorder.getDroppedFrames();
+  }
+
+  @Override
+  public double getSavedFramesPerSecond() {
+    return recorder.getSavedFramesPerSecond();
+  }
+
+  @Override
+  public int getHighScoreEntries() {
+    return highScore.getList().size();
+  }
+
+  @Override
+  public String getHighScoreFile() {
+    return highScore.getFilePath().toAbsolutePath().toString();
+  }
+
+  @Override
+  public String getHighScoreLastSave() {
+    final LocalDateTime lastSave = highScore.getLastSaveTime();
+    return lastSave == null ? "" : lastSave.toString();
+  }
+
+  @Override
+  public boolean isHighScoreLastSaveSuccess() {
+    return highScore.isLastSaveSuccess();
+  }
+
+  @Override
+  public void resetStatistics() {
+    for (int i = 0; i < eventCounts.length(); i++) eventCounts.set(i, 0);
+    resetTime = System.nanoTime();
+    EventTracer.getInstance().reset();
+  }
+}
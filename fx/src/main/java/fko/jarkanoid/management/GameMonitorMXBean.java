@@ -0,0 +1,172 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.management;
+
+import java.util.Map;
+
+/**
+ * GameMonitorMXBean
+ *
+ * <p>JMX management interface of a running game. Shows the statistics of the game loop, the
+ * entities of the model, the rates of game events, sound, recorder and high score store. The frame
+ * rate, the collision substep mode, the recorder period and the sound can be changed at runtime.
+ *
+ * @author Frank Kopp
+ */
+public interface GameMonitorMXBean {
+
+  /** @return true if a game is running */
+  boolean isPlaying();
+
+  /** @return true if the running game is paused */
+  boolean isPaused();
+
+  /** @return true if no loop of the model runs - JavaFX then only pulses for input */
+  boolean isIdle();
+
+  /** @return the current level */
+  int getLevel();
+
+  /** @return the current score */
+  int getScore();
+
+  /** @return the remaining lives */
+  int getLives();
+
+  /** @return number of game loop cycles since the start of the application */
+  long getTicks();
+
+  /** @return measured cycles of the game loop per second */
+  double getTickRate();
+
+  /** @return time in nanos of the last cycle of the game loop */
+  long getLastTickTime();
+
+  /** @return average time in nanos of the game loop over the last 100 cycles */
+  long getAverageTickTime();
+
+  /** @return the frame rate of the game loop */
+  double getFrameRate();
+
+  /** @param frameRate the frame rate of the game loop - also changes the speed of the game */
+  void setFrameRate(double frameRate);
+
+  /** @return how the path of a ball is divided for the collision checks */
+  String getCollisionSubstepMode();
+
+  /** @param mode name of a <code>CollisionSubstepMode</code> */
+  void setCollisionSubstepMode(String mode);
+
+  /** @return true if seed and inputs of each new game are recorded for a later replay */
+  boolean isRecordSessions();
+
+  /** @param recordSessions true to record seed and inputs of each new game */
+  void setRecordSessions(boolean recordSessions);
+
+  /** @return number of balls in play */
+  int getBalls();
+
+  /** @return number of laser shots in flight */
+  int getLaserShots();
+
+  /** @return number of falling power pills */
+  int getPowerPills();
+
+  /** @return number of remaining bricks */
+  int getBricks();
+
+  /** @return number of game events since the last reset */
+  long getEvents();
+
+  /** @return game events per second since the last reset */
+  double getEventRate();
+
+  /** @return number of game events per event type since the last reset */
+  Map<String, Long> getEventCounts();
+
+  /** @return 0 if event tracing is off, otherwise every n-th event is traced */
+  int getEventTracingSampleInterval();
+
+  /** @param sampleInterval 0 to turn event tracing off, otherwise every n-th event is traced */
+  void setEventTracingSampleInterval(int sampleInterval);
+
+  /** @return event dispatch latencies per event type and the slowest handlers */
+  String eventTraceReport();
+
+  /** @return true if sound is turned on */
+  boolean isSoundOn();
+
+  /** @param soundOn true to turn sound on */
+  void setSoundOn(boolean soundOn);
+
+  /** @return number of sound clips currently playing */
+  int getPlayingClips();
+
+  /** @return number of sound clips started since the start of the application */
+  long getPlayedClips();
+
+  /** @return true if a recording is running */
+  boolean isRecording();
+
+  /** @return the intervall of capturing in ms */
+  int getRecorderPeriod();
+
+  /** @param period the intervall of capturing in ms - takes effect with the next recording */
+  void setRecorderPeriod(int period);
+
+  /** @return number of frames waiting to be saved */
+  int getRecorderQueueDepth();
+
+  /** @return maximum number of frames waiting to be saved */
+  int getRecorderQueueCapacity();
+
+  /** @return frames captured during the current or last recording */
+  long getCapturedFrames();
+
+  /** @return frames saved during the current or last recording */
+  long getSavedFrames();
+
+  /** @return frames dropped during the current or last recording */
+  long getDroppedFrames();
+
+  /** @return frames saved per second during the current or last recording */
+  double getSavedFramesPerSecond();
+
+  /** @return number of entries in the high score list */
+  int getHighScoreEntries();
+
+  /** @return the file the high score list is stored in */
+  String getHighScoreFile();
+
+  /** @return time of the last save of the high score list or an empty string */
+  String getHighScoreLastSave();
+
+  /** @return true if the last save of the high score list was successful */
+  boolean isHighScoreLastSaveSuccess();
+
+  /** Resets the event statistics and the event trace */
+  void resetStatistics();
+}
@@ -28,8 +28,10 @@ import java.net.URL;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import fko.jarkanoid.Jarkanoid;
+import fko.jarkanoid.jfr.SoundPlaybackEvent;
 import javafx.scene.media.AudioClip;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -84,7 +86,10 @@ public final class SoundManager {
   private final Map<Clips, AudioClip> _sounds;
 
   // sound on/off
-  private boolean soundOn = true;
+  private volatile boolean soundOn = true;
+
+  // number of clips started
+  private final AtomicLong playedClips = new AtomicLong();
 
   /**
    * Get theSounds instance with all main.resources.sounds available
@@ -126,6 +131,12 @@ public final class SoundManager {
     if (_sounds.get(c) == null || !soundOn) return;
     AudioClip clip = _sounds.get(c);
     clip.play();
+    playedClips.incrementAndGet();
+    final SoundPlaybackEvent event = new SoundPlaybackEvent();
+    if (event.shouldCommit()) {
+      event.clip = c.name();
+      event.commit();
+    }
   }
 
   /**
@@ -159,4 +170,22 @@ public final class SoundManager {
     return soundOn;
   }
 
+  /**
+   * @return number of clips currently playing
+   */
+  public int getPlayingClips() {
+    int playing = 0;
+    for (AudioClip clip : _sounds.values()) {
+      if (clip.isPlaying()) playing++;
+    }
+    return playing;
+  }
+
+  /**
+   * @return number of clips started since the start of the application
+   */
+  public long getPlayedClips() {
+    return playedClips.get();
+  }
+
 }
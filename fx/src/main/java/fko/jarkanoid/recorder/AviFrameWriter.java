@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.recorder;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * AviFrameWriter
+ *
+ * <p>Streams all frames of a recording into an AVI file. The file is created with the first frame
+ * as only then the frame size is known.
+ *
+ * @author Frank Kopp
+ */
+public class AviFrameWriter implements FrameWriter {
+
+  private final Path path;
+  private final int period;
+  private final String fourcc;
+
+  private AviWriter aviWriter = null;
+
+  /**
+   * @param path the AVI file to create
+   * @param period the interval between frames in ms
+   * @param fourcc the compression of the encoded frames, e.g. <code>AviWriter.MJPG</code>
+   */
+  public AviFrameWriter(Path path, int period, String fourcc) {
+    this.path = path;
+    this.period = period;
+    this.fourcc = fourcc;
+  }
+
+  /** @see FrameWriter#write(BufferedImage, byte[], int) */
+  @Override
+  public void write(BufferedImage frame, byte[] data, int length) throws IOException {
+    if (aviWriter == null) {
+      aviWriter = new AviWriter(path, frame.getWidth(), frame.getHeight(), period * 1000, fourcc);
+    }
+    aviWriter.writeFrame(data, length);
+  }
+
+  /** @see java.io.Closeable#close() */
+  @Override
+  public void close() throws IOException {
+    if (aviWriter != null) aviWriter.close();
+  }
+}
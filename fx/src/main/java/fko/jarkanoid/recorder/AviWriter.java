@@ -0,0 +1,328 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.recorder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * AviWriter
+ *
+ * <p>Streams already compressed video frames (e.g. JPEG for MJPEG) into a RIFF AVI container
+ * which can be played by standard players. Frames are appended to a single file, the index
+ * (<code>idx1</code>) is written and the header is completed when the writer is closed.
+ *
+ * <p>Files are never forced to disk during writing so there is no per frame file creation or
+ * fsync overhead. As AVI 1.0 files are limited in size the writer continues in a new segment file
+ * (<code>name-2.avi</code>, <code>name-3.avi</code>, ...) when a file reaches <code>
+ * MAX_SEGMENT_SIZE</code>.
+ *
+ * <p>Not thread safe - frames have to be written in order by one thread at a time.
+ *
+ * @author Frank Kopp
+ */
+public class AviWriter implements Closeable {
+
+  /** Fourcc of motion JPEG video */
+  public static final String MJPG = "MJPG";
+
+  /** Fourcc of motion PNG video */
+  public static final String MPNG = "MPNG";
+
+  /** Files are closed and continued in a new segment when reaching this size */
+  public static final long MAX_SEGMENT_SIZE = 1L << 30; // 1 GB
+
+  // AVI flags
+  private static final int AVIF_HASINDEX = 0x10;
+  private static final int AVIIF_KEYFRAME = 0x10;
+
+  // positions of header fields which are only known when closing the file
+  private static final int POS_RIFF_SIZE = 4;
+  private static final int POS_AVIH_MAX_BYTES_PER_SEC = 36;
+  private static final int POS_AVIH_TOTAL_FRAMES = 48;
+  private static final int POS_AVIH_SUGGESTED_BUFFER = 60;
+  private static final int POS_STRH_LENGTH = 140;
+  private static final int POS_STRH_SUGGESTED_BUFFER = 144;
+  private static final int POS_MOVI_SIZE = 216;
+  private static final int HEADER_SIZE = 224; // up to and including the 'movi' fourcc
+
+  private final Path basePath;
+  private final int width;
+  private final int height;
+  private final int microSecPerFrame;
+  private final String fourcc;
+
+  private final ByteBuffer chunkHeader = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+  private final ByteBuffer padding = ByteBuffer.allocate(1);
+
+  private FileChannel channel;
+  private int segment = 0;
+  private long position;
+
+  // index of the current segment: offset and size per frame
+  private int[] indexOffsets = new int[1024];
+  private int[] indexSizes = new int[1024];
+  private int frames = 0;
+  private int maxFrameSize = 0;
+
+  private long totalFrames = 0;
+
+  /**
+   * Creates the first file of the video and writes a preliminary header.
+   *
+   * @param basePath path of the first file - following segments get a number appended
+   * @param width width of the frames in pixels
+   * @param height height of the frames in pixels
+   * @param microSecPerFrame frame duration in microseconds
+   * @param fourcc compression of the frames, e.g. <code>MJPG</code> or <code>MPNG</code>
+   * @throws IOException if the file could not be created
+   */
+  public AviWriter(Path basePath, int width, int height, int microSecPerFrame, String fourcc)
+      throws IOException {
+    if (fourcc.length() != 4) throw new IllegalArgumentException("Fourcc must have 4 characters");
+    this.basePath = basePath;
+    this.width = width;
+    this.height = height;
+    this.microSecPerFrame = microSecPerFrame;
+    this.fourcc = fourcc;
+    openSegment();
+  }
+
+  /**
+   * Appends a compressed frame as the next video frame.
+   *
+   * @param data the compressed frame
+   * @param length number of valid bytes in data
+   * @throws IOException if the frame could not be written
+   */
+  public void writeFrame(byte[] data, int length) throws IOException {
+    final long chunkSize = 8L + length + (length & 1);
+    // index takes 16 bytes per frame
+    if (frames > 0 && position + chunkSize + 16L * (frames + 1) + 8 > MAX_SEGMENT_SIZE) {
+      closeSegment();
+      openSegment();
+    }
+
+    if (frames == indexOffsets.length) {
+      indexOffsets = Arrays.copyOf(indexOffsets, frames * 2);
+      indexSizes = Arrays.copyOf(indexSizes, frames * 2);
+    }
+    // offsets in the index are relative to the 'movi' fourcc
+    indexOffsets[frames] = (int) (position - (HEADER_SIZE - 4));
+    indexSizes[frames] = length;
+    frames++;
+    totalFrames++;
+    if (length > maxFrameSize) maxFrameSize = length;
+
+    chunkHeader.clear();
+    putFourcc(chunkHeader, "00dc");
+    chunkHeader.putInt(length);
+    chunkHeader.flip();
+    writeFully(chunkHeader);
+    writeFully(ByteBuffer.wrap(data, 0, length));
+    if ((length & 1) != 0) {
+      padding.clear();
+      writeFully(padding);
+    }
+  }
+
+  /**
+   * Writes the index and completes the header of the current file.
+   *
+   * @throws IOException if the file could not be completed
+   */
+  @Override
+  public void close() throws IOException {
+    if (channel == null) return;
+    closeSegment();
+  }
+
+  /** @return number of frames written to all segments */
+  public long getTotalFrames() {
+    return totalFrames;
+  }
+
+  /** @return number of segment files created */
+  public int getSegments() {
+    return segment;
+  }
+
+  /**
+   * @param segment number of the segment starting with 1
+   * @return path of the file for the segment
+   */
+  public Path getSegmentPath(int segment) {
+    if (segment == 1) return basePath;
+    final String fileName = basePath.getFileName().toString();
+    final int dot = fileName.lastIndexOf('.');
+    final String segmentName =
+        dot < 0
+            ? fileName + "-" + segment
+            : fileName.substring(0, dot) + "-" + segment + fileName.substring(dot);
+    return basePath.resolveSibling(segmentName);
+  }
+
+  private void openSegment() throws IOException {
+    segment++;
+    channel =
+        FileChannel.open(
+            getSegmentPath(segment),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE);
+    frames = 0;
+    maxFrameSize = 0;
+    final ByteBuffer header = createHeader();
+    writeFully(header);
+    position = HEADER_SIZE;
+  }
+
+  private void closeSegment() throws IOException {
+    // index
+    final ByteBuffer index = ByteBuffer.allocate(8 + 16 * frames).order(ByteOrder.LITTLE_ENDIAN);
+    putFourcc(index, "idx1");
+    index.putInt(16 * frames);
+    for (int i = 0; i < frames; i++) {
+      putFourcc(index, "00dc");
+      index.putInt(AVIIF_KEYFRAME);
+      index.putInt(indexOffsets[i]);
+      index.putInt(indexSizes[i]);
+    }
+    index.flip();
+    final long moviSize = position - (HEADER_SIZE - 4);
+    writeFully(index);
+
+    // complete header
+    final long fileSize = position;
+    final int bytesPerSec =
+        (int) Math.min(Integer.MAX_VALUE, maxFrameSize * 1_000_000L / microSecPerFrame);
+    patch(POS_RIFF_SIZE, (int) (fileSize - 8));
+    patch(POS_AVIH_MAX_BYTES_PER_SEC, bytesPerSec);
+    patch(POS_AVIH_TOTAL_FRAMES, frames);
+    patch(POS_AVIH_SUGGESTED_BUFFER, maxFrameSize + 8);
+    patch(POS_STRH_LENGTH, frames);
+    patch(POS_STRH_SUGGESTED_BUFFER, maxFrameSize + 8);
+    patch(POS_MOVI_SIZE, (int) moviSize);
+
+    channel.close();
+    channel = null;
+  }
+
+  private ByteBuffer createHeader() {
+    final ByteBuffer h = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    putFourcc(h, "RIFF");
+    h.putInt(0); // file size - 8, patched on close
+    putFourcc(h, "AVI ");
+
+    putFourcc(h, "LIST");
+    h.putInt(192); // size of hdrl list
+    putFourcc(h, "hdrl");
+
+    // main header
+    putFourcc(h, "avih");
+    h.putInt(56);
+    h.putInt(microSecPerFrame);
+    h.putInt(0); // max bytes per second, patched on close
+    h.putInt(0); // padding granularity
+    h.putInt(AVIF_HASINDEX);
+    h.putInt(0); // total frames, patched on close
+    h.putInt(0); // initial frames
+    h.putInt(1); // streams
+    h.putInt(0); // suggested buffer size, patched on close
+    h.putInt(width);
+    h.putInt(height);
+    h.putInt(0).putInt(0).putInt(0).putInt(0); // reserved
+
+    // stream list
+    putFourcc(h, "LIST");
+    h.putInt(116); // size of strl list
+    putFourcc(h, "strl");
+
+    // stream header
+    putFourcc(h, "strh");
+    h.putInt(56);
+    putFourcc(h, "vids");
+    putFourcc(h, fourcc);
+    h.putInt(0); // flags
+    h.putShort((short) 0); // priority
+    h.putShort((short) 0); // language
+    h.putInt(0); // initial frames
+    h.putInt(microSecPerFrame); // scale
+    h.putInt(1_000_000); // rate - rate/scale = frames per second
+    h.putInt(0); // start
+    h.putInt(0); // length in frames, patched on close
+    h.putInt(0); // suggested buffer size, patched on close
+    h.putInt(-1); // quality
+    h.putInt(0); // sample size
+    h.putShort((short) 0).putShort((short) 0); // frame rectangle
+    h.putShort((short) width).putShort((short) height);
+
+    // stream format - BITMAPINFOHEADER
+    putFourcc(h, "strf");
+    h.putInt(40);
+    h.putInt(40);
+    h.putInt(width);
+    h.putInt(height);
+    h.putShort((short) 1); // planes
+    h.putShort((short) 24); // bit count
+    putFourcc(h, fourcc);
+    h.putInt(width * height * 3);
+    h.putInt(0).putInt(0).putInt(0).putInt(0);
+
+    // frame data list
+    putFourcc(h, "LIST");
+    h.putInt(0); // size of movi list, patched on close
+    putFourcc(h, "movi");
+
+    h.flip();
+    return h;
+  }
+
+  private void patch(int pos, int value) throws IOException {
+    final ByteBuffer b = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+    b.putInt(value).flip();
+    while (b.hasRemaining()) {
+      channel.write(b, pos + b.position());
+    }
+  }
+
+  private void writeFully(ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      position += channel.write(buffer);
+    }
+  }
+
+  private static void putFourcc(ByteBuffer buffer, String fourcc) {
+    buffer.put(fourcc.getBytes(StandardCharsets.US_ASCII));
+  }
+}
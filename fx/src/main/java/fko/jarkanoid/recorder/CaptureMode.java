@@ -0,0 +1,56 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.recorder;
+
+/**
+ * CaptureMode
+ *
+ * <p>Defines how the <code>Recorder</code> obtains the pixels of a frame.
+ *
+ * @author Frank Kopp
+ */
+public enum CaptureMode {
+
+  /**
+   * Grabs the screen area of the primary stage with <code>java.awt.Robot</code>. Needs a real
+   * screen and includes the window decoration.
+   */
+  SCREEN,
+
+  /**
+   * Renders the capture node directly from the scene graph into a <code>WritableImage</code> on
+   * each render pulse. Does not need a visible window and works with an offscreen or headless
+   * (Monocle) stage.
+   */
+  SNAPSHOT,
+
+  /**
+   * Renders the capture node like <code>SNAPSHOT</code> but only when <code>
+   * Recorder.captureFrame()</code> is called. Used to render frames offline at any speed, e.g. from
+   * a replayed session.
+   */
+  MANUAL
+}
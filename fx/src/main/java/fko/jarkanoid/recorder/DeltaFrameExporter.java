@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.recorder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * DeltaFrameExporter
+ *
+ * <p>Converts a delta frame recording (<code>.jdf</code>) into a motion JPEG AVI file which can be
+ * played by standard players.
+ *
+ * <p>Usage: <code>DeltaFrameExporter recording.jdf [video.avi] [jpegQuality]</code>
+ *
+ * @author Frank Kopp
+ */
+public class DeltaFrameExporter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(DeltaFrameExporter.class);
+
+  private static final float DEFAULT_JPEG_QUALITY = 0.75f;
+
+  private DeltaFrameExporter() {}
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1) {
+      System.err.println("Usage: DeltaFrameExporter recording.jdf [video.avi] [jpegQuality]");
+      System.exit(1);
+    }
+    final Path input = Paths.get(args[0]);
+    final Path output =
+        args.length > 1
+            ? Paths.get(args[1])
+            : Paths.get(args[0].replaceFirst("\\." + DeltaFrameWriter.FILE_EXTENSION + "$", "")
+                + ".avi");
+    final float quality = args.length > 2 ? Float.parseFloat(args[2]) : DEFAULT_JPEG_QUALITY;
+    export(input, output, quality);
+  }
+
+  /**
+   * Decodes all frames of a delta frame recording and stores them as motion JPEG AVI.
+   *
+   * @param input the delta frame recording
+   * @param output the AVI file to create
+   * @param quality JPEG quality between 0 (smallest) and 1 (best)
+   * @return number of exported frames
+   * @throws IOException if the recording could not be read or the video not be written
+   */
+  public static long export(Path input, Path output, float quality) throws IOException {
+    final long startTime = System.nanoTime();
+    final JpegFrameEncoder encoder = new JpegFrameEncoder(quality);
+    final ReusableByteArrayOutputStream buffer = new ReusableByteArrayOutputStream(256 * 1024);
+    try (DeltaFrameReader reader = new DeltaFrameReader(input);
+        AviWriter aviWriter =
+            new AviWriter(
+                output,
+                reader.getWidth(),
+                reader.getHeight(),
+                reader.getMicroSecPerFrame(),
+                AviWriter.MJPG)) {
+      BufferedImage frame;
+      while ((frame = reader.readFrame()) != null) {
+        buffer.reset();
+        encoder.encode(frame, buffer);
+        aviWriter.writeFrame(buffer.buffer(), buffer.size());
+      }
+      LOG.info(
+          "Exported {} frames from {} to {} in {} ms",
+          reader.getFrames(),
+          input,
+          output,
+          (System.nanoTime() - startTime) / 1_000_000);
+      return reader.getFrames();
+    }
+  }
+}
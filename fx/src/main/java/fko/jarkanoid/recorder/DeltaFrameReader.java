@@ -0,0 +1,201 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.recorder;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * DeltaFrameReader
+ *
+ * <p>Decodes a recording in the Jarkanoid delta frame format written by the <code>
+ * DeltaFrameWriter</code> back into full frames.
+ *
+ * @author Frank Kopp
+ */
+public class DeltaFrameReader implements Closeable {
+
+  private final DataInputStream in;
+  private final Inflater inflater = new Inflater();
+
+  private final int width;
+  private final int height;
+  private final int tileSize;
+  private final int microSecPerFrame;
+  private final int tilesX;
+
+  // the decoded frame which is updated by each read
+  private final BufferedImage frame;
+  private final int[] pixels;
+
+  private final byte[] payload;
+  private byte[] deflated;
+
+  private long frameCounter = 0;
+
+  /**
+   * Opens a recording and reads its header.
+   *
+   * @param path the recording
+   * @throws IOException if the file could not be read or is not a delta frame recording
+   */
+  public DeltaFrameReader(Path path) throws IOException {
+    in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+    try {
+      if (in.readInt() != DeltaFrameWriter.MAGIC) {
+        throw new IOException("Not a delta frame recording: " + path);
+      }
+      width = in.readInt();
+      height = in.readInt();
+      tileSize = in.readInt();
+      microSecPerFrame = in.readInt();
+    } catch (IOException e) {
+      in.close();
+      throw e;
+    }
+    tilesX = (width + tileSize - 1) / tileSize;
+    final int tilesY = (height + tileSize - 1) / tileSize;
+    frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    pixels = ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+    payload = new byte[width * height * 3 + tilesX * tilesY * 4];
+    deflated = new byte[1 << 16];
+  }
+
+  /**
+   * Decodes the next frame. The returned image is reused and overwritten by the next call.
+   *
+   * @return the next frame or null at the end of the recording
+   * @throws IOException if the recording could not be read or is damaged
+   */
+  public BufferedImage readFrame() throws IOException {
+    final int type;
+    try {
+      type = in.readByte();
+    } catch (EOFException e) {
+      return null;
+    }
+    final int tiles = in.readInt();
+    final int length = in.readInt();
+    final int deflatedLength = in.readInt();
+    if (length > payload.length || deflatedLength < 0) {
+      throw new IOException("Damaged frame #" + frameCounter);
+    }
+    if (deflatedLength > deflated.length) deflated = new byte[deflatedLength];
+    in.readFully(deflated, 0, deflatedLength);
+    inflate(deflatedLength, length);
+
+    switch (type) {
+      case DeltaFrameWriter.KEYFRAME:
+        for (int i = 0, pos = 0; i < pixels.length; i++, pos += 3) {
+          pixels[i] = getRgb(pos);
+        }
+        break;
+      case DeltaFrameWriter.DELTA_FRAME:
+        int pos = 0;
+        for (int t = 0; t < tiles; t++) {
+          final int tile = getInt(pos);
+          pos += 4;
+          final int x0 = (tile % tilesX) * tileSize;
+          final int y0 = (tile / tilesX) * tileSize;
+          final int x1 = Math.min(x0 + tileSize, width);
+          final int y1 = Math.min(y0 + tileSize, height);
+          for (int y = y0; y < y1; y++) {
+            for (int i = y * width + x0; i < y * width + x1; i++, pos += 3) {
+              pixels[i] = getRgb(pos);
+            }
+          }
+        }
+        break;
+      default:
+        throw new IOException("Unknown frame type " + type + " in frame #" + frameCounter);
+    }
+    frameCounter++;
+    return frame;
+  }
+
+  private void inflate(int deflatedLength, int length) throws IOException {
+    inflater.reset();
+    inflater.setInput(deflated, 0, deflatedLength);
+    try {
+      int inflated = 0;
+      while (inflated < length && !inflater.finished()) {
+        final int n = inflater.inflate(payload, inflated, length - inflated);
+        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+        inflated += n;
+      }
+      if (inflated != length) throw new IOException("Damaged frame #" + frameCounter);
+    } catch (DataFormatException e) {
+      throw new IOException("Damaged frame #" + frameCounter, e);
+    }
+  }
+
+  private int getRgb(int pos) {
+    return (payload[pos] & 0xFF) << 16 | (payload[pos + 1] & 0xFF) << 8 | payload[pos + 2] & 0xFF;
+  }
+
+  private int getInt(int pos) {
+    return (payload[pos] & 0xFF) << 24
+        | (payload[pos + 1] & 0xFF) << 16
+        | (payload[pos + 2] & 0xFF) << 8
+        | payload[pos + 3] & 0xFF;
+  }
+
+  /** @see java.io.Closeable#close() */
+  @Override
+  public void close() throws IOException {
+    inflater.end();
+    in.close();
+  }
+
+  /** @return width of the frames in pixels */
+  public int getWidth() {
+    return width;
+  }
+
+  /** @return height of the frames in pixels */
+  public int getHeight() {
+    return height;
+  }
+
+  /** @return the interval between frames in microseconds */
+  public int getMicroSecPerFrame() {
+    return microSecPerFrame;
+  }
+
+  /** @return number of frames read so far */
+  public long getFrames() {
+    return frameCounter;
+  }
+}
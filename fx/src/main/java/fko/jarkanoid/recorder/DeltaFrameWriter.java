@@ -0,0 +1,272 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.recorder;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+
+/**
+ * DeltaFrameWriter
+ *
+ * <p>Stores a recording in the Jarkanoid delta frame format (<code>.jdf</code>). Each frame is
+ * split into square tiles and compared with the previous frame. Only tiles which have changed are
+ * stored. Every <code>keyframeInterval</code> frames a complete keyframe is stored so a recording
+ * can be decoded even if a part of it is damaged. As most of the playfield does not change from
+ * frame to frame this stores only a fraction of the pixels of a full frame encoder.
+ *
+ * <p>The comparison depends on the previous frame and is therefore done in the strictly ordered
+ * write stage of the <code>Recorder</code>. It needs no encoding in the save threads.
+ *
+ * <p>Format (all numbers big endian):
+ *
+ * <pre>
+ * header:  int magic 'JDF1', int width, int height, int tileSize, int microseconds per frame
+ * frame:   byte type (KEYFRAME|DELTA_FRAME), int number of tiles, int length of payload,
+ *          int length of deflated payload, deflated payload
+ * keyframe payload:    RGB bytes of all pixels row by row
+ * delta frame payload: per changed tile the int tile index followed by the RGB bytes of the
+ *                      tile's pixels row by row (tiles are numbered row by row, tiles at the
+ *                      right and bottom border may be smaller)
+ * </pre>
+ *
+ * <p>Use <code>DeltaFrameReader</code> to decode the frames and <code>DeltaFrameExporter</code>
+ * to convert a recording into a playable video.
+ *
+ * @author Frank Kopp
+ */
+public class DeltaFrameWriter implements FrameWriter {
+
+  public static final String FILE_EXTENSION = "jdf";
+
+  public static final int MAGIC = 0x4A444631; // 'JDF1'
+  public static final byte KEYFRAME = 1;
+  public static final byte DELTA_FRAME = 2;
+
+  public static final int DEFAULT_TILE_SIZE = 16;
+  public static final int DEFAULT_KEYFRAME_INTERVAL = 100;
+
+  private final Path path;
+  private final int period;
+  private final int tileSize;
+  private final int keyframeInterval;
+
+  private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+  private DataOutputStream out = null;
+
+  private int width;
+  private int height;
+  private int tilesX;
+  private int tilesY;
+
+  // pixels of the previous frame and of the current frame if it is not TYPE_INT_RGB
+  private int[] previous;
+  private int[] converted;
+
+  // raw and deflated payload - sized for a keyframe so they never grow
+  private byte[] payload;
+  private byte[] deflated;
+
+  private long frameCounter = 0;
+  private long keyframeCounter = 0;
+  private long changedTilesCounter = 0;
+
+  /**
+   * @param path the file to create
+   * @param period the interval between frames in ms
+   */
+  public DeltaFrameWriter(Path path, int period) {
+    this(path, period, DEFAULT_TILE_SIZE, DEFAULT_KEYFRAME_INTERVAL);
+  }
+
+  /**
+   * @param path the file to create
+   * @param period the interval between frames in ms
+   * @param tileSize width and height of the compared tiles in pixels
+   * @param keyframeInterval number of frames from one keyframe to the next
+   */
+  public DeltaFrameWriter(Path path, int period, int tileSize, int keyframeInterval) {
+    if (tileSize < 1) throw new IllegalArgumentException("Tile size must be at least 1");
+    if (keyframeInterval < 1) throw new IllegalArgumentException("Interval must be at least 1");
+    this.path = path;
+    this.period = period;
+    this.tileSize = tileSize;
+    this.keyframeInterval = keyframeInterval;
+  }
+
+  /**
+   * Compares the frame with the previous frame and stores the changed tiles. The encoded data is
+   * not used.
+   *
+   * @see FrameWriter#write(BufferedImage, byte[], int)
+   */
+  @Override
+  public void write(BufferedImage frame, byte[] data, int length) throws IOException {
+    if (out == null) open(frame.getWidth(), frame.getHeight());
+    if (frame.getWidth() != width || frame.getHeight() != height) {
+      throw new IOException(
+          String.format(
+              "Frame size %dx%d differs from recording size %dx%d",
+              frame.getWidth(), frame.getHeight(), width, height));
+    }
+
+    final int[] pixels = pixelsOf(frame);
+
+    if (frameCounter % keyframeInterval == 0) {
+      System.arraycopy(pixels, 0, previous, 0, pixels.length);
+      int pos = 0;
+      for (int pixel : pixels) {
+        pos = putRgb(pixel, pos);
+      }
+      writeFrame(KEYFRAME, tilesX * tilesY, pos);
+      keyframeCounter++;
+    } else {
+      int pos = 0;
+      int changedTiles = 0;
+      for (int tileY = 0; tileY < tilesY; tileY++) {
+        final int y0 = tileY * tileSize;
+        final int y1 = Math.min(y0 + tileSize, height);
+        for (int tileX = 0; tileX < tilesX; tileX++) {
+          final int x0 = tileX * tileSize;
+          final int tileWidth = Math.min(tileSize, width - x0);
+          if (!tileChanged(pixels, x0, y0, y1, tileWidth)) continue;
+          changedTiles++;
+          pos = putInt(tileY * tilesX + tileX, pos);
+          for (int y = y0; y < y1; y++) {
+            final int row = y * width + x0;
+            System.arraycopy(pixels, row, previous, row, tileWidth);
+            for (int i = row; i < row + tileWidth; i++) {
+              pos = putRgb(pixels[i], pos);
+            }
+          }
+        }
+      }
+      writeFrame(DELTA_FRAME, changedTiles, pos);
+      changedTilesCounter += changedTiles;
+    }
+    frameCounter++;
+  }
+
+  private void open(int width, int height) throws IOException {
+    this.width = width;
+    this.height = height;
+    this.tilesX = (width + tileSize - 1) / tileSize;
+    this.tilesY = (height + tileSize - 1) / tileSize;
+    this.previous = new int[width * height];
+    // a delta frame with all tiles changed is the largest payload
+    this.payload = new byte[width * height * 3 + tilesX * tilesY * 4];
+    this.deflated = new byte[payload.length + payload.length / 1000 + 64];
+
+    out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+    out.writeInt(MAGIC);
+    out.writeInt(width);
+    out.writeInt(height);
+    out.writeInt(tileSize);
+    out.writeInt(period * 1000);
+  }
+
+  private int[] pixelsOf(BufferedImage frame) {
+    if (frame.getType() == BufferedImage.TYPE_INT_RGB
+        || frame.getType() == BufferedImage.TYPE_INT_ARGB) {
+      return ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+    }
+    if (converted == null) converted = new int[width * height];
+    frame.getRGB(0, 0, width, height, converted, 0, width);
+    return converted;
+  }
+
+  private boolean tileChanged(int[] pixels, int x0, int y0, int y1, int tileWidth) {
+    for (int y = y0; y < y1; y++) {
+      final int row = y * width + x0;
+      for (int i = row; i < row + tileWidth; i++) {
+        if (((pixels[i] ^ previous[i]) & 0xFFFFFF) != 0) return true;
+      }
+    }
+    return false;
+  }
+
+  private int putRgb(int pixel, int pos) {
+    payload[pos] = (byte) (pixel >>> 16);
+    payload[pos + 1] = (byte) (pixel >>> 8);
+    payload[pos + 2] = (byte) pixel;
+    return pos + 3;
+  }
+
+  private int putInt(int value, int pos) {
+    payload[pos] = (byte) (value >>> 24);
+    payload[pos + 1] = (byte) (value >>> 16);
+    payload[pos + 2] = (byte) (value >>> 8);
+    payload[pos + 3] = (byte) value;
+    return pos + 4;
+  }
+
+  private void writeFrame(byte type, int tiles, int length) throws IOException {
+    deflater.reset();
+    deflater.setInput(payload, 0, length);
+    deflater.finish();
+    int deflatedLength = 0;
+    while (!deflater.finished()) {
+      if (deflatedLength == deflated.length) {
+        throw new IOException("Deflated frame exceeds buffer of " + deflated.length + " bytes");
+      }
+      deflatedLength +=
+          deflater.deflate(deflated, deflatedLength, deflated.length - deflatedLength);
+    }
+    out.writeByte(type);
+    out.writeInt(tiles);
+    out.writeInt(length);
+    out.writeInt(deflatedLength);
+    out.write(deflated, 0, deflatedLength);
+  }
+
+  /** @see java.io.Closeable#close() */
+  @Override
+  public void close() throws IOException {
+    deflater.end();
+    if (out != null) out.close();
+  }
+
+  /** @return number of frames written so far */
+  public long getFrames() {
+    return frameCounter;
+  }
+
+  /** @return number of keyframes written so far */
+  public long getKeyframes() {
+    return keyframeCounter;
+  }
+
+  /** @return number of changed tiles written in delta frames so far */
+  public long getChangedTiles() {
+    return changedTilesCounter;
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.recorder;
+
+/**
+ * DropPolicy
+ *
+ * <p>Defines what the <code>Recorder</code> does with a captured frame when its frame queue is
+ * full because encoding has fallen behind capturing.
+ *
+ * @author Frank Kopp
+ */
+public enum DropPolicy {
+
+  /** Drops the oldest queued frame to make room for the new one. */
+  DROP_OLDEST,
+
+  /** Drops the new frame and keeps the queued frames. */
+  DROP_NEWEST,
+
+  /**
+   * Blocks the capturing thread until there is room in the queue. No frames are lost but the
+   * capture stalls. Not allowed in <code>CaptureMode.SNAPSHOT</code> where the capturing thread is
+   * the JavaFX Application Thread - the game would stall as well.
+   */
+  BLOCK
+}
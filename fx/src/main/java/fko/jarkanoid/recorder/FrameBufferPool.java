@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.recorder;
+
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FrameBufferPool
+ *
+ * <p>Fixed number of reusable <code>TYPE_INT_RGB</code> frames of one size. Frames are created
+ * lazily until the pool size is reached and afterwards only handed out again after they have been
+ * released. Once the recording pipeline is warmed up no frame memory is allocated anymore, which
+ * keeps large short lived images out of the old generation of the heap.
+ *
+ * <p>Frames which have not been created by the pool are ignored on release so callers may mix
+ * pooled and foreign frames. All methods are thread safe.
+ *
+ * @author Frank Kopp
+ */
+public class FrameBufferPool {
+
+  private final int width;
+  private final int height;
+  private final int size;
+
+  private final ArrayBlockingQueue<BufferedImage> freeFrames;
+  private final Set<BufferedImage> pooledFrames =
+      Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+  private final AtomicLong exhaustedCounter = new AtomicLong(0);
+
+  /**
+   * @param width width of the frames in pixels
+   * @param height height of the frames in pixels
+   * @param size maximum number of frames held by the pool
+   */
+  public FrameBufferPool(int width, int height, int size) {
+    if (width < 1 || height < 1) throw new IllegalArgumentException("Invalid frame size");
+    if (size < 1) throw new IllegalArgumentException("Size must be at least 1");
+    this.width = width;
+    this.height = height;
+    this.size = size;
+    this.freeFrames = new ArrayBlockingQueue<>(size);
+  }
+
+  /**
+   * Hands out a free frame. The content of the frame is undefined.
+   *
+   * @return a free frame or null if all frames of the pool are in use
+   */
+  public BufferedImage acquire() {
+    BufferedImage frame = freeFrames.poll();
+    if (frame != null) return frame;
+    synchronized (pooledFrames) {
+      if (pooledFrames.size() < size) {
+        frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        pooledFrames.add(frame);
+        return frame;
+      }
+    }
+    exhaustedCounter.incrementAndGet();
+    return null;
+  }
+
+  /**
+   * Returns a frame to the pool. Frames not created by this pool are ignored. A frame must only
+   * be released once per acquire.
+   *
+   * @param frame the frame which is not used anymore
+   */
+  public void release(BufferedImage frame) {
+    if (frame == null || !pooledFrames.contains(frame)) return;
+    freeFrames.offer(frame);
+  }
+
+  /** @return width of the frames in pixels */
+  public int getWidth() {
+    return width;
+  }
+
+  /** @return height of the frames in pixels */
+  public int getHeight() {
+    return height;
+  }
+
+  /** @return maximum number of frames held by the pool */
+  public int getSize() {
+    return size;
+  }
+
+  /** @return number of frames created so far */
+  public int getAllocatedFrames() {
+    return pooledFrames.size();
+  }
+
+  /** @return number of frames currently available without creating a new one */
+  public int getFreeFrames() {
+    return freeFrames.size();
+  }
+
+  /** @return number of times a frame was requested while all frames were in use */
+  public long getExhaustedCount() {
+    return exhaustedCounter.get();
+  }
+}
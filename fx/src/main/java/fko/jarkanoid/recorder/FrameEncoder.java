@@ -0,0 +1,52 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.recorder;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * FrameEncoder
+ *
+ * <p>Compresses a captured frame. Encoders are called concurrently from all save threads and
+ * therefore must be thread safe.
+ *
+ * @author Frank Kopp
+ */
+public interface FrameEncoder {
+
+  /**
+   * Encodes the frame into the given stream.
+   *
+   * @param frame the captured frame
+   * @param out the stream receiving the encoded frame
+   * @throws IOException if the frame could not be encoded
+   */
+  void encode(BufferedImage frame, ReusableByteArrayOutputStream out) throws IOException;
+
+  /** @return the file extension for files with a single encoded frame */
+  String getFileExtension();
+}
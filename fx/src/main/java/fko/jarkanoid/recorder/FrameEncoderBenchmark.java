@@ -0,0 +1,211 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.recorder;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FrameEncoderBenchmark
+ *
+ * <p>Measures how many frames per second the frame encoders achieve when encoding in parallel like
+ * the save threads of the <code>Recorder</code> and compares them with plain <code>ImageIO</code>
+ * PNG encoding. Without a folder synthetic frames resembling the playfield are encoded.
+ *
+ * <p>Usage: <code>FrameEncoderBenchmark [framesFolder] [threads] [seconds]</code>
+ *
+ * @author Frank Kopp
+ */
+public class FrameEncoderBenchmark {
+
+  private static final int FRAME_WIDTH = 780;
+  private static final int FRAME_HEIGHT = 710;
+  private static final int SYNTHETIC_FRAMES = 60;
+  private static final int DEFAULT_SECONDS = 5;
+
+  private FrameEncoderBenchmark() {}
+
+  public static void main(String[] args) throws Exception {
+    final List<BufferedImage> frames =
+        args.length > 0 ? loadFrames(Paths.get(args[0])) : createFrames();
+    final int threads =
+        args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+    final int seconds = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_SECONDS;
+
+    // encode in memory like the recorder instead of through temporary cache files
+    ImageIO.setUseCache(false);
+
+    final Map<String, FrameEncoder> encoders = new LinkedHashMap<>();
+    encoders.put("ImageIO PNG", new ImageIoPngEncoder());
+    encoders.put("PngEncoder speed", new PngFrameEncoder(PngFrameEncoder.BEST_SPEED, false));
+    encoders.put("PngEncoder level 6", new PngFrameEncoder(6, false));
+    encoders.put(
+        "PngEncoder best", new PngFrameEncoder(PngFrameEncoder.BEST_COMPRESSION, false));
+    encoders.put("PngEncoder indexed", new PngFrameEncoder(PngFrameEncoder.BEST_SPEED, true));
+    encoders.put("ImageIO JPEG 0.75", new JpegFrameEncoder(0.75f));
+
+    System.out.printf(
+        "Encoding %d frames of %dx%d with %d threads for %d s each%n",
+        frames.size(), frames.get(0).getWidth(), frames.get(0).getHeight(), threads, seconds);
+    System.out.printf("%-20s %10s %12s%n", "Encoder", "frames/s", "KB/frame");
+
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      double baseline = 0;
+      for (Map.Entry<String, FrameEncoder> entry : encoders.entrySet()) {
+        // warm up before measuring
+        run(executor, threads, entry.getValue(), frames, 1);
+        final Result result = run(executor, threads, entry.getValue(), frames, seconds);
+        if (baseline == 0) baseline = result.fps;
+        System.out.printf(
+            "%-20s %10.1f %12.1f   x%.2f%n",
+            entry.getKey(), result.fps, result.bytesPerFrame / 1024, result.fps / baseline);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static Result run(
+      ExecutorService executor,
+      int threads,
+      FrameEncoder encoder,
+      List<BufferedImage> frames,
+      int seconds)
+      throws Exception {
+
+    final AtomicLong encodedFrames = new AtomicLong();
+    final AtomicLong encodedBytes = new AtomicLong();
+    final long startTime = System.nanoTime();
+    final long endTime = startTime + seconds * 1_000_000_000L;
+
+    final List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      final int offset = t;
+      futures.add(
+          executor.submit(
+              () -> {
+                final ReusableByteArrayOutputStream out =
+                    new ReusableByteArrayOutputStream(256 * 1024);
+                int i = offset;
+                while (System.nanoTime() < endTime) {
+                  out.reset();
+                  encoder.encode(frames.get(i++ % frames.size()), out);
+                  encodedFrames.incrementAndGet();
+                  encodedBytes.addAndGet(out.size());
+                }
+                return null;
+              }));
+    }
+    for (Future<?> future : futures) future.get();
+
+    final double elapsed = (System.nanoTime() - startTime) / 1e9;
+    return new Result(
+        encodedFrames.get() / elapsed, (double) encodedBytes.get() / encodedFrames.get());
+  }
+
+  /** Creates frames with bricks, paddle and a moving ball in the colors of the game */
+  private static List<BufferedImage> createFrames() {
+    final Color[] brickColors = {
+      Color.GRAY, Color.ORANGE, Color.CYAN, Color.GREEN, Color.RED, Color.BLUE, Color.MAGENTA,
+      Color.YELLOW, Color.LIGHT_GRAY
+    };
+    final List<BufferedImage> frames = new ArrayList<>();
+    for (int f = 0; f < SYNTHETIC_FRAMES; f++) {
+      final BufferedImage frame =
+          new BufferedImage(FRAME_WIDTH, FRAME_HEIGHT, BufferedImage.TYPE_INT_RGB);
+      final Graphics2D g = frame.createGraphics();
+      g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      g.setColor(new Color(0, 0, 64));
+      g.fillRect(0, 0, FRAME_WIDTH, FRAME_HEIGHT);
+      for (int row = 0; row < 8; row++) {
+        for (int col = 0; col < 13; col++) {
+          g.setColor(brickColors[(row + col) % brickColors.length]);
+          g.fillRect(col * 60 + 1, 100 + row * 30 + 1, 58, 28);
+        }
+      }
+      g.setColor(Color.WHITE);
+      g.fillRoundRect(315 + f * 4, 670, 150, 20, 10, 10);
+      g.fillOval(100 + f * 9, 600 - f * 5, 12, 12);
+      g.dispose();
+      frames.add(frame);
+    }
+    return frames;
+  }
+
+  private static List<BufferedImage> loadFrames(Path folder) throws IOException {
+    final List<BufferedImage> frames = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, "*.{png,jpg}")) {
+      for (Path file : files) {
+        final BufferedImage image = ImageIO.read(file.toFile());
+        final BufferedImage frame =
+            new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        frame.getGraphics().drawImage(image, 0, 0, null);
+        frames.add(frame);
+      }
+    }
+    if (frames.isEmpty()) throw new IllegalArgumentException("No frames found in " + folder);
+    return frames;
+  }
+
+  /** PNG encoding with the standard <code>ImageIO</code> writer as baseline */
+  private static class ImageIoPngEncoder implements FrameEncoder {
+
+    @Override
+    public void encode(BufferedImage frame, ReusableByteArrayOutputStream out) throws IOException {
+      ImageIO.write(frame, "png", out);
+    }
+
+    @Override
+    public String getFileExtension() {
+      return "png";
+    }
+  }
+
+  private static class Result {
+    final double fps;
+    final double bytesPerFrame;
+
+    Result(double fps, double bytesPerFrame) {
+      this.fps = fps;
+      this.bytesPerFrame = bytesPerFrame;
+    }
+  }
+}
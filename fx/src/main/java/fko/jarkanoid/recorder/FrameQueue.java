@@ -0,0 +1,159 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.recorder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * FrameQueue
+ *
+ * <p>Bounded queue between capturing and encoding of frames. When the queue is full a new frame is
+ * handled according to the <code>DropPolicy</code>. Memory use is therefore limited to the capacity
+ * of the queue regardless of how long a recording runs.
+ *
+ * <p>Dropped frames are handed to an optional drop handler, e.g. to return them to a <code>
+ * FrameBufferPool</code>.
+ *
+ * <p>Counts offered and dropped frames and tracks the highest queue depth for monitoring.
+ *
+ * @param <T> type of the queued frames
+ * @author Frank Kopp
+ */
+public class FrameQueue<T> {
+
+  private final ArrayBlockingQueue<T> queue;
+  private final DropPolicy dropPolicy;
+  private final Consumer<? super T> dropHandler;
+
+  private final AtomicLong offeredFrames = new AtomicLong(0);
+  private final AtomicLong droppedFrames = new AtomicLong(0);
+  private volatile int maxDepth = 0;
+
+  /**
+   * @param capacity maximum number of queued frames
+   * @param dropPolicy what to do with new frames when the queue is full
+   */
+  public FrameQueue(int capacity, DropPolicy dropPolicy) {
+    this(capacity, dropPolicy, frame -> {});
+  }
+
+  /**
+   * @param capacity maximum number of queued frames
+   * @param dropPolicy what to do with new frames when the queue is full
+   * @param dropHandler receives every frame dropped by this queue
+   */
+  public FrameQueue(int capacity, DropPolicy dropPolicy, Consumer<? super T> dropHandler) {
+    if (capacity < 1) throw new IllegalArgumentException("Capacity must be at least 1");
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.dropPolicy = dropPolicy;
+    this.dropHandler = dropHandler;
+  }
+
+  /**
+   * Adds a frame to the queue according to the drop policy.
+   *
+   * @param frame the new frame
+   * @return true if the new frame has been queued, false if it has been dropped
+   * @throws InterruptedException when interrupted while blocked with <code>DropPolicy.BLOCK</code>
+   */
+  public boolean offer(T frame) throws InterruptedException {
+    offeredFrames.incrementAndGet();
+    switch (dropPolicy) {
+      case DROP_OLDEST:
+        while (!queue.offer(frame)) {
+          final T oldest = queue.poll();
+          if (oldest != null) {
+            droppedFrames.incrementAndGet();
+            dropHandler.accept(oldest);
+          }
+        }
+        break;
+      case DROP_NEWEST:
+        if (!queue.offer(frame)) {
+          droppedFrames.incrementAndGet();
+          dropHandler.accept(frame);
+          return false;
+        }
+        break;
+      case BLOCK:
+        queue.put(frame);
+        break;
+    }
+    final int depth = queue.size();
+    if (depth > maxDepth) maxDepth = depth;
+    return true;
+  }
+
+  /**
+   * Retrieves and removes the oldest frame, waiting up to the specified time if necessary.
+   *
+   * @param timeout how long to wait
+   * @param unit unit of timeout
+   * @return the oldest frame or null if none was available in time
+   * @throws InterruptedException when interrupted while waiting
+   */
+  public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+    return queue.poll(timeout, unit);
+  }
+
+  /** @return true if no frames are queued */
+  public boolean isEmpty() {
+    return queue.isEmpty();
+  }
+
+  /** @return current number of queued frames */
+  public int getDepth() {
+    return queue.size();
+  }
+
+  /** @return highest number of queued frames so far */
+  public int getMaxDepth() {
+    return maxDepth;
+  }
+
+  /** @return maximum number of queued frames */
+  public int getCapacity() {
+    return queue.size() + queue.remainingCapacity();
+  }
+
+  /** @return the policy applied when the queue is full */
+  public DropPolicy getDropPolicy() {
+    return dropPolicy;
+  }
+
+  /** @return number of frames offered to this queue so far */
+  public long getOfferedFrames() {
+    return offeredFrames.get();
+  }
+
+  /** @return number of frames dropped because the queue was full */
+  public long getDroppedFrames() {
+    return droppedFrames.get();
+  }
+}
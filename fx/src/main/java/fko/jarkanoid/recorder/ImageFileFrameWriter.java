@@ -0,0 +1,68 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.recorder;
+
+import java.awt.image.BufferedImage;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * ImageFileFrameWriter
+ *
+ * <p>Writes every frame as an individual timestamped image file into a folder.
+ *
+ * @author Frank Kopp
+ */
+public class ImageFileFrameWriter implements FrameWriter {
+
+  private final Path folder;
+  private final String extension;
+
+  /**
+   * @param folder the folder for the image files
+   * @param extension the file extension matching the encoding of the frames
+   */
+  public ImageFileFrameWriter(Path folder, String extension) {
+    this.folder = folder;
+    this.extension = extension;
+  }
+
+  /** @see FrameWriter#write(BufferedImage, byte[], int) */
+  @Override
+  public void write(BufferedImage frame, byte[] data, int length) throws IOException {
+    final Path file = folder.resolve(System.nanoTime() + "_Screenshot." + extension);
+    try (FileOutputStream out = new FileOutputStream(file.toFile())) {
+      out.write(data, 0, length);
+    }
+  }
+
+  /** @see java.io.Closeable#close() */
+  @Override
+  public void close() {
+    // nothing to close
+  }
+}
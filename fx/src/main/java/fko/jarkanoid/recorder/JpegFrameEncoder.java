@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.recorder;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * JpegFrameEncoder
+ *
+ * <p>Encodes frames as JPEG with <code>ImageIO</code>. Each save thread uses its own <code>
+ * ImageWriter</code> as writers are not thread safe.
+ *
+ * @author Frank Kopp
+ */
+public class JpegFrameEncoder implements FrameEncoder {
+
+  private final float quality;
+
+  private final ThreadLocal<ImageWriter> writer =
+      ThreadLocal.withInitial(() -> ImageIO.getImageWritersByFormatName("jpg").next());
+
+  /** @param quality JPEG quality between 0 (smallest) and 1 (best) */
+  public JpegFrameEncoder(float quality) {
+    if (quality < 0 || quality > 1) throw new IllegalArgumentException("Quality must be in [0,1]");
+    this.quality = quality;
+  }
+
+  /** @see FrameEncoder#encode(BufferedImage, ReusableByteArrayOutputStream) */
+  @Override
+  public void encode(BufferedImage frame, ReusableByteArrayOutputStream out) throws IOException {
+    final ImageWriter jpegWriter = writer.get();
+    final ImageWriteParam param = jpegWriter.getDefaultWriteParam();
+    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+    param.setCompressionQuality(quality);
+    try (ImageOutputStream ios = new MemoryCacheImageOutputStream(out)) {
+      jpegWriter.setOutput(ios);
+      jpegWriter.write(null, new IIOImage(frame, null, null), param);
+    } finally {
+      jpegWriter.setOutput(null);
+    }
+  }
+
+  /** @see FrameEncoder#getFileExtension() */
+  @Override
+  public String getFileExtension() {
+    return "jpg";
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.recorder;
+
+/**
+ * OutputFormat
+ *
+ * <p>Defines how the <code>Recorder</code> stores the recorded frames.
+ *
+ * @author Frank Kopp
+ */
+public enum OutputFormat {
+
+  /** Every frame is written as an individual timestamped JPEG file. */
+  JPEG_FILES,
+
+  /**
+   * All frames are streamed as motion JPEG into a single AVI file per recording which can be
+   * played by standard players.
+   */
+  MJPEG_AVI,
+
+  /** Every frame is written lossless as an individual timestamped PNG file. */
+  PNG_FILES,
+
+  /**
+   * All frames are streamed lossless as motion PNG into a single AVI file per recording. Larger
+   * than motion JPEG and not supported by all players but without compression artifacts.
+   */
+  MPNG_AVI,
+
+  /**
+   * Only the tiles which changed since the previous frame are stored in a single compact delta
+   * frame file per recording. Use <code>DeltaFrameExporter</code> to convert it into a video.
+   */
+  DELTA_TILES
+}
@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.recorder;
+
+import com.objectplanet.image.PngEncoder;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * PngFrameEncoder
+ *
+ * <p>Encodes frames lossless as PNG with the bundled <code>com.objectplanet.image.PngEncoder</code>
+ * which is considerably faster than <code>ImageIO</code>. Each save thread uses its own encoder as
+ * the encoder is synchronized.
+ *
+ * <p>Indexed color output stores one byte per pixel and is much smaller for our limited palette.
+ * It is only lossless as long as a frame has at most 256 colors - frames with more colors are
+ * reduced to 256 colors by the encoder.
+ *
+ * @author Frank Kopp
+ */
+public class PngFrameEncoder implements FrameEncoder {
+
+  /** Fastest compression level */
+  public static final int BEST_SPEED = PngEncoder.BEST_SPEED;
+
+  /** Smallest compression level */
+  public static final int BEST_COMPRESSION = PngEncoder.BEST_COMPRESSION;
+
+  private final int compression;
+  private final boolean indexed;
+
+  private final ThreadLocal<PngEncoder> encoder = ThreadLocal.withInitial(this::createEncoder);
+
+  /**
+   * @param compression compression level between <code>BEST_SPEED</code> (1) and <code>
+   *     BEST_COMPRESSION</code> (9)
+   * @param indexed true for indexed color output with a palette of up to 256 colors
+   */
+  public PngFrameEncoder(int compression, boolean indexed) {
+    if (compression < BEST_SPEED || compression > BEST_COMPRESSION) {
+      throw new IllegalArgumentException(
+          "Compression must be in [" + BEST_SPEED + "," + BEST_COMPRESSION + "]");
+    }
+    this.compression = compression;
+    this.indexed = indexed;
+  }
+
+  private PngEncoder createEncoder() {
+    if (indexed) {
+      final PngEncoder pngEncoder = new PngEncoder(PngEncoder.COLOR_INDEXED, compression);
+      pngEncoder.setIndexedColorMode(PngEncoder.INDEXED_COLORS_AUTO);
+      return pngEncoder;
+    }
+    return new PngEncoder(PngEncoder.COLOR_TRUECOLOR, compression);
+  }
+
+  /** @see FrameEncoder#encode(BufferedImage, ReusableByteArrayOutputStream) */
+  @Override
+  public void encode(BufferedImage frame, ReusableByteArrayOutputStream out) throws IOException {
+    encoder.get().encode(frame, out);
+  }
+
+  /** @see FrameEncoder#getFileExtension() */
+  @Override
+  public String getFileExtension() {
+    return "png";
+  }
+
+  /** @return compression level between 1 (fastest) and 9 (smallest) */
+  public int getCompression() {
+    return compression;
+  }
+
+  /** @return true if frames are encoded with indexed colors */
+  public boolean isIndexed() {
+    return indexed;
+  }
+}
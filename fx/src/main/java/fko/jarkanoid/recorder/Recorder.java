@@ -0,0 +1,746 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.recorder;
+
+import fko.jarkanoid.Jarkanoid;
+import fko.jarkanoid.jfr.FrameCaptureEvent;
+import fko.jarkanoid.jfr.FrameEncodeEvent;
+import javafx.application.Platform;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.stage.Stage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recorder
+ *
+ * <p>Records screenshot from node of JavaFX in ficed intervalls
+ *
+ * <p>By default frames are captured with <code>CaptureMode.SNAPSHOT</code> directly from the
+ * capture node on the render pulse. This needs no real screen and can be restricted to a region
+ * of the node and downscaled. <code>CaptureMode.SCREEN</code> grabs the primary stage from the
+ * screen with <code>java.awt.Robot</code> instead. With <code>CaptureMode.MANUAL</code> the
+ * caller decides when a frame is captured, e.g. to render a replayed game offline.
+ *
+ * <p>Captured frames go through a bounded <code>FrameQueue</code> to a fixed number of save
+ * threads. At most one frame per save thread is handed to the save executor at a time. When
+ * saving falls behind, the queue fills up and the <code>DropPolicy</code> decides whether the
+ * oldest or the newest frame is dropped or whether the capture blocks. Blocking is not allowed in
+ * <code>CaptureMode.SNAPSHOT</code> as it would stall the game. The number of frames held in
+ * memory is therefore bounded for arbitrarily long recordings.
+ *
+ * <p>In <code>CaptureMode.SNAPSHOT</code> frames are rendered into the reusable frames of a <code>
+ * FrameBufferPool</code> sized to the capture region. Frames return to the pool after they have
+ * been written or dropped. The pool holds enough frames for a full queue and all save threads so
+ * a running recording does not allocate any frame memory. <code>java.awt.Robot</code> always
+ * creates a new image per screen grab so <code>CaptureMode.SCREEN</code> frames are not pooled.
+ *
+ * <p>The save threads encode the frames in parallel with a <code>FrameEncoder</code>. The encoded
+ * frames are then handed to a <code>FrameWriter</code> strictly in capture order. With the default
+ * <code>OutputFormat.MJPEG_AVI</code> all frames of a recording are streamed into a single AVI
+ * file instead of creating one file per frame. <code>OutputFormat.PNG_FILES</code> and <code>
+ * OutputFormat.MPNG_AVI</code> record lossless with the faster <code>PngFrameEncoder</code>.
+ * <code>OutputFormat.DELTA_TILES</code> stores only the changed parts of each frame.
+ *
+ * @author Frank Kopp
+ */
+public class Recorder implements Runnable {
+
+  private static Logger LOG = LoggerFactory.getLogger(Recorder.class);
+
+  public static final String SCREENSHOTS_FOLDER = "screenshots/";
+
+  // default pipeline settings
+  private static final int DEFAULT_QUEUE_CAPACITY = 16;
+  private static final int DEFAULT_SAVE_THREADS = 8;
+  private static final int DEFAULT_PERIOD = 32;
+  private static final float DEFAULT_JPEG_QUALITY = 0.75f;
+  private static final int DEFAULT_PNG_COMPRESSION = PngFrameEncoder.BEST_SPEED;
+
+  private static final DateTimeFormatter FILE_NAME_TIME_FORMAT =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+  private ScheduledThreadPoolExecutor genExecutor;
+  private ThreadPoolExecutor saveExecutor;
+
+  // one permit per save thread so the executor never queues more than it can work on
+  private Semaphore savePermits = new Semaphore(DEFAULT_SAVE_THREADS);
+
+  private FrameQueue<BufferedImage> queue;
+  private volatile FrameBufferPool framePool;
+
+  // encoding and ordered writing of frames
+  private final ThreadLocal<ReusableByteArrayOutputStream> encodeBuffer =
+      ThreadLocal.withInitial(() -> new ReusableByteArrayOutputStream(256 * 1024));
+  private final Object writeLock = new Object();
+  private FrameEncoder frameEncoder;
+  private FrameWriter frameWriter;
+  private long nextSaveSequence;
+  private long nextWriteSequence;
+
+  private AtomicLong genCounter = new AtomicLong(0);
+  private AtomicLong saveCounter = new AtomicLong(0);
+
+  private AtomicBoolean isStopped = new AtomicBoolean(false);
+
+  private Thread recorderThread = null;
+
+  // capture settings
+  private CaptureMode captureMode = CaptureMode.SNAPSHOT;
+  private Node captureNode;
+  private Rectangle2D captureRegion = null;
+  private double captureScale = 1.0;
+
+  // pipeline settings
+  private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+  private DropPolicy dropPolicy = DropPolicy.DROP_OLDEST;
+  private OutputFormat outputFormat = OutputFormat.MJPEG_AVI;
+  private float jpegQuality = DEFAULT_JPEG_QUALITY;
+  private int pngCompression = DEFAULT_PNG_COMPRESSION;
+  private boolean pngIndexed = false;
+  private int saveThreads = DEFAULT_SAVE_THREADS;
+  private Path outputPath = null;
+
+  private int period = DEFAULT_PERIOD;
+  private volatile long startTime;
+
+  private Robot robot = null;
+  private SnapshotCapture snapshotCapture = null;
+
+  public Recorder() {}
+
+  /** Starts a recording with the configured period */
+  public void start() {
+    start(period);
+  }
+
+  /**
+   * @param period the intervall of capturing in ms
+   * @throws IllegalStateException if the recorder is running or <code>DropPolicy.BLOCK</code> is
+   *     used with <code>CaptureMode.SNAPSHOT</code>
+   */
+  public void start(int period) {
+    if (recorderThread != null) throw new IllegalStateException("Thread excists. Not stopped yet.");
+    if (captureMode == CaptureMode.SNAPSHOT && dropPolicy == DropPolicy.BLOCK) {
+      // snapshots are queued on the JavaFX Application Thread which must never wait for the disk
+      throw new IllegalStateException("DropPolicy.BLOCK cannot be used with CaptureMode.SNAPSHOT.");
+    }
+
+    setPeriod(period);
+    startTime = System.nanoTime();
+
+    switch (captureMode) {
+      case SCREEN:
+        if (robot == null) {
+          try {
+            robot = new Robot();
+          } catch (AWTException | SecurityException e) {
+            LOG.error("" + e);
+            throw new RuntimeException("Robot is not initialized.", e);
+          }
+        }
+        break;
+      case SNAPSHOT:
+      case MANUAL:
+        if (captureNode == null) throw new IllegalStateException("No capture node set.");
+        break;
+    }
+
+    // fresh pipeline for each recording
+    isStopped.set(false);
+    genCounter.set(0);
+    saveCounter.set(0);
+    nextSaveSequence = 0;
+    nextWriteSequence = 0;
+    framePool = null;
+    snapshotCapture = null;
+    savePermits = new Semaphore(saveThreads);
+    queue = new FrameQueue<>(queueCapacity, dropPolicy, this::releaseFrame);
+    createEncoderAndWriter();
+    genExecutor = new ScheduledThreadPoolExecutor(1);
+    saveExecutor =
+        new ThreadPoolExecutor(
+            saveThreads,
+            saveThreads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<Runnable>(saveThreads));
+
+    recorderThread = new Thread(this, "Recorder Thread");
+    recorderThread.setDaemon(false);
+
+    recorderThread.start();
+  }
+
+  public void stop() {
+    if (recorderThread == null) return;
+
+    LOG.debug("Recorder shutting down...");
+
+    isStopped.set(true);
+    final SnapshotCapture capture = snapshotCapture;
+    runOnFxThread(
+        () -> {
+          if (capture != null) capture.stop();
+        });
+
+    try {
+      LOG.debug("Shut down - await termination.");
+      recorderThread.join();
+      genExecutor.awaitTermination(2, TimeUnit.SECONDS);
+      saveExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      LOG.warn("While stopping recording", (e));
+    }
+
+    try {
+      frameWriter.close();
+    } catch (IOException e) {
+      LOG.error("While closing recording", e);
+    }
+
+    recorderThread = null;
+
+    LOG.info(
+        "Recording stopped - captured {} frames, saved {} frames, dropped {} frames (max queue"
+            + " depth {}/{}, pooled frames {})",
+        queue.getOfferedFrames(),
+        saveCounter.get(),
+        getDroppedFrames(),
+        queue.getMaxDepth(),
+        queue.getCapacity(),
+        getAllocatedFrames());
+  }
+
+  public void run() {
+
+    LOG.info(
+        "Recording started - storing screenshots in {} every {} ms", SCREENSHOTS_FOLDER, period);
+
+    switch (captureMode) {
+      case SCREEN:
+        genExecutor.scheduleAtFixedRate(
+            () -> takeScreenShotAndQueue(), 0, period, TimeUnit.MILLISECONDS);
+        break;
+      case SNAPSHOT:
+        runOnFxThread(
+            () -> {
+              createSnapshotCapture();
+              snapshotCapture.start(period, framePool::acquire, this::queueSnapshot);
+            });
+        break;
+      case MANUAL:
+        // frames are captured by captureFrame()
+        break;
+    }
+
+    while (!(isStopped.get() && queue.isEmpty())) {
+      try {
+        // poll so that we notice a stop even when no more frames are captured
+        final BufferedImage image = queue.poll(period, TimeUnit.MILLISECONDS);
+        if (image != null) {
+          // wait for a free save thread - meanwhile new frames pile up in the bounded queue
+          savePermits.acquire();
+          final long sequence = nextSaveSequence++;
+          saveExecutor.execute(
+              () -> {
+                try {
+                  saveImage(sequence, image);
+                } finally {
+                  savePermits.release();
+                }
+              });
+        }
+      } catch (InterruptedException e) {
+        e.printStackTrace();
+      }
+      if (isStopped.get() && !genExecutor.isShutdown()) {
+        LOG.info("Shutdown taking snapshots...");
+        genExecutor.shutdown();
+        LOG.info("Saving queued snapshots to disk...");
+      }
+    }
+    LOG.debug("Shutdown saving snapshots...");
+    saveExecutor.shutdown();
+  }
+
+  private void takeScreenShotAndQueue() {
+    long startTime = System.nanoTime();
+    final FrameCaptureEvent event = new FrameCaptureEvent();
+    event.begin();
+
+    final Stage primaryStage = Jarkanoid.getPrimaryStage();
+
+    Rectangle stageRect =
+        new Rectangle(
+            (int) (primaryStage.getX()),
+            (int) primaryStage.getY(),
+            (int) primaryStage.getWidth(),
+            (int) primaryStage.getHeight());
+
+    final BufferedImage screenshotBI = robot.createScreenCapture(stageRect);
+    if (event.shouldCommit()) {
+      event.captureMode = CaptureMode.SCREEN.name();
+      event.width = screenshotBI.getWidth();
+      event.height = screenshotBI.getHeight();
+      event.commit();
+    }
+
+    // add it to our buffer
+    queueFrame(screenshotBI);
+
+    long endTime = System.nanoTime();
+    LOG.debug(
+        "CAPTURE: Screenshot #{} queued (took {} ms - queue size:{})",
+        genCounter.toString(),
+        (endTime - startTime) / 1e6f,
+        queue.getDepth());
+  }
+
+  /** Prepares the capture of the capture node and the frame pool for it */
+  private void createSnapshotCapture() {
+    final SnapshotCapture capture = new SnapshotCapture(captureNode, captureRegion, captureScale);
+    // queued frames + frames being saved + the frame waiting for a save thread + the frame being
+    // captured
+    framePool =
+        new FrameBufferPool(
+            capture.getWidth(), capture.getHeight(), queueCapacity + saveThreads + 2);
+    snapshotCapture = capture;
+  }
+
+  /**
+   * Captures one frame from the capture node in <code>CaptureMode.MANUAL</code>. Must be called on
+   * the JavaFX Application Thread. Blocks while the frame queue is full when the drop policy is
+   * <code>DropPolicy.BLOCK</code>.
+   *
+   * @return true if the frame has been queued, false if it has been dropped
+   */
+  public boolean captureFrame() {
+    if (captureMode != CaptureMode.MANUAL || !isRunning()) {
+      throw new IllegalStateException("Recorder is not running in manual capture mode.");
+    }
+    if (snapshotCapture == null) createSnapshotCapture();
+    final BufferedImage frame = framePool.acquire();
+    if (frame == null) return false;
+    snapshotCapture.capture(frame);
+    genCounter.getAndIncrement();
+    try {
+      return queue.offer(frame);
+    } catch (InterruptedException e) {
+      LOG.warn("Interrupted while waiting for room in the frame queue");
+      releaseFrame(frame);
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * Called by the <code>SnapshotCapture</code> on the JavaFX Application Thread.
+   *
+   * @param snapshot the captured frame
+   */
+  private void queueSnapshot(final BufferedImage snapshot) {
+    if (isStopped.get()) {
+      releaseFrame(snapshot);
+      return;
+    }
+    queueFrame(snapshot);
+    LOG.debug("CAPTURE: Snapshot #{} queued (queue size:{})", genCounter, queue.getDepth());
+  }
+
+  /**
+   * Hands a captured frame to the bounded queue which applies the drop policy.
+   *
+   * @param frame the captured frame
+   */
+  private void queueFrame(final BufferedImage frame) {
+    genCounter.getAndIncrement();
+    try {
+      queue.offer(frame);
+    } catch (InterruptedException e) {
+      LOG.warn("Interrupted while waiting for room in the frame queue");
+      releaseFrame(frame);
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Encodes the frame in the calling save thread and then writes it as soon as all frames captured
+   * before it have been written.
+   *
+   * @param sequence position of the frame in the recording
+   * @param image the captured frame
+   */
+  private void saveImage(final long sequence, final BufferedImage image) {
+
+    long startTime = System.nanoTime();
+
+    final ReusableByteArrayOutputStream buffer = encodeBuffer.get();
+    buffer.reset();
+    boolean encoded = false;
+    try {
+      // writers which encode the frames themselves have no encoder
+      if (frameEncoder != null) {
+        final FrameEncodeEvent event = new FrameEncodeEvent();
+        event.begin();
+        frameEncoder.encode(image, buffer);
+        if (event.shouldCommit()) {
+          event.frame = sequence;
+          event.encoder = frameEncoder.getClass().getSimpleName();
+          event.size = buffer.size();
+          event.commit();
+        }
+      }
+      encoded = true;
+    } catch (IOException e) {
+      LOG.error("While encoding frame #" + sequence, e);
+    }
+
+    synchronized (writeLock) {
+      try {
+        while (nextWriteSequence != sequence) {
+          writeLock.wait();
+        }
+      } catch (InterruptedException e) {
+        LOG.warn("Interrupted while waiting to write frame #{}", sequence);
+        Thread.currentThread().interrupt();
+      }
+      try {
+        if (encoded) {
+          frameWriter.write(image, buffer.buffer(), buffer.size());
+          saveCounter.getAndIncrement();
+        }
+      } catch (IOException e) {
+        LOG.error("While writing frame #" + sequence, e);
+      } finally {
+        nextWriteSequence++;
+        writeLock.notifyAll();
+      }
+    }
+
+    long endTime = System.nanoTime();
+
+    releaseFrame(image);
+
+    LOG.debug(
+        "SAVING: Screenshot (#{}) saved (took {} ms queue size: {})",
+        saveCounter.toString(),
+        (endTime - startTime) / 1e6f,
+        queue.getDepth());
+  }
+
+  /**
+   * Returns a frame to the frame pool if it came from there.
+   *
+   * @param frame a frame which has been written or dropped
+   */
+  private void releaseFrame(final BufferedImage frame) {
+    final FrameBufferPool pool = framePool;
+    if (pool != null) pool.release(frame);
+  }
+
+  /** Creates encoder and writer for the configured output format */
+  private void createEncoderAndWriter() {
+    Path folder = Paths.get(SCREENSHOTS_FOLDER);
+    if (outputPath != null) {
+      final boolean fileSequence =
+          outputFormat == OutputFormat.JPEG_FILES || outputFormat == OutputFormat.PNG_FILES;
+      folder = fileSequence ? outputPath : outputPath.getParent();
+    }
+    try {
+      if (folder != null) Files.createDirectories(folder);
+    } catch (IOException e) {
+      throw new RuntimeException("Could not create folder " + folder, e);
+    }
+    final String baseName = "Recording_" + LocalDateTime.now().format(FILE_NAME_TIME_FORMAT);
+    switch (outputFormat) {
+      case JPEG_FILES:
+        frameEncoder = new JpegFrameEncoder(jpegQuality);
+        frameWriter = new ImageFileFrameWriter(folder, frameEncoder.getFileExtension());
+        break;
+      case MJPEG_AVI:
+        frameEncoder = new JpegFrameEncoder(jpegQuality);
+        frameWriter =
+            new AviFrameWriter(outputFile(folder, baseName + ".avi"), period, AviWriter.MJPG);
+        break;
+      case PNG_FILES:
+        frameEncoder = new PngFrameEncoder(pngCompression, pngIndexed);
+        frameWriter = new ImageFileFrameWriter(folder, frameEncoder.getFileExtension());
+        break;
+      case MPNG_AVI:
+        frameEncoder = new PngFrameEncoder(pngCompression, pngIndexed);
+        frameWriter =
+            new AviFrameWriter(outputFile(folder, baseName + ".avi"), period, AviWriter.MPNG);
+        break;
+      case DELTA_TILES:
+        frameEncoder = null;
+        frameWriter =
+            new DeltaFrameWriter(
+                outputFile(folder, baseName + "." + DeltaFrameWriter.FILE_EXTENSION), period);
+        break;
+    }
+  }
+
+  private Path outputFile(Path folder, String defaultName) {
+    return outputPath != null ? outputPath : folder.resolve(defaultName);
+  }
+
+  public boolean isRunning() {
+    return recorderThread != null;
+  }
+
+  private static void runOnFxThread(Runnable runnable) {
+    if (Platform.isFxApplicationThread()) {
+      runnable.run();
+    } else {
+      Platform.runLater(runnable);
+    }
+  }
+
+  /** @return how frames are captured */
+  public CaptureMode getCaptureMode() {
+    return captureMode;
+  }
+
+  /** @param captureMode how frames are captured - takes effect with the next start */
+  public void setCaptureMode(final CaptureMode captureMode) {
+    this.captureMode = captureMode;
+  }
+
+  /** @return the node captured in <code>CaptureMode.SNAPSHOT</code> */
+  public Node getCaptureNode() {
+    return captureNode;
+  }
+
+  /** @param captureNode the node captured in <code>CaptureMode.SNAPSHOT</code> */
+  public void setCaptureNode(final Node captureNode) {
+    this.captureNode = captureNode;
+  }
+
+  /** @return the captured region relative to the capture node or null for the whole node */
+  public Rectangle2D getCaptureRegion() {
+    return captureRegion;
+  }
+
+  /**
+   * @param captureRegion the captured region relative to the capture node or null for the whole
+   *     node
+   */
+  public void setCaptureRegion(final Rectangle2D captureRegion) {
+    this.captureRegion = captureRegion;
+  }
+
+  /** @return the downscaling factor for captured frames */
+  public double getCaptureScale() {
+    return captureScale;
+  }
+
+  /** @param captureScale the downscaling factor for captured frames (0 &lt; scale &lt;= 1) */
+  public void setCaptureScale(final double captureScale) {
+    if (captureScale <= 0 || captureScale > 1) {
+      throw new IllegalArgumentException("Scale must be in (0,1]");
+    }
+    this.captureScale = captureScale;
+  }
+
+  /** @return the policy applied when the frame queue is full */
+  public DropPolicy getDropPolicy() {
+    return dropPolicy;
+  }
+
+  /**
+   * @param dropPolicy the policy applied when the frame queue is full - takes effect with the next
+   *     start
+   */
+  public void setDropPolicy(final DropPolicy dropPolicy) {
+    this.dropPolicy = dropPolicy;
+  }
+
+  /** @return how recorded frames are stored */
+  public OutputFormat getOutputFormat() {
+    return outputFormat;
+  }
+
+  /** @param outputFormat how recorded frames are stored - takes effect with the next start */
+  public void setOutputFormat(final OutputFormat outputFormat) {
+    this.outputFormat = outputFormat;
+  }
+
+  /** @return the JPEG quality between 0 (smallest) and 1 (best) */
+  public float getJpegQuality() {
+    return jpegQuality;
+  }
+
+  /**
+   * @param jpegQuality the JPEG quality between 0 (smallest) and 1 (best) - takes effect with the
+   *     next start
+   */
+  public void setJpegQuality(final float jpegQuality) {
+    if (jpegQuality < 0 || jpegQuality > 1) {
+      throw new IllegalArgumentException("Quality must be in [0,1]");
+    }
+    this.jpegQuality = jpegQuality;
+  }
+
+  /** @return the PNG compression level between 1 (fastest) and 9 (smallest) */
+  public int getPngCompression() {
+    return pngCompression;
+  }
+
+  /**
+   * @param pngCompression the PNG compression level between 1 (fastest) and 9 (smallest) - takes
+   *     effect with the next start
+   */
+  public void setPngCompression(final int pngCompression) {
+    if (pngCompression < PngFrameEncoder.BEST_SPEED
+        || pngCompression > PngFrameEncoder.BEST_COMPRESSION) {
+      throw new IllegalArgumentException("Compression must be in [1,9]");
+    }
+    this.pngCompression = pngCompression;
+  }
+
+  /** @return true if PNG frames are stored with an indexed palette of up to 256 colors */
+  public boolean isPngIndexed() {
+    return pngIndexed;
+  }
+
+  /**
+   * @param pngIndexed true to store PNG frames with an indexed palette of up to 256 colors - only
+   *     lossless for frames with at most 256 colors - takes effect with the next start
+   */
+  public void setPngIndexed(final boolean pngIndexed) {
+    this.pngIndexed = pngIndexed;
+  }
+
+  /** @return number of threads encoding frames in parallel */
+  public int getSaveThreads() {
+    return saveThreads;
+  }
+
+  /**
+   * @param saveThreads number of threads encoding frames in parallel - takes effect with the next
+   *     start
+   */
+  public void setSaveThreads(final int saveThreads) {
+    if (saveThreads < 1) throw new IllegalArgumentException("At least 1 save thread needed");
+    this.saveThreads = saveThreads;
+  }
+
+  /** @return the file (or folder for image files) recordings are written to or null */
+  public Path getOutputPath() {
+    return outputPath;
+  }
+
+  /**
+   * @param outputPath the file (or folder for image files) the next recording is written to or
+   *     null for a timestamped recording in the screenshots folder
+   */
+  public void setOutputPath(final Path outputPath) {
+    this.outputPath = outputPath;
+  }
+
+  /** @return maximum number of frames waiting to be saved */
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  /**
+   * @param queueCapacity maximum number of frames waiting to be saved - takes effect with the next
+   *     start
+   */
+  public void setQueueCapacity(final int queueCapacity) {
+    if (queueCapacity < 1) throw new IllegalArgumentException("Capacity must be at least 1");
+    this.queueCapacity = queueCapacity;
+  }
+
+  /** @return the intervall of capturing in ms */
+  public int getPeriod() {
+    return period;
+  }
+
+  /** @param period the intervall of capturing in ms - takes effect with the next start */
+  public void setPeriod(final int period) {
+    if (period < 1) throw new IllegalArgumentException("Period must be at least 1 ms");
+    this.period = period;
+  }
+
+  /** @return frames saved per second during the current or last recording */
+  public double getSavedFramesPerSecond() {
+    final long elapsed = System.nanoTime() - startTime;
+    return startTime == 0 || elapsed <= 0 ? 0 : saveCounter.get() * 1e9 / elapsed;
+  }
+
+  /** @return number of frames currently waiting to be saved */
+  public int getQueueDepth() {
+    return queue == null ? 0 : queue.getDepth();
+  }
+
+  /** @return highest number of frames waiting to be saved during the current recording */
+  public int getMaxQueueDepth() {
+    return queue == null ? 0 : queue.getMaxDepth();
+  }
+
+  /** @return number of frames currently being saved by the save threads */
+  public int getFramesInFlight() {
+    return saveThreads - savePermits.availablePermits();
+  }
+
+  /** @return number of frames captured during the current recording */
+  public long getCapturedFrames() {
+    return genCounter.get();
+  }
+
+  /** @return number of frames saved during the current recording */
+  public long getSavedFrames() {
+    return saveCounter.get();
+  }
+
+  /** @return number of frames dropped during the current recording because saving fell behind */
+  public long getDroppedFrames() {
+    final FrameBufferPool pool = framePool;
+    return (queue == null ? 0 : queue.getDroppedFrames())
+        + (pool == null ? 0 : pool.getExhaustedCount());
+  }
+
+  /** @return number of pooled frames allocated during the current recording */
+  public int getAllocatedFrames() {
+    final FrameBufferPool pool = framePool;
+    return pool == null ? 0 : pool.getAllocatedFrames();
+  }
+}
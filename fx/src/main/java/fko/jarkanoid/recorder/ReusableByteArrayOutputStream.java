@@ -0,0 +1,49 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.recorder;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * ReusableByteArrayOutputStream
+ *
+ * <p>A <code>ByteArrayOutputStream</code> which gives access to its internal buffer. After a
+ * <code>reset()</code> the buffer is reused so encoding many frames does not allocate a new byte
+ * array per frame once the buffer has grown to the size of the largest frame.
+ *
+ * @author Frank Kopp
+ */
+public class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+
+  public ReusableByteArrayOutputStream(int size) {
+    super(size);
+  }
+
+  /** @return the internal buffer - only the first <code>size()</code> bytes are valid */
+  public byte[] buffer() {
+    return buf;
+  }
+}
@@ -0,0 +1,202 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.recorder;
+
+import fko.jarkanoid.jfr.FrameCaptureEvent;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Bounds;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.transform.Transform;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * SnapshotCapture
+ *
+ * <p>Captures a node of the scene graph directly into an image on each render pulse. In contrast
+ * to a screen grab this neither needs a real screen nor captures any window decoration. The node
+ * only needs to be part of a scene - the stage does not need to be shown. Therefore this also
+ * works with an offscreen stage or with the headless Monocle platform (<code>
+ * -Dglass.platform=Monocle -Dmonocle.platform=Headless -Dprism.order=sw</code>).
+ *
+ * <p>The captured area can be restricted to a region of the node and can be downscaled by a
+ * factor. Downscaling is done by the renderer itself so there is no additional scaling pass.
+ *
+ * <p>All methods must be called on the JavaFX Application Thread.
+ *
+ * @author Frank Kopp
+ */
+public class SnapshotCapture extends AnimationTimer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SnapshotCapture.class);
+
+  private final Node node;
+  private final SnapshotParameters parameters = new SnapshotParameters();
+
+  // size of the resulting frames in pixels
+  private final int width;
+  private final int height;
+
+  // reused for every snapshot as long as the size does not change
+  private WritableImage snapshot;
+
+  // throttling of the pulse driven capture
+  private long periodNanos;
+  private long lastCaptureTime = 0;
+
+  private Supplier<BufferedImage> frameSupplier;
+  private Consumer<BufferedImage> frameConsumer;
+
+  /**
+   * Prepares the capture of a node.
+   *
+   * @param node the node to capture - must be part of a scene
+   * @param region the region of the node to capture relative to the node's upper left corner or
+   *     <code>null</code> for the whole node
+   * @param scale downscaling factor (0 &lt; scale &lt;= 1)
+   */
+  public SnapshotCapture(Node node, Rectangle2D region, double scale) {
+    if (node == null) throw new IllegalArgumentException("Capture node must not be null");
+    if (scale <= 0 || scale > 1) throw new IllegalArgumentException("Scale must be in (0,1]");
+
+    this.node = node;
+
+    final Bounds bounds = node.getBoundsInParent();
+    if (region == null) {
+      region = new Rectangle2D(0, 0, bounds.getWidth(), bounds.getHeight());
+    }
+    this.width = Math.max(1, (int) Math.round(region.getWidth() * scale));
+    this.height = Math.max(1, (int) Math.round(region.getHeight() * scale));
+
+    // the viewport is given in the scaled coordinate space of the node's parent
+    parameters.setTransform(Transform.scale(scale, scale));
+    parameters.setViewport(
+        new Rectangle2D(
+            (bounds.getMinX() + region.getMinX()) * scale,
+            (bounds.getMinY() + region.getMinY()) * scale,
+            width,
+            height));
+
+    LOG.debug("Snapshot capture prepared for {} ({}x{} px)", node, width, height);
+  }
+
+  /**
+   * Starts capturing a frame on the next render pulse after each period.
+   *
+   * @param period the interval of capturing in ms
+   * @param frameConsumer receives each captured frame
+   */
+  public void start(int period, Consumer<BufferedImage> frameConsumer) {
+    start(
+        period,
+        () -> new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB),
+        frameConsumer);
+  }
+
+  /**
+   * Starts capturing a frame on the next render pulse after each period. The frames are rendered
+   * into frames provided by the given supplier, e.g. a <code>FrameBufferPool</code>, so that no
+   * frame memory needs to be allocated while capturing.
+   *
+   * @param period the interval of capturing in ms
+   * @param frameSupplier provides a frame of type <code>TYPE_INT_RGB</code> with the size of this
+   *     capture for each capture or null to skip the capture
+   * @param frameConsumer receives each captured frame
+   */
+  public void start(
+      int period, Supplier<BufferedImage> frameSupplier, Consumer<BufferedImage> frameConsumer) {
+    this.periodNanos = period * 1_000_000L;
+    this.frameSupplier = frameSupplier;
+    this.frameConsumer = frameConsumer;
+    this.lastCaptureTime = 0;
+    super.start();
+  }
+
+  /** @see javafx.animation.AnimationTimer#handle(long) */
+  @Override
+  public void handle(final long now) {
+    if (now - lastCaptureTime < periodNanos) return;
+    lastCaptureTime = now;
+    final BufferedImage frame = frameSupplier.get();
+    if (frame == null) {
+      LOG.debug("No free frame - capture skipped");
+      return;
+    }
+    capture(frame);
+    frameConsumer.accept(frame);
+  }
+
+  /**
+   * Renders the node into a new frame.
+   *
+   * @return the captured frame
+   */
+  public BufferedImage capture() {
+    final BufferedImage frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    capture(frame);
+    return frame;
+  }
+
+  /**
+   * Renders the node into the given frame.
+   *
+   * @param frame a frame of type <code>TYPE_INT_RGB</code> with the size of this capture
+   */
+  public void capture(BufferedImage frame) {
+    final FrameCaptureEvent event = new FrameCaptureEvent();
+    event.begin();
+    snapshot = node.snapshot(parameters, snapshot);
+    final int[] pixels = ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+    snapshot
+        .getPixelReader()
+        .getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+    if (event.shouldCommit()) {
+      event.captureMode = CaptureMode.SNAPSHOT.name();
+      event.width = width;
+      event.height = height;
+      event.commit();
+    }
+  }
+
+  /** @return width of the captured frames in pixels */
+  public int getWidth() {
+    return width;
+  }
+
+  /** @return height of the captured frames in pixels */
+  public int getHeight() {
+    return height;
+  }
+}
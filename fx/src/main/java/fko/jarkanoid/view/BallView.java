@@ -53,10 +53,10 @@ public class BallView extends Circle {
     //    this.setStroke(Color.BLACK);
 
     // bing this ball to the model's ball
-    this.centerXProperty().bind(ball.centerXProperty());
-    this.centerYProperty().bind(ball.centerYProperty());
-    this.radiusProperty().bind(ball.radiusProperty().add(2.0));
-    this.visibleProperty().bind(model.isPlayingProperty());
+    this.centerXProperty().bind(ModelProperties.of(ball.centerXProperty()));
+    this.centerYProperty().bind(ModelProperties.of(ball.centerYProperty()));
+    this.radiusProperty().bind(ModelProperties.of(ball.radiusProperty()).add(2.0));
+    this.visibleProperty().bind(ModelProperties.of(model.isPlayingProperty()));
 
     prepareAnimations();
   }
@@ -62,7 +62,7 @@ public class BrickView extends Rectangle {
     this.brick = brick;
 
     // let the CSS determine the look of the ball
-    this.setFill(brick.getColor());
+    this.setFill(ModelColors.of(brick.getType()));
     this.getStyleClass().add("brick");
     //    this.setArcWidth(5.0);
     //    this.setArcHeight(5.0);
@@ -72,7 +72,7 @@ public class BrickView extends Rectangle {
     //    this.setEffect(effect);
 
     solidBrickHitTimeline = new FillTransition(Duration.millis(75));
-    solidBrickHitTimeline.setFromValue(brick.getColor());
+    solidBrickHitTimeline.setFromValue(ModelColors.of(brick.getType()));
     solidBrickHitTimeline.setToValue(Color.WHITE);
     solidBrickHitTimeline.setCycleCount(2);
     solidBrickHitTimeline.setAutoReverse(true);
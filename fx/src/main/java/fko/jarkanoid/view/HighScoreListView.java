@@ -124,7 +124,7 @@ public class HighScoreListView {
     column.setCellValueFactory(cellData -> property.apply(cellData.getValue()));
 
     try {
-      column.impl_setReorderable(false);
+      column.setReorderable(false);
 //      column.setReorderable(true);
       // In Java 9 the above codes would break because of removal of impl_.
       // Despite these changes, it introduces convenient public methods that you can use which are:
@@ -27,12 +27,12 @@ package fko.jarkanoid.view;
 import java.io.IOException;
 import java.util.HashMap;
 
+import fko.jarkanoid.Jarkanoid;
 import fko.jarkanoid.controller.MainController;
 import fko.jarkanoid.model.*;
 import javafx.animation.ParallelTransition;
 import javafx.animation.ScaleTransition;
 import javafx.animation.StrokeTransition;
-import javafx.collections.ListChangeListener;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.control.TableView;
@@ -73,6 +73,9 @@ public class MainView {
   // highscore list
   private final HighScoreListView highScoreListView;
 
+  // performance overlay on the playfield - hidden until toggled
+  private final PerformanceOverlay performanceOverlay;
+
   // the paddle
   private final Rectangle paddle;
 
@@ -110,6 +113,10 @@ public class MainView {
     playFieldPane = (Pane) fxmlLoader.getNamespace().get("playfieldPane");
     playFieldPane.getChildren().add(brickLayoutView);
 
+    // performance overlay
+    performanceOverlay = new PerformanceOverlay(model, playFieldPane, Jarkanoid.getRecorder());
+    playFieldPane.getChildren().add(performanceOverlay);
+
     // Game Over splash top front
     final Text gameOverText = (Text) fxmlLoader.getNamespace().get("gameOverSplash");
     gameOverText.toFront();
@@ -159,88 +166,79 @@ public class MainView {
   }
 
   /**
-   * Called when model updates the List of balls
+   * Called when a ball has been added to the model
    *
-   * @param change the List Change object associated to the change
+   * @param ball the added ball
    */
-  public void updateBallList(ListChangeListener.Change<Ball> change) {
-    while (change.next()) {
-      if (change.wasAdded()) {
-        for (Ball addedBall : change.getAddedSubList()) {
-          final BallView bv = new BallView(model, addedBall);
-          bv.visibleProperty().bind(model.isPlayingProperty());
-          ballViewMap.put(addedBall, bv);
-          playFieldPane.getChildren().add(bv);
-        }
-
-      } else if (change.wasRemoved()) {
-        for (Ball removedBall : change.getRemoved()) {
-          final BallView bv = ballViewMap.get(removedBall);
-          bv.visibleProperty().unbind();
-          playFieldPane.getChildren().remove(bv);
-          ballViewMap.remove(removedBall);
-          bv.removed();
-        }
-      }
-    }
+  public void addBall(Ball ball) {
+    final BallView bv = new BallView(model, ball);
+    ballViewMap.put(ball, bv);
+    playFieldPane.getChildren().add(bv);
   }
 
   /**
-   * Called when model updates the list of laser shots
+   * Called when a ball has been removed from the model
    *
-   * @param change the List Change object associated to the change
+   * @param ball the removed ball
    */
-  public void updateLaserShotList(ListChangeListener.Change<LaserShot> change) {
-    while (change.next()) {
-      if (change.wasAdded()) {
-        for (LaserShot added : change.getAddedSubList()) {
-          final LaserShotView laserShotView = new LaserShotView(added);
-          laserShotView.visibleProperty().bind(model.isPlayingProperty());
-          laserShotView.xProperty().bind(added.xProperty());
-          laserShotView.yProperty().bind(added.yProperty());
-          laserShotView.widthProperty().bind(added.widthProperty());
-          laserShotView.heightProperty().bind(added.heightProperty());
-          laserShotViewMap.put(added, laserShotView);
-          playFieldPane.getChildren().add(laserShotView);
-        }
-
-      } else if (change.wasRemoved()) {
-        for (LaserShot removed : change.getRemoved()) {
-          final LaserShotView laserShotView = laserShotViewMap.get(removed);
-          laserShotView.visibleProperty().unbind();
-          laserShotView.xProperty().unbind();
-          laserShotView.yProperty().unbind();
-          laserShotView.widthProperty().unbind();
-          laserShotView.heightProperty().unbind();
-          playFieldPane.getChildren().remove(laserShotView);
-          laserShotViewMap.remove(removed);
-          laserShotView.removed();
-        }
-      }
-    }
+  public void removeBall(Ball ball) {
+    final BallView bv = ballViewMap.remove(ball);
+    playFieldPane.getChildren().remove(bv);
+    bv.removed();
   }
 
   /**
-   * Called when fallingBall list in model is changed
+   * Called when a laser shot has been added to the model
    *
-   * @param change the List Change object associated to the change
+   * @param laserShot the added laser shot
    */
-  public void updateFallingPillList(ListChangeListener.Change<PowerPill> change) {
-    while (change.next()) {
-      if (change.wasAdded()) {
-        for (PowerPill added : change.getAddedSubList()) {
-          PowerPillView ppv = new PowerPillView(added);
-          powerPillViewMap.put(added, ppv);
-          playFieldPane.getChildren().add(ppv);
-        }
-      } else if (change.wasRemoved()) {
-        for (PowerPill removed : change.getRemoved()) {
-          PowerPillView ppv = powerPillViewMap.get(removed);
-          playFieldPane.getChildren().remove(ppv);
-          ppv.removed();
-        }
-      }
-    }
+  public void addLaserShot(LaserShot laserShot) {
+    final LaserShotView laserShotView = new LaserShotView(laserShot);
+    laserShotView.visibleProperty().bind(ModelProperties.of(model.isPlayingProperty()));
+    laserShotView.xProperty().bind(ModelProperties.of(laserShot.xProperty()));
+    laserShotView.yProperty().bind(ModelProperties.of(laserShot.yProperty()));
+    laserShotView.widthProperty().bind(ModelProperties.of(laserShot.widthProperty()));
+    laserShotView.heightProperty().bind(ModelProperties.of(laserShot.heightProperty()));
+    laserShotViewMap.put(laserShot, laserShotView);
+    playFieldPane.getChildren().add(laserShotView);
+  }
+
+  /**
+   * Called when a laser shot has been removed from the model
+   *
+   * @param laserShot the removed laser shot
+   */
+  public void removeLaserShot(LaserShot laserShot) {
+    final LaserShotView laserShotView = laserShotViewMap.remove(laserShot);
+    laserShotView.visibleProperty().unbind();
+    laserShotView.xProperty().unbind();
+    laserShotView.yProperty().unbind();
+    laserShotView.widthProperty().unbind();
+    laserShotView.heightProperty().unbind();
+    playFieldPane.getChildren().remove(laserShotView);
+    laserShotView.removed();
+  }
+
+  /**
+   * Called when a power pill starts falling in the model
+   *
+   * @param powerPill the added power pill
+   */
+  public void addFallingPill(PowerPill powerPill) {
+    PowerPillView ppv = new PowerPillView(powerPill);
+    powerPillViewMap.put(powerPill, ppv);
+    playFieldPane.getChildren().add(ppv);
+  }
+
+  /**
+   * Called when a falling power pill has been removed from the model
+   *
+   * @param powerPill the removed power pill
+   */
+  public void removeFallingPill(PowerPill powerPill) {
+    PowerPillView ppv = powerPillViewMap.remove(powerPill);
+    playFieldPane.getChildren().remove(ppv);
+    ppv.removed();
   }
 
   /** @return root pane from loaded FXML */
@@ -274,6 +272,19 @@ public class MainView {
     brickLayoutView.getBrickView(row, col).hit();
   }
 
+  /**
+   * Pauses or continues the endless animations of the views. The hit animations are left alone as
+   * they end on their own after a few milliseconds.
+   *
+   * @param paused true when the game has been paused
+   */
+  public void pauseAnimations(final boolean paused) {
+    for (PowerPillView ppv : powerPillViewMap.values()) {
+      if (paused) ppv.pause();
+      else ppv.resume();
+    }
+  }
+
   /** @param b indicating if the paddle is currently laser enabled */
   public void laserPaddle(final boolean b) {
     if (b) {
@@ -286,4 +297,9 @@ public class MainView {
   public HighScoreListView getHighScoreListView() {
     return highScoreListView;
   }
+
+  /** Shows or hides the performance overlay */
+  public void togglePerformanceOverlay() {
+    performanceOverlay.toggle();
+  }
 }
@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.view;
+
+import fko.jarkanoid.model.BrickType;
+import fko.jarkanoid.model.PowerPillType;
+import javafx.scene.paint.Color;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * ModelColors
+ *
+ * <p>Maps the web color names of the toolkit independent model types to JavaFX colors. The colors
+ * are created once so that views and render loops don't parse them again and again.
+ *
+ * @author Frank Kopp
+ */
+public final class ModelColors {
+
+  private static final Map<BrickType, Color> BRICK_COLORS = new EnumMap<>(BrickType.class);
+  private static final Map<PowerPillType, Color> POWER_PILL_COLORS =
+      new EnumMap<>(PowerPillType.class);
+
+  static {
+    for (BrickType type : BrickType.values()) BRICK_COLORS.put(type, Color.web(type.color));
+    for (PowerPillType type : PowerPillType.values()) {
+      POWER_PILL_COLORS.put(type, Color.web(type.color));
+    }
+  }
+
+  private ModelColors() {}
+
+  /** @return the color of bricks of the given type */
+  public static Color of(final BrickType type) {
+    return BRICK_COLORS.get(type);
+  }
+
+  /** @return the color of power pills of the given type */
+  public static Color of(final PowerPillType type) {
+    return POWER_PILL_COLORS.get(type);
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.view;
+
+import fko.jarkanoid.beans.ObjectValue;
+import fko.jarkanoid.beans.ObservableValue;
+import fko.jarkanoid.beans.ReadOnlyBooleanValue;
+import fko.jarkanoid.beans.ReadOnlyDoubleValue;
+import fko.jarkanoid.beans.ReadOnlyIntValue;
+import fko.jarkanoid.beans.ReadOnlyObjectValue;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * ModelProperties
+ *
+ * <p>Adapts the toolkit independent observable values of the model to JavaFX properties so that
+ * views can bind to them. Each model value gets a single JavaFX property which follows it for as
+ * long as the model value is alive - views binding to the same value share it instead of adding
+ * one more listener to the model for every binding.
+ *
+ * <p>The model must only be changed on the JavaFX application thread.
+ *
+ * @author Frank Kopp
+ */
+public final class ModelProperties {
+
+  private static final Map<ObservableValue, Object> PROPERTIES = new WeakHashMap<>();
+
+  private ModelProperties() {}
+
+  /** @return a read only JavaFX property following the given model value */
+  public static ReadOnlyDoubleProperty of(final ReadOnlyDoubleValue value) {
+    return adapt(
+        value,
+        v -> {
+          final ReadOnlyDoubleWrapper property = new ReadOnlyDoubleWrapper(v.get());
+          v.addListener(() -> property.set(v.get()));
+          return property.getReadOnlyProperty();
+        });
+  }
+
+  /** @return a read only JavaFX property following the given model value */
+  public static ReadOnlyIntegerProperty of(final ReadOnlyIntValue value) {
+    return adapt(
+        value,
+        v -> {
+          final ReadOnlyIntegerWrapper property = new ReadOnlyIntegerWrapper(v.get());
+          v.addListener(() -> property.set(v.get()));
+          return property.getReadOnlyProperty();
+        });
+  }
+
+  /** @return a read only JavaFX property following the given model value */
+  public static ReadOnlyBooleanProperty of(final ReadOnlyBooleanValue value) {
+    return adapt(
+        value,
+        v -> {
+          final ReadOnlyBooleanWrapper property = new ReadOnlyBooleanWrapper(v.get());
+          v.addListener(() -> property.set(v.get()));
+          return property.getReadOnlyProperty();
+        });
+  }
+
+  /** @return a read only JavaFX property following the given model value */
+  public static <T> ReadOnlyObjectProperty<T> of(final ReadOnlyObjectValue<T> value) {
+    return adapt(
+        value,
+        v -> {
+          final ReadOnlyObjectWrapper<T> property = new ReadOnlyObjectWrapper<>(v.get());
+          v.addListener(() -> property.set(v.get()));
+          return property.getReadOnlyProperty();
+        });
+  }
+
+  /**
+   * @return a new JavaFX property which follows the given model value and writes its own changes
+   *     back to it - for bidirectional bindings e.g. of text fields
+   */
+  public static StringProperty bidirectional(final ObjectValue<String> value) {
+    final StringProperty property = new SimpleStringProperty(value.get());
+    value.addListener(() -> property.set(value.get()));
+    property.addListener(
+        (observable, oldValue, newValue) -> {
+          if (!Objects.equals(value.get(), newValue)) value.set(newValue);
+        });
+    return property;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <V extends ObservableValue, P> P adapt(
+      final V value, final Function<V, P> factory) {
+    return (P) PROPERTIES.computeIfAbsent(value, v -> factory.apply(value));
+  }
+}
@@ -0,0 +1,297 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.view;
+
+import fko.jarkanoid.model.GameModel;
+import fko.jarkanoid.recorder.Recorder;
+import javafx.animation.AnimationTimer;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.text.Text;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * PerformanceOverlay
+ *
+ * <p>Toggleable overlay on the playfield with the performance of the game: tick time, pulse
+ * interval and layout time (average and p99), allocation rate of the JavaFX Application Thread,
+ * garbage collections, the nodes in the playfield, the entities of the model and the depth of the
+ * recorder queue.
+ *
+ * <p>The pulse interval is the time between two pulses - it is not the render time. The layout
+ * time is the CSS and layout pass of the scene, measured with pulse listeners of the scene. The
+ * rendering itself happens afterwards on the render thread of JavaFX and can not be measured here.
+ *
+ * <p>All times are sampled on every pulse into preallocated ring buffers. The text is only rebuilt
+ * every <code>UPDATE_INTERVAL</code> from a reused <code>StringBuilder</code>. While hidden the
+ * overlay does nothing at all.
+ *
+ * @author Frank Kopp
+ */
+public class PerformanceOverlay extends Text {
+
+  // samples in the ring buffers - about 4 seconds at 60 fps
+  private static final int SAMPLES = 256;
+  private static final long UPDATE_INTERVAL = 500_000_000L; // nanos
+
+  private final GameModel model;
+  private final Parent playfield;
+  private final Recorder recorder;
+
+  // ring buffers of the last tick times, pulse intervals and layout times in nanos
+  private final long[] tickTimes = new long[SAMPLES];
+  private final long[] pulseIntervals = new long[SAMPLES];
+  private final long[] layoutTimes = new long[SAMPLES];
+  private final long[] sorted = new long[SAMPLES];
+  private int nextSample = 0;
+  private int samples = 0;
+
+  private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+  private final GarbageCollectorMXBean[] gcBeans;
+
+  private final StringBuilder text = new StringBuilder(512);
+
+  private long lastPulse = 0;
+  private long layoutStart = 0;
+  private long lastLayoutTime = 0;
+  private long lastUpdate = 0;
+  private long lastAllocatedBytes = -1;
+
+  private final AnimationTimer sampler =
+      new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+          sample(now);
+        }
+      };
+
+  private final Runnable preLayout = () -> layoutStart = System.nanoTime();
+  private final Runnable postLayout = () -> lastLayoutTime = System.nanoTime() - layoutStart;
+
+  // the scene the pulse listeners are added to while shown
+  private Scene pulseScene = null;
+
+  /**
+   * @param model the model to show the statistics of
+   * @param playfield the playfield this overlay is added to - its nodes are counted
+   * @param recorder the recorder to show the queue of or null
+   */
+  PerformanceOverlay(GameModel model, Parent playfield, Recorder recorder) {
+    this.model = model;
+    this.playfield = playfield;
+    this.recorder = recorder;
+
+    final List<GarbageCollectorMXBean> beans = ManagementFactory.getGarbageCollectorMXBeans();
+    gcBeans = beans.toArray(new GarbageCollectorMXBean[0]);
+
+    // let the CSS determine the look of the overlay
+    this.getStyleClass().add("performance_overlay");
+    this.setMouseTransparent(true);
+    this.setManaged(false);
+    this.setLayoutX(10);
+    this.setLayoutY(20);
+    this.setVisible(false);
+
+    // only sample while shown
+    visibleProperty()
+        .addListener(
+            (observable, oldValue, newValue) -> {
+              if (newValue) {
+                resetSamples();
+                addPulseListeners();
+                sampler.start();
+              } else {
+                sampler.stop();
+                removePulseListeners();
+              }
+            });
+  }
+
+  /** Shows or hides the overlay */
+  public void toggle() {
+    setVisible(!isVisible());
+    if (isVisible()) toFront();
+  }
+
+  private void addPulseListeners() {
+    pulseScene = getScene();
+    if (pulseScene == null) return;
+    pulseScene.addPreLayoutPulseListener(preLayout);
+    pulseScene.addPostLayoutPulseListener(postLayout);
+  }
+
+  private void removePulseListeners() {
+    if (pulseScene == null) return;
+    pulseScene.removePreLayoutPulseListener(preLayout);
+    pulseScene.removePostLayoutPulseListener(postLayout);
+    pulseScene = null;
+  }
+
+  private void resetSamples() {
+    nextSample = 0;
+    samples = 0;
+    lastPulse = 0;
+    lastLayoutTime = 0;
+    lastUpdate = 0;
+    lastAllocatedBytes = -1;
+  }
+
+  /** Called on every pulse while shown - the layout of the scene follows after this */
+  private void sample(long now) {
+    if (lastPulse != 0) {
+      pulseIntervals[nextSample] = now - lastPulse;
+      tickTimes[nextSample] = model.getLastLoopTime();
+      // layout time of the previous pulse
+      layoutTimes[nextSample] = lastLayoutTime;
+      nextSample = (nextSample + 1) % SAMPLES;
+      if (samples < SAMPLES) samples++;
+    }
+    lastPulse = now;
+
+    if (now - lastUpdate >= UPDATE_INTERVAL) {
+      update(now);
+    }
+  }
+
+  /** Rebuilds the text from the samples and the current counters */
+  private void update(long now) {
+    final long allocatedBytes = getAllocatedBytes();
+    final double elapsedSeconds = (now - lastUpdate) / 1e9;
+
+    text.setLength(0);
+    text.append("FPS      ");
+    appendFixed(model.getFps(), 1);
+
+    text.append("\nTick     ");
+    appendMillis(average(tickTimes));
+    text.append(" ms  p99 ");
+    appendMillis(percentile(tickTimes, 0.99));
+    text.append(" ms");
+
+    text.append("\nPulse    ");
+    appendMillis(average(pulseIntervals));
+    text.append(" ms  p99 ");
+    appendMillis(percentile(pulseIntervals, 0.99));
+    text.append(" ms");
+
+    text.append("\nLayout   ");
+    appendMillis(average(layoutTimes));
+    text.append(" ms  p99 ");
+    appendMillis(percentile(layoutTimes, 0.99));
+    text.append(" ms");
+
+    text.append("\nAlloc    ");
+    if (allocatedBytes < 0 || lastAllocatedBytes < 0 || lastUpdate == 0) {
+      text.append('-');
+    } else {
+      appendFixed((allocatedBytes - lastAllocatedBytes) / elapsedSeconds / (1024 * 1024), 2);
+      text.append(" MB/s");
+    }
+
+    long gcCount = 0;
+    long gcTime = 0;
+    for (GarbageCollectorMXBean gcBean : gcBeans) {
+      gcCount += Math.max(0, gcBean.getCollectionCount());
+      gcTime += Math.max(0, gcBean.getCollectionTime());
+    }
+    text.append("\nGC       ").append(gcCount).append(" (").append(gcTime).append(" ms)");
+
+    // neither the playfield nor the overlay itself are counted
+    text.append("\nNodes    ").append(countNodes(playfield) - 2);
+
+    text.append("\nBalls    ").append(model.getBallManager().size());
+    text.append("\nLasers   ").append(model.getLaserShotManager().size());
+    text.append("\nPills    ").append(model.fallingPowerPillsProperty().size());
+    text.append("\nBricks   ").append(model.getBrickLayout().getNumberOfBricks());
+
+    text.append("\nRecorder ");
+    if (recorder != null && recorder.isRunning()) {
+      text.append(recorder.getQueueDepth()).append('/').append(recorder.getQueueCapacity());
+    } else {
+      text.append("off");
+    }
+
+    setText(text.toString());
+    lastAllocatedBytes = allocatedBytes;
+    lastUpdate = now;
+  }
+
+  /** @return bytes allocated by the JavaFX Application Thread (which runs the game loop) */
+  private long getAllocatedBytes() {
+    if (!(threadBean instanceof com.sun.management.ThreadMXBean)) return -1;
+    return ((com.sun.management.ThreadMXBean) threadBean)
+        .getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  private long average(long[] values) {
+    if (samples == 0) return 0;
+    long sum = 0;
+    for (int i = 0; i < samples; i++) sum += values[i];
+    return sum / samples;
+  }
+
+  private long percentile(long[] values, double percentile) {
+    if (samples == 0) return 0;
+    System.arraycopy(values, 0, sorted, 0, samples);
+    Arrays.sort(sorted, 0, samples);
+    return sorted[Math.min(samples - 1, (int) (samples * percentile))];
+  }
+
+  private void appendMillis(long nanos) {
+    appendFixed(nanos / 1e6, 2);
+  }
+
+  /** Appends the value with the given decimals without the allocations of String.format */
+  private void appendFixed(double value, int decimals) {
+    long factor = 1;
+    for (int i = 0; i < decimals; i++) factor *= 10;
+    final long scaled = Math.round(value * factor);
+    text.append(scaled / factor);
+    if (decimals > 0) {
+      text.append('.');
+      final long fraction = Math.abs(scaled % factor);
+      for (long f = factor / 10; f > fraction && f > 1; f /= 10) text.append('0');
+      text.append(fraction);
+    }
+  }
+
+  /** @return number of nodes in the tree including the given node */
+  static int countNodes(Node node) {
+    int count = 1;
+    if (node instanceof Parent) {
+      for (Node child : ((Parent) node).getChildrenUnmodifiable()) {
+        count += countNodes(child);
+      }
+    }
+    return count;
+  }
+}
@@ -66,7 +66,7 @@ public class PowerPillView extends StackPane {
     rectangle.setWidth(powerPill.getWidth());
     rectangle.setHeight(powerPill.getHeight());
     rectangle.setEffect(effect);
-    rectangle.setFill(powerPill.getPowerPillType().color);
+    rectangle.setFill(ModelColors.of(powerPill.getPowerPillType()));
     rectangle.getStyleClass().add("powerpill_rec");
 //    rectangle.setArcHeight(20.0);
 //    rectangle.setArcWidth(20.0);
@@ -84,13 +84,25 @@ public class PowerPillView extends StackPane {
     pillAnimationTimer.getKeyFrames().addAll(kf, kf2);
     pillAnimationTimer.play();
 
-    this.translateXProperty().bind(powerPill.xProperty());
-    this.translateYProperty().bind(powerPill.yProperty());
+    this.translateXProperty().bind(ModelProperties.of(powerPill.xProperty()));
+    this.translateYProperty().bind(ModelProperties.of(powerPill.yProperty()));
 
     this.getChildren().addAll(rectangle, label);
   }
 
+  /** Stops the animation - an indefinite animation would keep JavaFX pulsing forever */
   public void removed() {
+    pillAnimationTimer.stop();
+  }
+
+  /** Pauses the animation while the game is paused */
+  public void pause() {
+    pillAnimationTimer.pause();
+  }
+
+  /** Continues the animation when the game is resumed */
+  public void resume() {
+    pillAnimationTimer.play();
   }
 
   @Override
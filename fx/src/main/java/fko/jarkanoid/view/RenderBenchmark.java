@@ -0,0 +1,477 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.view;
+
+import fko.jarkanoid.FxPlatform;
+import fko.jarkanoid.beans.ListListener;
+import fko.jarkanoid.model.Ball;
+import fko.jarkanoid.model.Brick;
+import fko.jarkanoid.model.BrickLayout;
+import fko.jarkanoid.model.GameModel;
+import fko.jarkanoid.model.LaserShot;
+import fko.jarkanoid.model.LevelLoader;
+import fko.jarkanoid.model.PowerPill;
+import javafx.application.Platform;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * RenderBenchmark
+ *
+ * <p>Measures frame times of the playfield renderers for typical and stressful game situations.
+ * Replaces <code>BrickLayoutViewPERFT</code> which only redrew an unchanged level in a visible
+ * window.
+ *
+ * <p>A model in replay mode is driven frame by frame by a <code>Scenario</code>. A frame consists
+ * of the model update, the update of the renderer and rendering the playfield into an image with
+ * <code>Node.snapshot</code> which forces CSS, layout and rasterization. For every renderer and
+ * scenario the percentiles of the frame times and the number of scene graph nodes are reported.
+ *
+ * <p>Usage: <code>RenderBenchmark [frames] [renderers] [scenarios]</code> with comma separated
+ * lists of <code>RendererType</code> and <code>Scenario</code> names.
+ *
+ * <p>Runs without a display with the <code>headless</code> Maven profile which adds the Monocle
+ * platform.
+ *
+ * @author Frank Kopp
+ */
+public class RenderBenchmark {
+
+  private static final int DEFAULT_FRAMES = 1200;
+  private static final int WARMUP_FRAMES = 300;
+  private static final int FRAMES_PER_BATCH = 10;
+  private static final long SEED = 42;
+
+  private static final double PLAYFIELD_WIDTH = 780;
+  private static final double PLAYFIELD_HEIGHT = 710;
+
+  /** Game situations the renderers are measured with */
+  public enum Scenario {
+    /** a complete new level is loaded every frame */
+    LEVEL_LOAD,
+    /** many balls in play at the same time */
+    MULTI_BALL,
+    /** two new laser shots every frame while the paddle sweeps over the playfield */
+    LASER_BARRAGE,
+    /** normal play with a skipped level every second */
+    LEVEL_TRANSITION
+  }
+
+  /** The available implementations of the playfield rendering */
+  public enum RendererType {
+    /** the game's scene graph with one node per brick, ball, laser shot and pill */
+    NODES(NodeRenderer::new),
+    /** immediate mode drawing of the whole playfield into one canvas - reference only */
+    CANVAS(CanvasRenderer::new);
+
+    private final Function<GameModel, Renderer> factory;
+
+    RendererType(Function<GameModel, Renderer> factory) {
+      this.factory = factory;
+    }
+  }
+
+  private RenderBenchmark() {}
+
+  public static void main(String[] args) throws Exception {
+    final int frames = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_FRAMES;
+    final List<RendererType> renderers =
+        args.length > 1 ? parse(RendererType.class, args[1]) : Arrays.asList(RendererType.values());
+    final List<Scenario> scenarios =
+        args.length > 2 ? parse(Scenario.class, args[2]) : Arrays.asList(Scenario.values());
+
+    FxPlatform.useHeadlessPlatformIfAvailable();
+    Platform.startup(() -> {});
+    try {
+      System.out.printf(
+          "%-8s %-17s %8s %8s %8s %8s %8s %10s %10s%n",
+          "Renderer", "Scenario", "Frames", "p50 ms", "p90 ms", "p99 ms", "max ms", "nodes avg",
+          "nodes max");
+      for (RendererType renderer : renderers) {
+        for (Scenario scenario : scenarios) {
+          final Result result = run(renderer, scenario, frames);
+          System.out.printf(
+              "%-8s %-17s %8d %8.3f %8.3f %8.3f %8.3f %10.1f %10d%n",
+              renderer,
+              scenario,
+              frames,
+              result.percentile(50),
+              result.percentile(90),
+              result.percentile(99),
+              result.percentile(100),
+              result.averageNodes(),
+              result.maxNodes);
+        }
+      }
+    } finally {
+      Platform.exit();
+    }
+  }
+
+  /**
+   * Measures one renderer with one scenario.
+   *
+   * @return frame times and node counts of the measured frames
+   */
+  private static Result run(RendererType type, Scenario scenario, int frames) throws Exception {
+    final Bench bench = FxPlatform.callAndWait(() -> new Bench(type, scenario));
+    for (int frame = 0; frame < WARMUP_FRAMES + frames; frame += FRAMES_PER_BATCH) {
+      final int first = frame;
+      FxPlatform.callAndWait(
+          () -> {
+            for (int f = first; f < first + FRAMES_PER_BATCH; f++) {
+              bench.frame(f, f >= WARMUP_FRAMES);
+            }
+            return null;
+          });
+    }
+    FxPlatform.callAndWait(bench::finish);
+    return bench.result;
+  }
+
+  private static <E extends Enum<E>> List<E> parse(Class<E> type, String names) {
+    final List<E> values = new ArrayList<>();
+    for (String name : names.split(",")) values.add(Enum.valueOf(type, name.trim()));
+    return values;
+  }
+
+  /** Counts the node and all its descendants */
+  private static int countNodes(Node node) {
+    int count = 1;
+    if (node instanceof Parent) {
+      for (Node child : ((Parent) node).getChildrenUnmodifiable()) count += countNodes(child);
+    }
+    return count;
+  }
+
+  /** One measurement of a renderer with a scenario - all methods run on the FX thread */
+  private static class Bench {
+
+    private final Renderer renderer;
+    private final Driver driver;
+    private final Node node;
+    private final WritableImage image =
+        new WritableImage((int) PLAYFIELD_WIDTH, (int) PLAYFIELD_HEIGHT);
+    private final Result result = new Result();
+
+    Bench(RendererType type, Scenario scenario) {
+      final GameModel model = new GameModel(true);
+      renderer = type.factory.apply(model);
+      node = renderer.getNode();
+      final Scene scene = new Scene(new Group(node));
+      scene
+          .getStylesheets()
+          .add(RenderBenchmark.class.getResource("/css/breakout.css").toExternalForm());
+      driver = new Driver(scenario, model);
+    }
+
+    void frame(int frame, boolean measure) {
+      final long startTime = System.nanoTime();
+      driver.step(frame);
+      renderer.update();
+      node.snapshot(null, image);
+      final long frameTime = System.nanoTime() - startTime;
+      if (measure) result.add(frameTime, countNodes(node));
+    }
+
+    Void finish() {
+      driver.model.stopPlaying();
+      return null;
+    }
+  }
+
+  /** Drives the model through a scenario */
+  private static class Driver {
+
+    private static final int MULTI_BALLS = 24;
+    private static final int TRANSITION_INTERVAL = 60;
+    private static final double LASER_WIDTH = 5;
+    private static final double LASER_HEIGHT = 15;
+    private static final double LASER_SPEED = 15;
+
+    private final Scenario scenario;
+    private final GameModel model;
+    private final Random random = new Random(SEED);
+    private final int levels;
+
+    Driver(Scenario scenario, GameModel model) {
+      this.scenario = scenario;
+      this.model = model;
+      int level = 1;
+      while (LevelLoader.getInstance().getLevel(level + 1) != null) level++;
+      levels = level;
+      model.startPlaying(SEED);
+    }
+
+    void step(int frame) {
+      // keep on playing after the game was lost or won
+      if (!model.isPlaying()) model.startPlaying(SEED + frame);
+
+      switch (scenario) {
+        case LEVEL_LOAD:
+          model.getBrickLayout().setMatrix(LevelLoader.getInstance().getLevel(frame % levels + 1));
+          return;
+        case MULTI_BALL:
+          final List<Ball> balls = model.getBallManager();
+          while (!balls.isEmpty() && balls.size() < MULTI_BALLS) {
+            balls.add(balls.get(0).split(random));
+          }
+          followBall();
+          break;
+        case LASER_BARRAGE:
+          final double width = model.paddleWidthProperty().get();
+          final double range = PLAYFIELD_WIDTH - width;
+          final double x = Math.abs((frame * 5.0) % (2 * range) - range);
+          model.setPaddle(x, width);
+          final double y = model.paddleYProperty().get();
+          model
+              .getLaserShotManager()
+              .add(new LaserShot(x + 10, y, LASER_WIDTH, LASER_HEIGHT, LASER_SPEED));
+          model
+              .getLaserShotManager()
+              .add(new LaserShot(x + width - 10, y, LASER_WIDTH, LASER_HEIGHT, LASER_SPEED));
+          break;
+        case LEVEL_TRANSITION:
+          if (frame % TRANSITION_INTERVAL == 0) model.skipLevelCheat();
+          followBall();
+          break;
+      }
+      model.gameLoop();
+    }
+
+    /** Moves the paddle under the lowest ball */
+    private void followBall() {
+      Ball lowest = null;
+      for (Ball ball : model.getBallManager()) {
+        if (lowest == null || ball.getCenterY() > lowest.getCenterY()) lowest = ball;
+      }
+      if (lowest == null) return;
+      final double width = model.paddleWidthProperty().get();
+      final double x = lowest.getCenterX() - width / 2 + random.nextDouble() * 20 - 10;
+      model.setPaddle(Math.max(0, Math.min(PLAYFIELD_WIDTH - width, x)), width);
+    }
+  }
+
+  /** Renders the playfield of a model */
+  private interface Renderer {
+
+    /** @return the node showing the playfield */
+    Node getNode();
+
+    /** Updates the node after the model has changed */
+    void update();
+  }
+
+  /** Uses the game's view classes with one node per element like <code>MainView</code> */
+  private static class NodeRenderer implements Renderer {
+
+    private final GameModel model;
+    private final Pane playfield = new Pane();
+    private final BrickLayoutView brickLayoutView = new BrickLayoutView();
+    private final Map<Ball, BallView> ballViews = new HashMap<>();
+    private final Map<LaserShot, LaserShotView> laserShotViews = new HashMap<>();
+    private final Map<PowerPill, PowerPillView> powerPillViews = new HashMap<>();
+
+    NodeRenderer(GameModel model) {
+      this.model = model;
+      playfield.setPrefSize(PLAYFIELD_WIDTH, PLAYFIELD_HEIGHT);
+      playfield.setStyle("-fx-background-color: black;");
+
+      final Rectangle paddle = new Rectangle();
+      paddle.getStyleClass().add("paddle");
+      paddle.xProperty().bind(ModelProperties.of(model.paddleXProperty()));
+      paddle.yProperty().bind(ModelProperties.of(model.paddleYProperty()));
+      paddle.widthProperty().bind(ModelProperties.of(model.paddleWidthProperty()));
+      paddle.heightProperty().bind(ModelProperties.of(model.paddleHeightProperty()));
+      playfield.getChildren().addAll(brickLayoutView, paddle);
+
+      model.getBallManager().addListener(ListListener.of(this::ballAdded, this::ballRemoved));
+      model
+          .getLaserShotManager()
+          .addListener(ListListener.of(this::laserShotAdded, this::laserShotRemoved));
+      model
+          .fallingPowerPillsProperty()
+          .addListener(ListListener.of(this::powerPillAdded, this::powerPillRemoved));
+    }
+
+    @Override
+    public Node getNode() {
+      return playfield;
+    }
+
+    @Override
+    public void update() {
+      brickLayoutView.draw(model.getBrickLayout());
+    }
+
+    private void ballAdded(Ball ball) {
+      final BallView view = new BallView(model, ball);
+      ballViews.put(ball, view);
+      playfield.getChildren().add(view);
+    }
+
+    private void ballRemoved(Ball ball) {
+      final BallView view = ballViews.remove(ball);
+      playfield.getChildren().remove(view);
+      view.removed();
+    }
+
+    private void laserShotAdded(LaserShot laserShot) {
+      final LaserShotView view = new LaserShotView(laserShot);
+      view.xProperty().bind(ModelProperties.of(laserShot.xProperty()));
+      view.yProperty().bind(ModelProperties.of(laserShot.yProperty()));
+      view.widthProperty().bind(ModelProperties.of(laserShot.widthProperty()));
+      view.heightProperty().bind(ModelProperties.of(laserShot.heightProperty()));
+      laserShotViews.put(laserShot, view);
+      playfield.getChildren().add(view);
+    }
+
+    private void laserShotRemoved(LaserShot laserShot) {
+      playfield.getChildren().remove(laserShotViews.remove(laserShot));
+    }
+
+    private void powerPillAdded(PowerPill pill) {
+      final PowerPillView view = new PowerPillView(pill);
+      powerPillViews.put(pill, view);
+      playfield.getChildren().add(view);
+    }
+
+    private void powerPillRemoved(PowerPill pill) {
+      final PowerPillView view = powerPillViews.remove(pill);
+      playfield.getChildren().remove(view);
+      view.removed();
+    }
+  }
+
+  /** Draws the whole playfield into a single canvas every frame */
+  private static class CanvasRenderer implements Renderer {
+
+    private final GameModel model;
+    private final Canvas canvas = new Canvas(PLAYFIELD_WIDTH, PLAYFIELD_HEIGHT);
+
+    CanvasRenderer(GameModel model) {
+      this.model = model;
+    }
+
+    @Override
+    public Node getNode() {
+      return canvas;
+    }
+
+    @Override
+    public void update() {
+      final GraphicsContext gc = canvas.getGraphicsContext2D();
+      gc.setFill(Color.BLACK);
+      gc.fillRect(0, 0, PLAYFIELD_WIDTH, PLAYFIELD_HEIGHT);
+
+      final BrickLayout layout = model.getBrickLayout();
+      final double brickWidth = layout.getBrickWidth();
+      final double brickHeight = layout.getBrickHeight();
+      gc.setStroke(Color.BLACK);
+      for (int row = 0; row < BrickLayout.ROWS; row++) {
+        for (int col = 0; col < BrickLayout.COLUMNS; col++) {
+          final Brick brick = layout.getBrick(row, col);
+          if (brick == null) continue;
+          gc.setFill(ModelColors.of(brick.getType()));
+          gc.fillRect(col * brickWidth, row * brickHeight, brickWidth, brickHeight);
+          gc.strokeRect(col * brickWidth, row * brickHeight, brickWidth, brickHeight);
+        }
+      }
+
+      gc.setFill(Color.DODGERBLUE);
+      gc.fillRoundRect(
+          model.paddleXProperty().get(),
+          model.paddleYProperty().get(),
+          model.paddleWidthProperty().get(),
+          model.paddleHeightProperty().get(),
+          20,
+          20);
+
+      for (Ball ball : model.getBallManager()) {
+        final double radius = ball.getRadius() + 2;
+        gc.fillOval(
+            ball.getCenterX() - radius, ball.getCenterY() - radius, 2 * radius, 2 * radius);
+      }
+
+      gc.setFill(Color.YELLOW);
+      for (LaserShot laserShot : model.getLaserShotManager()) {
+        gc.fillRect(
+            laserShot.getLeftBound(),
+            laserShot.getUpperBound(),
+            laserShot.getRightBound() - laserShot.getLeftBound(),
+            laserShot.getLowerBound() - laserShot.getUpperBound());
+      }
+
+      for (PowerPill pill : model.fallingPowerPillsProperty()) {
+        gc.setFill(ModelColors.of(pill.getPowerPillType()));
+        gc.fillRoundRect(pill.getX(), pill.getY(), pill.getWidth(), pill.getHeight(), 20, 20);
+      }
+    }
+  }
+
+  /** Frame times and node counts of the measured frames */
+  private static class Result {
+
+    private final List<Long> frameTimes = new ArrayList<>();
+    private long nodes;
+    private int maxNodes;
+
+    void add(long frameTime, int nodeCount) {
+      frameTimes.add(frameTime);
+      nodes += nodeCount;
+      maxNodes = Math.max(maxNodes, nodeCount);
+    }
+
+    /** @return the average number of nodes per frame */
+    double averageNodes() {
+      return (double) nodes / frameTimes.size();
+    }
+
+    /** @return the frame time in ms which p percent of the frames did not exceed */
+    double percentile(double p) {
+      final List<Long> sorted = new ArrayList<>(frameTimes);
+      sorted.sort(null);
+      final int index = (int) Math.ceil(p / 100 * sorted.size()) - 1;
+      return sorted.get(Math.max(0, index)) / 1e6;
+    }
+  }
+}
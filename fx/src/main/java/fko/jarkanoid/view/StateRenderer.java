@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.view;
+
+import fko.jarkanoid.model.BrickLayout;
+import fko.jarkanoid.model.BrickType;
+import fko.jarkanoid.model.PowerPillType;
+import fko.jarkanoid.spectator.SpectatorState;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * StateRenderer
+ *
+ * <p>Draws a <code>SpectatorState</code> with plain shapes in the colors of the game. Used where
+ * there is no model to bind the normal views to, e.g. by spectators and for the other player's
+ * board in a versus game.
+ *
+ * @author Frank Kopp
+ */
+public final class StateRenderer {
+
+  private static final BrickType[] BRICK_TYPES = BrickType.values();
+  private static final PowerPillType[] POWER_PILL_TYPES = PowerPillType.values();
+
+  private StateRenderer() {}
+
+  /**
+   * Draws a state onto a canvas of the size of the playfield.
+   *
+   * @param gc the graphics context of the canvas
+   * @param state the state to draw
+   */
+  public static void draw(GraphicsContext gc, SpectatorState state) {
+    final double width = state.getPlayfieldWidth();
+    final double height = state.getPlayfieldHeight();
+    gc.setFill(Color.BLACK);
+    gc.fillRect(0, 0, width, height);
+
+    // same brick sizes as the BrickLayout
+    final double brickWidth = width / BrickLayout.COLUMNS;
+    final double brickHeight = (height - height * 0.4) / BrickLayout.ROWS;
+    for (int row = 0; row < BrickLayout.ROWS; row++) {
+      for (int col = 0; col < BrickLayout.COLUMNS; col++) {
+        final int brick = state.getBrick(row, col);
+        if (brick == 0) continue;
+        gc.setFill(ModelColors.of(BRICK_TYPES[(brick & 0xf) - 1]));
+        gc.fillRect(col * brickWidth + 1, row * brickHeight + 1, brickWidth - 2, brickHeight - 2);
+      }
+    }
+
+    for (int i = 0; i < state.getPowerPills(); i++) {
+      gc.setFill(ModelColors.of(POWER_PILL_TYPES[state.getPowerPillType(i)]));
+      gc.fillRoundRect(
+          state.getPowerPillX(i),
+          state.getPowerPillY(i),
+          brickWidth,
+          brickHeight,
+          brickHeight,
+          brickHeight);
+    }
+
+    gc.setFill(Color.RED);
+    for (int i = 0; i < state.getLaserShots(); i++) {
+      gc.fillRect(state.getLaserShotX(i), state.getLaserShotY(i), 2, brickHeight / 2);
+    }
+
+    gc.setFill(Color.SILVER);
+    gc.fillRoundRect(
+        state.getPaddleX(),
+        state.getPaddleY(),
+        state.getPaddleWidth(),
+        state.getPaddleHeight(),
+        state.getPaddleHeight(),
+        state.getPaddleHeight());
+
+    gc.setFill(Color.WHITE);
+    final double radius = state.getBallRadius();
+    for (int i = 0; i < state.getBalls(); i++) {
+      gc.fillOval(state.getBallX(i) - radius, state.getBallY(i) - radius, 2 * radius, 2 * radius);
+    }
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.management;
+
+import fko.jarkanoid.model.CollisionSubstepMode;
+import fko.jarkanoid.model.GameModel;
+import fko.jarkanoid.model.HighScore;
+import fko.jarkanoid.model.SoundManager;
+import fko.jarkanoid.recorder.Recorder;
+import org.junit.jupiter.api.Test;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GameMonitorTest
+ *
+ * @author Frank Kopp
+ */
+class GameMonitorTest {
+
+  @Test
+  void attributesOverJmx() throws Exception {
+    final GameModel model = new GameModel(true);
+    model.setRecordSessions(false);
+    final Recorder recorder = new Recorder();
+    final GameMonitor monitor = GameMonitor.register(model, recorder);
+    assertNotNull(monitor);
+
+    model.startPlaying(4711);
+    for (int tick = 0; tick < 500 && model.isPlaying(); tick++) {
+      model.gameLoop();
+    }
+
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName name = new ObjectName(GameMonitor.OBJECT_NAME);
+    assertTrue(server.isRegistered(name));
+    assertEquals(true, server.getAttribute(name, "Playing"));
+    assertEquals(model.isIdle(), server.getAttribute(name, "Idle"));
+    assertEquals(1, server.getAttribute(name, "Level"));
+    assertEquals(model.getTicks(), server.getAttribute(name, "Ticks"));
+    assertEquals(1, server.getAttribute(name, "Balls"));
+    assertTrue((Long) server.getAttribute(name, "Events") > 0);
+    assertTrue(monitor.getEventCounts().containsKey("GAME_START"));
+
+    // writable attributes
+    server.setAttribute(name, new Attribute("CollisionSubstepMode", "PIXEL"));
+    assertEquals(CollisionSubstepMode.PIXEL, model.getCollisionSubstepMode());
+    server.setAttribute(name, new Attribute("RecorderPeriod", 40));
+    assertEquals(40, recorder.getPeriod());
+    server.setAttribute(name, new Attribute("RecordSessions", true));
+    assertTrue(model.isRecordSessions());
+    server.setAttribute(name, new Attribute("RecordSessions", false));
+
+    server.invoke(name, "resetStatistics", null, null);
+    assertEquals(0L, server.getAttribute(name, "Events"));
+
+    model.stopPlaying();
+    server.unregisterMBean(name);
+  }
+
+  @Test
+  void invalidValues() {
+    final GameMonitor monitor =
+        new GameMonitor(
+            new GameModel(true),
+            SoundManager.getInstance(),
+            new Recorder(),
+            HighScore.getInstance());
+    assertThrows(IllegalArgumentException.class, () -> monitor.setFrameRate(0));
+    assertThrows(IllegalArgumentException.class, () -> monitor.setCollisionSubstepMode("FAST"));
+    assertThrows(IllegalArgumentException.class, () -> monitor.setRecorderPeriod(0));
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package fko.jarkanoid.recorder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AviWriterTest
+ *
+ * @author Frank Kopp
+ */
+class AviWriterTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void writeMjpeg() throws Exception {
+    final Path file = tempDir.resolve("test.avi");
+    final JpegFrameEncoder encoder = new JpegFrameEncoder(0.75f);
+    final ReusableByteArrayOutputStream out = new ReusableByteArrayOutputStream(1024);
+
+    final int frames = 5;
+    try (AviWriter writer = new AviWriter(file, 64, 48, 32_000, AviWriter.MJPG)) {
+      for (int i = 0; i < frames; i++) {
+        final BufferedImage image = new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB);
+        final Graphics2D g = image.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(i * 10, 10, 10, 10);
+        g.dispose();
+        out.reset();
+        encoder.encode(image, out);
+        writer.writeFrame(out.buffer(), out.size());
+      }
+      assertEquals(frames, writer.getTotalFrames());
+    }
+
+    final ByteBuffer avi = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+    assertEquals("RIFF", fourcc(avi, 0));
+    assertEquals(avi.limit() - 8, avi.getInt(4));
+    assertEquals("AVI ", fourcc(avi, 8));
+    assertEquals("avih", fourcc(avi, 24));
+    assertEquals(32_000, avi.getInt(32));
+    assertEquals(frames, avi.getInt(48));
+    assertEquals(64, avi.getInt(64));
+    assertEquals(48, avi.getInt(68));
+    assertEquals("MJPG", fourcc(avi, 112));
+    assertEquals(frames, avi.getInt(140));
+    assertEquals("movi", fourcc(avi, 220));
+
+    // index follows the movi list and points to the frame chunks
+    final int moviStart = 220;
+    final int idx1 = moviStart + avi.getInt(216);
+    assertEquals("idx1", fourcc(avi, idx1));
+    assertEquals(16 * frames, avi.getInt(idx1 + 4));
+    for (int i = 0; i < frames; i++) {
+      final int entry = idx1 + 8 + 16 * i;
+      assertEquals("00dc", fourcc(avi, entry));
+      final int chunk = moviStart + avi.getInt(entry + 8);
+      assertEquals("00dc", fourcc(avi, chunk));
+      assertEquals(avi.getInt(entry + 12), avi.getInt(chunk + 4));
+      // JPEG start of image marker
+      assertEquals((byte) 0xFF, avi.get(chunk + 8));
+      assertEquals((byte) 0xD8, avi.get(chunk + 9));
+    }
+  }
+
+  @Test
+  void segmentPath() throws Exception {
+    try (AviWriter writer = new AviWriter(tempDir.resolve("rec.avi"), 8, 8, 1000, AviWriter.MJPG)) {
+      assertEquals(tempDir.resolve("rec.avi"), writer.getSegmentPath(1));
+      assertEquals(tempDir.resolve("rec-2.avi"), writer.getSegmentPath(2));
+    }
+  }
+
+  private static String fourcc(ByteBuffer buffer, int pos) {
+    final byte[] bytes = new byte[4];
+    for (int i = 0; i < 4; i++) bytes[i] = buffer.get(pos + i);
+    return new String(bytes, StandardCharsets.US_ASCII);
+  }
+}
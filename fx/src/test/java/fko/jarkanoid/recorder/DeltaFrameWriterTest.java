@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.recorder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DeltaFrameWriterTest
+ *
+ * @author Frank Kopp
+ */
+class DeltaFrameWriterTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void roundTrip() throws Exception {
+    final Path file = tempDir.resolve("test.jdf");
+    // size is no multiple of the tile size to cover the smaller border tiles
+    final int width = 100;
+    final int height = 70;
+    final Random random = new Random(42);
+
+    final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        image.setRGB(x, y, random.nextInt() & 0xFFFFFF);
+      }
+    }
+
+    final List<int[]> expected = new ArrayList<>();
+    try (DeltaFrameWriter writer = new DeltaFrameWriter(file, 20, 16, 4)) {
+      for (int i = 0; i < 10; i++) {
+        // a few changed pixels per frame and an unchanged frame
+        if (i != 5) {
+          for (int n = 0; n < 3; n++) {
+            final int rgb = random.nextInt() & 0xFFFFFF;
+            image.setRGB(random.nextInt(width), random.nextInt(height), rgb);
+          }
+        }
+        writer.write(image, null, 0);
+        expected.add(image.getRGB(0, 0, width, height, null, 0, width));
+      }
+      assertEquals(10, writer.getFrames());
+      assertEquals(3, writer.getKeyframes());
+      assertTrue(writer.getChangedTiles() <= 7 * 3);
+    }
+
+    // far less than the raw frames
+    assertTrue(Files.size(file) < 10L * width * height * 3 / 2);
+
+    try (DeltaFrameReader reader = new DeltaFrameReader(file)) {
+      assertEquals(width, reader.getWidth());
+      assertEquals(height, reader.getHeight());
+      assertEquals(20_000, reader.getMicroSecPerFrame());
+      for (int[] pixels : expected) {
+        final BufferedImage frame = reader.readFrame();
+        assertNotNull(frame);
+        assertArrayEquals(pixels, frame.getRGB(0, 0, width, height, null, 0, width));
+      }
+      assertNull(reader.readFrame());
+      assertEquals(10, reader.getFrames());
+    }
+
+    final Path video = tempDir.resolve("test.avi");
+    assertEquals(10, DeltaFrameExporter.export(file, video, 0.75f));
+    assertTrue(Files.size(video) > 0);
+  }
+}
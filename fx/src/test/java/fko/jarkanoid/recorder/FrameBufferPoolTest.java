@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.recorder;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FrameBufferPoolTest
+ *
+ * @author Frank Kopp
+ */
+class FrameBufferPoolTest {
+
+  @Test
+  void reuse() {
+    FrameBufferPool pool = new FrameBufferPool(64, 32, 2);
+    BufferedImage first = pool.acquire();
+    BufferedImage second = pool.acquire();
+    assertNotNull(first);
+    assertNotNull(second);
+    assertNotSame(first, second);
+    assertEquals(64, first.getWidth());
+    assertEquals(32, first.getHeight());
+    assertEquals(BufferedImage.TYPE_INT_RGB, first.getType());
+
+    // exhausted
+    assertNull(pool.acquire());
+    assertEquals(1, pool.getExhaustedCount());
+
+    pool.release(first);
+    assertSame(first, pool.acquire());
+    assertEquals(2, pool.getAllocatedFrames());
+
+    // foreign frames are ignored
+    pool.release(new BufferedImage(64, 32, BufferedImage.TYPE_INT_RGB));
+    assertEquals(0, pool.getFreeFrames());
+  }
+
+  @Test
+  void droppedFramesReturnToPool() throws InterruptedException {
+    FrameBufferPool pool = new FrameBufferPool(8, 8, 3);
+    FrameQueue<BufferedImage> queue = new FrameQueue<>(1, DropPolicy.DROP_OLDEST, pool::release);
+
+    for (int i = 0; i < 100; i++) {
+      BufferedImage frame = pool.acquire();
+      assertNotNull(frame);
+      queue.offer(frame);
+    }
+    assertEquals(99, queue.getDroppedFrames());
+    assertEquals(2, pool.getAllocatedFrames());
+
+    pool.release(queue.poll(0, TimeUnit.MILLISECONDS));
+    assertEquals(2, pool.getFreeFrames());
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package fko.jarkanoid.recorder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FrameQueueTest
+ *
+ * @author Frank Kopp
+ */
+class FrameQueueTest {
+
+  @Test
+  void dropOldest() throws InterruptedException {
+    FrameQueue<Integer> queue = new FrameQueue<>(3, DropPolicy.DROP_OLDEST);
+    for (int i = 1; i <= 5; i++) {
+      assertTrue(queue.offer(i));
+    }
+    assertEquals(3, queue.getDepth());
+    assertEquals(3, queue.getMaxDepth());
+    assertEquals(5, queue.getOfferedFrames());
+    assertEquals(2, queue.getDroppedFrames());
+    assertEquals(3, (int) queue.poll(0, TimeUnit.MILLISECONDS));
+    assertEquals(4, (int) queue.poll(0, TimeUnit.MILLISECONDS));
+    assertEquals(5, (int) queue.poll(0, TimeUnit.MILLISECONDS));
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  void dropNewest() throws InterruptedException {
+    FrameQueue<Integer> queue = new FrameQueue<>(3, DropPolicy.DROP_NEWEST);
+    for (int i = 1; i <= 5; i++) {
+      assertEquals(i <= 3, queue.offer(i));
+    }
+    assertEquals(3, queue.getDepth());
+    assertEquals(2, queue.getDroppedFrames());
+    assertEquals(1, (int) queue.poll(0, TimeUnit.MILLISECONDS));
+    assertEquals(2, (int) queue.poll(0, TimeUnit.MILLISECONDS));
+    assertEquals(3, (int) queue.poll(0, TimeUnit.MILLISECONDS));
+    assertNull(queue.poll(0, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void block() throws InterruptedException {
+    FrameQueue<Integer> queue = new FrameQueue<>(1, DropPolicy.BLOCK);
+    assertTrue(queue.offer(1));
+
+    CountDownLatch offered = new CountDownLatch(1);
+    Thread producer =
+        new Thread(
+            () -> {
+              try {
+                queue.offer(2);
+                offered.countDown();
+              } catch (InterruptedException ignore) {
+                // test failure is detected by the latch
+              }
+            });
+    producer.start();
+
+    // the producer must be blocked as long as the queue is full
+    assertFalse(offered.await(100, TimeUnit.MILLISECONDS));
+    assertEquals(1, (int) queue.poll(0, TimeUnit.MILLISECONDS));
+    assertTrue(offered.await(1, TimeUnit.SECONDS));
+    assertEquals(2, (int) queue.poll(0, TimeUnit.MILLISECONDS));
+    assertEquals(0, queue.getDroppedFrames());
+    producer.join();
+  }
+}
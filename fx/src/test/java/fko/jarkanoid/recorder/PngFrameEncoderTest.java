@@ -0,0 +1,82 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.recorder;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PngFrameEncoderTest
+ *
+ * @author Frank Kopp
+ */
+class PngFrameEncoderTest {
+
+  @Test
+  void lossless() throws Exception {
+    final BufferedImage frame = createFrame();
+    for (boolean indexed : new boolean[] {false, true}) {
+      final PngFrameEncoder encoder = new PngFrameEncoder(PngFrameEncoder.BEST_SPEED, indexed);
+      final ReusableByteArrayOutputStream out = new ReusableByteArrayOutputStream(1024);
+      encoder.encode(frame, out);
+
+      final BufferedImage decoded =
+          ImageIO.read(new ByteArrayInputStream(out.buffer(), 0, out.size()));
+      assertEquals(frame.getWidth(), decoded.getWidth());
+      assertEquals(frame.getHeight(), decoded.getHeight());
+      for (int y = 0; y < frame.getHeight(); y++) {
+        for (int x = 0; x < frame.getWidth(); x++) {
+          assertEquals(frame.getRGB(x, y), decoded.getRGB(x, y), "Pixel " + x + "," + y);
+        }
+      }
+    }
+  }
+
+  @Test
+  void invalidCompression() {
+    assertThrows(IllegalArgumentException.class, () -> new PngFrameEncoder(0, false));
+    assertThrows(IllegalArgumentException.class, () -> new PngFrameEncoder(10, false));
+  }
+
+  private static BufferedImage createFrame() {
+    final BufferedImage frame = new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB);
+    final Graphics2D g = frame.createGraphics();
+    g.setColor(Color.BLUE);
+    g.fillRect(0, 0, 64, 48);
+    g.setColor(Color.ORANGE);
+    g.fillRect(4, 4, 20, 10);
+    g.setColor(Color.WHITE);
+    g.fillOval(30, 20, 8, 8);
+    g.dispose();
+    return frame;
+  }
+}
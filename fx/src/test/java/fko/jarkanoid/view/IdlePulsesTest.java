@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Frank Kopp
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package fko.jarkanoid.view;
+
+import fko.jarkanoid.FxPlatform;
+import fko.jarkanoid.controller.MainController;
+import fko.jarkanoid.model.GameModel;
+import fko.jarkanoid.model.SoundManager;
+import fko.jarkanoid.model.TrackingPaddleController;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.layout.Pane;
+import javafx.scene.text.Text;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * IdlePulsesTest
+ *
+ * <p>Counts the pulses of the scene of the game - JavaFX only pulses while something animates or
+ * changes. Needs the headless Monocle platform: <code>mvn -Pheadless test</code>.
+ *
+ * @author Frank Kopp
+ */
+class IdlePulsesTest {
+
+  // more than a few pulses in this time means an animation keeps running
+  private static final long MEASURE_MILLIS = 1_000;
+  private static final int MAX_IDLE_PULSES = 5;
+
+  @BeforeAll
+  static void startPlatform() {
+    FxPlatform.useHeadlessPlatformIfAvailable();
+    assumeTrue(
+        "Monocle".equals(System.getProperty("glass.platform")), "Needs the headless profile");
+    try {
+      Platform.startup(() -> {});
+    } catch (IllegalStateException e) {
+      // already started
+    }
+    assumeTrue(canRenderText(), "No native font rendering (pango) on this machine");
+  }
+
+  /** @return true if JavaFX finds the native libraries to render text */
+  private static boolean canRenderText() {
+    try {
+      return FxPlatform.callAndWait(
+          () -> new Scene(new Pane(new Text("Jarkanoid"))).snapshot(null) != null);
+    } catch (Throwable t) {
+      return false;
+    }
+  }
+
+  @Test
+  void noPulsesAfterAGameWithPowerPills() throws Exception {
+    final GameModel model = new GameModel(true);
+    final AtomicInteger pulses = new AtomicInteger();
+    FxPlatform.callAndWait(
+        () -> {
+          SoundManager.getInstance().soundOff();
+          final MainController controller = new MainController(model);
+          final MainView view = new MainView(model, controller);
+          final Scene scene = new Scene(view.asParent());
+          scene.addPostLayoutPulseListener(pulses::incrementAndGet);
+          final Stage stage = new Stage();
+          stage.setScene(scene);
+          stage.show();
+          controller.bindModelToView(view);
+          model.setPaddleController(new TrackingPaddleController());
+          model.startPlaying(4711);
+          return null;
+        });
+
+    // play until power pills are falling
+    final int[] pills = new int[1];
+    FxPlatform.callAndWait(
+        () -> {
+          for (int tick = 0; tick < 50_000 && model.fallingPowerPillsProperty().isEmpty(); tick++) {
+            model.gameLoop();
+          }
+          pills[0] = model.fallingPowerPillsProperty().size();
+          return null;
+        });
+    assertTrue(pills[0] > 0, "No power pill fell");
+    assertTrue(countPulses(pulses) > MAX_IDLE_PULSES, "The falling pill does not animate");
+
+    FxPlatform.callAndWait(
+        () -> {
+          model.pausePlaying();
+          return null;
+        });
+    assertTrue(countPulses(pulses) <= MAX_IDLE_PULSES, "Animations run while paused");
+
+    FxPlatform.callAndWait(
+        () -> {
+          model.resumePlaying();
+          model.stopPlaying();
+          return null;
+        });
+    assertTrue(model.isIdle());
+    assertTrue(countPulses(pulses) <= MAX_IDLE_PULSES, "Animations run after the game");
+  }
+
+  /** @return pulses during the measuring time after the pending transitions have ended */
+  private static int countPulses(AtomicInteger pulses) throws InterruptedException {
+    Thread.sleep(300);
+    final int start = pulses.get();
+    Thread.sleep(MEASURE_MILLIS);
+    return pulses.get() - start;
+  }
+}